@@ -22,7 +22,6 @@
 package org.isf.accounting.gui;
 
 import static org.isf.utils.Constants.DATE_FORMAT_DD_MM_YY;
-import static org.isf.utils.Constants.DATE_FORMAT_DD_MM_YY_HH_MM_SS;
 import static org.isf.utils.Constants.DATE_TIME_FORMATTER;
 
 import java.awt.AWTEvent;
@@ -42,12 +41,20 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.List;
 import java.util.Locale;
-import java.util.stream.Collectors;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 import java.util.stream.IntStream;
 
 import javax.swing.BoxLayout;
@@ -62,14 +69,14 @@ import javax.swing.JScrollPane;
 import javax.swing.JTabbedPane;
 import javax.swing.JTable;
 import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.WindowConstants;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.DefaultTableModel;
 
 import org.isf.accounting.gui.PatientBillEdit.PatientBillListener;
-import org.isf.accounting.gui.totals.BalanceTotal;
-import org.isf.accounting.gui.totals.PaymentsTotal;
-import org.isf.accounting.gui.totals.UserTotal;
+import org.isf.accounting.gui.totals.BillTotals;
 import org.isf.accounting.manager.BillBrowserManager;
 import org.isf.accounting.model.Bill;
 import org.isf.accounting.model.BillPayments;
@@ -87,6 +94,7 @@ import org.isf.stat.gui.report.GenericReportFromDateToDate;
 import org.isf.stat.gui.report.GenericReportPatient;
 import org.isf.stat.gui.report.GenericReportUserInDate;
 import org.isf.utils.exception.OHServiceException;
+import org.isf.utils.jobjects.BackgroundTasks;
 import org.isf.utils.jobjects.CustomJDateChooser;
 import org.isf.utils.jobjects.MessageDialog;
 import org.isf.utils.jobjects.ModalJFrame;
@@ -106,22 +114,12 @@ import com.toedter.calendar.JYearChooser;
 public class BillBrowser extends ModalJFrame implements PatientBillListener {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(BillBrowser.class);
+	private static final Font BOLD_FONT = new Font(null, Font.BOLD, 12);
 
 	@Override
 	public void billInserted(AWTEvent event) {
-		if (patientParent != null) {
-			try {
-				updateDataSet(dateFrom, dateTo, patientParent);
-			} catch (OHServiceException ohServiceException) {
-				LOGGER.error(ohServiceException.getMessage(), ohServiceException);
-			}
-		} else {
-			updateDataSet(dateFrom, dateTo);
-		}
-		updateTables();
-		updateTotals();
-		if (event != null) {
-			Bill billInserted = (Bill) event.getSource();
+		Bill billInserted = event != null ? (Bill) event.getSource() : null;
+		updateDataSet(dateFrom, dateTo, patientParent, () -> {
 			if (billInserted != null) {
 				int insertedId = billInserted.getId();
 				IntStream.range(0, jTableBills.getRowCount()).forEach(i -> {
@@ -131,6 +129,8 @@ public class BillBrowser extends ModalJFrame implements PatientBillListener {
 					}
 				});
 			}
+		});
+		if (event != null) {
 			if (!isSingleUser && MainMenu.checkUserGrants("cashiersfilter")) {
 				if (!users.contains(user)) {
 					jComboUsers.addItem(user);
@@ -206,14 +206,16 @@ public class BillBrowser extends ModalJFrame implements PatientBillListener {
 	private BigDecimal balancePeriod;
 	private BigDecimal userToday;
 	private BigDecimal userPeriod;
+	private BillTotals totals;
+	private SwingWorker<BillTotals, Void> totalsWorker;
 	private int month;
 	private int year;
 
 	//Bills & Payments
 	private BillBrowserManager billManager = new BillBrowserManager(Context.getApplicationContext().getBean(AccountingIoOperations.class));
-	private List<Bill> billPeriod;
-	private List<BillPayments> paymentsPeriod;
-	private List<Bill> billFromPayments;
+	private BillDataSet dataSet = BillDataSet.EMPTY;
+	private List<Future<?>> dataSetQueries = Collections.emptyList();
+	private long dataSetGeneration;
 
 	private String currencyCod;
 
@@ -234,11 +236,11 @@ public class BillBrowser extends ModalJFrame implements PatientBillListener {
 		} catch (OHServiceException ohServiceException) {
 			MessageDialog.showExceptions(ohServiceException);
 		}
-		updateDataSet();
 		initComponents();
 		setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
 		setLocationRelativeTo(null);
 		setVisible(true);
+		updateDataSet();
 	}
 
 	private void initComponents() {
@@ -252,7 +254,8 @@ public class BillBrowser extends ModalJFrame implements PatientBillListener {
 			@Override
 			public void windowClosing(WindowEvent e) {
 				//to free memory
-				billPeriod.clear();
+				cancelUpdates();
+				dataSet = BillDataSet.EMPTY;
 				users.clear();
 				dispose();
 			}
@@ -279,7 +282,6 @@ public class BillBrowser extends ModalJFrame implements PatientBillListener {
 			if (!isSingleUser) {
 				jPanelTotals.add(getJTableUser());
 			}
-			updateTotals();
 		}
 		return jPanelTotals;
 	}
@@ -479,7 +481,8 @@ public class BillBrowser extends ModalJFrame implements PatientBillListener {
 			jButtonClose.setMnemonic(MessageBundle.getMnemonic("angal.common.close.btn.key"));
 			jButtonClose.addActionListener(actionEvent -> {
 				//to free memory
-				billPeriod.clear();
+				cancelUpdates();
+				dataSet = BillDataSet.EMPTY;
 				users.clear();
 				dispose();
 			});
@@ -650,23 +653,6 @@ public class BillBrowser extends ModalJFrame implements PatientBillListener {
 		return jButtonPrintReceipt;
 	}
 
-	private void updateDataSet(LocalDateTime dateFrom, LocalDateTime dateTo, Patient patient) throws OHServiceException {
-		/*
-		 * Bills in the period
-		 */
-		billPeriod = billManager.getBills(dateFrom, dateTo, patient);
-
-		/*
-		 * Payments in the period
-		 */
-		paymentsPeriod = billManager.getPayments(dateFrom, dateTo, patient);
-
-		/*
-		 * Bills not in the period but with payments in the period
-		 */
-		billFromPayments = billManager.getBills(paymentsPeriod);
-	}
-
 	private JButton getJButtonNew() {
 		if (jButtonNew == null) {
 			jButtonNew = new JButton(MessageBundle.getMessage("angal.billbrowser.newbill.btn"));
@@ -828,9 +814,7 @@ public class BillBrowser extends ModalJFrame implements PatientBillListener {
 			if (medicalJTextField != null) {
 				medicalJTextField.setText("");
 			}
-			updateDataSet(dateFrom, dateTo, patientParent);
-			updateTables();
-			updateTotals();
+			updateDataSet(dateFrom, dateTo, patientParent, null);
 		}
 	}
 
@@ -857,7 +841,8 @@ public class BillBrowser extends ModalJFrame implements PatientBillListener {
 			jComboUsers.addActionListener(actionEvent -> {
 				user = (String) jComboUsers.getSelectedItem();
 				jTableUser.setValueAt("<html><b>" + user + "</b></html>", 0, 0);
-				updateTotals();
+				// per user totals are already available
+				showTotals();
 			});
 		}
 		return jComboUsers;
@@ -1116,84 +1101,165 @@ public class BillBrowser extends ModalJFrame implements PatientBillListener {
 	}
 
 	private void updateTables() {
-		jTableBills.setModel(new BillTableModel("ALL")); //$NON-NLS-1$
-		jTablePending.setModel(new BillTableModel("O")); //$NON-NLS-1$
-		jTableClosed.setModel(new BillTableModel("C")); //$NON-NLS-1$
+		((BillTableModel) jTableBills.getModel()).fireTableDataChanged();
+		((BillTableModel) jTablePending.getModel()).fireTableDataChanged();
+		((BillTableModel) jTableClosed.getModel()).fireTableDataChanged();
 	}
 
 	private void updateDataSet() {
-		updateDataSet(LocalDate.now().atStartOfDay(), LocalDate.now().plusDays(1).atStartOfDay());
+		updateDataSet(LocalDate.now().atStartOfDay(), LocalDate.now().plusDays(1).atStartOfDay(), null, null);
 	}
 
-	private void updateDataSet(LocalDateTime dateFrom, LocalDateTime dateTo) {
-		try {
-			/*
-			 * Bills in the period
-			 */
-			billPeriod = billManager.getBills(dateFrom, dateTo);
-		} catch (OHServiceException ohServiceException) {
-			MessageDialog.showExceptions(ohServiceException);
-		}
+	/*
+	 * Loads the bills in the background: bills and payments are queried concurrently, then
+	 * the bills not in the period but with payments in the period. The result replaces the
+	 * shared snapshot at once; a newer request (i.e. another range) discards the one still running.
+	 * The queries are never interrupted, as that could break their database connection.
+	 */
+	private void updateDataSet(LocalDateTime dateFrom, LocalDateTime dateTo, Patient patient, Runnable onLoaded) {
+		cancelDataSet();
+		long requested = dataSetGeneration;
+		Executor executor = BackgroundTasks.getExecutor();
+		/*
+		 * Bills in the period
+		 */
+		CompletableFuture<List<Bill>> billPeriod = CompletableFuture.supplyAsync(query(() -> patient != null ?
+				billManager.getBills(dateFrom, dateTo, patient) : billManager.getBills(dateFrom, dateTo)), executor);
+		/*
+		 * Payments in the period and bills not in the period but with payments in the period
+		 */
+		CompletableFuture<List<BillPayments>> paymentsPeriod = CompletableFuture.supplyAsync(query(() -> patient != null ?
+				billManager.getPayments(dateFrom, dateTo, patient) : billManager.getPayments(dateFrom, dateTo)), executor);
+		CompletableFuture<List<Bill>> billFromPayments = paymentsPeriod.thenApplyAsync(payments ->
+				query(() -> billManager.getBills(payments)).get(), executor);
+		CompletableFuture<List<Bill>> pendingAffiliate = CompletableFuture.supplyAsync(query(() -> patient != null ?
+				billManager.getPendingBillsAffiliate(patient.getCode()) : null), executor);
+		dataSetQueries = Arrays.asList(billPeriod, paymentsPeriod, billFromPayments, pendingAffiliate);
+		CompletableFuture.allOf(billPeriod, paymentsPeriod, billFromPayments, pendingAffiliate)
+				.thenApply(ignored -> new BillDataSet(billPeriod.join(), paymentsPeriod.join(), billFromPayments.join(), pendingAffiliate.join()))
+				.whenComplete((loaded, error) -> SwingUtilities.invokeLater(() -> dataSetDone(requested, loaded, error, onLoaded)));
+	}
 
-		try {
-			/*
-			 * Payments in the period
-			 */
-			paymentsPeriod = billManager.getPayments(dateFrom, dateTo);
-		} catch (OHServiceException ohServiceException) {
-			MessageDialog.showExceptions(ohServiceException);
+	private void dataSetDone(long requested, BillDataSet loaded, Throwable error, Runnable onLoaded) {
+		if (requested != dataSetGeneration) {
+			return;
 		}
+		dataSetQueries = Collections.emptyList();
+		if (error != null) {
+			showLoadingError(error);
+		} else {
+			dataSet = loaded;
+			updateTables();
+			if (onLoaded != null) {
+				onLoaded.run();
+			}
+		}
+		updateTotals();
+	}
 
-		try {
-			/*
-			 * Bills not in the period but with payments in the period
-			 */
-			billFromPayments = billManager.getBills(paymentsPeriod);
-		} catch (OHServiceException ohServiceException) {
-			MessageDialog.showExceptions(ohServiceException);
+	/*
+	 * Discards the running load: the queries not started yet are skipped, the others complete unnoticed
+	 */
+	private void cancelDataSet() {
+		dataSetGeneration++;
+		for (Future<?> dataSetQuery : dataSetQueries) {
+			dataSetQuery.cancel(false);
 		}
+		dataSetQueries = Collections.emptyList();
 	}
 
-	private void updateTotals() {
-		List<Bill> billToday = null;
-		List<BillPayments> paymentsToday = null;
-		if (UserBrowsingManager.getCurrentUser().equals("admin")) {
+	/*
+	 * Adapts a manager call to CompletableFuture, which only accepts unchecked exceptions
+	 */
+	private static <T> Supplier<T> query(Callable<T> call) {
+		return () -> {
 			try {
-				billToday = billManager.getBills(dateToday0, dateToday24);
-				paymentsToday = billManager.getPayments(dateToday0, dateToday24);
-			} catch (OHServiceException ohServiceException) {
-				MessageDialog.showExceptions(ohServiceException);
+				return call.call();
+			} catch (RuntimeException runtimeException) {
+				throw runtimeException;
+			} catch (Exception exception) {
+				throw new CompletionException(exception);
 			}
+		};
+	}
+
+	private void showLoadingError(Throwable error) {
+		Throwable cause = error;
+		while ((cause instanceof ExecutionException || cause instanceof CompletionException) && cause.getCause() != null) {
+			cause = cause.getCause();
+		}
+		if (cause instanceof OHServiceException) {
+			MessageDialog.showExceptions((OHServiceException) cause);
 		} else {
-			billToday = billPeriod;
-			paymentsToday = paymentsPeriod;
+			LOGGER.error("Error loading bills: ", cause);
 		}
+	}
 
-		totalPeriod = new BigDecimal(0);
-		balancePeriod = new BigDecimal(0);
-		totalToday = new BigDecimal(0);
-		balanceToday = new BigDecimal(0);
-		userToday = new BigDecimal(0);
-		userPeriod = new BigDecimal(0);
+	private void cancelUpdates() {
+		cancelDataSet();
+		if (totalsWorker != null) {
+			totalsWorker.cancel(false);
+		}
+	}
 
-		List<Integer> notDeletedBills = billPeriod.stream()
-				.filter(bill -> !bill.getStatus().equals("D"))
-				.map(Bill::getId)
-				.collect(Collectors.toList());
+	/*
+	 * Totals are computed off the EDT; a newer request cancels the one still running
+	 */
+	private void updateTotals() {
+		if (totalsWorker != null) {
+			totalsWorker.cancel(false);
+		}
+		List<Bill> bills = dataSet.getBillPeriod();
+		List<BillPayments> payments = dataSet.getPaymentsPeriod();
+		boolean loadToday = UserBrowsingManager.getCurrentUser().equals("admin");
+		totalsWorker = new SwingWorker<BillTotals, Void>() {
 
-		// Bills in range contribute for Not Paid (balance)
-		balancePeriod = new BalanceTotal(billPeriod).getValue();
+			@Override
+			protected BillTotals doInBackground() throws OHServiceException {
+				List<Bill> billToday = bills;
+				List<BillPayments> paymentsToday = payments;
+				if (loadToday) {
+					billToday = billManager.getBills(dateToday0, dateToday24);
+					paymentsToday = billManager.getPayments(dateToday0, dateToday24);
+				}
+				return BillTotals.calculate(bills, payments, billToday, paymentsToday);
+			}
 
-		// Bills in today contribute for Not Paid Today (balance)
-		balanceToday = new BalanceTotal(billToday).getValue();
+			@Override
+			protected void done() {
+				if (isCancelled()) {
+					return;
+				}
+				try {
+					totals = get();
+					showTotals();
+				} catch (InterruptedException interruptedException) {
+					Thread.currentThread().interrupt();
+				} catch (ExecutionException executionException) {
+					if (executionException.getCause() instanceof OHServiceException) {
+						MessageDialog.showExceptions((OHServiceException) executionException.getCause());
+					} else {
+						LOGGER.error("Error computing totals: ", executionException.getCause());
+					}
+				}
+			}
+		};
+		totalsWorker.execute();
+	}
 
-		// Payments in range contribute for Paid Period (total)
-		userPeriod = new UserTotal(notDeletedBills, paymentsPeriod, user).getValue();
-		totalPeriod = new PaymentsTotal(notDeletedBills, paymentsPeriod).getValue();
+	private void showTotals() {
+		if (totals == null) {
+			return;
+		}
+		// Bills in range contribute for Not Paid (balance), payments for Paid Period (total)
+		totalPeriod = totals.getTotalPeriod();
+		balancePeriod = totals.getBalancePeriod();
+		userPeriod = totals.getUserPeriod(user);
 
-		// Payments in today contribute for Paid Today (total)
-		userToday = new UserTotal(notDeletedBills, paymentsToday, user).getValue();
-		totalToday = new PaymentsTotal(notDeletedBills, paymentsToday).getValue();
+		// Bills and payments in today contribute for Not Paid Today and Paid Today
+		totalToday = totals.getTotalToday();
+		balanceToday = totals.getBalanceToday();
+		userToday = totals.getUserToday(user);
 
 		jTableToday.setValueAt(totalToday, 0, 2);
 		jTableToday.setValueAt(balanceToday, 0, 5);
@@ -1205,24 +1271,27 @@ public class BillBrowser extends ModalJFrame implements PatientBillListener {
 		}
 	}
 
+	/*
+	 * A view over the current BillDataSet: the snapshot is shared by all tabs
+	 */
 	public class BillTableModel extends DefaultTableModel {
 
 		private static final long serialVersionUID = 1L;
-		private List<Bill> tableArray = new ArrayList<>();
+		private final String status;
 
 		/*
 		 * All Bills
 		 */
 		public BillTableModel(String status) {
-			loadData(status);
+			this.status = status;
 		}
 
-		private void loadData(String status) {
-			try {
-				tableArray = new BillDataLoader(billPeriod, billFromPayments, patientParent, billManager).loadBills(status);
-			} catch (OHServiceException ohServiceException) {
-				LOGGER.error("BillDataLoader error: ", ohServiceException);
-			}
+		private List<BillRow> getRows() {
+			return dataSet.getRows(status);
+		}
+
+		public BillRow getRow(int r) {
+			return getRows().get(r);
 		}
 
 		@Override
@@ -1242,16 +1311,17 @@ public class BillBrowser extends ModalJFrame implements PatientBillListener {
 
 		@Override
 		public int getRowCount() {
-			if (tableArray == null) {
+			if (status == null) {
 				return 0;
 			}
-			return tableArray.size();
+			return getRows().size();
 		}
 
 		@Override
 		public Object getValueAt(int r, int c) {
 			int index = -1;
-			Bill thisBill = tableArray.get(r);
+			BillRow row = getRow(r);
+			Bill thisBill = row.getBill();
 			if (c == index) {
 				return thisBill;
 			}
@@ -1262,11 +1332,10 @@ public class BillBrowser extends ModalJFrame implements PatientBillListener {
 				return thisBill.getId();
 			}
 			if (c == ++index) {
-				return TimeTools.formatDateTime(thisBill.getDate(), DATE_FORMAT_DD_MM_YY_HH_MM_SS);
+				return row.getDate();
 			}
 			if (c == ++index) {
-				int patID = thisBill.getBillPatient().getCode();
-				return patID == 0 ? "" : String.valueOf(patID);
+				return row.getPatientId();
 			}
 			if (c == ++index) {
 				return thisBill.getPatName();
@@ -1275,7 +1344,7 @@ public class BillBrowser extends ModalJFrame implements PatientBillListener {
 				return thisBill.getAmount();
 			}
 			if (c == ++index) {
-				return TimeTools.formatDateTime(thisBill.getUpdate(), DATE_FORMAT_DD_MM_YY_HH_MM_SS);
+				return row.getLastPayment();
 			}
 			if (c == ++index) {
 				return thisBill.getStatus();
@@ -1300,11 +1369,11 @@ public class BillBrowser extends ModalJFrame implements PatientBillListener {
 	}
 
 	private void formatCellByBillStatus(JTable table, int row, Component cell) {
-		int statusColumn = table.getColumnModel().getColumnIndex(MessageBundle.getMessage("angal.common.status.txt").toUpperCase());
-		if ((table.getValueAt(row, statusColumn)).equals("C")) { //$NON-NLS-1$
+		BillRow billRow = ((BillTableModel) table.getModel()).getRow(table.convertRowIndexToModel(row));
+		if (billRow.isClosed()) {
 			cell.setForeground(Color.GRAY);
 		}
-		if ((table.getValueAt(row, statusColumn)).equals("D")) { //$NON-NLS-1$
+		if (billRow.isDeleted()) {
 			cell.setForeground(Color.RED);
 		}
 	}
@@ -1347,7 +1416,7 @@ public class BillBrowser extends ModalJFrame implements PatientBillListener {
 
 			Component cell = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
 			cell.setForeground(Color.BLACK);
-			cell.setFont(new Font(null, Font.BOLD, 12));
+			cell.setFont(BOLD_FONT);
 			setHorizontalAlignment(CENTER);
 			formatCellByBillStatus(table, row, cell);
 			return cell;
@@ -1379,7 +1448,7 @@ public class BillBrowser extends ModalJFrame implements PatientBillListener {
 			Component cell = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
 			cell.setForeground(Color.BLACK);
 			setHorizontalAlignment(CENTER);
-			cell.setFont(new Font(null, Font.BOLD, 12));
+			cell.setFont(BOLD_FONT);
 			formatCellByBillStatus(table, row, cell);
 			return cell;
 		}
@@ -0,0 +1,162 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.accounting.gui;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.isf.accounting.model.Bill;
+import org.isf.accounting.model.BillPayments;
+
+/**
+ * Immutable snapshot of the data shown by the BillBrowser for a range of dates.
+ * <p>
+ * The All, Pending and Closed views are computed once when the snapshot is built
+ * (most recent bills first) and shared by the tables and the totals, together with
+ * the {@link BillRow}s displayed by the tables.
+ */
+public class BillDataSet {
+
+	public static final BillDataSet EMPTY = new BillDataSet(null, null, null, null);
+
+	private final List<Bill> billPeriod;
+	private final List<BillPayments> paymentsPeriod;
+	private final List<Bill> billFromPayments;
+	private final List<Bill> allBills;
+	private final List<Bill> pendingBills;
+	private final List<Bill> closedBills;
+	private final List<BillRow> allRows;
+	private final List<BillRow> pendingRows;
+	private final List<BillRow> closedRows;
+
+	/**
+	 * @param billPeriod - the bills in the period
+	 * @param paymentsPeriod - the payments in the period
+	 * @param billFromPayments - the bills not in the period but with payments in the period
+	 * @param pendingAffiliate - the pending bills of the selected patient, {@code null} to take the pending bills of the period
+	 */
+	public BillDataSet(List<Bill> billPeriod, List<BillPayments> paymentsPeriod, List<Bill> billFromPayments, List<Bill> pendingAffiliate) {
+		this.billPeriod = unmodifiable(billPeriod);
+		this.paymentsPeriod = unmodifiable(paymentsPeriod);
+		this.billFromPayments = unmodifiable(billFromPayments);
+
+		List<Bill> sortedPeriod = new ArrayList<>(this.billPeriod);
+		sortedPeriod.sort(Collections.reverseOrder());
+		List<Bill> closed = new ArrayList<>();
+		List<Bill> pending = new ArrayList<>();
+		Set<Integer> periodIds = new HashSet<>();
+		for (Bill bill : sortedPeriod) {
+			periodIds.add(bill.getId());
+			if ("C".equals(bill.getStatus())) {
+				closed.add(bill);
+			} else if ("O".equals(bill.getStatus())) {
+				pending.add(bill);
+			}
+		}
+		if (pendingAffiliate != null) {
+			pending = new ArrayList<>(pendingAffiliate);
+			pending.sort(Collections.reverseOrder());
+		}
+
+		List<Bill> all = new ArrayList<>(this.billPeriod);
+		for (Bill bill : this.billFromPayments) {
+			if (periodIds.add(bill.getId())) {
+				all.add(bill);
+			}
+		}
+		all.sort(Collections.reverseOrder());
+
+		this.allBills = Collections.unmodifiableList(all);
+		this.pendingBills = Collections.unmodifiableList(pending);
+		this.closedBills = Collections.unmodifiableList(closed);
+
+		// a bill appears in more views but is formatted once
+		Map<Bill, BillRow> rows = new IdentityHashMap<>();
+		this.allRows = toRows(allBills, rows);
+		this.pendingRows = toRows(pendingBills, rows);
+		this.closedRows = toRows(closedBills, rows);
+	}
+
+	private static List<BillRow> toRows(List<Bill> bills, Map<Bill, BillRow> rows) {
+		List<BillRow> rowList = new ArrayList<>(bills.size());
+		for (Bill bill : bills) {
+			rowList.add(rows.computeIfAbsent(bill, BillRow::new));
+		}
+		return Collections.unmodifiableList(rowList);
+	}
+
+	private static <T> List<T> unmodifiable(List<T> list) {
+		return list == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(list));
+	}
+
+	public List<Bill> getBillPeriod() {
+		return billPeriod;
+	}
+
+	public List<BillPayments> getPaymentsPeriod() {
+		return paymentsPeriod;
+	}
+
+	public List<Bill> getBillFromPayments() {
+		return billFromPayments;
+	}
+
+	/**
+	 * @param status - "ALL", "O" (pending) or "C" (closed)
+	 * @return the bills of the view, most recent first
+	 */
+	public List<Bill> getBills(String status) {
+		switch (status) {
+			case "O":
+				return pendingBills;
+			case "C":
+				return closedBills;
+			case "ALL":
+				return allBills;
+			default:
+				return Collections.emptyList();
+		}
+	}
+
+	/**
+	 * @param status - "ALL", "O" (pending) or "C" (closed)
+	 * @return the rows of the view, in the same order as {@link #getBills(String)}
+	 */
+	public List<BillRow> getRows(String status) {
+		switch (status) {
+			case "O":
+				return pendingRows;
+			case "C":
+				return closedRows;
+			case "ALL":
+				return allRows;
+			default:
+				return Collections.emptyList();
+		}
+	}
+
+}
@@ -183,6 +183,7 @@ public class BillItemPicker extends javax.swing.JPanel {
 		gbcTextFieldFind.gridy = 0;
 		jPanel3.add(jTextFieldFind, gbcTextFieldFind);
 
+		// filtered synchronously (not with a DebouncedFilter): the list is already in memory and ENTER must select from the rows of the typed text
 		jTextFieldFind.getDocument().addDocumentListener(new DocumentListener() {
 
 			@Override
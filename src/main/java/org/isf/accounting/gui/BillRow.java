@@ -0,0 +1,83 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.accounting.gui;
+
+import static org.isf.utils.Constants.DATE_FORMAT_DD_MM_YY_HH_MM_SS;
+
+import java.time.LocalDateTime;
+
+import org.isf.accounting.model.Bill;
+import org.isf.patient.model.Patient;
+import org.isf.utils.time.TimeTools;
+
+/**
+ * The values shown for a {@link Bill} in the BillBrowser tables, formatted once when the bills are loaded
+ * instead of at each repaint.
+ */
+public class BillRow {
+
+	private final Bill bill;
+	private final String date;
+	private final String patientId;
+	private final String lastPayment;
+
+	public BillRow(Bill bill) {
+		this.bill = bill;
+		this.date = format(bill.getDate());
+		Patient patient = bill.getBillPatient();
+		Integer patID = patient == null ? null : patient.getCode();
+		this.patientId = patID == null || patID == 0 ? "" : String.valueOf(patID);
+		this.lastPayment = format(bill.getUpdate());
+	}
+
+	private static String format(LocalDateTime dateTime) {
+		return dateTime == null ? "" : TimeTools.formatDateTime(dateTime, DATE_FORMAT_DD_MM_YY_HH_MM_SS);
+	}
+
+	public Bill getBill() {
+		return bill;
+	}
+
+	public String getDate() {
+		return date;
+	}
+
+	public String getPatientId() {
+		return patientId;
+	}
+
+	public String getLastPayment() {
+		return lastPayment;
+	}
+
+	public String getStatus() {
+		return bill.getStatus();
+	}
+
+	public boolean isClosed() {
+		return "C".equals(bill.getStatus());
+	}
+
+	public boolean isDeleted() {
+		return "D".equals(bill.getStatus());
+	}
+}
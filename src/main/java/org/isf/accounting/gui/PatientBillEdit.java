@@ -40,12 +40,9 @@ import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
 import java.util.EventListener;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import javax.swing.Box;
 import javax.swing.BoxLayout;
@@ -85,10 +82,9 @@ import org.isf.patient.gui.SelectPatient;
 import org.isf.patient.gui.SelectPatient.SelectionListener;
 import org.isf.patient.manager.PatientBrowserManager;
 import org.isf.patient.model.Patient;
-import org.isf.priceslist.manager.PriceListManager;
+import org.isf.priceslist.gui.PriceCatalogue;
 import org.isf.priceslist.model.Price;
 import org.isf.priceslist.model.PriceList;
-import org.isf.pricesothers.manager.PricesOthersManager;
 import org.isf.pricesothers.model.PricesOthers;
 import org.isf.stat.gui.report.GenericReportBill;
 import org.isf.utils.exception.OHServiceException;
@@ -294,12 +290,11 @@ public class PatientBillEdit extends JDialog implements SelectionListener {
 	private String currencyCod;
 	
 	//Prices and Lists (ALL)
-	private PriceListManager prcManager = Context.getApplicationContext().getBean(PriceListManager.class);
+	private PriceCatalogue.Snapshot priceCatalogue;
 	private List<Price> prcArray;
 	private List<PriceList> lstArray;
 	
 	//PricesOthers (ALL)
-	private PricesOthersManager othManager = Context.getApplicationContext().getBean(PricesOthersManager.class);
 	private List<PricesOthers> othPrices;
 
 	//Items and Payments (ALL)
@@ -320,13 +315,7 @@ public class PatientBillEdit extends JDialog implements SelectionListener {
 		initCurrencyCod();
 		PatientBillEdit newBill = new PatientBillEdit(null, new Bill(), true);
 		newBill.setVisible(true);
-		try {
-			prcArray = prcManager.getPrices();
-			lstArray = prcManager.getLists();
-			othPrices = othManager.getOthers();
-		} catch (OHServiceException e) {
-			OHServiceExceptionUtil.showMessages(e, PatientBillEdit.this);
-		}
+		loadPrices();
 	}
 	
 	public PatientBillEdit(JFrame owner, Patient patient) {
@@ -338,26 +327,14 @@ public class PatientBillEdit extends JDialog implements SelectionListener {
 		PatientBillEdit newBill = new PatientBillEdit(owner, bill, true);
 		newBill.setPatientSelected(patient);
 		newBill.setVisible(true);
-		try {
-			prcArray = prcManager.getPrices();
-			lstArray = prcManager.getLists();
-			othPrices = othManager.getOthers();
-		} catch (OHServiceException e) {
-			OHServiceExceptionUtil.showMessages(e, PatientBillEdit.this);
-		}
+		loadPrices();
 	}
 	
 	public PatientBillEdit(JFrame owner, Bill bill, boolean inserting) {
 		super(owner, true);
 		initCurrencyCod();
 		this.insert = inserting;
-		try {
-			prcArray = prcManager.getPrices();
-			lstArray = prcManager.getLists();
-			othPrices = othManager.getOthers();
-		} catch (OHServiceException e) {
-			OHServiceExceptionUtil.showMessages(e, PatientBillEdit.this);
-		}
+		loadPrices();
 		setBill(bill);
 		initComponents();
 		updateTotals();
@@ -366,6 +343,20 @@ public class PatientBillEdit extends JDialog implements SelectionListener {
 		setResizable(false);
 	}
 	
+	/*
+	 * The prices come from the shared catalogue, queried only when they have changed
+	 */
+	private void loadPrices() {
+		try {
+			priceCatalogue = PriceCatalogue.getInstance().getSnapshot();
+			prcArray = priceCatalogue.getPrices();
+			lstArray = priceCatalogue.getLists();
+			othPrices = priceCatalogue.getOthers();
+		} catch (OHServiceException e) {
+			OHServiceExceptionUtil.showMessages(e, PatientBillEdit.this);
+		}
+	}
+
 	private void initCurrencyCod() {
 		try {
 			this.currencyCod = Context.getApplicationContext().getBean(HospitalBrowsingManager.class).getHospitalCurrencyCod();
@@ -381,7 +372,6 @@ public class PatientBillEdit extends JDialog implements SelectionListener {
 		try {
 			billItems = billManager.getItems(thisBill.getId());
 			payItems = billManager.getPayments(thisBill.getId());
-			othPrices = othManager.getOthers();
 		} catch (OHServiceException e) {
 			OHServiceExceptionUtil.showMessages(e, PatientBillEdit.this);
 		}
@@ -1330,11 +1320,6 @@ public class PatientBillEdit extends JDialog implements SelectionListener {
 
 				boolean isPrice = true;
 
-				Map<Integer, PricesOthers> othersHashMap = new HashMap<>();
-				for (PricesOthers other : othPrices) {
-					othersHashMap.put(other.getId(), other);
-				}
-
 				List<Price> othArray = new ArrayList<>();
 				for (Price price : prcListArray) {
 					if (price.getGroup().equals("OTH")) {
@@ -1353,7 +1338,10 @@ public class PatientBillEdit extends JDialog implements SelectionListener {
 						""); //$NON-NLS-1$
 
 				if (oth != null) {
-					if (othersHashMap.get(Integer.valueOf(oth.getItem())).isUndefined()) {
+					PricesOthers other = priceCatalogue.getOther(Integer.parseInt(oth.getItem()));
+					// the catalogue prices are shared: the amount is changed on a copy
+					oth = new Price(oth.getList(), oth.getGroup(), oth.getItem(), oth.getDesc(), oth.getPrice());
+					if (other.isUndefined()) {
 						icon = new ImageIcon("rsc/icons/money_dialog.png"); //$NON-NLS-1$
 						String price = (String) JOptionPane.showInputDialog(
 								PatientBillEdit.this,
@@ -1375,11 +1363,11 @@ public class PatientBillEdit extends JDialog implements SelectionListener {
 							return;
 						}
 					}
-					if (othersHashMap.get(Integer.valueOf(oth.getItem())).isDischarge()) {
+					if (other.isDischarge()) {
 						double amount = oth.getPrice();
 						oth.setPrice(-amount);
 					}
-					if (othersHashMap.get(Integer.valueOf(oth.getItem())).isDaily()) {
+					if (other.isDaily()) {
 						int qty = 1;
 						icon = new ImageIcon("rsc/icons/calendar_dialog.png"); //$NON-NLS-1$
 						String quantity = (String) JOptionPane.showInputDialog(
@@ -1729,9 +1717,6 @@ public class PatientBillEdit extends JDialog implements SelectionListener {
 		
 		public BillTableModel() {
 
-			Map<String, Price> priceHashTable;
-			prcListArray = new ArrayList<>();
-
 			/*
 			 * Select the prices of the selected list.
 			 * If no price list is selected (new bill) the first one is taken.
@@ -1739,21 +1724,14 @@ public class PatientBillEdit extends JDialog implements SelectionListener {
 			if (listSelected == null) {
 				listSelected = lstArray.get(0);
 			}
-			prcListArray = prcArray.stream()
-					.filter(price -> price.getList().getId() == listSelected.getId())
-					.collect(Collectors.toList());
-			/*
-			 * Create a hashTable with the selected prices.
-			 */
-			priceHashTable = prcListArray.stream().collect(
-					Collectors.toMap(price -> price.getList().getId() + price.getGroup() + price.getItem(), price -> price, (a, b) -> b, HashMap::new));
-			
+			prcListArray = priceCatalogue.getPrices(listSelected);
+
 			/*
 			 * Updates the items in the bill.
 			 */
 		    for (BillItems item : billItems) {
 			    if (item.isPrice()) {
-				    Price p = priceHashTable.get(listSelected.getId() + item.getPriceID());
+				    Price p = priceCatalogue.getPrice(listSelected.getId(), item.getPriceID());
 				    item.setItemDescription(p.getDesc());
 				    item.setItemAmount(p.getPrice());
 			    }
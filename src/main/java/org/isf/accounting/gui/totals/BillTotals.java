@@ -0,0 +1,180 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.accounting.gui.totals;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.isf.accounting.model.Bill;
+import org.isf.accounting.model.BillPayments;
+import org.isf.generaldata.GeneralData;
+
+/**
+ * All the totals shown by the BillBrowser (today, period and user, paid and not paid),
+ * computed with a single pass over bills and payments.
+ * <p>
+ * The ids of the bills not deleted are hashed once, so checking a payment is O(1) instead of a scan of the bill list,
+ * and payments are broken down by user so that changing the selected cashier does not require any recalculation.
+ * Same rules as {@link BalanceTotal}, {@link PaymentsTotal} and {@link UserTotal}.
+ */
+public class BillTotals {
+
+	private final BigDecimal totalToday;
+	private final BigDecimal balanceToday;
+	private final BigDecimal totalPeriod;
+	private final BigDecimal balancePeriod;
+	private final Map<String, BigDecimal> userTotalsToday;
+	private final Map<String, BigDecimal> userTotalsPeriod;
+	private final boolean singleUser;
+
+	private BillTotals(BigDecimal totalToday, BigDecimal balanceToday, BigDecimal totalPeriod, BigDecimal balancePeriod,
+			Map<String, BigDecimal> userTotalsToday, Map<String, BigDecimal> userTotalsPeriod, boolean singleUser) {
+		this.totalToday = totalToday;
+		this.balanceToday = balanceToday;
+		this.totalPeriod = totalPeriod;
+		this.balancePeriod = balancePeriod;
+		this.userTotalsToday = userTotalsToday;
+		this.userTotalsPeriod = userTotalsPeriod;
+		this.singleUser = singleUser;
+	}
+
+	/**
+	 * @param billPeriod - the bills in the period, they define which bills are not deleted
+	 * @param paymentsPeriod - the payments in the period
+	 * @param billToday - the bills of today (may be the same list as {@code billPeriod})
+	 * @param paymentsToday - the payments of today (may be the same list as {@code paymentsPeriod})
+	 */
+	public static BillTotals calculate(Collection<Bill> billPeriod, Collection<BillPayments> paymentsPeriod,
+			Collection<Bill> billToday, Collection<BillPayments> paymentsToday) {
+		boolean singleUser = GeneralData.getGeneralData().getSINGLEUSER();
+		Set<Integer> notDeletedBills = new HashSet<>();
+		BigDecimal balancePeriod = sumBalance(billPeriod, notDeletedBills);
+		BigDecimal balanceToday = billToday == billPeriod ? balancePeriod : sumBalance(billToday, null);
+
+		Map<String, BigDecimal> userTotalsPeriod = new HashMap<>();
+		BigDecimal totalPeriod = sumPayments(paymentsPeriod, notDeletedBills, userTotalsPeriod);
+		Map<String, BigDecimal> userTotalsToday;
+		BigDecimal totalToday;
+		if (paymentsToday == paymentsPeriod) {
+			userTotalsToday = userTotalsPeriod;
+			totalToday = totalPeriod;
+		} else {
+			userTotalsToday = new HashMap<>();
+			totalToday = sumPayments(paymentsToday, notDeletedBills, userTotalsToday);
+		}
+		return new BillTotals(totalToday, balanceToday, totalPeriod, balancePeriod,
+				Collections.unmodifiableMap(userTotalsToday), Collections.unmodifiableMap(userTotalsPeriod), singleUser);
+	}
+
+	private static BigDecimal sumBalance(Collection<Bill> bills, Set<Integer> notDeletedBills) {
+		BigDecimal balance = BigDecimal.ZERO;
+		if (bills == null) {
+			return balance;
+		}
+		for (Bill bill : bills) {
+			if (bill.getStatus().equals("D")) {
+				continue;
+			}
+			if (notDeletedBills != null) {
+				notDeletedBills.add(bill.getId());
+			}
+			balance = balance.add(BigDecimal.valueOf(bill.getBalance()));
+		}
+		return balance;
+	}
+
+	private static BigDecimal sumPayments(Collection<BillPayments> payments, Set<Integer> notDeletedBills,
+			Map<String, BigDecimal> userTotals) {
+		BigDecimal total = BigDecimal.ZERO;
+		if (payments == null) {
+			return total;
+		}
+		for (BillPayments payment : payments) {
+			if (!notDeletedBills.contains(payment.getBill().getId())) {
+				continue;
+			}
+			BigDecimal amount = BigDecimal.valueOf(payment.getAmount());
+			total = total.add(amount);
+			if (payment.getUser() != null) {
+				userTotals.merge(payment.getUser(), amount, BigDecimal::add);
+			}
+		}
+		return total;
+	}
+
+	public BigDecimal getTotalToday() {
+		return totalToday;
+	}
+
+	public BigDecimal getBalanceToday() {
+		return balanceToday;
+	}
+
+	public BigDecimal getTotalPeriod() {
+		return totalPeriod;
+	}
+
+	public BigDecimal getBalancePeriod() {
+		return balancePeriod;
+	}
+
+	/**
+	 * @return the payments of today collected by the user, zero in single user mode
+	 */
+	public BigDecimal getUserToday(String user) {
+		return getUserTotal(userTotalsToday, user);
+	}
+
+	/**
+	 * @return the payments in the period collected by the user, zero in single user mode
+	 */
+	public BigDecimal getUserPeriod(String user) {
+		return getUserTotal(userTotalsPeriod, user);
+	}
+
+	/**
+	 * @return the payments of today by user
+	 */
+	public Map<String, BigDecimal> getUserTotalsToday() {
+		return userTotalsToday;
+	}
+
+	/**
+	 * @return the payments in the period by user
+	 */
+	public Map<String, BigDecimal> getUserTotalsPeriod() {
+		return userTotalsPeriod;
+	}
+
+	private BigDecimal getUserTotal(Map<String, BigDecimal> userTotals, String user) {
+		if (singleUser || user == null) {
+			return BigDecimal.ZERO;
+		}
+		return userTotals.getOrDefault(user, BigDecimal.ZERO);
+	}
+
+}
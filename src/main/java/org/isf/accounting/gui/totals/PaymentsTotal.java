@@ -23,6 +23,7 @@ package org.isf.accounting.gui.totals;
 
 import java.math.BigDecimal;
 import java.util.Collection;
+import java.util.HashSet;
 
 import org.isf.accounting.model.BillPayments;
 
@@ -32,7 +33,7 @@ public class PaymentsTotal {
 	private final Collection<BillPayments> paymentsPeriod;
 
 	public PaymentsTotal(Collection<Integer> notDeletedBills, Collection<BillPayments> paymentsPeriod) {
-		this.notDeletedBills = notDeletedBills;
+		this.notDeletedBills = new HashSet<>(notDeletedBills);
 		this.paymentsPeriod = paymentsPeriod;
 	}
 
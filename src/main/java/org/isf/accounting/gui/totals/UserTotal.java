@@ -23,6 +23,7 @@ package org.isf.accounting.gui.totals;
 
 import java.math.BigDecimal;
 import java.util.Collection;
+import java.util.HashSet;
 
 import org.isf.accounting.model.BillPayments;
 import org.isf.generaldata.GeneralData;
@@ -34,7 +35,7 @@ public class UserTotal {
 	private final String user;
 
 	public UserTotal(Collection<Integer> notDeletedBills, Collection<BillPayments> paymentsFromPeriod, String user) {
-		this.notDeletedBills = notDeletedBills;
+		this.notDeletedBills = new HashSet<>(notDeletedBills);
 		this.paymentsFromPeriod = paymentsFromPeriod;
 		this.user = user;
 	}
@@ -40,8 +40,10 @@ import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 import javax.swing.BorderFactory;
 import javax.swing.BoxLayout;
@@ -90,15 +92,17 @@ import org.isf.opd.gui.OpdEditExtended;
 import org.isf.opd.model.Opd;
 import org.isf.patient.gui.PatientInsert;
 import org.isf.patient.gui.PatientInsertExtended;
+import org.isf.patient.gui.PatientLookupCache;
 import org.isf.patient.manager.PatientBrowserManager;
 import org.isf.patient.model.Patient;
 import org.isf.therapy.gui.TherapyEdit;
-import org.isf.utils.db.NormalizeString;
 import org.isf.utils.exception.OHServiceException;
 import org.isf.utils.exception.gui.OHServiceExceptionUtil;
 import org.isf.utils.jobjects.CustomJDateChooser;
+import org.isf.utils.jobjects.DebouncedFilter;
 import org.isf.utils.jobjects.MessageDialog;
 import org.isf.utils.jobjects.ModalJFrame;
+import org.isf.utils.jobjects.SearchIndex;
 import org.isf.utils.jobjects.VoLimitedTextField;
 import org.isf.utils.time.TimeTools;
 import org.isf.ward.manager.WardBrowserManager;
@@ -163,10 +167,13 @@ public class AdmittedPatientBrowser extends ModalJFrame implements
 	private JTextField searchString = null;
 	private JButton jSearchButton = null;
 	private JButton jButtonExamination;
-	private String lastKey = "";
 	private List<Ward> wardList = null;
+	private Map<String, Integer> wardIndexByCode = new HashMap<>();
 	private JLabel rowCounter = null;
 	private List<AdmittedPatient> pPatient = new ArrayList<>();
+	private SearchIndex<Integer, AdmittedPatient> patientIndex = new SearchIndex<>(
+			admittedPatient -> admittedPatient.getPatient().getCode(),
+			admittedPatient -> admittedPatient.getPatient().getSearchString());
 	private String[] pColumns = {
 			MessageBundle.getMessage("angal.common.code.txt").toUpperCase(),
 			MessageBundle.getMessage("angal.common.name.txt").toUpperCase(),
@@ -179,13 +186,16 @@ public class AdmittedPatientBrowser extends ModalJFrame implements
 	private boolean[] pColumnResizable = {false, false, false, false, true, false};
 	private AdmittedPatient patient;
 	private JTable table;
+	private AdmittedPatientBrowserModel model;
 	private JScrollPane scrollPane;
 	private AdmittedPatientBrowser myFrame;
 	
 	private PatientBrowserManager patientManager = Context.getApplicationContext().getBean(PatientBrowserManager.class);
 	private AdmissionBrowserManager admissionManager = Context.getApplicationContext().getBean(AdmissionBrowserManager.class);
-	protected boolean altKeyReleased = true;
-	protected Timer ageTimer = new Timer(1000, e -> filterPatient(null));
+	private volatile SearchIndex.Result<AdmittedPatient> lastResult;
+	private final DebouncedFilter<List<AdmittedPatient>> searchFilter = new DebouncedFilter<>(
+			key -> new PatientFilter(key)::apply, this::showPatients);
+	protected Timer ageTimer = new Timer(1000, e -> searchFilter.filterNow(null));
 
 	public void fireMyDeletedPatient(Patient p) {
 
@@ -200,11 +210,30 @@ public class AdmittedPatientBrowser extends ModalJFrame implements
 		}
 		if (found) {
 			pPatient.remove(cc);
-			lastKey = "";
+			patientIndex.remove(p.getCode());
 			filterPatient(searchString.getText());
 		}
 	}
 
+	/*
+	 * The merge may change the names and the admission of the merged patient: it is reloaded for the table and the search
+	 */
+	private void fireMyMergedPatient(Patient merged) {
+		AdmittedPatient admittedPatient = admissionManager.loadAdmittedPatients(merged.getCode());
+		if (admittedPatient == null) {
+			return;
+		}
+		PatientLookupCache.getInstance().patientSaved(admittedPatient.getPatient());
+		for (int i = 0; i < pPatient.size(); i++) {
+			if (pPatient.get(i).getPatient().getCode().equals(merged.getCode())) {
+				pPatient.set(i, admittedPatient);
+				patientIndex.update(admittedPatient);
+				break;
+			}
+		}
+		filterPatient(searchString.getText());
+	}
+
 	@Override
 	public void deleteAdmissionUpdated(AWTEvent e) {
 		Admission adm = (Admission) e.getSource();
@@ -226,7 +255,6 @@ public class AdmittedPatientBrowser extends ModalJFrame implements
 				break;
 			}
 		}
-		lastKey = "";
 		filterPatient(searchString.getText());
 		try {
 			if (table.getRowCount() > 0) {
@@ -254,7 +282,6 @@ public class AdmittedPatientBrowser extends ModalJFrame implements
 				break;
 			}
 		}
-		lastKey = "";
 		filterPatient(searchString.getText());
 		try {
 			if (table.getRowCount() > 0) {
@@ -297,7 +324,6 @@ public class AdmittedPatientBrowser extends ModalJFrame implements
 				break;
 			}
 		}
-		lastKey = "";
 		filterPatient(searchString.getText());
 		try {
 			if (table.getRowCount() > 0) {
@@ -316,8 +342,9 @@ public class AdmittedPatientBrowser extends ModalJFrame implements
 	@Override
 	public void patientInserted(AWTEvent e) {
 		Patient u = (Patient) e.getSource();
-		pPatient.add(0, new AdmittedPatient(u, null));
-		lastKey = "";
+		AdmittedPatient admittedPatient = new AdmittedPatient(u, null);
+		pPatient.add(0, admittedPatient);
+		patientIndex.addFirst(admittedPatient);
 		filterPatient(searchString.getText());
 		try {
 			if (table.getRowCount() > 0) {
@@ -340,12 +367,12 @@ public class AdmittedPatientBrowser extends ModalJFrame implements
 		for (int i = 0; i < pPatient.size(); i++) {
 			if ((pPatient.get(i).getPatient().getCode()).equals(u.getCode())) {
 				Admission admission = pPatient.get(i).getAdmission();
-				pPatient.remove(i);
-				pPatient.add(i, new AdmittedPatient(u, admission));
+				AdmittedPatient admittedPatient = new AdmittedPatient(u, admission);
+				pPatient.set(i, admittedPatient);
+				patientIndex.update(admittedPatient);
 				break;
 			}
 		}
-		lastKey = "";
 		filterPatient(searchString.getText());
 		try {
 			table.setRowSelectionInterval(row, row);
@@ -367,6 +394,7 @@ public class AdmittedPatientBrowser extends ModalJFrame implements
 			} catch (OHServiceException e) {
 				OHServiceExceptionUtil.showMessages(e);
 			}
+			patientIndex.reset(pPatient);
 		}
 		
 		initComponents();
@@ -385,6 +413,7 @@ public class AdmittedPatientBrowser extends ModalJFrame implements
 				if (pPatient != null) {
 					pPatient.clear();
 				}
+				patientIndex.reset(null);
 				if (wardList != null) {
 					wardList.clear();
 				}
@@ -409,10 +438,7 @@ public class AdmittedPatientBrowser extends ModalJFrame implements
 	 * Panel with filtering controls
 	 */
 	private JPanel getControlPanel() {
-		ActionListener listener = actionEvent -> SwingUtilities.invokeLater(() -> {
-			lastKey = "";
-			filterPatient(null);
-		});
+		ActionListener listener = actionEvent -> SwingUtilities.invokeLater(() -> searchFilter.filterNow(null));
 		
 		patientClassBox = new JComboBox(patientClassItems);
 		if (!GeneralData.ENHANCEDSEARCH) {
@@ -446,6 +472,10 @@ public class AdmittedPatientBrowser extends ModalJFrame implements
 				}
 			}
 		} 
+		wardIndexByCode.clear();
+		for (int i = 0; i < wardList.size(); i++) {
+			wardIndexByCode.put(wardList.get(i).getCode().toUpperCase(), i);
+		}
 		
 		JPanel[] checkPanel = new JPanel[wardList.size()];
 		wardCheck = new JCheckBox[wardList.size()];
@@ -526,32 +556,7 @@ public class AdmittedPatientBrowser extends ModalJFrame implements
 				}
 			});
 		} else {
-			searchString.addKeyListener(new KeyListener() {
-				@Override
-				public void keyTyped(KeyEvent e) {
-					if (altKeyReleased) {
-						lastKey = "";
-						String s = "" + e.getKeyChar();
-						if (Character.isLetterOrDigit(e.getKeyChar())) {
-							lastKey = s;
-						}
-						filterPatient(searchString.getText());
-					}
-				}
-	
-				@Override
-				public void keyPressed(KeyEvent e) {
-					int key = e.getKeyCode();
-					if (key == KeyEvent.VK_ALT) {
-						altKeyReleased = false;
-					}
-				}
-	
-				@Override
-				public void keyReleased(KeyEvent e) {
-					altKeyReleased = true;
-				}
-			});
+			searchFilter.install(searchString);
 		}
 		searchPanel.add(searchString, BorderLayout.CENTER);
 		if (GeneralData.ENHANCEDSEARCH) {
@@ -671,7 +676,9 @@ public class AdmittedPatientBrowser extends ModalJFrame implements
 	}
 
 	private JScrollPane getScrollPane() {
-		table = new JTable(new AdmittedPatientBrowserModel(null));
+		model = new AdmittedPatientBrowserModel();
+		model.setPatients(new PatientFilter(null).apply());
+		table = new JTable(model);
 		table.setAutoCreateColumnsFromModel(false);
 
 		for (int i = 0; i < pColumns.length; i++) {
@@ -847,6 +854,7 @@ public class AdmittedPatientBrowser extends ModalJFrame implements
 					OHServiceExceptionUtil.showMessages(e);
 				}
 				if (result) {
+					PatientLookupCache.getInstance().patientDeleted(pat);
 					List<Admission> patientAdmissions;
 					try {
 						patientAdmissions = admissionManager.getAdmissions(pat);
@@ -1104,6 +1112,8 @@ public class AdmittedPatientBrowser extends ModalJFrame implements
 
 			try {
 				if (patientManager.mergePatient(mergedPatient, patient2)) {
+					PatientLookupCache.getInstance().patientDeleted(patient2);
+					fireMyMergedPatient(mergedPatient);
 					fireMyDeletedPatient(patient2);
 				}
 			} catch (OHServiceException e) {
@@ -1121,6 +1131,7 @@ public class AdmittedPatientBrowser extends ModalJFrame implements
 			if (pPatient != null) {
 				pPatient.clear();
 			}
+			patientIndex.reset(null);
 			if (wardList != null) {
 				wardList.clear();
 			}
@@ -1129,11 +1140,19 @@ public class AdmittedPatientBrowser extends ModalJFrame implements
 		return buttonClose;
 	}
 	
+	/*
+	 * Filters synchronously, i.e. after a change in the list when the selection has to be restored
+	 */
 	private void filterPatient(String key) {
-		table.setModel(new AdmittedPatientBrowserModel(key));
-		rowCounter.setText(MessageBundle.formatMessage("angal.admission.count.fmt.txt", table.getRowCount()));
+		searchFilter.cancel();
+		showPatients(new PatientFilter(key).apply());
 		searchString.requestFocus();
 	}
+
+	private void showPatients(List<AdmittedPatient> patients) {
+		model.setPatients(patients);
+		rowCounter.setText(MessageBundle.formatMessage("angal.admission.count.fmt.txt", table.getRowCount()));
+	}
 	
 	private void searchPatient() {
 		boolean isFilteredList = patientClassBox.getSelectedIndex() > 0 || //
@@ -1178,6 +1197,7 @@ public class AdmittedPatientBrowser extends ModalJFrame implements
 		} catch (OHServiceException e) {
 			OHServiceExceptionUtil.showMessages(e);
 		}
+		patientIndex.reset(pPatient);
 		filterPatient(null);
 	}
 	
@@ -1205,99 +1225,104 @@ public class AdmittedPatientBrowser extends ModalJFrame implements
 		return c;
 	}
 
-	class AdmittedPatientBrowserModel extends DefaultTableModel {
+	/**
+	 * The state of the filter controls, read on the EDT, applied to the patients possibly in background.
+	 */
+	private class PatientFilter {
+
+		private final String key;
+		private final boolean notAdmittedOnly;
+		private final boolean admittedOnly;
+		private final int ageFrom;
+		private final int ageTo;
+		private final Character sex;
+		private final boolean[] wardSelected;
+
+		PatientFilter(String key) {
+			this.key = key == null ? "" : key.trim();
+			notAdmittedOnly = patientClassBox.getSelectedItem().equals(patientClassItems[2]);
+			admittedOnly = patientClassBox.getSelectedItem().equals(patientClassItems[1]);
+			String ageLimit = patientAgeFromTextField.getText();
+			ageFrom = ageLimit.matches("\\d+") ? Integer.parseInt(ageLimit) : -1;
+			ageLimit = patientAgeToTextField.getText();
+			ageTo = ageLimit.matches("\\d+") ? Integer.parseInt(ageLimit) : -1;
+			// sex patient type
+			switch (patientSexBox.getSelectedIndex()) {
+			case 1:
+				sex = 'M';
+				break;
+			case 2:
+				sex = 'F';
+				break;
+			default:
+				sex = null;
+			}
+			wardSelected = new boolean[wardCheck.length];
+			for (int i = 0; i < wardCheck.length; i++) {
+				wardSelected[i] = wardCheck[i].isSelected();
+			}
+		}
 
-		private static final long serialVersionUID = 1L;
+		List<AdmittedPatient> apply() {
+			SearchIndex.Result<AdmittedPatient> result = patientIndex.search(key, lastResult);
+			lastResult = result;
 
-		List<AdmittedPatient> patientList = new ArrayList<>();
-		
-		public AdmittedPatientBrowserModel(String key) {
-			for (AdmittedPatient ap : pPatient) {
+			List<AdmittedPatient> matches = result.getValues();
+			List<AdmittedPatient> filtered = new ArrayList<>(matches.size());
+			for (AdmittedPatient ap : matches) {
 				Admission adm = ap.getAdmission();
 				// if not admitted stripes admitted
-				if (patientClassBox.getSelectedItem().equals(patientClassItems[2])) {
+				if (notAdmittedOnly) {
 					if (adm != null) {
 						continue;
 					}
 				}
 				// if admitted stripes not admitted
-				else if (patientClassBox.getSelectedItem().equals(patientClassItems[1])) {
+				else if (admittedOnly) {
 					if (adm == null) {
 						continue;
 					}
 				}
 
 				// if all or admitted filters not matching ward
-				if (!patientClassBox.getSelectedItem().equals(patientClassItems[2])) {
-					if (adm != null) {
-						int cc = -1;
-						for (int j = 0; j < wardList.size(); j++) {
-							if (adm.getWard().getCode().equalsIgnoreCase(wardList.get(j).getCode())) {
-								cc = j;
-								break;
-							}
-						}
-						if (!wardCheck[cc].isSelected()) {
-							continue;
-						}
+				if (!notAdmittedOnly && adm != null) {
+					Integer cc = wardIndexByCode.get(adm.getWard().getCode().toUpperCase());
+					if (cc != null && !wardSelected[cc]) {
+						continue;
 					}
 				}
 
 				// lower age limit
-				String ageLimit = patientAgeFromTextField.getText();
-				if (ageLimit.matches("\\d+")) {
-					if (!(ap.getPatient().getAge() >= Integer.parseInt(ageLimit))) {
-						continue;
-					}
+				if (ageFrom >= 0 && ap.getPatient().getAge() < ageFrom) {
+					continue;
 				}
-				
+
 				// upper age limit
-				ageLimit = patientAgeToTextField.getText();
-				if (ageLimit.matches("\\d+")) {
-					if (!(ap.getPatient().getAge() <= Integer.parseInt(ageLimit))) {
-						continue;
-					}
-				}
-					
-				// sex patient type
-				Character sex = null;
-				switch (patientSexBox.getSelectedIndex()) {
-				case 1:
-					sex = 'M';
-					break;
-				case 2:
-					sex = 'F';
-					break;
-				}
-				
-				if (sex != null && !sex.equals(ap.getPatient().getSex())) {
+				if (ageTo >= 0 && ap.getPatient().getAge() > ageTo) {
 					continue;
 				}
 
-				if (key != null) {
-					String s = key + lastKey;
-					s = s.trim();
-					String[] tokens = s.split(" ");
-
-					if (!s.equals("")) {
-						String name = ap.getPatient().getSearchString();
-						int a = 0;
-						for (String value : tokens) {
-							String token = value.toLowerCase();
-							if (NormalizeString.normalizeContains(name, token)) {
-								a++;
-							}
-						}
-						if (a == tokens.length) {
-							patientList.add(ap);
-						}
-					} else {
-						patientList.add(ap);
-					}
-				} else {
-					patientList.add(ap);
+				if (sex != null && !sex.equals(ap.getPatient().getSex())) {
+					continue;
 				}
+				filtered.add(ap);
 			}
+			return filtered;
+		}
+	}
+
+	/*
+	 * A single model instance is kept for the table: each filter narrows the matches
+	 * found by the patient index instead of scanning and copying the whole list.
+	 */
+	class AdmittedPatientBrowserModel extends DefaultTableModel {
+
+		private static final long serialVersionUID = 1L;
+
+		List<AdmittedPatient> patientList = new ArrayList<>();
+		public void setPatients(List<AdmittedPatient> patients) {
+			patientList = patients;
+			fireTableDataChanged();
 		}
 
 		@Override
@@ -1339,13 +1364,8 @@ public class AdmittedPatientBrowser extends ModalJFrame implements
 				if (admission == null) {
 					return "";
 				} else {
-					for (Ward ward : wardList) {
-						if (ward.getCode()
-								.equalsIgnoreCase(admission.getWard().getCode())) {
-							return ward.getDescription();
-						}
-					}
-					return "?";
+					Integer cc = wardIndexByCode.get(admission.getWard().getCode().toUpperCase());
+					return cc == null ? "?" : wardList.get(cc).getDescription();
 				}
 			}
 
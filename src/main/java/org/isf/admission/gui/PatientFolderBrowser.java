@@ -40,9 +40,15 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.EventListener;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import javax.swing.JButton;
 import javax.swing.JPanel;
@@ -83,6 +89,7 @@ import org.isf.stat.gui.report.GenericReportDischarge;
 import org.isf.stat.gui.report.GenericReportOpd;
 import org.isf.utils.exception.OHServiceException;
 import org.isf.utils.exception.gui.OHServiceExceptionUtil;
+import org.isf.utils.jobjects.BackgroundTasks;
 import org.isf.utils.jobjects.MessageDialog;
 import org.isf.utils.jobjects.ModalJFrame;
 import org.isf.utils.jobjects.OhDefaultCellRenderer;
@@ -117,6 +124,8 @@ public class PatientFolderBrowser extends ModalJFrame
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(PatientFolderBrowser.class);
 
+	private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern(DATE_FORMAT_DD_MM_YY);
+
 	private EventListenerList deleteAdmissionListeners = new EventListenerList();
 
     public interface DeleteAdmissionListener extends EventListener {
@@ -346,7 +355,7 @@ public class PatientFolderBrowser extends ModalJFrame
 		scrollPane = new JScrollPane(admTable);
 		scrollPane.setPreferredSize(new Dimension(500, 200));
 		tablesPanel.add(scrollPane, BorderLayout.NORTH);
-		sorter.sortByColumn(0, false); //sort by first column, descending
+		// rows come already sorted by date, most recent first
 		sorter.updateRowHeights(admTable);
 
 		labModel = new LabBrowserModel();
@@ -675,18 +684,6 @@ public class PatientFolderBrowser extends ModalJFrame
 		return closeButton;
 	}
 
-	private <T> LocalDateTime getDateForAdmissionRow(String variableName, int row) {
-		return getDateFromObject(admList.get(row), variableName);
-	}
-
-	private <T> LocalDateTime getDateForOpdRow(String variableName, int row) {
-		return getDateFromObject(opdList.get(row - admList.size()), variableName);
-	}
-
-	private <T> LocalDateTime getDateForExaminationRow(String variableName, int row) {
-		return getDateFromObject(examinationList.get(row - (opdList.size() + admList.size())), variableName);
-	}
-
 	private <T> void getOlderDate(List<T> list, String variableName) {
 		for (Object obj : list) {
 			LocalDateTime otherDate = getDateFromObject(obj, variableName);
@@ -713,6 +710,22 @@ public class PatientFolderBrowser extends ModalJFrame
 		return date;
 	}
 
+	/*
+	 * One row of the patient timeline (an admission, an OPD or an examination) with its cells already rendered
+	 */
+	private static final class TimelineRow {
+
+		private final Object source;
+		private final LocalDateTime date;
+		private final Object[] cells;
+
+		TimelineRow(Object source, LocalDateTime date, Object... cells) {
+			this.source = source;
+			this.date = date;
+			this.cells = cells;
+		}
+	}
+
 	class AdmissionBrowserModel extends DefaultTableModel {
 
 		private static final long serialVersionUID = -453243229156512947L;
@@ -722,51 +735,126 @@ public class PatientFolderBrowser extends ModalJFrame
 		private OpdBrowserManager opd = Context.getApplicationContext().getBean(OpdBrowserManager.class);
 		private ExaminationBrowserManager examin = Context.getApplicationContext().getBean(ExaminationBrowserManager.class);
 
+		private List<TimelineRow> timeline;
+
 		public AdmissionBrowserModel() {
+			ExecutorService executor = BackgroundTasks.getExecutor();
+			Future<List<Admission>> admissions = executor.submit(() -> manager.getAdmissions(patient));
+			Future<List<Disease>> diseases = executor.submit(() -> dbm.getDiseaseAll());
+			Future<List<Ward>> wards = executor.submit(() -> wbm.getWards());
+			Future<List<Opd>> opds = executor.submit(() -> opd.getOpdList(patient.getCode()));
+			Future<List<PatientExamination>> examinations = executor.submit(() -> examin.getByPatID(patient.getCode()));
+
+			admList = getLoaded(admissions);
+			disease = getLoaded(diseases);
+			ward = getLoaded(wards);
+			opdList = getLoaded(opds);
+			examinationList = getLoaded(examinations);
+
+			getOlderDate(admList, "admDate");
+			getOlderDate(opdList, "date");
+			getOlderDate(examinationList, "pex_date");
+			timeline = buildTimeline();
+		}
 
+		private <T> List<T> getLoaded(Future<List<T>> future) {
 			try {
-				admList = manager.getAdmissions(patient);
-				getOlderDate(admList, "admDate");
-			} catch (OHServiceException e) {
-				OHServiceExceptionUtil.showMessages(e);
+				List<T> list = future.get();
+				if (list != null) {
+					return list;
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof OHServiceException) {
+					OHServiceExceptionUtil.showMessages((OHServiceException) e.getCause());
+				} else {
+					LOGGER.error(e.getMessage(), e);
+				}
 			}
-			try {
-				disease = dbm.getDiseaseAll();
-			} catch (OHServiceException e) {
-				OHServiceExceptionUtil.showMessages(e);
+			return new ArrayList<>();
+		}
+
+		/*
+		 * Renders every cell once and sorts the rows by date, most recent first
+		 */
+		private List<TimelineRow> buildTimeline() {
+			Map<String, String> wardDescriptions = new HashMap<>();
+			for (Ward elem : ward) {
+				wardDescriptions.put(elem.getCode().toUpperCase(), elem.getDescription());
 			}
-			try {
-				ward = wbm.getWards();
-			} catch (OHServiceException e) {
-				OHServiceExceptionUtil.showMessages(e);
+			Map<String, String> diseaseDescriptions = new HashMap<>();
+			for (Disease elem : disease) {
+				diseaseDescriptions.put(elem.getCode().toUpperCase(), elem.getDescription());
 			}
-			try {
-				opdList = opd.getOpdList(patient.getCode());
-				getOlderDate(opdList, "date");
-			} catch (OHServiceException e) {
-				OHServiceExceptionUtil.showMessages(e);
+
+			List<TimelineRow> rows = new ArrayList<>(admList.size() + opdList.size() + examinationList.size());
+			for (Admission adm : admList) {
+				Object status = adm.getDisDate() == null
+						? MessageBundle.getMessage("angal.admission.present.txt")
+						: Converters.toDate(adm.getDisDate());
+				rows.add(new TimelineRow(adm, adm.getAdmDate(),
+						DATE_FORMATTER.format(adm.getAdmDate()),
+						adm.getWard() == null ? null : wardDescriptions.get(adm.getWard().getCode().toUpperCase()),
+						getDiseaseDescription(diseaseDescriptions, adm.getDiseaseIn()),
+						getDiseaseDescription(diseaseDescriptions, adm.getDiseaseOut1()),
+						status));
 			}
-			try {
-				examinationList = examin.getByPatID(patient.getCode());
-				getOlderDate(examinationList, "pex_date");
-			} catch (OHServiceException e) {
-				OHServiceExceptionUtil.showMessages(e);
+			String opdText = MessageBundle.getMessage("angal.admission.patientfolder.opd.txt");
+			String reattendance = MessageBundle.getMessage("angal.opd.reattendance.txt");
+			String newAttendance = MessageBundle.getMessage("angal.opd.newattendance.txt");
+			for (Opd elem : opdList) {
+				Disease lastDisease = elem.getDisease3();
+				if (lastDisease == null) {
+					lastDisease = elem.getDisease2();
+				}
+				if (lastDisease == null) {
+					lastDisease = elem.getDisease();
+				}
+				String status = "" + elem.getNewPatient();
+				rows.add(new TimelineRow(elem, elem.getDate(),
+						DATE_FORMATTER.format(elem.getDate()),
+						opdText,
+						getDiseaseDescription(diseaseDescriptions, elem.getDisease()),
+						getDiseaseDescription(diseaseDescriptions, lastDisease),
+						status.compareTo("R") == 0 ? reattendance : newAttendance));
+			}
+			String examinationText = MessageBundle.getMessage("angal.admission.patientfolder.examination.txt");
+			for (PatientExamination exam : examinationList) {
+				rows.add(new TimelineRow(exam, exam.getPex_date(),
+						DATE_FORMATTER.format(exam.getPex_date()),
+						examinationText,
+						"<html>" +
+								MessageBundle.getMessage("angal.common.weight.txt") + ": " + exam.getPex_height()
+								+ "<br>" +
+								MessageBundle.getMessage("angal.common.height.txt") + ": " + exam.getPex_weight()
+								+ "</html>",
+						"<html>" +
+								MessageBundle.getMessage("angal.common.arterialpressureabbr.txt") + ": " + exam.getPex_ap_min()
+								+ '/' + exam.getPex_ap_max()
+								+ "<br>" +
+								MessageBundle.getMessage("angal.common.temperatureabbr.txt") + ": " + exam.getPex_temp()
+								+ "</html>",
+						MessageBundle.getMessage("angal.admission.o2.txt") + ": " + exam.getPex_sat()));
 			}
+			rows.sort(Comparator.comparing((TimelineRow row) -> row.date, Comparator.nullsLast(Comparator.reverseOrder())));
+			return rows;
+		}
+
+		private String getDiseaseDescription(Map<String, String> diseaseDescriptions, Disease elem) {
+			String description = null;
+			if (elem != null && elem.getCode() != null) {
+				description = diseaseDescriptions.get(elem.getCode().toUpperCase());
+			}
+			return description != null ? description : MessageBundle.getMessage("angal.admission.nodisease.txt");
 		}
 
 		@Override
 		public int getRowCount() {
-			int count = 0;
-			if (admList != null) {
-				count += admList.size();
-			}
-			if (opdList != null) {
-				count += opdList.size();
-			}
-			if (examinationList != null) {
-				count += examinationList.size();
+			if (timeline == null) {
+				return 0;
 			}
-			return count;
+			return timeline.size();
 		}
 
 		@Override
@@ -781,138 +869,12 @@ public class PatientFolderBrowser extends ModalJFrame
 
 		@Override
 		public Object getValueAt(int row, int column) {
-
+			TimelineRow timelineRow = timeline.get(row);
 			if (column == -1) {
-				if (row < admList.size()) {
-					return admList.get(row);
-				} else if (row < opdList.size() + admList.size()) {
-					int z = row - admList.size();
-					return opdList.get(z);
-				} else {
-					int f = row - (opdList.size() + admList.size());
-					return examinationList.get(f);
-				}
-			} else if (column == 0) {
-				if (row < admList.size()) {
-					DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern(DATE_FORMAT_DD_MM_YY);
-					LocalDate myDate = (admList.get(row)).getAdmDate().toLocalDate();
-					return dateFormat.format(myDate);
-				} else if (row < opdList.size() + admList.size()) {
-					int z = row - admList.size();
-					DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern(DATE_FORMAT_DD_MM_YY);
-					LocalDateTime myDate = (opdList.get(z)).getDate();
-					return dateFormat.format(myDate);
-				} else {
-					int f = row - (opdList.size() + admList.size());
-					LocalDateTime pexDate = examinationList.get(f).getPex_date();
-					DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern(DATE_FORMAT_DD_MM_YY);
-					return dateFormat.format(pexDate);
-				}
-			} else if (column == 1) {
-				if (row < admList.size()) {
-					String id = admList.get(row).getWard().getCode();
-					for (Ward elem : ward) {
-						if (elem.getCode().equalsIgnoreCase(id)) {
-							return elem.getDescription();
-						}
-					}
-				} else if (row < opdList.size() + admList.size()) {
-					return MessageBundle.getMessage("angal.admission.patientfolder.opd.txt");
-				} else {
-					return MessageBundle.getMessage("angal.admission.patientfolder.examination.txt");
-				}
-			} else if (column == 2) {
-				String id;
-				if (row < admList.size()) {
-					id = admList.get(row).getDiseaseIn().getCode();
-					if (id == null) {
-						id = "";
-					}
-					for (Disease elem : disease) {
-						if (elem.getCode().equalsIgnoreCase(id)) {
-							return elem.getDescription();
-						}
-					}
-					return MessageBundle.getMessage("angal.admission.nodisease.txt");
-				} else if (row < opdList.size() + admList.size()) {
-					int z = row - admList.size();
-					id = opdList.get(z).getDisease().getCode();
-					if (id == null) {
-						id = "";
-					}
-					for (Disease elem : disease) {
-						if (elem.getCode().equalsIgnoreCase(id)) {
-							return elem.getDescription();
-						}
-					}
-					return MessageBundle.getMessage("angal.admission.nodisease.txt");
-				} else {
-					int f = row - (opdList.size() + admList.size());
-					return "<html>" +
-							MessageBundle.getMessage("angal.common.weight.txt") + ": " + (examinationList.get(f).getPex_height())
-							+ "<br>" +
-							MessageBundle.getMessage("angal.common.height.txt") + ": " + (examinationList.get(f).getPex_weight())
-							+ "</html>";
-				}
-
-			} else if (column == 3) {
-				String id;
-				if (row < admList.size()) {
-					id = admList.get(row).getDiseaseOut1() == null ? null : admList.get(row).getDiseaseOut1().getCode();
-					if (id == null) {
-						id = "";
-					}
-					for (Disease elem : disease) {
-						if (elem.getCode().equalsIgnoreCase(id)) {
-							return elem.getDescription();
-						}
-					}
-					return MessageBundle.getMessage("angal.admission.nodisease.txt");
-				} else if (row < opdList.size() + admList.size()) {
-					int z = row - admList.size();
-					Disease dis = opdList.get(z).getDisease3();
-					if (dis == null) {
-						dis = opdList.get(z).getDisease2();
-						if (dis == null) {
-							id = opdList.get(z).getDisease().getCode();
-						} else {
-							id = dis.getCode();
-						}
-					} else {
-						id = dis.getCode();
-					}
-					for (Disease elem : disease) {
-						if (elem.getCode().equalsIgnoreCase(id)) {
-							return elem.getDescription();
-						}
-					}
-					return MessageBundle.getMessage("angal.admission.nodisease.txt");
-				} else {
-					int f = row - (opdList.size() + admList.size());
-					return "<html>" +
-							MessageBundle.getMessage("angal.common.arterialpressureabbr.txt") + ": " + (examinationList.get(f).getPex_ap_min())
-							+ '/' + (examinationList.get(f).getPex_ap_max())
-							+ "<br>" +
-							MessageBundle.getMessage("angal.common.temperatureabbr.txt") + ": " + (examinationList.get(f).getPex_temp()) +
-							"</html>";
-				}
-			} else if (column == 4) {
-				if (row < admList.size()) {
-					if (admList.get(row).getDisDate() == null) {
-						return MessageBundle.getMessage("angal.admission.present.txt");
-					} else {
-						return Converters.toDate(admList.get(row).getDisDate());
-					}
-				} else if (row < opdList.size() + admList.size()) {
-					int z = row - admList.size();
-					String status = "" + opdList.get(z).getNewPatient();
-					return (status.compareTo("R") == 0
-							? MessageBundle.getMessage("angal.opd.reattendance.txt")
-							: MessageBundle.getMessage("angal.opd.newattendance.txt"));
-				} else {
-					int f = row - (opdList.size() + admList.size());
-					return MessageBundle.getMessage("angal.admission.o2.txt") + ": " + (examinationList.get(f).getPex_sat());
-				}
+				return timelineRow.source;
+			}
+			if (column >= 0 && column < timelineRow.cells.length) {
+				return timelineRow.cells[column];
 			}
 			return null;
 		}
@@ -983,13 +945,15 @@ public class PatientFolderBrowser extends ModalJFrame
 
 		private static final long serialVersionUID = 1L;
 
+		private final SimpleDateFormat dateFormat = new SimpleDateFormat(DATE_FORMAT_DD_MM_YY);
+
 		@Override
 		public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
 			super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
 
 			if (value instanceof Date) {
 				// Use SimpleDateFormat class to get a formatted String from Date object.
-				String strDate = new SimpleDateFormat(DATE_FORMAT_DD_MM_YY).format((Date) value);
+				String strDate = dateFormat.format((Date) value);
 
 				// Sorting algorithm will work with model value. So you dont need to worry
 				// about the renderer's display value. 
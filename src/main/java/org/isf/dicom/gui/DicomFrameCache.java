@@ -0,0 +1,335 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.dicom.gui;
+
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.dcm4che2.data.DicomObject;
+import org.dcm4che2.imageio.plugins.dcm.DicomImageReadParam;
+import org.dcm4che2.imageio.plugins.dcm.DicomStreamMetaData;
+import org.dcm4che2.io.DicomCodingException;
+import org.isf.dicom.manager.DicomManagerFactory;
+import org.isf.dicom.model.FileDicom;
+import org.isf.generaldata.MessageBundle;
+import org.isf.utils.exception.OHDicomException;
+import org.isf.utils.exception.OHServiceException;
+import org.isf.utils.exception.model.OHExceptionMessage;
+import org.isf.utils.exception.model.OHSeverityLevel;
+import org.isf.utils.image.ImageUtil;
+import org.isf.utils.image.WeightedLruCache;
+import org.isf.utils.jobjects.BackgroundTasks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decoded frames of the series shown by {@link DicomViewGui}.
+ * <p>
+ * Frames are kept in a least recently used cache bounded by the bytes of the decoded pixels
+ * (an eighth of the heap, at most 256 MB) and the next frames in the direction the user is
+ * scrolling are loaded and decoded in the background. The frames are always loaded in the background:
+ * {@link #get(Long)} never blocks, so the viewer shows a placeholder until the frame arrives.
+ * <p>
+ * A cached frame keeps the details of its file but not the raw data, dropped once decoded, so the
+ * decoded pixels are all its weight. The frames that cannot be decoded are not cached, and a frame
+ * is never loaded twice at the same time (i.e. by a prefetch and a display).
+ */
+public class DicomFrameCache {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DicomFrameCache.class);
+
+	private static final long MAX_BYTES = Math.min(256L * 1024 * 1024, Runtime.getRuntime().maxMemory() / 8);
+	private static final int PREFETCH = 4;
+
+	@FunctionalInterface
+	interface FrameLoader {
+
+		DicomFrame load(Long id, int patID, String serieNumber) throws OHServiceException;
+	}
+
+	private final WeightedLruCache<Long, DicomFrame> frames;
+	private final FrameLoader loader;
+	private final Executor background;
+	/*
+	 * the loads running or queued, shared by the prefetches and the displays of the same frame
+	 */
+	private final Map<Long, CompletableFuture<DicomFrame>> loading = new ConcurrentHashMap<>();
+	/*
+	 * the tasks of the prefetches, which can be cancelled until they start
+	 */
+	private final Map<Long, Future<?>> prefetching = new ConcurrentHashMap<>();
+	private int patID;
+	private String serieNumber;
+
+	public DicomFrameCache() {
+		this(MAX_BYTES, DicomFrameCache::load, BackgroundTasks.getExecutor());
+	}
+
+	DicomFrameCache(long maxBytes, FrameLoader loader, Executor background) {
+		this.frames = new WeightedLruCache<>(maxBytes, frame -> ImageUtil.sizeInBytes(frame.getImage()));
+		this.loader = loader;
+		this.background = background;
+	}
+
+	/**
+	 * Empties the cache and points it to another series; the frames of the previous series still loading are not cached.
+	 */
+	public synchronized void reset(int patID, String serieNumber) {
+		cancelPrefetches(null, 0, 0);
+		frames.clear();
+		this.patID = patID;
+		this.serieNumber = serieNumber;
+	}
+
+	/**
+	 * @param id - the id of the frame
+	 * @return the decoded frame if in the cache, otherwise {@code null}
+	 */
+	public DicomFrame getIfCached(Long id) {
+		return frames.get(id);
+	}
+
+	/**
+	 * Returns the frame from the cache, or loads and decodes it in the background, joining its prefetch if running.
+	 * Never blocks: the result must be handed to Swing with {@code SwingUtilities.invokeLater}.
+	 *
+	 * @param id - the id of the frame
+	 * @return the decoded frame, completed exceptionally with an {@link OHServiceException} if the frame cannot be read
+	 */
+	public synchronized CompletableFuture<DicomFrame> get(Long id) {
+		// shown now: no longer a prefetch that can be cancelled
+		prefetching.remove(id);
+		return loadAsync(id, false);
+	}
+
+	/**
+	 * Starts loading the frames following the current one in the scrolling direction;
+	 * the prefetches no longer in that window are cancelled if not started yet.
+	 *
+	 * @param ids - the ids of the frames in the series
+	 * @param index - the current frame
+	 * @param direction - positive when scrolling forward, negative backward
+	 */
+	public synchronized void prefetch(Long[] ids, int index, int direction) {
+		int step = direction < 0 ? -1 : 1;
+		int first = index + step;
+		int last = index + step * PREFETCH;
+		cancelPrefetches(ids, Math.min(first, last), Math.max(first, last));
+		for (int i = first; i != last + step; i += step) {
+			if (i < 0 || i >= ids.length) {
+				break;
+			}
+			loadAsync(ids[i], true);
+		}
+	}
+
+	/*
+	 * Returns the frame cached or already loading, otherwise queues its load; called holding the lock
+	 */
+	private CompletableFuture<DicomFrame> loadAsync(Long id, boolean prefetch) {
+		DicomFrame frame = frames.get(id);
+		if (frame != null) {
+			return CompletableFuture.completedFuture(frame);
+		}
+		CompletableFuture<DicomFrame> running = loading.get(id);
+		if (running != null) {
+			return running;
+		}
+		CompletableFuture<DicomFrame> load = new CompletableFuture<>();
+		int loadPatID = patID;
+		String loadSerieNumber = serieNumber;
+		FutureTask<Void> task = new FutureTask<>(() -> loadInBackground(id, loadPatID, loadSerieNumber, load), null);
+		loading.put(id, load);
+		if (prefetch) {
+			prefetching.put(id, task);
+		}
+		background.execute(task);
+		return load;
+	}
+
+	/*
+	 * Loads the frame and caches it if decoded and still of the current series
+	 */
+	private void loadInBackground(Long id, int loadPatID, String loadSerieNumber, CompletableFuture<DicomFrame> load) {
+		try {
+			DicomFrame frame = loader.load(id, loadPatID, loadSerieNumber);
+			if (frame.getImage() != null && isCurrentSerie(loadPatID, loadSerieNumber)) {
+				frames.put(id, frame);
+			}
+			load.complete(frame);
+		} catch (OHServiceException | RuntimeException exception) {
+			load.completeExceptionally(exception);
+		} finally {
+			prefetching.remove(id);
+			loading.remove(id, load);
+		}
+	}
+
+	private synchronized boolean isCurrentSerie(int loadPatID, String loadSerieNumber) {
+		return patID == loadPatID && (serieNumber == null ? loadSerieNumber == null : serieNumber.equals(loadSerieNumber));
+	}
+
+	/*
+	 * cancels the prefetches not yet started for frames outside [from, to]
+	 */
+	private void cancelPrefetches(Long[] ids, int from, int to) {
+		Iterator<Map.Entry<Long, Future<?>>> iterator = prefetching.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<Long, Future<?>> entry = iterator.next();
+			if (!isInWindow(entry.getKey(), ids, from, to)) {
+				iterator.remove();
+				if (entry.getValue().cancel(false)) {
+					CompletableFuture<DicomFrame> load = loading.remove(entry.getKey());
+					if (load != null) {
+						load.cancel(false);
+					}
+				}
+			}
+		}
+	}
+
+	private static boolean isInWindow(Long id, Long[] ids, int from, int to) {
+		if (ids == null) {
+			return false;
+		}
+		for (int i = Math.max(0, from); i <= to && i < ids.length; i++) {
+			if (ids[i].equals(id)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static DicomFrame load(Long id, int patID, String serieNumber) throws OHServiceException {
+		FileDicom details = DicomManagerFactory.getManager().loadDetails(id, patID, serieNumber);
+		String fileType = details.getFileName().substring(details.getFileName().lastIndexOf('.') + 1);
+		if (fileType.equalsIgnoreCase("jpg") || fileType.equalsIgnoreCase("jpeg")) {
+			return getImageFromJPG(details);
+		} else if (fileType.equalsIgnoreCase("dcm")) {
+			return getImageFromDicom(details);
+		}
+		return new DicomFrame(details, null, null);
+	}
+
+	/**
+	 * Get the BufferedImage from JPG/JPEG object
+	 * 
+	 * @param dett
+	 */
+	private static DicomFrame getImageFromJPG(FileDicom dett) {
+		BufferedImage image = null;
+		try {
+			ImageReader reader = (ImageReader) new com.sun.imageio.plugins.jpeg.JPEGImageReader(null);
+			ImageInputStream imageInputStream = ImageIO.createImageInputStream(dett.getDicomData().getBinaryStream());
+			reader.setInput(imageInputStream, false);
+
+			try {
+				image = reader.read(0);
+			} catch (DicomCodingException dce) {
+				throw new OHDicomException(new OHExceptionMessage(MessageBundle.getMessage("angal.dicom.err"), 
+						MessageBundle.formatMessage("angal.dicom.thefileisnotindicomformat.fmt.msg", dett.getFileName()),
+						OHSeverityLevel.ERROR));
+			}
+
+			imageInputStream.close();
+		} catch (Exception exception) {
+			LOGGER.error(exception.getMessage(), exception);
+		}
+		dett.setDicomData(null);
+		return new DicomFrame(dett, image, null);
+	}
+
+	/**
+	 * Get the BufferedImage from DICOM object
+	 * 
+	 * @param dett
+	 */
+	private static DicomFrame getImageFromDicom(FileDicom dett) {
+		BufferedImage image = null;
+		DicomObject dicom = null;
+		try {
+			Iterator<?> iter = ImageIO.getImageReadersByFormatName("DICOM");
+			ImageReader reader = (ImageReader) iter.next();
+			DicomImageReadParam param = (DicomImageReadParam) reader.getDefaultReadParam();
+			ImageInputStream imageInputStream = ImageIO.createImageInputStream(dett.getDicomData().getBinaryStream());
+			reader.setInput(imageInputStream, false);
+
+			try {
+				image = reader.read(0, param);
+			} catch (DicomCodingException dce) {
+				throw new OHDicomException(new OHExceptionMessage(MessageBundle.getMessage("angal.dicom.err"), 
+						MessageBundle.formatMessage("angal.dicom.thefileisnotindicomformat.fmt.msg", dett.getFileName()),
+						OHSeverityLevel.ERROR));
+			}
+
+			imageInputStream.close();
+			DicomStreamMetaData dsmd = (DicomStreamMetaData) reader.getStreamMetadata();
+			dicom = dsmd.getDicomObject();
+		} catch (Exception exception) {
+			LOGGER.error(exception.getMessage(), exception);
+		}
+		dett.setDicomData(null);
+		return new DicomFrame(dett, image, dicom);
+	}
+
+	/**
+	 * A frame read from storage with its decoded image; the details no longer hold the raw data.
+	 */
+	public static class DicomFrame {
+
+		private final FileDicom details;
+		private final BufferedImage image;
+		private final DicomObject dicom;
+
+		DicomFrame(FileDicom details, BufferedImage image, DicomObject dicom) {
+			this.details = details;
+			this.image = image;
+			this.dicom = dicom;
+		}
+
+		public FileDicom getDetails() {
+			return details;
+		}
+
+		public BufferedImage getImage() {
+			return image;
+		}
+
+		/**
+		 * @return the DICOM metadata, {@code null} for JPEG frames
+		 */
+		public DicomObject getDicom() {
+			return dicom;
+		}
+	}
+
+}
@@ -324,7 +324,7 @@ public class DicomGui extends ModalJFrame implements WindowListener {
 				if (selectedFile.isDirectory()) {
 					//folder
 					thumbnail.disableLoadButton();
-					new SourceFiles(dummyFileDicom, selectedFile, patient, numfiles, thumbnail, new DicomLoader(numfiles, myJFrame));
+					new DicomImporter(dummyFileDicom, selectedFile, patient, numfiles, thumbnail, new DicomLoader(numfiles, myJFrame)).execute();
 				} else {
 					// single file
 					try {
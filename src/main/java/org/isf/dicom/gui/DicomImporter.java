@@ -0,0 +1,263 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.dicom.gui;
+
+import java.io.File;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.swing.SwingWorker;
+
+import org.isf.dicom.manager.AbstractThumbnailViewGui;
+import org.isf.dicom.manager.SourceFiles;
+import org.isf.dicom.model.FileDicom;
+import org.isf.utils.exception.OHServiceException;
+import org.isf.utils.exception.gui.OHServiceExceptionUtil;
+import org.isf.utils.jobjects.BackgroundTasks;
+import org.isf.utils.jobjects.MessageDialog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Imports a folder of DICOM (or JPEG) files with a few parallel workers, reporting the
+ * throughput to the {@link DicomLoader}.
+ * <p>
+ * The first file is imported alone, so that the series settings are established before the
+ * other files are imported concurrently; each worker then uses its own copy of those settings.
+ * The number of workers bounds the files (and so the memory) in flight at the same time.
+ * <p>
+ * A file that cannot be imported is logged and skipped, and the skipped files are reported at the end.
+ * Only the errors concerning the whole series stop the import: a failure on the first file, which
+ * establishes the settings, or a lost database connection.
+ */
+public class DicomImporter extends SwingWorker<Integer, DicomImporter.Progress> {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DicomImporter.class);
+
+	/*
+	 * Parsing is CPU bound, but every file ends in a database write: more workers would only queue on the connection pool
+	 */
+	private static final int WORKERS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+	private static final int MAX_REPORTED_FILES = 10;
+	/* the SQL state class of the connection exceptions */
+	private static final String CONNECTION_SQL_STATE = "08";
+
+	private final FileDicom fileDicom;
+	private final File sourceDirectory;
+	private final int patient;
+	private final int numfiles;
+	private final AbstractThumbnailViewGui thumbnail;
+	private final DicomLoader dicomLoader;
+
+	private final AtomicInteger loaded = new AtomicInteger();
+	private final AtomicLong loadedBytes = new AtomicLong();
+	private final AtomicInteger failed = new AtomicInteger();
+	private final Queue<String> failedFiles = new ConcurrentLinkedQueue<>();
+	private final AtomicReference<Exception> failure = new AtomicReference<>();
+	private long startTime;
+
+	public DicomImporter(FileDicom fileDicom, File sourceDirectory, int patient, int numfiles, AbstractThumbnailViewGui thumbnail,
+			DicomLoader dicomLoader) {
+		this.fileDicom = fileDicom;
+		this.sourceDirectory = sourceDirectory;
+		this.patient = patient;
+		this.numfiles = numfiles;
+		this.thumbnail = thumbnail;
+		this.dicomLoader = dicomLoader;
+	}
+
+	@Override
+	protected Integer doInBackground() throws Exception {
+		startTime = System.nanoTime();
+		List<File> files = new ArrayList<>(numfiles);
+		listFiles(sourceDirectory, files);
+		if (files.isEmpty()) {
+			return 0;
+		}
+
+		File first = files.get(0);
+		importFile(fileDicom, first);
+
+		AtomicInteger next = new AtomicInteger(1);
+		List<Future<?>> workers = new ArrayList<>(WORKERS);
+		for (int i = 0; i < WORKERS && i < files.size() - 1; i++) {
+			FileDicom settings = copySettings(first);
+			workers.add(BackgroundTasks.getExecutor().submit(() -> importFiles(files, next, settings)));
+		}
+		try {
+			for (Future<?> worker : workers) {
+				worker.get();
+			}
+		} finally {
+			for (Future<?> worker : workers) {
+				worker.cancel(true);
+			}
+		}
+		if (failure.get() != null) {
+			throw failure.get();
+		}
+		return loaded.get();
+	}
+
+	private void importFiles(List<File> files, AtomicInteger next, FileDicom settings) {
+		while (failure.get() == null && !isCancelled()) {
+			int index = next.getAndIncrement();
+			if (index >= files.size()) {
+				return;
+			}
+			File file = files.get(index);
+			try {
+				importFile(settings, file);
+			} catch (Exception exception) {
+				if (isConnectionError(exception)) {
+					failure.compareAndSet(null, exception);
+				} else {
+					LOGGER.error("Error importing DICOM file {}: ", file, exception);
+					if (failed.incrementAndGet() <= MAX_REPORTED_FILES) {
+						failedFiles.add(file.getName());
+					}
+				}
+			}
+		}
+	}
+
+	private static boolean isConnectionError(Throwable exception) {
+		for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+			if (cause instanceof SQLTransientConnectionException || cause instanceof SQLNonTransientConnectionException) {
+				return true;
+			}
+			if (cause instanceof SQLException) {
+				String sqlState = ((SQLException) cause).getSQLState();
+				if (sqlState != null && sqlState.startsWith(CONNECTION_SQL_STATE)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private void importFile(FileDicom settings, File file) throws Exception {
+		SourceFiles.loadDicom(settings, file, patient);
+		int files = loaded.incrementAndGet();
+		long bytes = loadedBytes.addAndGet(file.length());
+		publish(new Progress(files, bytes, System.nanoTime() - startTime));
+	}
+
+	/*
+	 * loadDicom() fills in the FileDicom it is given, so each worker needs its own
+	 */
+	private FileDicom copySettings(File first) {
+		FileDicom settings = SourceFiles.preLoadDicom(first, numfiles);
+		settings.setDicomSeriesNumber(fileDicom.getDicomSeriesNumber());
+		settings.setDicomSeriesDescription(fileDicom.getDicomSeriesDescription());
+		settings.setDicomSeriesDate(fileDicom.getDicomSeriesDate());
+		settings.setDicomStudyDate(fileDicom.getDicomStudyDate());
+		settings.setDicomType(fileDicom.getDicomType());
+		return settings;
+	}
+
+	private static void listFiles(File directory, List<File> files) {
+		File[] children = directory.listFiles();
+		if (children == null) {
+			return;
+		}
+		for (File child : children) {
+			if (child.getName().startsWith("DICOMDIR")) {
+				continue;
+			}
+			if (child.isDirectory()) {
+				listFiles(child, files);
+			} else {
+				files.add(child);
+			}
+		}
+	}
+
+	@Override
+	protected void process(List<Progress> chunks) {
+		// only the latest progress is worth showing
+		Progress progress = chunks.get(chunks.size() - 1);
+		dicomLoader.setProgress(progress.getFiles(), progress.getFilesPerSecond(), progress.getMegabytesPerSecond());
+	}
+
+	@Override
+	protected void done() {
+		dicomLoader.setVisible(false);
+		dicomLoader.dispose();
+		if (!isCancelled()) {
+			try {
+				get();
+				if (failed.get() > 0) {
+					MessageDialog.warning(null, "angal.dicom.somefilescouldnotbeimported.fmt.msg", failed.get(), numfiles,
+							String.join("\n", failedFiles) + (failed.get() > MAX_REPORTED_FILES ? "\n..." : ""));
+				}
+			} catch (InterruptedException interruptedException) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException executionException) {
+				if (executionException.getCause() instanceof OHServiceException) {
+					OHServiceExceptionUtil.showMessages((OHServiceException) executionException.getCause());
+				} else {
+					LOGGER.error("Error importing DICOM files: ", executionException.getCause());
+				}
+			}
+		}
+		thumbnail.initialize();
+	}
+
+	/**
+	 * Files imported so far and the elapsed time.
+	 */
+	static final class Progress {
+
+		private final int files;
+		private final long bytes;
+		private final long elapsedNanos;
+
+		Progress(int files, long bytes, long elapsedNanos) {
+			this.files = files;
+			this.bytes = bytes;
+			this.elapsedNanos = elapsedNanos;
+		}
+
+		int getFiles() {
+			return files;
+		}
+
+		double getFilesPerSecond() {
+			return elapsedNanos > 0 ? files * 1e9 / elapsedNanos : 0;
+		}
+
+		double getMegabytesPerSecond() {
+			return elapsedNanos > 0 ? bytes * 1e9 / elapsedNanos / (1024 * 1024) : 0;
+		}
+	}
+}
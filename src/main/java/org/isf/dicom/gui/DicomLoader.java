@@ -61,7 +61,10 @@ public class DicomLoader extends AbstractDicomLoader {
 		jp.add(bar, BorderLayout.CENTER);
 		add(jp);
 		setVisible(true);
+		// sized once for the longest progress text, so that the progress updates do not lay out the window again
+		setProgress(numfiles, 9999.9, 9999.9);
 		pack();
+		setLoaded(0);
 
 		setLocationRelativeTo(owner);
 		setVisible(true);
@@ -72,4 +75,16 @@ public class DicomLoader extends AbstractDicomLoader {
 		bar.setValue(loaded);
 		jLabelTitle.setText(labelTitle + " [" + loaded + "/" + numfiles + "]");
 	}
+
+	/**
+	 * Shows the files loaded so far together with the current throughput.
+	 *
+	 * @param loaded the files loaded
+	 * @param filesPerSecond the files loaded per second
+	 * @param megabytesPerSecond the MB loaded per second
+	 */
+	public void setProgress(int loaded, double filesPerSecond, double megabytesPerSecond) {
+		bar.setValue(loaded);
+		jLabelTitle.setText(String.format("%s [%d/%d] %.1f files/s, %.1f MB/s", labelTitle, loaded, numfiles, filesPerSecond, megabytesPerSecond));
+	}
 }
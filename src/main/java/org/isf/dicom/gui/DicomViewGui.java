@@ -36,35 +36,29 @@ import java.awt.event.MouseWheelListener;
 import java.awt.image.BufferedImage;
 import java.text.DateFormat;
 import java.util.Date;
-import java.util.Iterator;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
 
-import javax.imageio.ImageIO;
-import javax.imageio.ImageReader;
-import javax.imageio.stream.ImageInputStream;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
-import javax.swing.ImageIcon;
-import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JSlider;
+import javax.swing.SwingUtilities;
 import javax.swing.border.TitledBorder;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
 import org.dcm4che2.data.DicomObject;
 import org.dcm4che2.data.Tag;
-import org.dcm4che2.imageio.plugins.dcm.DicomImageReadParam;
-import org.dcm4che2.imageio.plugins.dcm.DicomStreamMetaData;
-import org.dcm4che2.io.DicomCodingException;
 import org.imgscalr.Scalr;
+import org.isf.dicom.gui.DicomFrameCache.DicomFrame;
 import org.isf.dicom.manager.DicomManagerFactory;
 import org.isf.dicom.model.FileDicom;
 import org.isf.generaldata.MessageBundle;
 import org.isf.patient.model.Patient;
-import org.isf.utils.exception.OHDicomException;
 import org.isf.utils.exception.OHServiceException;
-import org.isf.utils.exception.model.OHExceptionMessage;
-import org.isf.utils.exception.model.OHSeverityLevel;
+import org.isf.utils.image.ImageUtil;
+import org.isf.utils.image.WeightedLruCache;
 import org.isf.utils.jobjects.MessageDialog;
 import org.isf.utils.time.Converters;
 import org.slf4j.Logger;
@@ -79,7 +73,6 @@ import org.slf4j.LoggerFactory;
 public class DicomViewGui extends JPanel {
 
 	private static final long serialVersionUID = 1L;
-
 	private static final Logger LOGGER = LoggerFactory.getLogger(DicomViewGui.class);
 
 	// status of framereader
@@ -93,6 +86,8 @@ public class DicomViewGui extends JPanel {
 	private BufferedImage tmpImg = null;
 	private DicomObject tmpDicom = null;
 	private FileDicom tmpDbFile = null;
+	private boolean frameLoading = false;
+	private final DicomFrameCache frameCache = new DicomFrameCache();
 
 	// GUI
 	private JPanel jPanelHeader = null;
@@ -106,9 +101,17 @@ public class DicomViewGui extends JPanel {
 	private int y = -1;
 	private int totX = -1;
 	private int totY = -1;
+	private boolean centerImage = true;
 	private static final Color colScr = Color.LIGHT_GRAY;
 	private static final int VGAP = 15;
 
+	// scaled versions of the current frame, by zoom percentage
+	private static final long SCALED_CACHE_BYTES = 64L * 1024 * 1024;
+	private final WeightedLruCache<Integer, BufferedImage> scaledImages = new WeightedLruCache<>(SCALED_CACHE_BYTES, ImageUtil::sizeInBytes);
+	private BufferedImage scaledSource = null;
+	private BufferedImage scaledPhoto = null;
+	private FramePainter framePainter = null;
+
 	/**
 	 * Construct a new detail for DICOM image
 	 * 
@@ -137,7 +140,9 @@ public class DicomViewGui extends JPanel {
 		if (frames == null) {
 			frames = new Long[0];
 		} else {
+			frameCache.reset(patID, serieNumber);
 			refreshFrame();
+			frameCache.prefetch(frames, frameIndex, 1);
 		}
 
 		initComponent();
@@ -148,6 +153,7 @@ public class DicomViewGui extends JPanel {
 
 		this.patID = patient.getCode();
 		this.ohPatient = patient;
+		this.scaledPhoto = null;
 		this.serieNumber = serieNumber;
 		this.frameIndex = 0;
 
@@ -165,8 +171,10 @@ public class DicomViewGui extends JPanel {
 
 		jSliderZoom.setValue(100);
 
+		frameCache.reset(patID, serieNumber);
 		if (frames.length > 0) {
 			refreshFrame();
+			frameCache.prefetch(frames, frameIndex, 1);
 		}
 
 		reInitComponent();
@@ -205,9 +213,9 @@ public class DicomViewGui extends JPanel {
 				jSliderFrame.setEnabled(false);
 			}
 
-			jPanelCenter = new JPanel();
+			jPanelCenter = new JPanel(new BorderLayout());
 
-			jPanelCenter.add(composeCenter(jPanelCenter.getWidth(), jPanelCenter.getHeight(), true));
+			jPanelCenter.add(composeCenter(true), BorderLayout.CENTER);
 		}
 
 		jPanelCenter.setBackground(Color.BLACK);
@@ -256,7 +264,8 @@ public class DicomViewGui extends JPanel {
 			}
 
 			jPanelCenter.removeAll();
-			jPanelCenter.add(composeCenter(jPanelCenter.getWidth(), jPanelCenter.getHeight(), true));
+			jPanelCenter.setLayout(new BorderLayout());
+			jPanelCenter.add(composeCenter(true), BorderLayout.CENTER);
 			validate();
 		}
 		jSliderFrame.setValue(0);
@@ -268,58 +277,103 @@ public class DicomViewGui extends JPanel {
 	/**
 	 * Compose the panel of central image
 	 * 
+	 * @param calculate - {@code true} to center the image at the next paint
 	 * @return the panel
 	 */
-	private JPanel composeCenter(int w, int h, boolean calculate) {
+	private JPanel composeCenter(boolean calculate) {
+		if (framePainter == null) {
+			framePainter = new FramePainter();
+			framePainter.setBackground(Color.BLACK);
+		}
+		centerImage |= calculate;
+		framePainter.repaint();
+		return framePainter;
+	}
 
-		JPanel centerPanel = new JPanel(new BorderLayout(), true);
-		BufferedImage imageCanvas = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
-		centerPanel.setBackground(Color.BLACK);
-		int perc = jSliderZoom.getValue();
-		float value = (float) tmpImg.getWidth() * (float) perc / 100f;
-		BufferedImage immagineResized = Scalr.resize(tmpImg, Math.round(value));
+	/**
+	 * @return the current frame scaled to the zoom, resampled only the first time a zoom is used
+	 */
+	private BufferedImage getScaledImage(int perc) {
+		if (scaledSource != tmpImg) {
+			scaledImages.clear();
+			scaledSource = tmpImg;
+		}
+		BufferedImage immagineResized = scaledImages.get(perc);
+		if (immagineResized == null) {
+			float value = (float) tmpImg.getWidth() * (float) perc / 100f;
+			immagineResized = Scalr.resize(tmpImg, Math.round(value));
+			scaledImages.put(perc, immagineResized);
+		}
+		return immagineResized;
+	}
 
-		Graphics2D canvas = (Graphics2D) imageCanvas.getGraphics();
+	/**
+	 * Paints the current frame and its information directly on screen: panning only
+	 * changes the point where the (cached) scaled image is drawn, no image is resampled
+	 * or allocated.
+	 */
+	class FramePainter extends JPanel {
 
-		// design on canvas
-		int width = immagineResized.getWidth();
-		int height = immagineResized.getHeight();
+		private static final long serialVersionUID = 1L;
 
-		if (calculate) {
-			x = (w - width) / 2;
-			y = (h - height) / 2;
-		}
+		@Override
+		protected void paintComponent(Graphics g) {
+			super.paintComponent(g);
+			if (tmpImg == null) {
+				if (frameLoading) {
+					drawLoading(g, getWidth(), getHeight());
+				}
+				return;
+			}
+			int w = getWidth();
+			int h = getHeight();
+			Graphics2D canvas = (Graphics2D) g;
+			BufferedImage immagineResized = getScaledImage(jSliderZoom.getValue());
+
+			// design on canvas
+			int width = immagineResized.getWidth();
+			int height = immagineResized.getHeight();
+
+			if (centerImage) {
+				x = (w - width) / 2;
+				y = (h - height) / 2;
+				centerImage = false;
+			}
 
-		totX = x - (p1x - p2x);
-		totY = y - (p1y - p2y);
+			totX = x - (p1x - p2x);
+			totY = y - (p1y - p2y);
 
-		if (totX < -width) {
-			totX = -width;
-		}
-		if (totY < -height) {
-			totY = -height;
-		}
+			if (totX < -width) {
+				totX = -width;
+			}
+			if (totY < -height) {
+				totY = -height;
+			}
 
-		if (totX > imageCanvas.getWidth()) {
-			totX = imageCanvas.getWidth();
-		}
+			if (totX > w) {
+				totX = w;
+			}
 
-		if (totY > imageCanvas.getHeight()) {
-			totY = imageCanvas.getHeight();
-		}
+			if (totY > h) {
+				totY = h;
+			}
 
-		canvas.drawImage(immagineResized, totX, totY, this);
-		
-		// draws info
-		drawPatientUpRight(canvas, imageCanvas.getWidth(), imageCanvas.getHeight());
-		drawInfoFrameBottomLeft(canvas, imageCanvas.getWidth(), imageCanvas.getHeight());
-		drawStudyUpRight(canvas, imageCanvas.getWidth(), imageCanvas.getHeight());
-		drawSerieBottomRight(canvas, imageCanvas.getWidth(), imageCanvas.getHeight());
+			canvas.drawImage(immagineResized, totX, totY, this);
 
-		JLabel centerImgLabel = new JLabel(new ImageIcon(imageCanvas));
-		centerPanel.add(centerImgLabel, BorderLayout.CENTER);
+			// draws info
+			drawPatientUpRight(canvas, w, h);
+			drawInfoFrameBottomLeft(canvas, w, h);
+			drawStudyUpRight(canvas, w, h);
+			drawSerieBottomRight(canvas, w, h);
+		}
+	}
 
-		return centerPanel;
+	private void drawLoading(Graphics g, int w, int h) {
+		Color orig = g.getColor();
+		g.setColor(colScr);
+		String txt = MessageBundle.getMessage("angal.dicom.loading");
+		g.drawString(txt, (w - g.getFontMetrics().stringWidth(txt)) / 2, h / 2);
+		g.setColor(orig);
 	}
 
 	private void drawQuadrant(Graphics g, int h, int w, Color c) {
@@ -370,17 +424,28 @@ public class DicomViewGui extends JPanel {
 		}
 		canvas.drawString(MessageBundle.getMessage("angal.common.age.txt") + " : " + txt, 10, hi);
 
-		if (ohPatient.getPatientProfilePhoto() != null) {
+		BufferedImage photo = getScaledPhoto();
+		if (photo != null) {
+			hi += VGAP;
+			canvas.drawImage(photo, 10, hi, this);
+		}
+		canvas.setColor(orig);
+	}
+
+	/**
+	 * @return the patient photo with its frame, scaled once per patient
+	 */
+	private BufferedImage getScaledPhoto() {
+		if (scaledPhoto == null && ohPatient.getPatientProfilePhoto() != null) {
 			final Image photoAsImage = ohPatient.getPatientProfilePhoto().getPhotoAsImage();
 			if (photoAsImage != null) {
-				hi += VGAP;
 				BufferedImage bi = new BufferedImage(photoAsImage.getWidth(this), photoAsImage.getHeight(this), BufferedImage.TYPE_INT_ARGB);
 				bi.getGraphics().drawImage(photoAsImage, 0, 0, this);
 				drawQuadrant(bi.getGraphics(), photoAsImage.getHeight(this), photoAsImage.getWidth(this), Color.WHITE);
-				canvas.drawImage(Scalr.resize(bi, 100), 10, hi, this);
+				scaledPhoto = Scalr.resize(bi, 100);
 			}
 		}
-		canvas.setColor(orig);
+		return scaledPhoto;
 	}
 
 	private void drawInfoFrameBottomLeft(Graphics2D canvas, int w, int h) {
@@ -453,94 +518,60 @@ public class DicomViewGui extends JPanel {
 	}
 
 	/**
-	 * Load actual frame from storage
+	 * Shows the actual frame if already decoded, otherwise loads it in background showing a placeholder until it arrives
 	 */
 	private void refreshFrame() {
 		Long id = frames[frameIndex];
-		try {
-			tmpDbFile = DicomManagerFactory.getManager().loadDetails(id, patID, serieNumber);
-			String fileType = tmpDbFile.getFileName().substring(tmpDbFile.getFileName().lastIndexOf('.')+1);
-			if (fileType.equalsIgnoreCase("jpg") || fileType.equalsIgnoreCase("jpeg")) {
-				getImageFromJPG(tmpDbFile);
-			} else if (fileType.equalsIgnoreCase("dcm")) {
-				getImageFromDicom(tmpDbFile);
+		DicomFrame frame = frameCache.getIfCached(id);
+		if (frame != null) {
+			showFrame(frame);
+			return;
+		}
+		showFrame(null);
+		Long[] requestedFrames = frames;
+		int requestedIndex = frameIndex;
+		frameCache.get(id).whenComplete((loaded, error) -> SwingUtilities.invokeLater(() -> {
+			if (requestedFrames != frames || requestedIndex != frameIndex) {
+				// the user moved to another frame or series meanwhile
+				return;
 			}
-		} catch(OHServiceException ohServiceException) {
-			MessageDialog.showExceptions(ohServiceException);
-		}
-	}
-	
-	/**
-	 * Get the BufferedImage from JPG/JPEG object
-	 * 
-	 * @param dett
-	 */
-	private void getImageFromJPG(FileDicom dett) {
-		try {
-			tmpImg = null;
-			Iterator<?> iter = ImageIO.getImageReadersByFormatName("jpg");
-			ImageReader reader = (ImageReader) new com.sun.imageio.plugins.jpeg.JPEGImageReader(null);
-			//JPEGImageReadParam param = new JPEGImageReadParam();
-			ImageInputStream imageInputStream = ImageIO.createImageInputStream(dett.getDicomData().getBinaryStream());
-			reader.setInput(imageInputStream, false);
-
-			try {
-				tmpImg = reader.read(0);//, param);
-			} catch (DicomCodingException dce) {
-				throw new OHDicomException(new OHExceptionMessage(MessageBundle.getMessage("angal.dicom.err"), 
-						MessageBundle.formatMessage("angal.dicom.thefileisnotindicomformat.fmt.msg", dett.getFileName()),
-						OHSeverityLevel.ERROR));
+			if (error != null) {
+				showFrameError(error);
+			} else {
+				showFrame(loaded);
 			}
-
-			imageInputStream.close();
-			this.tmpDicom = null;
-		} catch (Exception exception) {
-			LOGGER.error(exception.getMessage(), exception);
-		}
+			if (framePainter != null) {
+				framePainter.repaint();
+			}
+		}));
 	}
-	
-	/**
-	 * Get the BufferedImage from DICOM object
-	 * 
-	 * @param dett
-	 */
-	private void getImageFromDicom(FileDicom dett) {
-		try {
-			tmpImg = null;
-			Iterator<?> iter = ImageIO.getImageReadersByFormatName("DICOM");
-			ImageReader reader = (ImageReader) iter.next();
-			DicomImageReadParam param = (DicomImageReadParam) reader.getDefaultReadParam();
-			ImageInputStream imageInputStream = ImageIO.createImageInputStream(dett.getDicomData().getBinaryStream());
-			reader.setInput(imageInputStream, false);
 
-			try {
-				tmpImg = reader.read(0, param);
-			} catch (DicomCodingException dce) {
-				throw new OHDicomException(new OHExceptionMessage(MessageBundle.getMessage("angal.dicom.err"), 
-						MessageBundle.formatMessage("angal.dicom.thefileisnotindicomformat.fmt.msg", dett.getFileName()),
-						OHSeverityLevel.ERROR));
-			}
+	/*
+	 * null shows the placeholder
+	 */
+	private void showFrame(DicomFrame frame) {
+		tmpDbFile = frame != null ? frame.getDetails() : null;
+		tmpImg = frame != null ? frame.getImage() : null;
+		tmpDicom = frame != null ? frame.getDicom() : null;
+		frameLoading = frame == null;
+	}
 
-			imageInputStream.close();
-			DicomStreamMetaData dsmd = (DicomStreamMetaData) reader.getStreamMetadata();
-			this.tmpDicom = dsmd.getDicomObject();
-		} catch (Exception exception) {
-			LOGGER.error(exception.getMessage(), exception);
+	private void showFrameError(Throwable error) {
+		frameLoading = false;
+		Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+		if (cause instanceof OHServiceException) {
+			MessageDialog.showExceptions((OHServiceException) cause);
+		} else if (!(cause instanceof CancellationException)) {
+			LOGGER.error("Error loading DICOM frame: ", cause);
 		}
 	}
 
 	private void refreshPan() {
-
-		jPanelCenter.removeAll();
-		jPanelCenter.add(composeCenter(jPanelCenter.getWidth(), jPanelCenter.getHeight(), false));
-		validate();
+		composeCenter(false);
 	}
 
 	private void refreshZoom() {
-
-		jPanelCenter.removeAll();
-		jPanelCenter.add(composeCenter(jPanelCenter.getWidth(), jPanelCenter.getHeight(), true));
-		validate();
+		composeCenter(true);
 	}
 
 	/**
@@ -550,13 +581,13 @@ public class DicomViewGui extends JPanel {
 	 *            , the frame to visualize
 	 */
 	private void setFrame(int frame) {
+		int direction = frame - frameIndex;
 		frameIndex = frame;
 		refreshFrame();
+		frameCache.prefetch(frames, frameIndex, direction);
 
 		resetMouseRelativePosition();
-		jPanelCenter.removeAll();
-		jPanelCenter.add(composeCenter(jPanelCenter.getWidth(), jPanelCenter.getHeight(), false));
-		validate();
+		composeCenter(false);
 	}
 
 	class ZoomListener implements ChangeListener {
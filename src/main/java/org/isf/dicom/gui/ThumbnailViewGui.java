@@ -25,10 +25,17 @@ import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Component;
 import java.awt.Dimension;
+import java.awt.Rectangle;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.image.BufferedImage;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.AbstractListModel;
 import javax.swing.BorderFactory;
@@ -40,6 +47,8 @@ import javax.swing.JPanel;
 import javax.swing.ListCellRenderer;
 import javax.swing.ListSelectionModel;
 import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.WindowConstants;
 
 import org.isf.dicom.manager.AbstractThumbnailViewGui;
@@ -48,8 +57,13 @@ import org.isf.dicom.model.FileDicom;
 import org.isf.generaldata.GeneralData;
 import org.isf.generaldata.MessageBundle;
 import org.isf.utils.exception.OHServiceException;
+import org.isf.utils.image.ImageUtil;
+import org.isf.utils.image.WeightedLruCache;
+import org.isf.utils.jobjects.BackgroundTasks;
 import org.isf.utils.jobjects.MessageDialog;
 import org.isf.utils.time.TimeTools;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Component for DICOM thumbnails composition and visualization
@@ -60,12 +74,30 @@ import org.isf.utils.time.TimeTools;
 public class ThumbnailViewGui extends AbstractThumbnailViewGui {
 
 	private static final long serialVersionUID = 1L;
+	private static final Logger LOGGER = LoggerFactory.getLogger(ThumbnailViewGui.class);
+
+	/*
+	 * Upper bound for the decoded thumbnails kept in memory (~500 thumbnails of 130x110)
+	 */
+	private static final long THUMBNAIL_CACHE_BYTES = 32L * 1024 * 1024;
+
+	private static final Dimension THUMBNAIL_SIZE = new Dimension(130, 110);
+
+	/*
+	 * Width of the thumbnail cells, the minimum width of the thumbnails pane
+	 */
+	private static final int THUMBNAIL_CELL_WIDTH = 150;
+
 	private int patID;
 	private DicomGui dicomViewer;
 	private DicomThumbsModel dicomThumbsModel;
 	boolean thumbnailViewEnabled = true;
 	boolean thumbnails;
 
+	private final WeightedLruCache<FileDicom, BufferedImage> thumbnailCache = new WeightedLruCache<>(THUMBNAIL_CACHE_BYTES, ImageUtil::sizeInBytes);
+	private final Set<FileDicom> thumbnailRequests = ConcurrentHashMap.newKeySet();
+	private SwingWorker<FileDicom[], Void> loadWorker;
+
 	/**
 	 * Initialize Component
 	 *
@@ -85,6 +117,10 @@ public class ThumbnailViewGui extends AbstractThumbnailViewGui {
 		if (thumbnails) {
 			setCellRenderer(new ImageListCellRender());
 			setLayoutOrientation(JList.VERTICAL);
+			// with both sizes fixed the list never asks the renderer to measure the cells, so only the painted ones are rendered
+			int lineHeight = new JLabel(" ").getPreferredSize().height;
+			setFixedCellWidth(THUMBNAIL_CELL_WIDTH);
+			setFixedCellHeight(THUMBNAIL_SIZE.height + 4 * lineHeight + 2);
 		}
 		else {
 			setCellRenderer(new CellListCellRender());
@@ -154,38 +190,103 @@ public class ThumbnailViewGui extends AbstractThumbnailViewGui {
 		dicomViewer.detail();
 	}
 
+	/*
+	 * The files are loaded in the background and replace the model at once; the thumbnails
+	 * are decoded later, only for the cells actually painted (see getThumbnail()).
+	 * A newer request (i.e. after an import) cancels the one still running.
+	 */
 	private void loadDicomFromDB() {
-		FileDicom[] fdb = null;
-		try {
-			fdb = DicomManagerFactory.getManager().loadPatientFiles(patID);
-		} catch(OHServiceException ohServiceException) {
-			MessageDialog.showExceptions(ohServiceException);
-		}
-		if (fdb == null) {
-			fdb = new FileDicom[0];
+		if (loadWorker != null) {
+			loadWorker.cancel(true);
 		}
+		loadWorker = new SwingWorker<FileDicom[], Void>() {
 
-		dicomThumbsModel.clear();
+			@Override
+			protected FileDicom[] doInBackground() throws OHServiceException {
+				return DicomManagerFactory.getManager().loadPatientFiles(patID);
+			}
+
+			@Override
+			protected void done() {
+				if (isCancelled()) {
+					return;
+				}
+				FileDicom[] fdb = null;
+				try {
+					fdb = get();
+				} catch (InterruptedException interruptedException) {
+					Thread.currentThread().interrupt();
+				} catch (ExecutionException executionException) {
+					if (executionException.getCause() instanceof OHServiceException) {
+						MessageDialog.showExceptions((OHServiceException) executionException.getCause());
+					} else {
+						LOGGER.error("Error loading DICOM files: ", executionException.getCause());
+					}
+				}
+				if (fdb == null) {
+					fdb = new FileDicom[0];
+				}
+				thumbnailCache.clear();
+				thumbnailRequests.clear();
+				dicomThumbsModel.setInstances(Arrays.asList(fdb));
+			}
+		};
+		loadWorker.execute();
+	}
 
-		for (FileDicom fileDicom : fdb) {
-			dicomThumbsModel.addInstance(fileDicom);
+	/*
+	 * Returns the decoded thumbnail or null if not available yet, requesting its decoding;
+	 * once ready the cell is repainted. The cells have a fixed size, so the renderer (and this method)
+	 * is only called for the cells shown.
+	 */
+	private BufferedImage getThumbnail(FileDicom instance, int index) {
+		BufferedImage image = thumbnailCache.get(instance);
+		if (image != null || !thumbnailRequests.add(instance)) {
+			return image;
 		}
+		BackgroundTasks.getExecutor().execute(() -> {
+			BufferedImage thumbnail = null;
+			try {
+				thumbnail = instance.getDicomThumbnailAsImage();
+			} catch (RuntimeException runtimeException) {
+				LOGGER.error("Error decoding DICOM thumbnail: ", runtimeException);
+			}
+			if (thumbnail == null) {
+				// keep the request so a broken thumbnail is not decoded again until the next load
+				return;
+			}
+			BufferedImage decoded = thumbnail;
+			SwingUtilities.invokeLater(() -> {
+				if (!thumbnailRequests.remove(instance)) {
+					// the files have been reloaded in the meantime
+					return;
+				}
+				thumbnailCache.put(instance, decoded);
+				if (index < dicomThumbsModel.getSize() && dicomThumbsModel.getElementAt(index) == instance) {
+					Rectangle bounds = getCellBounds(index, index);
+					if (bounds != null) {
+						repaint(bounds);
+					}
+				}
+			});
+		});
+		return null;
 	}
 
 	public static class DicomThumbsModel extends AbstractListModel {
 
 		private static final long serialVersionUID = 1L;
-		private LinkedList<FileDicom> thumbnailList;
+		private List<FileDicom> thumbnailList;
 
 		public DicomThumbsModel() {
 
-			thumbnailList = new LinkedList<>();
+			thumbnailList = new ArrayList<>();
 
 		}
 
 		@Override
 		public Object getElementAt(int index) {
-			if (index < 0) {
+			if (index < 0 || index >= thumbnailList.size()) {
 				return null;
 			} else {
 				return thumbnailList.get(index);
@@ -198,9 +299,22 @@ public class ThumbnailViewGui extends AbstractThumbnailViewGui {
 		}
 
 		public void addInstance(FileDicom instance) {
-			thumbnailList.addLast(instance);
-			int size = thumbnailList.size();
-			fireIntervalAdded(this, size, size);
+			thumbnailList.add(instance);
+			int index = thumbnailList.size() - 1;
+			fireIntervalAdded(this, index, index);
+		}
+
+		/**
+		 * Replaces all the instances, notifying the listeners once.
+		 *
+		 * @param instances
+		 */
+		public void setInstances(Collection<FileDicom> instances) {
+			clear();
+			if (!instances.isEmpty()) {
+				thumbnailList = new ArrayList<>(instances);
+				fireIntervalAdded(this, 0, thumbnailList.size() - 1);
+			}
 		}
 
 		public void clear() {
@@ -273,7 +387,6 @@ public class ThumbnailViewGui extends AbstractThumbnailViewGui {
 		public Component getListCellRendererComponent(JList list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
 
 			FileDicom instance = (FileDicom) value;
-			Dimension dim = new Dimension(130, 110);
 			
 			// Image Cell Panel
 			JPanel panel = new JPanel(new BorderLayout(), true);
@@ -294,11 +407,11 @@ public class ThumbnailViewGui extends AbstractThumbnailViewGui {
 			header.add(top, BorderLayout.SOUTH);
 			panel.add(header, BorderLayout.NORTH);
 			
-			// Image
-			BufferedImage image = instance.getDicomThumbnailAsImage();
-			JLabel jLab = new JLabel(new ImageIcon(image));
-			jLab.setPreferredSize(dim);
-			jLab.setMaximumSize(dim);
+			// Image (an empty placeholder of the same size until decoded)
+			BufferedImage image = getThumbnail(instance, index);
+			JLabel jLab = image != null ? new JLabel(new ImageIcon(image)) : new JLabel();
+			jLab.setPreferredSize(THUMBNAIL_SIZE);
+			jLab.setMaximumSize(THUMBNAIL_SIZE);
 			jLab.setVerticalTextPosition(SwingConstants.BOTTOM);
 			jLab.setHorizontalTextPosition(SwingConstants.CENTER);
 			panel.add(jLab, BorderLayout.CENTER);
@@ -37,7 +37,6 @@ import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.JTextField;
 import javax.swing.ListSelectionModel;
-import javax.swing.RowFilter;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 import javax.swing.table.DefaultTableModel;
@@ -52,6 +51,7 @@ import org.isf.generaldata.MessageBundle;
 import org.isf.menu.manager.Context;
 import org.isf.utils.exception.OHServiceException;
 import org.isf.utils.exception.gui.OHServiceExceptionUtil;
+import org.isf.utils.jobjects.LiteralRowFilter;
 import org.isf.utils.jobjects.MessageDialog;
 import org.isf.utils.jobjects.ModalJFrame;
 import org.slf4j.Logger;
@@ -189,6 +189,7 @@ public class ExamBrowser extends ModalJFrame implements ExamListener {
 	}
 
 	private TableRowSorter<TableModel> sorter;
+	private LiteralRowFilter<TableModel> rowFilter = new LiteralRowFilter<>();
 
 	private JTable getJTable() {
 		if (table == null) {
@@ -196,6 +197,7 @@ public class ExamBrowser extends ModalJFrame implements ExamListener {
 			table = new JTable(model);
 			table.setAutoCreateColumnsFromModel(false);
 			sorter = new TableRowSorter<>(model);
+			sorter.setRowFilter(rowFilter);
 			table.setRowSorter(sorter);
 			table.getColumnModel().getColumn(0).setMinWidth(pColumnWidth[0]);
 			table.getColumnModel().getColumn(1).setMinWidth(pColumnWidth[1]);
@@ -384,10 +386,8 @@ public class ExamBrowser extends ModalJFrame implements ExamListener {
 	}
 
 	private void filterExam() {
-		String s = searchTextField.getText().trim();
-		List<RowFilter<Object, Object>> filters = new ExamFilterFactory().buildFilters(s);
-		if (!filters.isEmpty()) {
-			sorter.setRowFilter(RowFilter.andFilter(filters));
+		if (rowFilter.setText(searchTextField.getText())) {
+			sorter.sort();
 		}
 	}
 
@@ -398,8 +398,8 @@ public class ExamBrowser extends ModalJFrame implements ExamListener {
 		} else {
 			model = new ExamBrowsingModel(pSelection);
 		}
-		model.fireTableDataChanged();
-		table.updateUI();
+		table.setModel(model);
+		sorter.setModel(model);
 	}
 
 }
@@ -39,8 +39,6 @@ import java.awt.event.FocusAdapter;
 import java.awt.event.FocusEvent;
 import java.awt.event.FocusListener;
 import java.awt.event.ItemEvent;
-import java.awt.event.MouseAdapter;
-import java.awt.event.MouseEvent;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Date;
@@ -71,7 +69,6 @@ import javax.swing.border.EmptyBorder;
 import javax.swing.table.AbstractTableModel;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.JTableHeader;
-import javax.swing.table.TableCellRenderer;
 import javax.swing.text.JTextComponent;
 
 import org.isf.examination.manager.ExaminationBrowserManager;
@@ -83,8 +80,8 @@ import org.isf.generaldata.MessageBundle;
 import org.isf.menu.manager.Context;
 import org.isf.stat.gui.report.GenericReportExamination;
 import org.isf.utils.exception.OHServiceException;
+import org.isf.utils.jobjects.ButtonColumn;
 import org.isf.utils.jobjects.CustomJDateChooser;
-import org.isf.utils.jobjects.IconButton;
 import org.isf.utils.jobjects.MessageDialog;
 import org.isf.utils.jobjects.ModalJFrame;
 import org.isf.utils.jobjects.ScaledJSlider;
@@ -185,7 +182,7 @@ public class PatientExaminationEdit extends ModalJFrame {
 			MessageBundle.getMessage("angal.examination.note.col").toUpperCase()
 	};
 	private final Class[] columnClasses = { String.class, Integer.class, Double.class, String.class, Integer.class, Double.class, Double.class, Integer.class,
-			Integer.class, Integer.class, String.class, String.class, String.class, JButton.class };
+			Integer.class, Integer.class, String.class, String.class, String.class, String.class };
 	private int[] columnWidth = { 100, 40, 40, 100, 70, 50, 50, 50, 40, 50, 70, 70, 70, 70 };
 	private int[] columnAlignment = { SwingConstants.LEFT, SwingConstants.CENTER, SwingConstants.CENTER, SwingConstants.CENTER, SwingConstants.CENTER,
 			SwingConstants.CENTER, SwingConstants.CENTER, SwingConstants.CENTER, SwingConstants.CENTER, SwingConstants.CENTER, SwingConstants.CENTER,
@@ -1927,53 +1924,32 @@ public class PatientExaminationEdit extends ModalJFrame {
 	private JScrollPane getJTableSummary() {
 		JScrollPane scrollPane = new JScrollPane();
 		scrollPane.setPreferredSize(new Dimension(870, 150));
-		TableCellRenderer buttonRenderer = new JTableButtonRenderer();
 		jTableSummary = new JTable(new JTableModelSummary());
 		for (int i = 0; i < columnNames.length - 1; i++) { //last column is for JButton
 			jTableSummary.getColumnModel().getColumn(i).setCellRenderer(new EnabledTableCellRenderer());
 			jTableSummary.getColumnModel().getColumn(i).setMinWidth(columnWidth[i]);
 		}
-		jTableSummary.getColumnModel().getColumn(columnNames.length - 1).setCellRenderer(buttonRenderer);
+		new ButtonColumn(jTableSummary, columnNames.length - 1, new ImageIcon("rsc/icons/list_button.png"), row -> {
+			VoLimitedTextArea noteArea = new VoLimitedTextArea(PatientExamination.PEX_NOTE_LENGTH, 6, 20);
+			noteArea.setText((String) jTableSummary.getModel().getValueAt(row, columnNames.length - 1));
+			noteArea.setEditable(false);
+			JOptionPane.showMessageDialog(PatientExaminationEdit.this,
+					new JScrollPane(noteArea),
+					MessageBundle.getMessage("angal.examination.note"), //$NON-NLS-1$
+					JOptionPane.INFORMATION_MESSAGE);
+		});
 		jTableSummary.getColumnModel().getColumn(columnNames.length - 1).setMinWidth(columnWidth[columnNames.length - 1]);
 		jTableSummary.setShowGrid(false);
 
 		JTableHeader header = jTableSummary.getTableHeader();
 		header.setBackground(Color.white);
 
-		jTableSummary.addMouseListener(new MouseAdapter() {
-
-			@Override
-			public void mouseClicked(MouseEvent me) {
-				int column = jTableSummary.getColumnModel().getColumnIndexAtX(me.getX()); // get the column of the button
-				JTable target = (JTable) me.getSource();
-				int row = target.getSelectedRow(); // select a row
-
-				/*Checking the row or column is valid or not*/
-				if (row < jTableSummary.getRowCount() && row >= 0 && column < jTableSummary.getColumnCount() && column >= 0) {
-					Object value = jTableSummary.getValueAt(row, column);
-					if (value instanceof JButton) {
-						/*perform a click event*/
-						((JButton) value).doClick();
-					}
-				}
-			}
-		});
-
 		scrollPane.setViewportView(jTableSummary);
 		scrollPane.getViewport().setBackground(Color.white);
 
 		return scrollPane;
 	}
 
-	private static class JTableButtonRenderer implements TableCellRenderer {
-
-		@Override
-		public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
-			JButton button = (JButton) value;
-			return button;
-		}
-	}
-
 	public class JTableModelSummary extends AbstractTableModel {
 
 		private static final long serialVersionUID = 1L;
@@ -2025,7 +2001,8 @@ public class PatientExaminationEdit extends ModalJFrame {
 
 		@Override
 		public boolean isCellEditable(int r, int c) {
-			return false;
+			// only the note buttons
+			return c == columnNames.length - 1;
 		}
 
 		/*
@@ -2073,18 +2050,9 @@ public class PatientExaminationEdit extends ModalJFrame {
 			} else if (c == 12) {
 				return ausc;
 			} else if (c == 13) {
-				if (!note.trim().isEmpty()) {
-					final IconButton button = new IconButton(new ImageIcon("rsc/icons/list_button.png"));
-					button.addActionListener(actionEvent -> {
-						VoLimitedTextArea noteArea = new VoLimitedTextArea(PatientExamination.PEX_NOTE_LENGTH, 6, 20);
-						noteArea.setText(note);
-						noteArea.setEditable(false);
-						JOptionPane.showMessageDialog(PatientExaminationEdit.this,
-								new JScrollPane(noteArea),
-								MessageBundle.getMessage("angal.examination.note"), //$NON-NLS-1$
-								JOptionPane.INFORMATION_MESSAGE);
-					});
-					return button;
+				// the note, shown by the button of the ButtonColumn
+				if (note != null && !note.trim().isEmpty()) {
+					return note;
 				}
 				return null;
 			}
@@ -29,6 +29,7 @@ import java.awt.Dimension;
 import java.awt.Toolkit;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -41,7 +42,6 @@ import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.SpringLayout;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableColumnModel;
 
 import org.isf.exa.manager.ExamBrowsingManager;
@@ -67,6 +67,7 @@ import org.isf.utils.exception.gui.OHServiceExceptionUtil;
 import org.isf.utils.jobjects.GoodDateChooser;
 import org.isf.utils.jobjects.MessageDialog;
 import org.isf.utils.jobjects.ModalJFrame;
+import org.isf.utils.jobjects.WindowedTableModel;
 import org.isf.utils.layout.SpringUtilities;
 
 /**
@@ -88,7 +89,7 @@ public class LabBrowser extends ModalJFrame implements LabListener, LabEditListe
 
 	@Override
 	public void labInserted() {
-		jTable.setModel(new LabBrowsingModel());
+		model.reload();
 	}
 
 	@Override
@@ -108,7 +109,6 @@ public class LabBrowser extends ModalJFrame implements LabListener, LabEditListe
 	private JTable jTable = null;
 	private JComboBox comboExams = null;
 	private int pfrmHeight;
-	private List<Laboratory> pLabs;
 	private String[] pColumns = {
 			MessageBundle.getMessage("angal.common.date.txt").toUpperCase(),
 			MessageBundle.getMessage("angal.common.patient.txt").toUpperCase(),
@@ -170,8 +170,9 @@ public class LabBrowser extends ModalJFrame implements LabListener, LabEditListe
 			jContentPane.setLayout(new BorderLayout());
 			jContentPane.add(getJButtonPanel(), java.awt.BorderLayout.SOUTH);
 			jContentPane.add(getJSelectionPanel(), java.awt.BorderLayout.WEST);
-			jContentPane.add(new JScrollPane(getJTable()),
-					java.awt.BorderLayout.CENTER);
+			JScrollPane scrollPane = new JScrollPane(getJTable());
+			model.follow(jTable, scrollPane.getViewport());
+			jContentPane.add(scrollPane, java.awt.BorderLayout.CENTER);
 			validate();
 		}
 		return jContentPane;
@@ -252,6 +253,10 @@ public class LabBrowser extends ModalJFrame implements LabListener, LabEditListe
 						}
 					} else {
 						laboratory = (Laboratory) (model.getValueAt(selectedrow, -1));
+						if (laboratory == null) {
+							// row still loading
+							return;
+						}
 						patId = laboratory.getPatient().getCode();
 					}
 				}
@@ -277,6 +282,10 @@ public class LabBrowser extends ModalJFrame implements LabListener, LabEditListe
 					return;
 				}
 				laboratory = (Laboratory) (model.getValueAt(selectedrow, -1));
+				if (laboratory == null) {
+					// row still loading
+					return;
+				}
 				if (GeneralData.LABEXTENDED) {
 					LabEditExtended editrecord = new LabEditExtended(myFrame, laboratory, false);
 					editrecord.addLabEditExtendedListener(LabBrowser.this);
@@ -338,6 +347,10 @@ public class LabBrowser extends ModalJFrame implements LabListener, LabEditListe
 					MessageDialog.error(null, "angal.common.pleaseselectarow.msg");
 				} else {
 					Laboratory lab = (Laboratory) (model.getValueAt(jTable.getSelectedRow(), -1));
+					if (lab == null) {
+						// row still loading
+						return;
+					}
 					int answer = MessageDialog.yesNo(LabBrowser.this, "angal.lab.deletelabexam.fmt.msg",
 							lab.getCreatedDate().format(DATE_TIME_FORMATTER),
 							lab.getDate().format(DATE_TIME_FORMATTER),
@@ -356,9 +369,7 @@ public class LabBrowser extends ModalJFrame implements LabListener, LabEditListe
 						}
 
 						if (deleted) {
-							pLabs.remove(jTable.getSelectedRow());
-							model.fireTableDataChanged();
-							jTable.updateUI();
+							model.removeRow(jTable.getSelectedRow());
 						}
 					}
 				}
@@ -407,6 +418,7 @@ public class LabBrowser extends ModalJFrame implements LabListener, LabEditListe
 	private JTable getJTable() {
 		if (jTable == null) {
 			model = new LabBrowsingModel();
+			model.filter(null, dateFrom.getDate(), dateTo.getDate());
 			jTable = new JTable(model);
 			TableColumnModel columnModel = jTable.getColumnModel();
 			for (int i = 0; i < model.getColumnCount(); i++) {
@@ -488,49 +500,68 @@ public class LabBrowser extends ModalJFrame implements LabListener, LabEditListe
 				if (typeSelected.equalsIgnoreCase(MessageBundle.getMessage("angal.common.all.txt"))) {
 					typeSelected = null;
 				}
-				model = new LabBrowsingModel(typeSelected, dateFrom.getDate(), dateTo.getDate());
-				model.fireTableDataChanged();
-				jTable.updateUI();
+				model.filter(typeSelected, dateFrom.getDate(), dateTo.getDate());
 			});
 		}
 		return filterButton;
 	}
 
 	/**
-	 * This class defines the model for the Table
+	 * This class defines the model for the Table: the laboratory tests are loaded from the most recent
+	 * in windows of WINDOW_DAYS days, each when its rows are painted: see WindowedTableModel.
 	 *
 	 * @author theo
 	 *
 	 */
-	class LabBrowsingModel extends DefaultTableModel {
+	class LabBrowsingModel extends WindowedTableModel<Laboratory> {
 
 		private static final long serialVersionUID = 1L;
+
+		private static final int WINDOW_DAYS = 7;
+
 		private LabManager manager = Context.getApplicationContext().getBean(LabManager.class, Context.getApplicationContext().getBean(LabIoOperations.class));
 
-		public LabBrowsingModel(String exam, LocalDate dateFrom, LocalDate dateTo) {
-			try {
-				pLabs = manager.getLaboratory(exam, dateFrom.atStartOfDay(), dateTo.atStartOfDay());
-			} catch (OHServiceException e) {
-				pLabs = new ArrayList<>();
-				OHServiceExceptionUtil.showMessages(e);
-			}
+		private String exam;
+		private LocalDate dateFrom;
+		private LocalDate dateTo;
+
+		/**
+		 * Shows the laboratory tests of the exam (all if {@code null}) between the two dates.
+		 */
+		public void filter(String exam, LocalDate dateFrom, LocalDate dateTo) {
+			this.exam = exam;
+			this.dateFrom = dateFrom;
+			this.dateTo = dateTo;
+			reload();
 		}
 
-		public LabBrowsingModel() {
-			try {
-				pLabs = manager.getLaboratory();
-			} catch (OHServiceException e) {
-				pLabs = new ArrayList<>();
-				OHServiceExceptionUtil.showMessages(e);
-			}
+		/**
+		 * Loads again the laboratory tests of the last filter.
+		 */
+		public void reload() {
+			int days = dateFrom.isAfter(dateTo) ? 0 : (int) ChronoUnit.DAYS.between(dateFrom, dateTo) + 1;
+			reset((days + WINDOW_DAYS - 1) / WINDOW_DAYS);
 		}
 
 		@Override
-		public int getRowCount() {
-			if (pLabs == null) {
-				return 0;
+		protected List<Laboratory> query(int window) throws OHServiceException {
+			LocalDate to = dateTo.minusDays((long) window * WINDOW_DAYS);
+			LocalDate from = to.minusDays(WINDOW_DAYS - 1L);
+			if (from.isBefore(dateFrom)) {
+				from = dateFrom;
 			}
-			return pLabs.size();
+			List<Laboratory> labs = manager.getLaboratory(exam, from.atStartOfDay(), to.atStartOfDay());
+			return labs != null ? labs : new ArrayList<>();
+		}
+
+		@Override
+		protected Object[] getCells(Laboratory lab) {
+			return new Object[] {
+					lab.getDate().format(DATE_TIME_FORMATTER),
+					lab.getPatName(),
+					lab.getExam(),
+					lab.getResult()
+			};
 		}
 
 		@Override
@@ -543,57 +574,10 @@ public class LabBrowser extends ModalJFrame implements LabListener, LabEditListe
 			return pColumns.length;
 		}
 
-		/**
-		 * Note: We must get the objects in a reversed way because of the query
-		 *
-		 * @see org.isf.lab.service.LabIoOperations
-		 */
-		@Override
-		public Object getValueAt(int r, int c) {
-			Laboratory lab = pLabs.get(r);
-			if (c == -1) {
-				return lab;
-			} else if (c == 0) {
-				return lab.getDate().format(DATE_TIME_FORMATTER);
-			} else if (c == 1) {
-				return lab.getPatName();
-			} else if (c == 2) {
-				return lab.getExam();
-			} else if (c == 3) {
-				return lab.getResult();
-			}
-			return null;
-		}
-
 		@Override
 		public boolean isCellEditable(int arg0, int arg1) {
 			return false;
 		}
 	}
 
-	/**
-	 * This method updates the Table because a laboratory test has been updated
-	 * Sets the focus on the same record as before
-	 */
-	public void laboratoryUpdated() {
-		pLabs.set(pLabs.size() - selectedrow - 1, laboratory);
-		((LabBrowsingModel) jTable.getModel()).fireTableDataChanged();
-		jTable.updateUI();
-		if ((jTable.getRowCount() > 0) && selectedrow > -1) {
-			jTable.setRowSelectionInterval(selectedrow, selectedrow);
-		}
-	}
-
-	/**
-	 * This method updates the Table because a laboratory test has been inserted
-	 * Sets the focus on the first record
-	 */
-	public void laboratoryInserted() {
-		pLabs.add(pLabs.size(), laboratory);
-		((LabBrowsingModel) jTable.getModel()).fireTableDataChanged();
-		if (jTable.getRowCount() > 0) {
-			jTable.setRowSelectionInterval(0, 0);
-		}
-	}
-
 }
@@ -26,8 +26,6 @@ import static org.isf.utils.Constants.DATE_FORMAT_DD_MM_YY_HH_MM_SS;
 import java.awt.AWTEvent;
 import java.awt.Color;
 import java.awt.Dimension;
-import java.awt.event.KeyEvent;
-import java.awt.event.KeyListener;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.EventListener;
@@ -76,6 +74,7 @@ import org.isf.serviceprinting.manager.PrintManager;
 import org.isf.utils.exception.OHServiceException;
 import org.isf.utils.exception.gui.OHServiceExceptionUtil;
 import org.isf.utils.jobjects.CustomJDateChooser;
+import org.isf.utils.jobjects.DebouncedFilter;
 import org.isf.utils.jobjects.MessageDialog;
 import org.isf.utils.jobjects.ModalJFrame;
 import org.isf.utils.jobjects.VoLimitedTextField;
@@ -151,7 +150,7 @@ public class LabEditExtended extends ModalJFrame {
 	private JPanel dataPatient = null;
 	private VoLimitedTextField jTextPatientSrc;
 	private Patient labPat = null;
-	private String lastKey;
+	private DebouncedFilter<List<Patient>> patientFilter;
 	private String s;
 	private List<Patient> pat = null;
 
@@ -258,31 +257,12 @@ public class LabEditExtended extends ModalJFrame {
 			jTextPatientSrc = new VoLimitedTextField(200, 20);
 			jTextPatientSrc.setBounds(labelWidth + 70, 60, 90, 20);
 
-			jTextPatientSrc.addKeyListener(new KeyListener() {
-
-				@Override
-				public void keyTyped(KeyEvent e) {
-					lastKey = "";
-					String s = "" + e.getKeyChar();
-					if (Character.isLetterOrDigit(e.getKeyChar())) {
-						lastKey = s;
-					}
-					s = jTextPatientSrc.getText() + lastKey;
-					s = s.trim();
-
-					filterPatient(s);
-				}
-
-				//@Override
-				@Override
-				public void keyPressed(KeyEvent e) {
-				}
-
-				//@Override
-				@Override
-				public void keyReleased(KeyEvent e) {
-				}
-			});
+			patientFilter = new DebouncedFilter<>(key -> {
+				List<Patient> patients = pat == null ? new ArrayList<>() : new ArrayList<>(pat);
+				String search = key.trim();
+				return () -> PatientComboBox.filterByKey(patients, search);
+			}, patients -> filterPatient(jTextPatientSrc.getText().trim(), patients));
+			patientFilter.install(jTextPatientSrc);
 			patientComboBox = getPatientComboBox(s);
 			patientComboBox.setBounds(labelWidth + 170, 60, 305, 20);
 
@@ -407,6 +387,7 @@ public class LabEditExtended extends ModalJFrame {
 					patientComboBox.setSelectedItem(labPat);
 					patientComboBox.setEnabled(false);
 					jTextPatientSrc.setText(String.valueOf(labPat.getCode()));
+					patientFilter.cancel();
 					jTextPatientSrc.setEnabled(false);
 				} catch (OHServiceException e) {
 					OHServiceExceptionUtil.showMessages(e);
@@ -434,7 +415,7 @@ public class LabEditExtended extends ModalJFrame {
 		return patientComboBox;
 	}
 
-	private void filterPatient(String key) {
+	private void filterPatient(String key, List<Patient> patients) {
 		patientComboBox.removeAllItems();
 
 		if (key == null || key.compareTo("") == 0) {
@@ -442,7 +423,7 @@ public class LabEditExtended extends ModalJFrame {
 			resetLabPat();
 		}
 
-		patientComboBox.addPatientsFilteredByKey(pat, key);
+		patients.forEach(patientComboBox::addItem);
 
 		if (patientComboBox.getItemCount() > 0) {
 			patientComboBox.getSelectedPatient().ifPresent(patient -> {
@@ -21,6 +21,7 @@
  */
 package org.isf.lab.gui.elements;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -51,22 +52,30 @@ public class PatientComboBox extends JComboBox {
 	}
 
 	public void addPatientsFilteredByKey(List<Patient> patients, String key) {
+		filterByKey(patients, key).forEach(this::addItem);
+	}
+
+	/**
+	 * Does not touch any component, so it can run outside the EDT.
+	 */
+	public static List<Patient> filterByKey(List<Patient> patients, String key) {
+		if (key == null) {
+			return new ArrayList<>(patients);
+		}
+		List<Patient> filtered = new ArrayList<>();
 		for (Patient elem : patients) {
-			if (key != null) {
-				//Search key extended to name and code
-				StringBuilder sbName = new StringBuilder();
-				sbName.append(elem.getSecondName().toUpperCase());
-				sbName.append(elem.getFirstName().toUpperCase());
-				sbName.append(elem.getCode());
-				String name = sbName.toString();
+			//Search key extended to name and code
+			StringBuilder sbName = new StringBuilder();
+			sbName.append(elem.getSecondName().toUpperCase());
+			sbName.append(elem.getFirstName().toUpperCase());
+			sbName.append(elem.getCode());
+			String name = sbName.toString();
 
-				if (name.toLowerCase().contains(key.toLowerCase())) {
-					this.addItem(elem);
-				}
-			} else {
-				this.addItem(elem);
+			if (name.toLowerCase().contains(key.toLowerCase())) {
+				filtered.add(elem);
 			}
 		}
+		return filtered;
 	}
 
 }
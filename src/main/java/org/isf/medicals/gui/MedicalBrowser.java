@@ -27,8 +27,6 @@ import java.awt.Color;
 import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.Toolkit;
-import java.awt.event.KeyEvent;
-import java.awt.event.KeyListener;
 import java.io.File;
 import java.io.IOException;
 import java.time.LocalDate;
@@ -36,6 +34,7 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.Callable;
 
 import javax.swing.Icon;
 import javax.swing.ImageIcon;
@@ -72,6 +71,7 @@ import org.isf.utils.excel.ExcelExporter;
 import org.isf.utils.exception.OHServiceException;
 import org.isf.utils.exception.gui.OHServiceExceptionUtil;
 import org.isf.utils.jobjects.CustomJDateChooser;
+import org.isf.utils.jobjects.DebouncedFilter;
 import org.isf.utils.jobjects.JFromDateToDateChooserDialog;
 import org.isf.utils.jobjects.JMonthYearChooser;
 import org.isf.utils.jobjects.MessageDialog;
@@ -102,6 +102,7 @@ public class MedicalBrowser extends ModalJFrame implements MedicalListener {
 
 	@Override
 	public void medicalInserted(Medical medical) {
+		MedicalCatalogue.getInstance().medicalSaved(medical);
 		pMedicals.add(0, medical);
 		((MedicalBrowsingModel) table.getModel()).fireTableDataChanged();
 		table.updateUI();
@@ -113,6 +114,7 @@ public class MedicalBrowser extends ModalJFrame implements MedicalListener {
 
 	@Override
 	public void medicalUpdated(AWTEvent e) {
+		MedicalCatalogue.getInstance().medicalSaved(medical);
 		pMedicals.set(selectedrow, medical);
 		((MedicalBrowsingModel) table.getModel()).fireTableDataChanged();
 		table.updateUI();
@@ -150,17 +152,46 @@ public class MedicalBrowser extends ModalJFrame implements MedicalListener {
 
 	private String pSelection;
 	private JTextField searchString = null;
-	protected boolean altKeyReleased = true;
-	private String lastKey = "";
+	private DebouncedFilter<List<Medical>> searchFilter;
 	private JButton buttonAMC;
 
 	private MedicalTypeBrowserManager medicalTypeManager = Context.getApplicationContext().getBean(MedicalTypeBrowserManager.class);
 	private MedicalBrowsingManager medicalBrowsingManager = Context.getApplicationContext().getBean(MedicalBrowsingManager.class);
 
-	private void filterMedical(String key) {
-		model = new MedicalBrowsingModel(key, false);
+	/*
+	 * Runs on the EDT: the medicals are copied so that the filtering in background
+	 * does not see the insertions and deletions made in the meantime
+	 */
+	private Callable<List<Medical>> prepareFilter(String key) {
+		List<Medical> medicals = pMedicals == null ? new ArrayList<>() : new ArrayList<>(pMedicals);
+		return () -> filterMedicals(medicals, key);
+	}
+
+	private void showMedicals(List<Medical> medicals) {
+		model = new MedicalBrowsingModel(medicals);
 		table.setModel(model);
-		searchString.requestFocus();
+	}
+
+	private static List<Medical> filterMedicals(List<Medical> medicals, String key) {
+		String s = key == null ? "" : key.trim();
+		if (s.isEmpty()) {
+			return new ArrayList<>(medicals);
+		}
+		String[] tokens = s.toLowerCase().split(" ");
+		List<Medical> medicalList = new ArrayList<>();
+		for (Medical med : medicals) {
+			String description = (med.getProdCode() + med.getDescription()).toLowerCase();
+			int a = 0;
+			for (String token : tokens) {
+				if (description.contains(token)) {
+					a++;
+				}
+			}
+			if (a == tokens.length) {
+				medicalList.add(med);
+			}
+		}
+		return medicalList;
 	}
 
 	public MedicalBrowser() {
@@ -251,33 +282,8 @@ public class MedicalBrowser extends ModalJFrame implements MedicalListener {
 		if (searchString == null) {
 			searchString = new JTextField();
 			searchString.setColumns(15);
-			searchString.addKeyListener(new KeyListener() {
-
-				@Override
-				public void keyTyped(KeyEvent e) {
-					if (altKeyReleased) {
-						lastKey = "";
-						String s = "" + e.getKeyChar();
-						if (Character.isLetterOrDigit(e.getKeyChar())) {
-							lastKey = s;
-						}
-						filterMedical(searchString.getText());
-					}
-				}
-
-				@Override
-				public void keyPressed(KeyEvent e) {
-					int key = e.getKeyCode();
-					if (key == KeyEvent.VK_ALT) {
-						altKeyReleased = false;
-					}
-				}
-
-				@Override
-				public void keyReleased(KeyEvent e) {
-					altKeyReleased = true;
-				}
-			});
+			searchFilter = new DebouncedFilter<>(this::prepareFilter, this::showMedicals);
+			searchFilter.install(searchString);
 		}
 		return searchString;
 	}
@@ -489,6 +495,7 @@ public class MedicalBrowser extends ModalJFrame implements MedicalListener {
 						OHServiceExceptionUtil.showMessages(e);
 					}
 					if (deleted) {
+						MedicalCatalogue.getInstance().medicalDeleted(med);
 						pMedicals.remove(selectedrow);
 						model.fireTableDataChanged();
 						table.updateUI();
@@ -544,6 +551,7 @@ public class MedicalBrowser extends ModalJFrame implements MedicalListener {
 			}
 		}
 		pbox.addActionListener(actionEvent -> {
+			searchFilter.cancel();
 			pSelection = pbox.getSelectedItem().toString();
 			if (pSelection.compareTo(STR_ALL) == 0) {
 				model = new MedicalBrowsingModel();
@@ -668,36 +676,15 @@ public class MedicalBrowser extends ModalJFrame implements MedicalListener {
 					pMedicals = null;
 					OHServiceExceptionUtil.showMessages(e);
 				}
-			} else {
-				for (Medical med : pMedicals) {
-					if (key != null) {
-
-						String s = key + lastKey;
-						s = s.trim();
-						String[] tokens = s.split(" ");
-
-						if (!s.equals("")) {
-							String description = med.getProdCode() + med.getDescription();
-							int a = 0;
-							for (String value : tokens) {
-								String token = value.toLowerCase();
-								if (description.toLowerCase().contains(token)) {
-									a++;
-								}
-							}
-							if (a == tokens.length) {
-								medicalList.add(med);
-							}
-						} else {
-							medicalList.add(med);
-						}
-					} else {
-						medicalList.add(med);
-					}
-				}
+			} else if (pMedicals != null) {
+				medicalList = filterMedicals(pMedicals, key);
 			}
 		}
 
+		public MedicalBrowsingModel(List<Medical> medicals) {
+			medicalList = medicals;
+		}
+
 		public MedicalBrowsingModel() {
 			try {
 				medicalList = pMedicals = medicalBrowsingManager.getMedicals(null, false);
@@ -0,0 +1,135 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.medicals.gui;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.isf.medicals.manager.MedicalBrowsingManager;
+import org.isf.medicals.model.Medical;
+import org.isf.menu.manager.Context;
+import org.isf.utils.exception.OHServiceException;
+import org.isf.utils.jobjects.SearchIndex;
+
+/**
+ * Application-wide catalogue of the medicals, shared by the stock, pharmacy and therapy screens.
+ * <p>
+ * The medicals are loaded from the database the first time they are needed and indexed once on their
+ * code and description (normalized), so the screens neither reload nor re-scan the whole catalogue.
+ * {@link MedicalBrowser} keeps it up to date; the medicals inserted or changed by other workstations are
+ * seen once the catalogue is older than {@code MAX_AGE_MINUTES}.
+ * <p>
+ * The catalogue is meant for choosing medicals (codes, descriptions, types): the stock quantities of its
+ * medicals are the ones at load time and are never refreshed. The screens that show or check the stock
+ * load the medicals from {@link MedicalBrowsingManager} instead.
+ */
+public final class MedicalCatalogue {
+
+	private static final MedicalCatalogue INSTANCE = new MedicalCatalogue();
+
+	private static final long MAX_AGE_MINUTES = 10;
+
+	private final SearchIndex<Integer, Medical> index = new SearchIndex<>(Medical::getCode, MedicalCatalogue::getSearchText);
+	private volatile boolean loaded;
+	private long loadedAt;
+
+	private MedicalCatalogue() {
+	}
+
+	public static MedicalCatalogue getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * @return all the medicals, in the order given by the database (the list can be changed by the caller);
+	 * their quantities are not up to date
+	 * @throws OHServiceException
+	 */
+	public List<Medical> getMedicals() throws OHServiceException {
+		load();
+		return index.getAll();
+	}
+
+	/**
+	 * @return the number of medicals
+	 * @throws OHServiceException
+	 */
+	public int size() throws OHServiceException {
+		load();
+		return index.size();
+	}
+
+	/**
+	 * Searches the medicals whose code or description contains at least one token of the query.
+	 *
+	 * @param query - the text typed by the user, {@code null} or blank returns all the medicals
+	 * @return the matching medicals, in the order given by the database
+	 * @throws OHServiceException
+	 */
+	public List<Medical> search(String query) throws OHServiceException {
+		load();
+		return index.searchAny(query);
+	}
+
+	/**
+	 * To be called after a medical has been inserted or updated.
+	 */
+	public void medicalSaved(Medical medical) {
+		if (loaded && medical != null && medical.getCode() != null) {
+			index.add(medical);
+		}
+	}
+
+	/**
+	 * To be called after a medical has been deleted.
+	 */
+	public void medicalDeleted(Medical medical) {
+		if (loaded && medical != null) {
+			index.remove(medical.getCode());
+		}
+	}
+
+	/**
+	 * Drops the cached medicals; they will be reloaded when needed.
+	 */
+	public synchronized void invalidate() {
+		loaded = false;
+		index.reset(null);
+	}
+
+	private synchronized void load() throws OHServiceException {
+		if (loaded && System.currentTimeMillis() - loadedAt > TimeUnit.MINUTES.toMillis(MAX_AGE_MINUTES)) {
+			invalidate();
+		}
+		if (!loaded) {
+			MedicalBrowsingManager medicalManager = Context.getApplicationContext().getBean(MedicalBrowsingManager.class);
+			index.reset(medicalManager.getMedicals());
+			loadedAt = System.currentTimeMillis();
+			loaded = true;
+		}
+	}
+
+	private static String getSearchText(Medical medical) {
+		// a token has no spaces, so it cannot match across code and description
+		return (medical.getProdCode() == null ? "" : medical.getProdCode()) + ' ' + medical.getDescription();
+	}
+}
@@ -72,8 +72,9 @@ import javax.swing.table.TableColumn;
 import org.isf.generaldata.GeneralData;
 import org.isf.generaldata.MessageBundle;
 import org.isf.hospital.manager.HospitalBrowsingManager;
-import org.isf.medicals.manager.MedicalBrowsingManager;
+import org.isf.medicals.gui.MedicalCatalogue;
 import org.isf.medicals.model.Medical;
+import org.isf.medicalstock.gui.totals.MovementTotals;
 import org.isf.medicalstock.manager.MovBrowserManager;
 import org.isf.medicalstock.model.Lot;
 import org.isf.medicalstock.model.Movement;
@@ -149,6 +150,7 @@ public class MovStockBrowser extends ModalJFrame {
 	private BigDecimal totalAmount;
 	private MovBrowserModel model;
 	private List<Movement> moves;
+	private final MovementTotals movementTotals = new MovementTotals(GeneralData.LOTWITHCOST);
 	private String[] pColumns = {
 			MessageBundle.getMessage("angal.medicalstock.refno.col").toUpperCase(),
 			MessageBundle.getMessage("angal.common.date.txt").toUpperCase(),        //1
@@ -182,7 +184,6 @@ public class MovStockBrowser extends ModalJFrame {
 
 	private Map<Integer, String> supMap = new HashMap<>();
 
-	private MedicalBrowsingManager medicalManager = Context.getApplicationContext().getBean(MedicalBrowsingManager.class);
 	private MedicalTypeBrowserManager medicalTypeBrowserManager = Context.getApplicationContext().getBean(MedicalTypeBrowserManager.class);
 	private MedicaldsrstockmovTypeBrowserManager medicaldsrstockmovTypeBrowserManager = Context.getApplicationContext()
 			.getBean(MedicaldsrstockmovTypeBrowserManager.class);
@@ -326,35 +327,18 @@ public class MovStockBrowser extends ModalJFrame {
 		if (jTableTotal == null) {
 			return;
 		}
-		totalQti = 0;
-		totalAmount = new BigDecimal(0);
+		// totals are kept up to date by the model
+		totalQti = (int) movementTotals.getTotal().getQuantity();
+		totalAmount = movementTotals.getTotal().getAmount();
 
 		// quantity
 		if (!medicalBox.getSelectedItem().equals(MessageBundle.getMessage("angal.common.all.txt"))) {
-			for (Movement mov : moves) {
-				if (mov.getType().getType().contains("+")) {
-					totalQti += mov.getQuantity();
-				} else {
-					totalQti -= mov.getQuantity();
-				}
-			}
 			jTableTotal.getModel().setValueAt(totalQti, 0, 4);
 		} else {
 			jTableTotal.getModel().setValueAt(MessageBundle.getMessage("angal.common.notapplicable.txt"), 0, 4);
 		}
 
 		// amount
-		for (Movement mov : moves) {
-			BigDecimal itemAmount = new BigDecimal(mov.getQuantity());
-			if (GeneralData.LOTWITHCOST && mov.getLot().getCost() != null) {
-				if (mov.getType().getType().contains("+")) {
-					totalAmount = totalAmount.add(itemAmount.multiply(mov.getLot().getCost()));
-				} else {
-					totalQti -= mov.getQuantity();
-					totalAmount = totalAmount.subtract(itemAmount.multiply(mov.getLot().getCost()));
-				}
-			}
-		}
 		jTableTotal.getModel().setValueAt(totalAmount, 0, 12);
 	}
 
@@ -508,23 +492,17 @@ public class MovStockBrowser extends ModalJFrame {
 		searchButton.setIcon(new ImageIcon("rsc/icons/zoom_r_button.png"));
 		searchButton.addActionListener(actionEvent -> {
 			medicalBox.removeAllItems();
-			List<Medical> medicals;
 			try {
-				medicals = medicalManager.getMedicals();
-			} catch (OHServiceException e1) {
-				medicals = null;
-				OHServiceExceptionUtil.showMessages(e1);
-			}
-			if (null != medicals) {
-				List<Medical> results = getSearchMedicalsResults(searchTextField.getText(), medicals);
-				int originalSize = medicals.size();
-				int resultsSize = results.size();
-				if (originalSize == resultsSize) {
+				MedicalCatalogue catalogue = MedicalCatalogue.getInstance();
+				List<Medical> results = catalogue.search(searchTextField.getText());
+				if (results.size() == catalogue.size()) {
 					medicalBox.addItem(MessageBundle.getMessage("angal.common.all.txt"));
 				}
 				for (Medical aMedical : results) {
 					medicalBox.addItem(aMedical);
 				}
+			} catch (OHServiceException e1) {
+				OHServiceExceptionUtil.showMessages(e1);
 			}
 		});
 
@@ -565,7 +543,7 @@ public class MovStockBrowser extends ModalJFrame {
 		medicalBox.setPreferredSize(new Dimension(150, 25));
 		List<Medical> medical;
 		try {
-			medical = medicalManager.getMedicals();
+			medical = MedicalCatalogue.getInstance().getMedicals();
 		} catch (OHServiceException e1) {
 			medical = null;
 			OHServiceExceptionUtil.showMessages(e1);
@@ -919,11 +897,12 @@ public class MovStockBrowser extends ModalJFrame {
 		chargeButton.setMnemonic(MessageBundle.getMnemonic("angal.medicalstock.charge.btn.key"));
 		chargeButton.addActionListener(actionEvent -> {
 			new MovStockMultipleCharging(myFrame);
-			model = new MovBrowserModel();
-			movTable.updateUI();
-			updateTotals();
+			// the filter reloads the movements by itself
 			if (jCheckBoxKeepFilter.isSelected()) {
 				filterButton.doClick();
+			} else {
+				model = new MovBrowserModel();
+				movTable.updateUI();
 			}
 		});
 		return chargeButton;
@@ -939,11 +918,12 @@ public class MovStockBrowser extends ModalJFrame {
 		dischargeButton.setMnemonic(MessageBundle.getMnemonic("angal.medicalstock.discharge.btn.key"));
 		dischargeButton.addActionListener(actionEvent -> {
 			new MovStockMultipleDischarging(myFrame);
-			model = new MovBrowserModel();
-			movTable.updateUI();
-			updateTotals();
+			// the filter reloads the movements by itself
 			if (jCheckBoxKeepFilter.isSelected()) {
 				filterButton.doClick();
+			} else {
+				model = new MovBrowserModel();
+				movTable.updateUI();
 			}
 		});
 		return dischargeButton;
@@ -1006,32 +986,6 @@ public class MovStockBrowser extends ModalJFrame {
 		return filename.toString();
 	}
 
-	private List<Medical> getSearchMedicalsResults(String s, List<Medical> medicalsList) {
-		String query = s.trim();
-		List<Medical> results = new ArrayList<>();
-		for (Medical medoc : medicalsList) {
-			if (!query.equals("")) {
-				String[] patterns = query.split(" ");
-				String code = medoc.getProdCode().toLowerCase();
-				String description = medoc.getDescription().toLowerCase();
-				boolean patternFound = false;
-				for (String pattern : patterns) {
-					if (code.contains(pattern.toLowerCase()) || description.contains(pattern.toLowerCase())) {
-						patternFound = true;
-						//It is sufficient that only one pattern matches the query
-						break;
-					}
-				}
-				if (patternFound) {
-					results.add(medoc);
-				}
-			} else {
-				results.add(medoc);
-			}
-		}
-		return results;
-	}
-
 	/**
 	 * This is the table model
 	 */
@@ -1040,11 +994,7 @@ public class MovStockBrowser extends ModalJFrame {
 		private static final long serialVersionUID = 1L;
 
 		public MovBrowserModel() {
-			LocalDateTime now = LocalDateTime.now();
-			LocalDateTime old = now.minusWeeks(1);
-
-			new MovBrowserModel(null, null, null, null, old, now, null, null, null, null);
-			updateTotals();
+			this(null, null, null, null, LocalDateTime.now().minusWeeks(1), LocalDateTime.now(), null, null, null, null);
 		}
 
 		public MovBrowserModel(Integer medicalCode, String medicalType, String ward, String movType, LocalDateTime movFrom, LocalDateTime movTo,
@@ -1056,6 +1006,7 @@ public class MovStockBrowser extends ModalJFrame {
 			} catch (OHServiceException e) {
 				OHServiceExceptionUtil.showMessages(e);
 			}
+			movementTotals.reset(moves);
 			updateTotals();
 		}
 
@@ -1126,7 +1077,7 @@ public class MovStockBrowser extends ModalJFrame {
 			} else if (c == ++col) {
 				return cost;
 			} else if (c == ++col && cost != null) {
-				return cost.multiply(new BigDecimal(qty));
+				return cost.multiply(BigDecimal.valueOf(qty));
 			}
 			return null;
 		}
@@ -66,7 +66,7 @@ import javax.swing.table.TableColumn;
 
 import org.isf.generaldata.GeneralData;
 import org.isf.generaldata.MessageBundle;
-import org.isf.medicals.manager.MedicalBrowsingManager;
+import org.isf.medicals.gui.MedicalCatalogue;
 import org.isf.medicals.model.Medical;
 import org.isf.medicalstock.manager.MovStockInsertingManager;
 import org.isf.medicalstock.model.Lot;
@@ -127,6 +127,7 @@ public class MovStockMultipleCharging extends JDialog {
 	private boolean[] columnBold = { false, false, false, false, false, true, false, false, false, true };
 	private Map<String, Medical> medicalMap;
 	private List<Integer> units;
+	private List<Integer> quantities;
 	private JTableModel model;
 	private String[] qtyOption = new String[] {
 			MessageBundle.getMessage("angal.medicalstock.multiplecharging.units"), //$NON-NLS-2$
@@ -136,7 +137,6 @@ public class MovStockMultipleCharging extends JDialog {
 	private int optionSelected = UNITS;
 	
 	private MovStockInsertingManager movManager = Context.getApplicationContext().getBean(MovStockInsertingManager.class);
-	private MedicalBrowsingManager medicalBrowsingManager = Context.getApplicationContext().getBean(MedicalBrowsingManager.class);
 	private MedicaldsrstockmovTypeBrowserManager medicaldsrstockmovTypeBrowserManager = Context.getApplicationContext().getBean(MedicaldsrstockmovTypeBrowserManager.class);
 	private SupplierBrowserManager supplierBrowserManager = Context.getApplicationContext().getBean(SupplierBrowserManager.class);
 
@@ -158,7 +158,7 @@ public class MovStockMultipleCharging extends JDialog {
 	private void initialize() {
 		List<Medical> medicals;
 		try {
-			medicals = medicalBrowsingManager.getMedicals();
+			medicals = MedicalCatalogue.getInstance().getMedicals();
 		} catch (OHServiceException e) {
 			OHServiceExceptionUtil.showMessages(e);
 			medicals = null;
@@ -290,10 +290,7 @@ public class MovStockMultipleCharging extends JDialog {
 				if (!checkAndPrepareMovements()) {
 					return;
 				}
-				if (!save()) {
-					return;
-				}
-				dispose();
+				save();
 			});
 			buttonPane.add(saveButton);
 		}
@@ -909,10 +906,17 @@ public class MovStockMultipleCharging extends JDialog {
 
 		LocalDate thisDate = jDateChooser.getDate();
 		
-		// Check and set all movements
+		// Check all movements before changing any of them
+		if (!checkLines(movements)) {
+			return false;
+		}
+
+		// Set all movements
+		quantities = new ArrayList<>();
 		for (int i = 0; i < movements.size(); i++) {
 			Movement mov = movements.get(i);
 			int option = units.get(i);
+			quantities.add(mov.getQuantity());
 			mov.setDate(thisDate.atStartOfDay());
 			mov.setRefNo(jTextFieldReference.getText());
 			mov.setQuantity(calcTotal(mov, option));
@@ -931,16 +935,48 @@ public class MovStockMultipleCharging extends JDialog {
 		return total;
 	}
 	
-	private boolean save() {
-		boolean ok = true;
+	/*
+	 * checks the edited lines in one pass, so that a long document is not sent to be rejected by its last line;
+	 * the first wrong line is selected
+	 */
+	private boolean checkLines(List<Movement> movements) {
+		Map<String, Integer> lotMedicals = new HashMap<>();
+		for (int i = 0; i < movements.size(); i++) {
+			Movement mov = movements.get(i);
+			Lot lot = mov.getLot();
+			String error = null;
+			if (mov.getQuantity() == 0) {
+				error = "angal.medicalstock.thequantitymustnotbezero.msg";
+			} else if (lot.getCode().length() > 50) {
+				error = "angal.medicalstock.thelotidistoolongmax50chars.msg";
+			} else if (lot.getPreparationDate() != null && lot.getDueDate() != null && lot.getPreparationDate().isAfter(lot.getDueDate())) {
+				error = "angal.medicalstock.thepreparationdatecannotbyaftertheduedate.msg";
+			} else if (!lot.getCode().isEmpty()) {
+				Integer medical = lotMedicals.putIfAbsent(lot.getCode(), mov.getMedical().getCode());
+				if (medical != null && !medical.equals(mov.getMedical().getCode())) {
+					error = "angal.medicalstock.thislotreferstoanothermedical.msg";
+				}
+			}
+			if (error != null) {
+				jTableMovements.setRowSelectionInterval(i, i);
+				MessageDialog.error(MovStockMultipleCharging.this, error);
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void rollBackMovements() {
 		List<Movement> movements = model.getMovements();
-		try {
-			movManager.newMultipleChargingMovements(movements, movements.get(0).getRefNo());
-		} catch (OHServiceException e) {
-			ok = false;
-			OHServiceExceptionUtil.showMessages(e);
-		} 
-		return ok;
+
+		// Set back changed quantities
+		for (int i = 0; i < movements.size(); i++) {
+			movements.get(i).setQuantity(quantities.get(i));
+		}
+	}
+
+	private void save() {
+		MovementsSubmitter.submit(this, model.getMovements(), movManager::newMultipleChargingMovements, this::dispose, this::rollBackMovements);
 	}
 	
 	class EnabledTableCellRenderer extends DefaultTableCellRenderer {
@@ -39,7 +39,6 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
 
 import javax.swing.DefaultCellEditor;
@@ -66,6 +65,7 @@ import org.isf.generaldata.GeneralData;
 import org.isf.generaldata.MessageBundle;
 import org.isf.medicals.manager.MedicalBrowsingManager;
 import org.isf.medicals.model.Medical;
+import org.isf.medicalstock.gui.totals.StockReservations;
 import org.isf.medicalstock.manager.MovStockInsertingManager;
 import org.isf.medicalstock.model.Lot;
 import org.isf.medicalstock.model.Movement;
@@ -132,6 +132,7 @@ public class MovStockMultipleDischarging extends JDialog {
 	private List<Medical> pool = new ArrayList<>();
 	
 	private MovStockInsertingManager movManager = Context.getApplicationContext().getBean(MovStockInsertingManager.class);
+	private StockReservations reservations = new StockReservations(movManager::getLotByMedical);
 	private MedicalBrowsingManager medicalBrowsingManager = Context.getApplicationContext().getBean(MedicalBrowsingManager.class);
 	private MedicaldsrstockmovTypeBrowserManager medicaldsrstockmovTypeBrowserManager = Context.getApplicationContext().getBean(MedicaldsrstockmovTypeBrowserManager.class);
 
@@ -210,11 +211,7 @@ public class MovStockMultipleDischarging extends JDialog {
 				if (!checkAndPrepareMovements()) {
 					return;
 				}
-				if (!save()) {
-					rollBackMovements();
-					return;
-				}
-				dispose();
+				save();
 			});
 			buttonPanel.add(saveButton);
 		}
@@ -290,15 +287,15 @@ public class MovStockMultipleDischarging extends JDialog {
 					}
 
 					// Lot (PreparationDate && ExpiringDate)
-					List<Lot> lots;
-					try {
-						lots = movManager.getLotByMedical(med);
-					} catch (OHServiceException e1) {
-						lots = null;
-						OHServiceExceptionUtil.showMessages(e1);
-					}
 					Lot lot;
 					if (!isAutomaticLot()) {
+						List<Lot> lots;
+						try {
+							lots = reservations.getAvailableLots(med);
+						} catch (OHServiceException e1) {
+							OHServiceExceptionUtil.showMessages(e1);
+							return;
+						}
 						lot = chooseLot(lots, qty);
 						if (lot == null) {
 							return;
@@ -341,16 +338,13 @@ public class MovStockMultipleDischarging extends JDialog {
 	}
 
 	private boolean isMedicalPresent(Medical med) {
-		List<Movement> movements = model.getMovements();
-		for (Movement mov : movements) {
-			if (mov.getMedical() == med) {
-				StringBuilder message = new StringBuilder()
-					.append(MessageBundle.getMessage("angal.medicalstock.multipledischarging.alreadyinthisform")) //$NON-NLS-1$
-					.append("\n") //$NON-NLS-1$
-					.append(med.getDescription()); //$NON-NLS-1$
-				JOptionPane.showMessageDialog(MovStockMultipleDischarging.this, message.toString());
-				return true;
-			}
+		if (reservations.isReserved(med)) {
+			StringBuilder message = new StringBuilder()
+				.append(MessageBundle.getMessage("angal.medicalstock.multipledischarging.alreadyinthisform")) //$NON-NLS-1$
+				.append("\n") //$NON-NLS-1$
+				.append(med.getDescription()); //$NON-NLS-1$
+			JOptionPane.showMessageDialog(MovStockMultipleDischarging.this, message.toString());
+			return true;
 		}
 		return false;
 	}
@@ -565,8 +559,6 @@ public class MovStockMultipleDischarging extends JDialog {
 	protected Lot chooseLot(List<Lot> lots, double qty) {
 		Lot lot = null;
 		if (!lots.isEmpty()) {
-			stripeLots(lots);
-			
 			JTable lotTable = new JTable(new StockMovModel(lots));
 			lotTable.getSelectionModel().setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
 			JPanel panel = new JPanel(new BorderLayout());
@@ -590,7 +582,7 @@ public class MovStockMultipleDischarging extends JDialog {
 					return null;
 				}
 				
-				if (!checkQuantityInLot(lot, qty)) {
+				if (!checkQuantityInLot(reservations.getAvailable(lot), qty)) {
 					lot = null;
 				} else {
 					return lot;
@@ -600,8 +592,7 @@ public class MovStockMultipleDischarging extends JDialog {
 		return lot;
 	}
 	
-	private boolean checkQuantityInLot(Lot lot, double qty) {
-		double lotQty = lot.getMainStoreQuantity();
+	private boolean checkQuantityInLot(double lotQty, double qty) {
 		if (qty > lotQty) {
 			MessageDialog.error(MovStockMultipleDischarging.this, "angal.medicalstock.movementquantityisgreaterthanthequantityof.msg");
 			return false;
@@ -609,70 +600,17 @@ public class MovStockMultipleDischarging extends JDialog {
 		return true;
 	}
 
-	private void stripeLots(List<Lot> lots) {
-		if (!lots.isEmpty()) {
-			List<Movement> movements = model.getMovements();
-			ListIterator<Lot> lotIterator = lots.listIterator();
-			while (lotIterator.hasNext()) {
-				Lot aLot = (Lot) lotIterator.next();
-				for (Movement mov : movements) {
-					if (aLot.getCode().equals(mov.getLot().getCode())) {
-						int aLotQty = aLot.getMainStoreQuantity();
-						int newQty = aLotQty - mov.getQuantity();
-						if (newQty == 0) {
-							lotIterator.remove();
-						} else {
-							aLot.setMainStoreQuantity(newQty);
-							lotIterator.set(aLot);
-						}
-					}
-				}
-			}
-		}
-	}
-
 	private boolean checkQuantityAllMovements(Medical med, double qty) {
-		double totalQty = med.getTotalQuantity();
-		double newTotalQty;
-		
-		// update remaining quantity with already inserted movements
-		List<Movement> movements = model.getMovements();
-		double usedQty = 0;
-		for (int i = 0; i < movements.size(); i++) {
-			Movement mov = movements.get(i);
-			if (mov.getMedical() == med) {
-				usedQty += calcTotal(mov, units.get(i));
-			}
-		}
-		
-		newTotalQty = totalQty - usedQty;
-		return checkQuantity(med, newTotalQty, qty);
+		return checkQuantity(med, reservations.getAvailable(med), qty);
 	}
 	
-	private boolean checkQuantityInMovement(Movement movement, double qty) {
+	private boolean checkQuantityInMovement(Movement movement, int reservedQty, double qty) {
 		Medical med = movement.getMedical();
-		double totalQty = med.getTotalQuantity();
-		double newTotalQty;
-		
-		// update remaining quantity with already inserted movements 
-		// but not the current one
-		List<Movement> movements = model.getMovements();
-		double usedQty = 0;
-		for (int i = 0; i < movements.size(); i++) {
-			Movement mov = movements.get(i);
-			if (mov.getCode() == movement.getCode()) {
-				continue;
-			}
-			if (mov.getMedical() == med) {
-				usedQty += calcTotal(mov, units.get(i));
-			}
-		}
-		
-		newTotalQty = totalQty - usedQty;
-		if (!isAutomaticLot() && !checkQuantityInLot(movement.getLot(), qty)) {
+		// the quantity reserved by the current movement is available to it
+		if (!isAutomaticLot() && !checkQuantityInLot(reservations.getAvailable(movement.getLot()) + reservedQty, qty)) {
 			return false;
 		}
-		return checkQuantity(med, newTotalQty, qty);
+		return checkQuantity(med, reservations.getAvailable(med) + reservedQty, qty);
 	}
 	
 	private boolean checkQuantity(Medical med, double totalQty, double qty) {
@@ -710,17 +648,7 @@ public class MovStockMultipleDischarging extends JDialog {
 	}
 	
 	protected int askQuantity(Medical med) {
-		double totalQty = med.getTotalQuantity();
-		
-		// update remaining quantity with already inserted movements
-		List<Movement> movements = model.getMovements();
-		double usedQty = 0;
-		for (Movement mov : movements) {
-			if (mov.getMedical() == med) {
-				usedQty+=mov.getQuantity();
-			}
-		}
-		totalQty = totalQty - usedQty;
+		double totalQty = reservations.getAvailable(med);
 		
 		StringBuilder message = new StringBuilder();
 		message.append(med)
@@ -817,13 +745,16 @@ public class MovStockMultipleDischarging extends JDialog {
 		}
 
 		public void removeItem(int row) {
-			pool.remove(movements.get(row).getMedical());
+			Movement movement = movements.get(row);
+			reservations.release(movement.getMedical(), movement.getLot(), calcTotal(movement, units.get(row)));
+			pool.remove(movement.getMedical());
 			movements.remove(row);
 			units.remove(row);
 			fireTableDataChanged();
 		}
 
 		public void addItem(Movement movement, Integer unit) {
+			reservations.reserve(movement.getMedical(), movement.getLot(), calcTotal(movement, unit));
 			movements.add(movement);
 			units.add(unit);
 			fireTableDataChanged();
@@ -908,8 +839,10 @@ public class MovStockMultipleDischarging extends JDialog {
 				if (qtyOption[1].equals(value)) {
 					newOption = 1;
 				}
+				int reserved = calcTotal(movement, units.get(r));
 				int total = calcTotal(movement, newOption);
-				if (checkQuantityInMovement(movement, total)) {
+				if (checkQuantityInMovement(movement, reserved, total)) {
+					reservations.change(movement.getMedical(), movement.getLot(), reserved, total);
 					units.set(r, newOption);
 				}
 			}
@@ -962,32 +895,28 @@ public class MovStockMultipleDischarging extends JDialog {
 		}
 	}
 	
-	private boolean save() {
-		boolean ok = true;
-		List<Movement> movements = model.getMovements();
-		try {
-			movManager.newMultipleDischargingMovements(movements, movements.get(0).getRefNo());
+	private void save() {
+		MovementsSubmitter.submit(this, model.getMovements(), movManager::newMultipleDischargingMovements, () -> {
+			shareAlerts();
+			dispose();
+		}, this::rollBackMovements);
+	}
 
-			if (isXmpp()) {
-				if (shareWith.isEnabled() && (!(((String) shareWith.getSelectedItem())
-						.equals(MessageBundle.getMessage("angal.medicalstock.multipledischarging.sharealertwithnobody"))))) { //$NON-NLS-1$
-					CommunicationFrame frame = (CommunicationFrame) CommunicationFrame.getFrame();
-					for (Medical med : pool) {
-						frame.sendMessage(
-								MessageBundle.getMessage("angal.medicalstock.multipledischarging.alert") + //$NON-NLS-1$ 
-										med.getDescription() +
-										MessageBundle.getMessage("angal.medicalstock.multipledischarging.isabouttoend"), //$NON-NLS-1$
-								(String) shareWith.getSelectedItem(),
-								false);
-					}
+	private void shareAlerts() {
+		if (isXmpp()) {
+			if (shareWith.isEnabled() && (!(((String) shareWith.getSelectedItem())
+					.equals(MessageBundle.getMessage("angal.medicalstock.multipledischarging.sharealertwithnobody"))))) { //$NON-NLS-1$
+				CommunicationFrame frame = (CommunicationFrame) CommunicationFrame.getFrame();
+				for (Medical med : pool) {
+					frame.sendMessage(
+							MessageBundle.getMessage("angal.medicalstock.multipledischarging.alert") + //$NON-NLS-1$ 
+									med.getDescription() +
+									MessageBundle.getMessage("angal.medicalstock.multipledischarging.isabouttoend"), //$NON-NLS-1$
+							(String) shareWith.getSelectedItem(),
+							false);
 				}
 			}
-
-		} catch (OHServiceException e) {
-			ok = false;
-			OHServiceExceptionUtil.showMessages(e);
 		}
-		return ok;
 	}
 
 	class EnabledTableCellRenderer extends DefaultTableCellRenderer {
@@ -1060,7 +989,7 @@ public class MovStockMultipleDischarging extends JDialog {
 			} else if (c == 2) {
 				return TimeTools.formatDateTime(lotList.get(r).getDueDate(), DATE_FORMAT_DD_MM_YYYY);
 			} else if (c == 3) {
-				return lotList.get(r).getMainStoreQuantity();
+				return reservations.getAvailable(lotList.get(r));
 			}
 			return null;
 		}
@@ -0,0 +1,132 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.medicalstock.gui;
+
+import java.awt.BorderLayout;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import javax.swing.BorderFactory;
+import javax.swing.JDialog;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.SwingWorker;
+import javax.swing.WindowConstants;
+
+import org.isf.generaldata.MessageBundle;
+import org.isf.medicalstock.model.Movement;
+import org.isf.utils.exception.OHServiceException;
+import org.isf.utils.exception.gui.OHServiceExceptionUtil;
+import org.isf.utils.jobjects.MessageDialog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Saves the movements of a multiple charging or discharging document in background.
+ * <p>
+ * The manager saves the whole document in one transaction while a progress dialog keeps the form blocked.
+ */
+class MovementsSubmitter extends SwingWorker<Void, Void> {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(MovementsSubmitter.class);
+
+	@FunctionalInterface
+	interface Submission {
+
+		/**
+		 * Called in background: saves the movements of the document (i.e. {@code MovStockInsertingManager::newMultipleChargingMovements}).
+		 */
+		void submit(List<Movement> movements, String refNo) throws OHServiceException;
+	}
+
+	private final List<Movement> movements;
+	private final Submission submission;
+	private final Runnable onSaved;
+	private final Runnable onFailed;
+	private final JDialog progress;
+
+	private MovementsSubmitter(JDialog form, List<Movement> movements, Submission submission, Runnable onSaved, Runnable onFailed) {
+		this.movements = movements;
+		this.submission = submission;
+		this.onSaved = onSaved;
+		this.onFailed = onFailed;
+		this.progress = createProgress(form, movements.size());
+	}
+
+	/**
+	 * Saves the movements and returns when the save is over, with the progress dialog shown meanwhile.
+	 *
+	 * @param form - the document form, blocked until the end
+	 * @param movements - the movements, already checked and prepared
+	 * @param submission - saves the movements
+	 * @param onSaved - run on the EDT if the movements are saved
+	 * @param onFailed - run on the EDT if the movements are not saved, after the errors are shown
+	 */
+	static void submit(JDialog form, List<Movement> movements, Submission submission, Runnable onSaved, Runnable onFailed) {
+		MovementsSubmitter submitter = new MovementsSubmitter(form, movements, submission, onSaved, onFailed);
+		submitter.execute();
+		// modal: returns after done() has disposed it
+		submitter.progress.setVisible(true);
+	}
+
+	@Override
+	protected Void doInBackground() throws Exception {
+		submission.submit(movements, movements.get(0).getRefNo());
+		return null;
+	}
+
+	@Override
+	protected void done() {
+		progress.dispose();
+		try {
+			get();
+			onSaved.run();
+			return;
+		} catch (InterruptedException interruptedException) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException executionException) {
+			if (executionException.getCause() instanceof OHServiceException) {
+				OHServiceExceptionUtil.showMessages((OHServiceException) executionException.getCause());
+			} else {
+				LOGGER.error("Error saving the movements: ", executionException.getCause());
+				MessageDialog.error(null, "angal.common.datacouldnotbesaved.msg");
+			}
+		}
+		onFailed.run();
+	}
+
+	private static JDialog createProgress(JDialog form, int count) {
+		JDialog dialog = new JDialog(form, MessageBundle.getMessage("angal.medicalstock.stockmovement.title"), true);
+		dialog.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+		JProgressBar bar = new JProgressBar();
+		bar.setIndeterminate(true);
+		JPanel panel = new JPanel(new BorderLayout(0, 10));
+		panel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+		panel.add(new JLabel(MessageBundle.formatMessage("angal.medicalstock.savingmovements.fmt.msg", count)), BorderLayout.NORTH);
+		panel.add(bar, BorderLayout.CENTER);
+		dialog.add(panel);
+		dialog.pack();
+		dialog.setLocationRelativeTo(form);
+		return dialog;
+	}
+}
@@ -0,0 +1,157 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.medicalstock.gui.totals;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.isf.medicalstock.model.Lot;
+import org.isf.medicalstock.model.Movement;
+import org.isf.ward.model.Ward;
+
+/**
+ * The quantity and cost totals of the stock movements shown by the MovStockBrowser, with the subtotals
+ * by medical, by lot and by ward, computed in a single pass and kept up to date movement by movement.
+ * <p>
+ * Charges (movement types with "+") count as positive, discharges as negative. The costs are not
+ * multiplied per movement: each (sub)total only adds up the net quantity per cost, and the amount is
+ * computed on request with one multiplication per distinct cost.
+ */
+public class MovementTotals {
+
+	private final boolean withCost;
+	private Subtotal total = new Subtotal();
+	private final Map<Integer, Subtotal> medicals = new HashMap<>();
+	private final Map<String, Subtotal> lots = new HashMap<>();
+	private final Map<String, Subtotal> wards = new HashMap<>();
+
+	/**
+	 * @param withCost - whether the lots have a cost (i.e. {@code GeneralData.LOTWITHCOST})
+	 */
+	public MovementTotals(boolean withCost) {
+		this.withCost = withCost;
+	}
+
+	/**
+	 * Replaces all the totals with the ones of the movements (i.e. after filtering).
+	 */
+	public void reset(Collection<Movement> movements) {
+		total = new Subtotal();
+		medicals.clear();
+		lots.clear();
+		wards.clear();
+		if (movements != null) {
+			for (Movement movement : movements) {
+				add(movement);
+			}
+		}
+	}
+
+	public void add(Movement movement) {
+		update(movement, 1);
+	}
+
+	public void remove(Movement movement) {
+		update(movement, -1);
+	}
+
+	private void update(Movement movement, int sign) {
+		int quantity = movement.getType().getType().contains("+") ? movement.getQuantity() : -movement.getQuantity();
+		quantity *= sign;
+		Lot lot = movement.getLot();
+		BigDecimal cost = withCost && lot != null ? lot.getCost() : null;
+		total.add(quantity, sign, cost);
+		medicals.computeIfAbsent(movement.getMedical().getCode(), code -> new Subtotal()).add(quantity, sign, cost);
+		if (lot != null) {
+			lots.computeIfAbsent(lot.getCode(), code -> new Subtotal()).add(quantity, sign, cost);
+		}
+		Ward ward = movement.getWard();
+		if (ward != null) {
+			wards.computeIfAbsent(ward.getCode(), code -> new Subtotal()).add(quantity, sign, cost);
+		}
+	}
+
+	public Subtotal getTotal() {
+		return total;
+	}
+
+	/**
+	 * @return the subtotals by medical code
+	 */
+	public Map<Integer, Subtotal> getMedicalSubtotals() {
+		return Collections.unmodifiableMap(medicals);
+	}
+
+	/**
+	 * @return the subtotals by lot code
+	 */
+	public Map<String, Subtotal> getLotSubtotals() {
+		return Collections.unmodifiableMap(lots);
+	}
+
+	/**
+	 * @return the subtotals by ward code, only for the movements with a ward
+	 */
+	public Map<String, Subtotal> getWardSubtotals() {
+		return Collections.unmodifiableMap(wards);
+	}
+
+	public static final class Subtotal {
+
+		private long quantity;
+		private int movements;
+		private final Map<BigDecimal, long[]> quantityByCost = new HashMap<>();
+
+		private void add(int quantity, int movements, BigDecimal cost) {
+			this.quantity += quantity;
+			this.movements += movements;
+			if (cost != null) {
+				quantityByCost.computeIfAbsent(cost, value -> new long[1])[0] += quantity;
+			}
+		}
+
+		/**
+		 * @return the charged quantity minus the discharged one
+		 */
+		public long getQuantity() {
+			return quantity;
+		}
+
+		public int getMovements() {
+			return movements;
+		}
+
+		/**
+		 * @return the charged amount minus the discharged one, for the lots with a cost
+		 */
+		public BigDecimal getAmount() {
+			BigDecimal amount = BigDecimal.ZERO;
+			for (Map.Entry<BigDecimal, long[]> entry : quantityByCost.entrySet()) {
+				amount = amount.add(entry.getKey().multiply(BigDecimal.valueOf(entry.getValue()[0])));
+			}
+			return amount;
+		}
+	}
+}
@@ -0,0 +1,169 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.medicalstock.gui.totals;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.isf.medicals.model.Medical;
+import org.isf.medicalstock.model.Lot;
+import org.isf.utils.exception.OHServiceException;
+
+/**
+ * The quantities already reserved by the lines of a discharging document that is not saved yet,
+ * by medical and by lot, so that the quantity still available can be checked without scanning
+ * the other lines.
+ * <p>
+ * The lots of each medical are loaded once per document and never modified: the available
+ * quantity of a lot is its main store quantity minus the quantity reserved on it.
+ */
+public class StockReservations {
+
+	@FunctionalInterface
+	public interface LotLoader {
+
+		List<Lot> load(Medical medical) throws OHServiceException;
+	}
+
+	private final LotLoader lotLoader;
+	private final Map<Integer, Reservation> medicals = new HashMap<>();
+	private final Map<String, Reservation> lots = new HashMap<>();
+	private final Map<Integer, List<Lot>> lotsByMedical = new HashMap<>();
+
+	/**
+	 * @param lotLoader - loads the lots of a medical (i.e. {@code MovStockInsertingManager::getLotByMedical})
+	 */
+	public StockReservations(LotLoader lotLoader) {
+		this.lotLoader = lotLoader;
+	}
+
+	/**
+	 * Reserves the quantity of a new line of the document.
+	 *
+	 * @param lot - the lot of the line, ignored if automatic (empty code)
+	 * @param quantity - the quantity in units
+	 */
+	public void reserve(Medical medical, Lot lot, int quantity) {
+		medicals.computeIfAbsent(medical.getCode(), code -> new Reservation()).add(quantity, 1);
+		if (isChosen(lot)) {
+			lots.computeIfAbsent(lot.getCode(), code -> new Reservation()).add(quantity, 1);
+		}
+	}
+
+	/**
+	 * Releases the quantity of a line removed from the document.
+	 */
+	public void release(Medical medical, Lot lot, int quantity) {
+		release(medicals, medical.getCode(), quantity);
+		if (isChosen(lot)) {
+			release(lots, lot.getCode(), quantity);
+		}
+	}
+
+	/**
+	 * Changes the quantity of a line of the document (i.e. units instead of packets).
+	 */
+	public void change(Medical medical, Lot lot, int oldQuantity, int newQuantity) {
+		medicals.get(medical.getCode()).add(newQuantity - oldQuantity, 0);
+		if (isChosen(lot)) {
+			lots.get(lot.getCode()).add(newQuantity - oldQuantity, 0);
+		}
+	}
+
+	/**
+	 * @return {@code true} if the document already has a line for the medical
+	 */
+	public boolean isReserved(Medical medical) {
+		return medicals.containsKey(medical.getCode());
+	}
+
+	public int getReserved(Medical medical) {
+		Reservation reservation = medicals.get(medical.getCode());
+		return reservation == null ? 0 : reservation.quantity;
+	}
+
+	public int getReserved(Lot lot) {
+		Reservation reservation = isChosen(lot) ? lots.get(lot.getCode()) : null;
+		return reservation == null ? 0 : reservation.quantity;
+	}
+
+	/**
+	 * @return the stock quantity of the medical not reserved by the document
+	 */
+	public double getAvailable(Medical medical) {
+		return medical.getTotalQuantity() - getReserved(medical);
+	}
+
+	/**
+	 * @return the main store quantity of the lot not reserved by the document
+	 */
+	public int getAvailable(Lot lot) {
+		return lot.getMainStoreQuantity() - getReserved(lot);
+	}
+
+	/**
+	 * @return the lots of the medical with some quantity not reserved by the document, loaded only the first time
+	 * @throws OHServiceException if the lots cannot be loaded
+	 */
+	public List<Lot> getAvailableLots(Medical medical) throws OHServiceException {
+		List<Lot> medicalLots = lotsByMedical.get(medical.getCode());
+		if (medicalLots == null) {
+			medicalLots = lotLoader.load(medical);
+			lotsByMedical.put(medical.getCode(), medicalLots);
+		}
+		List<Lot> available = new ArrayList<>(medicalLots.size());
+		for (Lot lot : medicalLots) {
+			if (getAvailable(lot) > 0) {
+				available.add(lot);
+			}
+		}
+		return available;
+	}
+
+	private static <K> void release(Map<K, Reservation> reservations, K key, int quantity) {
+		Reservation reservation = reservations.get(key);
+		if (reservation != null && reservation.add(-quantity, -1) == 0) {
+			reservations.remove(key);
+		}
+	}
+
+	private static boolean isChosen(Lot lot) {
+		return lot != null && lot.getCode() != null && !lot.getCode().isEmpty();
+	}
+
+	private static class Reservation {
+
+		private int quantity;
+		private int lines;
+
+		/*
+		 * returns the remaining number of lines
+		 */
+		private int add(int quantity, int lines) {
+			this.quantity += quantity;
+			this.lines += lines;
+			return this.lines;
+		}
+	}
+}
@@ -75,11 +75,10 @@ import javax.swing.WindowConstants;
 import javax.swing.border.TitledBorder;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.DefaultTableModel;
-import javax.swing.table.TableCellRenderer;
 
 import org.isf.generaldata.GeneralData;
 import org.isf.generaldata.MessageBundle;
-import org.isf.medicals.manager.MedicalBrowsingManager;
+import org.isf.medicals.gui.MedicalCatalogue;
 import org.isf.medicals.model.Medical;
 import org.isf.medicalstock.manager.MovBrowserManager;
 import org.isf.medicalstock.model.Lot;
@@ -99,6 +98,7 @@ import org.isf.stat.gui.report.GenericReportPharmaceuticalStockWard;
 import org.isf.utils.excel.ExcelExporter;
 import org.isf.utils.exception.OHServiceException;
 import org.isf.utils.exception.gui.OHServiceExceptionUtil;
+import org.isf.utils.jobjects.ButtonColumn;
 import org.isf.utils.jobjects.CustomJDateChooser;
 import org.isf.utils.jobjects.MessageDialog;
 import org.isf.utils.jobjects.ModalJFrame;
@@ -234,7 +234,6 @@ public class WardPharmacy extends ModalJFrame implements
 	private List<Movement> listMovementCentral = new ArrayList<>();
 	private MovWardBrowserManager wardManager = Context.getApplicationContext().getBean(MovWardBrowserManager.class);
 	private MedicalTypeBrowserManager medicalTypeBrowserManager = Context.getApplicationContext().getBean(MedicalTypeBrowserManager.class);
-	private MedicalBrowsingManager medicalManager = Context.getApplicationContext().getBean(MedicalBrowsingManager.class);
 	private List<MovementWard> listMovementWardFromTo = new ArrayList<>();
 	private List<MedicalWard> wardDrugs;
 	private List<MovementWard> wardOutcomes;
@@ -520,8 +519,13 @@ public class WardPharmacy extends ModalJFrame implements
 		if (jTableDrugs == null) {
 			modelDrugs = new DrugsModel();
 			jTableDrugs = new JTable(modelDrugs);
-			TableCellRenderer buttonRenderer = new JTableButtonRenderer();
-			jTableDrugs.getColumn("").setCellRenderer(buttonRenderer);
+			ButtonColumn rectifyColumn = new ButtonColumn(jTableDrugs, 3, MessageBundle.getMessage("angal.medicalstockward.rectify.btn"), row -> {
+				MedicalWard wardDrug = (MedicalWard) jTableDrugs.getModel().getValueAt(row, -1);
+				WardPharmacyRectify wardRectify = new WardPharmacyRectify(WardPharmacy.this, wardSelected, wardDrug.getMedical());
+				wardRectify.addMovementWardListener(WardPharmacy.this);
+				wardRectify.setVisible(true);
+			});
+			rectifyColumn.setMnemonic(MessageBundle.getMnemonic("angal.medicalstockward.rectify.btn.key"));
 			for (int i = 0; i < columnWidthDrugs.length; i++) {
 				jTableDrugs.getColumnModel().getColumn(i).setMinWidth(columnWidthDrugs[i]);
 				if (!columnsResizableDrugs[i]) {
@@ -533,20 +537,10 @@ public class WardPharmacy extends ModalJFrame implements
 
 				@Override
 				public void mouseClicked(MouseEvent me) {
-					int column = jTableDrugs.getColumnModel().getColumnIndexAtX(me.getX()); // get the column of the button
 					JTable target = (JTable) me.getSource();
 					int row = target.getSelectedRow(); // select a row
 
-					/*Checking the row or column is valid or not*/
-					if (row < jTableDrugs.getRowCount() && row >= 0 && column < jTableDrugs.getColumnCount() && column >= 0) {
-						Object value = jTableDrugs.getValueAt(row, column);
-						if (value instanceof JButton) {
-							/*perform a click event*/
-							((JButton) value).doClick();
-						}
-					}
-
-					if (me.getClickCount() == 2) {     // to detect double click events
+					if (me.getClickCount() == 2 && row >= 0) {     // to detect double click events
 
 						showLotDetail(wardDrugs, (String) jTableDrugs.getValueAt(row, 0));// get the value of a row and column.
 					}
@@ -556,15 +550,6 @@ public class WardPharmacy extends ModalJFrame implements
 		return jTableDrugs;
 	}
 
-	private static class JTableButtonRenderer implements TableCellRenderer {
-
-		@Override
-		public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
-			JButton button = (JButton) value;
-			return button;
-		}
-	}
-
 	private void showLotDetail(List<MedicalWard> drug, String me) {
 		List<MedicalWard> medicalWardList = new ArrayList<>();
 		for (MedicalWard elem : drug) {
@@ -947,11 +932,15 @@ public class WardPharmacy extends ModalJFrame implements
 		searchButton.setIcon(new ImageIcon("rsc/icons/zoom_r_button.png"));
 		searchButton.addActionListener(actionEvent -> {
 			jComboBoxMedicals.removeAllItems();
-			List<Medical> medicals;
+			MedicalCatalogue catalogue = MedicalCatalogue.getInstance();
+			List<Medical> results;
+			int originalSize;
 			try {
-				medicals = medicalManager.getMedicals();
+				results = catalogue.search(searchTextField.getText());
+				originalSize = catalogue.size();
 			} catch (OHServiceException e1) {
-				medicals = null;
+				results = null;
+				originalSize = 0;
 				OHServiceExceptionUtil.showMessages(e1);
 			}
 			MedicalType medicalType;
@@ -960,9 +949,7 @@ public class WardPharmacy extends ModalJFrame implements
 			} else {
 				medicalType = (MedicalType) jComboBoxTypes.getSelectedItem();
 			}
-			if (null != medicals) {
-				List<Medical> results = getSearchMedicalsResults(searchTextField.getText(), medicals);
-				int originalSize = medicals.size();
+			if (null != results) {
 				int resultsSize = results.size();
 				if (originalSize == resultsSize) {
 					jComboBoxMedicals.addItem(MessageBundle.getMessage("angal.medicalstockward.allmedicals"));
@@ -1017,7 +1004,7 @@ public class WardPharmacy extends ModalJFrame implements
 		}
 		List<Medical> medicals;
 		try {
-			medicals = medicalManager.getMedicals();
+			medicals = MedicalCatalogue.getInstance().getMedicals();
 		} catch (OHServiceException e) {
 			medicals = null;
 			OHServiceExceptionUtil.showMessages(e);
@@ -1487,17 +1474,8 @@ public class WardPharmacy extends ModalJFrame implements
 				return MessageBundle.getMessage("angal.medicalstockward.pieces"); //$NON-NLS-1$
 			}
 			if (c == 3) {
-				final JButton button = new JButton(MessageBundle.getMessage("angal.medicalstockward.rectify.btn"));
-				button.setMnemonic(MessageBundle.getMnemonic("angal.medicalstockward.rectify.btn.key"));
-				button.addActionListener(actionEvent -> {
-					Medical medic = wardDrug.getMedical();
-					WardPharmacyRectify wardRectify = new WardPharmacyRectify(WardPharmacy.this, wardSelected, medic);
-					wardRectify.addMovementWardListener(WardPharmacy.this);
-					wardRectify.setVisible(true);
-					TableCellRenderer buttonRenderer = new JTableButtonRenderer();
-					jTableDrugs.getColumn("").setCellRenderer(buttonRenderer);
-				});
-				return button;
+				// painted and pressed through the ButtonColumn
+				return MessageBundle.getMessage("angal.medicalstockward.rectify.btn");
 			}
 			return null;
 		}
@@ -1514,8 +1492,8 @@ public class WardPharmacy extends ModalJFrame implements
 
 		@Override
 		public boolean isCellEditable(int arg0, int arg1) {
-			// return super.isCellEditable(arg0, arg1);
-			return false;
+			// only the rectify buttons
+			return arg1 == 3;
 		}
 	}
 
@@ -1538,9 +1516,6 @@ public class WardPharmacy extends ModalJFrame implements
 					wardRectify.addMovementWardListener(WardPharmacy.this);
 					wardRectify.setVisible(true);
 				}
-
-				TableCellRenderer buttonRenderer = new JTableButtonRenderer();
-				jTableDrugs.getColumn("").setCellRenderer(buttonRenderer);
 			});
 		}
 		return jRectifyButton;
@@ -1724,30 +1699,4 @@ public class WardPharmacy extends ModalJFrame implements
 	public String formatDateTime(LocalDateTime time) {
 		return DateTimeFormatter.ofPattern(DATE_FORMAT_DD_MM_YYYY_HH_MM_SS).format(time);
 	}
-
-	private List<Medical> getSearchMedicalsResults(String s, List<Medical> medicalsList) {
-		String query = s.trim();
-		List<Medical> results = new ArrayList<>();
-		for (Medical medoc : medicalsList) {
-			if (!query.equals("")) {
-				String[] patterns = query.split(" ");
-				String code = medoc.getProdCode().toLowerCase();
-				String description = medoc.getDescription().toLowerCase();
-				boolean patternFound = false;
-				for (String pattern : patterns) {
-					if (code.contains(pattern.toLowerCase()) || description.contains(pattern.toLowerCase())) {
-						patternFound = true;
-						//It is sufficient that only one pattern matches the query
-						break;
-					}
-				}
-				if (patternFound) {
-					results.add(medoc);
-				}
-			} else {
-				results.add(medoc);
-			}
-		}
-		return results;
-	}
 }
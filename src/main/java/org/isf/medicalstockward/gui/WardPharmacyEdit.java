@@ -58,6 +58,7 @@ import org.isf.patient.manager.PatientBrowserManager;
 import org.isf.patient.model.Patient;
 import org.isf.utils.exception.OHServiceException;
 import org.isf.utils.exception.gui.OHServiceExceptionUtil;
+import org.isf.utils.jobjects.DebouncedFilter;
 import org.isf.utils.jobjects.MessageDialog;
 import org.isf.utils.jobjects.VoLimitedTextField;
 
@@ -86,7 +87,7 @@ public class WardPharmacyEdit extends JDialog {
 	private JButton jButtonTrashMedical;
 	private String sPat;
 	private String sMed;
-	private String lastKey;
+	private DebouncedFilter<List<MedicalWard>> drugFilter;
 	private MovementWard movSelected;
 	private Patient movSelectedPatient = null;
 	private Medical movSelectedMedical;
@@ -220,31 +221,12 @@ public class WardPharmacyEdit extends JDialog {
 			jTextFieldSearchMedical = new JTextField();
 			jTextFieldSearchMedical.setPreferredSize(new Dimension(100, 20));
 
-			jTextFieldSearchMedical.addKeyListener(new KeyListener() {
-
-				@Override
-				public void keyTyped(KeyEvent e) {
-					lastKey = ""; //$NON-NLS-1$
-					String s = "" + e.getKeyChar(); //$NON-NLS-1$
-					if (Character.isLetterOrDigit(e.getKeyChar())) {
-						lastKey = s;
-					}
-					s = jTextFieldSearchMedical.getText() + lastKey;
-					s = s.trim();
-
-					jComboBoxDrugs.removeAllItems();
-					getJComboBoxDrugs(s);
-				}
-
-				@Override
-				public void keyPressed(KeyEvent e) {
-				}
-
-				@Override
-				public void keyReleased(KeyEvent e) {
-				}
-
-			});
+			drugFilter = new DebouncedFilter<>(key -> {
+				List<MedicalWard> medicals = new ArrayList<>(medList);
+				String search = key.trim();
+				return () -> filterDrugs(medicals, search);
+			}, drugs -> showDrugs(jTextFieldSearchMedical.getText().trim(), drugs));
+			drugFilter.install(jTextFieldSearchMedical);
 		}
 		return jTextFieldSearchMedical;
 	}
@@ -258,7 +240,7 @@ public class WardPharmacyEdit extends JDialog {
 			jButtonTrashMedical.addActionListener(actionEvent -> {
 				if (true) {
 					jTextFieldSearchMedical.setText(""); //$NON-NLS-1$
-					jComboBoxDrugs.removeAllItems();
+					drugFilter.cancel();
 					getJComboBoxDrugs(""); //$NON-NLS-1$
 					jTextFieldSearchMedical.requestFocus();
 					movSelectedMedical = null;
@@ -567,19 +549,30 @@ public class WardPharmacyEdit extends JDialog {
 			jComboBoxDrugs.setBorder(null);
 		}
 
-		if (key == null || key.compareTo("") == 0) { //$NON-NLS-1$
-			jComboBoxDrugs.addItem(MessageBundle.getMessage("angal.medicalstockwardedit.selectadrug")); //$NON-NLS-1$
-		}
+		showDrugs(key, filterDrugs(medList, key));
+		return jComboBoxDrugs;
+	}
 
-		for (MedicalWard elem : medList) {
-			if (key != null) {
-				if (elem.toString().toLowerCase().contains(key.toLowerCase())) {
-					jComboBoxDrugs.addItem(elem);
-				}
-			} else {
-				jComboBoxDrugs.addItem(elem);
+	private static List<MedicalWard> filterDrugs(List<MedicalWard> medicals, String key) {
+		if (key == null || key.isEmpty()) {
+			return new ArrayList<>(medicals);
+		}
+		List<MedicalWard> drugs = new ArrayList<>();
+		for (MedicalWard elem : medicals) {
+			if (elem.toString().toLowerCase().contains(key.toLowerCase())) {
+				drugs.add(elem);
 			}
+		}
+		return drugs;
+	}
 
+	private void showDrugs(String key, List<MedicalWard> drugs) {
+		jComboBoxDrugs.removeAllItems();
+		if (key == null || key.isEmpty()) {
+			jComboBoxDrugs.addItem(MessageBundle.getMessage("angal.medicalstockwardedit.selectadrug")); //$NON-NLS-1$
+		}
+		for (MedicalWard elem : drugs) {
+			jComboBoxDrugs.addItem(elem);
 		}
 
 		//Workaround for one item only
@@ -593,7 +586,6 @@ public class WardPharmacyEdit extends JDialog {
 				movSelectedMedical = (Medical) jComboBoxDrugs.getItemAt(0);
 			}
 		}
-		return jComboBoxDrugs;
 	}
 
 	private JPanel getJPanelDrug() {
@@ -36,6 +36,7 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
@@ -48,6 +49,7 @@ import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.SpringLayout;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.UIManager;
 
 import org.isf.generaldata.GeneralData;
@@ -128,6 +130,7 @@ public class MainMenu extends JFrame implements ActionListener, Login.LoginListe
 	// debug mode
 	private boolean debug;
 	private MainMenu myFrame;
+	private MainPanel mainPanel;
 
 	private UserBrowsingManager manager = Context.getApplicationContext().getBean(UserBrowsingManager.class);
 
@@ -156,6 +159,7 @@ public class MainMenu extends JFrame implements ActionListener, Login.LoginListe
 			debug = false; // default for property not found
 		}
 
+		StartupProfiler.Phase loginPhase = StartupProfiler.start("Login (with user input)");
 		if (singleUser) {
 			LOGGER.info("Logging: Single User mode.");
 			myUser = new User(ADMIN_STR, new UserGroup(ADMIN_STR, ""), ADMIN_STR, "");
@@ -172,45 +176,15 @@ public class MainMenu extends JFrame implements ActionListener, Login.LoginListe
 			}
 		}
 
+		loginPhase.close();
+
 		// get menu items
-		try {
+		try (StartupProfiler.Phase phase = StartupProfiler.start("User menu")) {
 			myMenu = manager.getMenu(myUser);
 		} catch (OHServiceException e) {
 			OHServiceExceptionUtil.showMessages(e);
 		}
 
-		// start connection with xmpp server if is enabled
-		if (flag_Xmpp) {
-			try {
-				Server.getInstance().login(myUser.getUserName(), myUser.getPasswd());
-				try {
-					Thread.sleep(500);
-				} catch (InterruptedException interruptedException) {
-					LOGGER.error(interruptedException.getMessage(), interruptedException);
-				}
-				new CommunicationFrame();
-				/*
-				 * Interaction communication= new Interaction();
-				 * communication.incomingChat(); communication.receiveFile();
-				 */
-			} catch (XMPPException e) {
-				String message = e.getMessage();
-				if (message.contains("SASL authentication DIGEST-MD5 failed")) {
-					if (ADMIN_STR.equals(myUser.getUserName())) {
-						LOGGER.error("Cannot use \"admin\" user, please consider creating another user under the admin group.");
-					} else {
-						LOGGER.error("Passwords do not match, please drop the XMPP user and login to OH again with the same user.");
-					}
-				} else if (message.contains("XMPPError connecting")) {
-					LOGGER.error("No XMPP Server seems to be running: set XMPPMODULEENABLED = false");
-				} else {
-					LOGGER.error("An error occurs: {}", e.getMessage());
-				}
-				flag_Xmpp = GeneralData.XMPPMODULEENABLED = false;
-			}
-
-		}
-
 		// if in singleUser mode remove "users" and "communication" menu
 		if (singleUser) {
 			List<UserMenuItem> junkMenu = new ArrayList<>();
@@ -267,12 +241,18 @@ public class MainMenu extends JFrame implements ActionListener, Login.LoginListe
 			myMenu.remove(umi);
 		}
 
+		// start connection with xmpp server if is enabled
+		if (flag_Xmpp) {
+			startXmppLogin();
+		}
+
+		StartupProfiler.Phase framePhase = StartupProfiler.start("Main menu frame");
 		setTitle(MessageBundle.formatMessage("angal.mainmenu.fmt.title", myUser.getUserName()));
 		ImageIcon img = new ImageIcon("./rsc/icons/oh.png");
 		setIconImage(img.getImage());
 		// add panel with buttons to frame
-		MainPanel panel = new MainPanel(this);
-		add(panel);
+		mainPanel = new MainPanel(this);
+		add(mainPanel);
 		setResizable(false);
 		pack();
 
@@ -293,6 +273,68 @@ public class MainMenu extends JFrame implements ActionListener, Login.LoginListe
 		});
 		
 		setVisible(true);
+		framePhase.close();
+		StartupProfiler.report();
+	}
+
+	/*
+	 * The login to the xmpp server runs in background so the main menu shows up without waiting for it;
+	 * when it fails the communication button is disabled.
+	 */
+	private void startXmppLogin() {
+		StartupProfiler.Phase phase = StartupProfiler.start("XMPP login");
+		new SwingWorker<Void, Void>() {
+
+			@Override
+			protected Void doInBackground() throws Exception {
+				Server.getInstance().login(myUser.getUserName(), myUser.getPasswd());
+				Thread.sleep(500);
+				return null;
+			}
+
+			@Override
+			protected void done() {
+				phase.close();
+				try {
+					get();
+					new CommunicationFrame();
+					/*
+					 * Interaction communication= new Interaction();
+					 * communication.incomingChat(); communication.receiveFile();
+					 */
+				} catch (InterruptedException interruptedException) {
+					LOGGER.error(interruptedException.getMessage(), interruptedException);
+					Thread.currentThread().interrupt();
+				} catch (ExecutionException executionException) {
+					Throwable cause = executionException.getCause();
+					if (cause instanceof XMPPException) {
+						logXmppError((XMPPException) cause);
+					} else {
+						LOGGER.error("An error occurs: {}", cause.getMessage(), cause);
+					}
+					flag_Xmpp = GeneralData.XMPPMODULEENABLED = false;
+					myMenu.removeIf(umi -> "communication".equalsIgnoreCase(umi.getCode()));
+					if (mainPanel != null) {
+						mainPanel.setButtonEnabled("communication", false);
+					}
+				}
+			}
+		}.execute();
+	}
+
+	private void logXmppError(XMPPException e) {
+		String message = e.getMessage();
+		if (message.contains("SASL authentication DIGEST-MD5 failed")) {
+			if (ADMIN_STR.equals(myUser.getUserName())) {
+				LOGGER.error("Cannot use \"admin\" user, please consider creating another user under the admin group.");
+			} else {
+				LOGGER.error("Passwords do not match, please drop the XMPP user and login to OH again with the same user.");
+			}
+		} else if (message.contains("XMPPError connecting")) {
+			LOGGER.error("No XMPP Server seems to be running: set XMPPMODULEENABLED = false");
+		} else {
+			LOGGER.error("An error occurs: {}", e.getMessage());
+		}
 	}
 
 	private void actionExit(int status) {
@@ -398,6 +440,14 @@ public class MainMenu extends JFrame implements ActionListener, Login.LoginListe
 			add(centerPanel, BorderLayout.CENTER);
 		}
 
+		void setButtonEnabled(String code, boolean enabled) {
+			for (JButton jButton : button) {
+				if (code.equalsIgnoreCase(jButton.getActionCommand())) {
+					jButton.setEnabled(enabled);
+				}
+			}
+		}
+
 		private JPanel getLogoPanel() {
 			JLabel logo_appl = new JLabel(new ImageIcon("rsc" + File.separator + "images" + File.separator + "logo_menu_vert.png"));
 			JLabel logo_hosp = new JLabel(new ImageIcon("rsc" + File.separator + "images" + File.separator + "logo_hospital.png"));
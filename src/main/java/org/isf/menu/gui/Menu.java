@@ -24,12 +24,18 @@ package org.isf.menu.gui;
 import java.awt.Toolkit;
 import java.io.File;
 import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
 import java.util.regex.Pattern;
 
 import javax.swing.JFrame;
 
+import org.isf.generaldata.GeneralData;
+import org.isf.generaldata.MessageBundle;
 import org.isf.generaldata.Version;
 import org.isf.menu.manager.Context;
+import org.isf.utils.jobjects.BackgroundTasks;
+import org.isf.utils.jobjects.EdtLatencyMonitor;
 import org.isf.utils.jobjects.WaitCursorEventQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,17 +51,20 @@ public class Menu {
 
 	/**
 	 * Create the GUI and show it.
+	 *
+	 * @param startup completes when the application context and the settings are loaded
 	 */
-	private static void createAndShowGUI() {
+	private static void createAndShowGUI(Future<?> startup) {
 		String newLine = System.lineSeparator();
 		LOGGER.info("{}{}====================={}Starting Open Hospital{}====================={}", newLine, newLine, newLine, newLine, newLine);
 
 		checkOHVersion();
 		checkJavaVersion();
 		JFrame.setDefaultLookAndFeelDecorated(false);
-		new SplashWindow3("rsc" + File.separator + "images" + File.separator + "splash.png", null, 3000);
+		new SplashWindow3("rsc" + File.separator + "images" + File.separator + "splash.png", null, startup);
 		WaitCursorEventQueue waitQueue = new WaitCursorEventQueue(10, Toolkit.getDefaultToolkit().getSystemEventQueue());
 		Toolkit.getDefaultToolkit().getSystemEventQueue().push(waitQueue);
+		EdtLatencyMonitor.getInstance().install();
 	}
 
 	private static void checkOHVersion() {
@@ -103,15 +112,34 @@ public class Menu {
 		return true;
 	}
 
-	public static void main(String[] args) {
-		ApplicationContext context = null;
-		try {
-			context = new ClassPathXmlApplicationContext("applicationContext.xml");
+	private static ApplicationContext loadApplicationContext() {
+		try (StartupProfiler.Phase phase = StartupProfiler.start("Spring context")) {
+			return new ClassPathXmlApplicationContext("applicationContext.xml");
 		} catch (Exception e) {
 			LOGGER.error("Fatal: fail to load application context. {}", e.getMessage(), e);
 			System.exit(1);
+			return null;
+		}
+	}
+
+	/*
+	 * Settings and bundles do not need the application context: MainMenu finds them already loaded
+	 */
+	private static void loadSettings() {
+		try (StartupProfiler.Phase phase = StartupProfiler.start("Settings and bundles")) {
+			GeneralData.initialize();
+			MessageBundle.getBundle();
+		} catch (Exception e) {
+			LOGGER.error("Failed to load settings: {}", e.getMessage(), e);
 		}
-		Context.setApplicationContext(context);
-		javax.swing.SwingUtilities.invokeLater(() -> createAndShowGUI());
+	}
+
+	public static void main(String[] args) {
+		// the splash is shown while the application context and the settings load in parallel
+		Future<Void> startup = CompletableFuture.allOf(
+				CompletableFuture.supplyAsync(Menu::loadApplicationContext, BackgroundTasks.getExecutor())
+						.thenAccept(Context::setApplicationContext),
+				CompletableFuture.runAsync(Menu::loadSettings, BackgroundTasks.getExecutor()));
+		javax.swing.SwingUtilities.invokeLater(() -> createAndShowGUI(startup));
 	}
 }
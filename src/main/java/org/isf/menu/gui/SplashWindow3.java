@@ -27,6 +27,7 @@ import java.awt.Frame;
 import java.awt.Toolkit;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.util.concurrent.Future;
 
 import javax.swing.ImageIcon;
 import javax.swing.JLabel;
@@ -42,7 +43,10 @@ class SplashWindow3 extends JWindow {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SplashWindow3.class);
 
-    public SplashWindow3(String filename, Frame f, int waitTime) {
+    /**
+     * @param startup the loading to wait for before opening the main menu
+     */
+    public SplashWindow3(String filename, Frame f, Future<?> startup) {
         super(f);
 
         JLabel l = new JLabel(new ImageIcon(filename));
@@ -65,15 +69,16 @@ class SplashWindow3 extends JWindow {
                 dispose();
             }
         });
-        final int pause = waitTime;
         final Runnable closerRunner = () -> {
             setVisible(false);
             dispose();
             new MainMenu();
         };
+        StartupProfiler.Phase splashPhase = StartupProfiler.start("Splash");
         Runnable waitRunner = () -> {
             try {
-                Thread.sleep(pause);
+                startup.get();
+                splashPhase.close();
                 SwingUtilities.invokeAndWait(closerRunner);
             } catch (Exception exception) {
                 LOGGER.error(exception.getMessage(), exception);
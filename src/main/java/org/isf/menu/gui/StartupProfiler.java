@@ -0,0 +1,108 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.menu.gui;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Times the phases of the startup, some of which run in parallel, and logs them once the main menu is shown.
+ * <pre>
+ * try (StartupProfiler.Phase phase = StartupProfiler.start("Spring context")) {
+ *     ...
+ * }
+ * </pre>
+ */
+final class StartupProfiler {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(StartupProfiler.class);
+
+	private static final long ORIGIN = System.nanoTime();
+
+	private static final List<Phase> PHASES = new ArrayList<>();
+	private static boolean reported;
+
+	private StartupProfiler() {
+	}
+
+	static Phase start(String name) {
+		return new Phase(name);
+	}
+
+	/**
+	 * Logs the phases ended so far; the phases ending later (i.e. the XMPP login) are logged one by one.
+	 */
+	static void report() {
+		long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+		StringBuilder table = new StringBuilder();
+		synchronized (PHASES) {
+			if (reported) {
+				return;
+			}
+			reported = true;
+			table.append(String.format("Startup phases (start ms, duration ms, thread), main menu after %d ms of JVM uptime:", uptime));
+			for (Phase phase : PHASES) {
+				table.append(System.lineSeparator()).append('\t').append(phase);
+			}
+		}
+		LOGGER.info("{}", table);
+	}
+
+	static final class Phase implements AutoCloseable {
+
+		private final String name;
+		private final String thread;
+		private final long start;
+		private long end;
+
+		private Phase(String name) {
+			this.name = name;
+			this.thread = Thread.currentThread().getName();
+			this.start = System.nanoTime();
+		}
+
+		@Override
+		public void close() {
+			end = System.nanoTime();
+			boolean late;
+			synchronized (PHASES) {
+				PHASES.add(this);
+				late = reported;
+			}
+			if (late) {
+				LOGGER.info("Startup phase {}", this);
+			}
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%-30s %8d %8d  %s", name, TimeUnit.NANOSECONDS.toMillis(start - ORIGIN),
+					TimeUnit.NANOSECONDS.toMillis(end - start), thread);
+		}
+	}
+
+}
@@ -35,7 +35,9 @@ import java.awt.event.FocusListener;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import javax.swing.AbstractButton;
@@ -57,7 +59,6 @@ import javax.swing.ListSelectionModel;
 import javax.swing.SpringLayout;
 import javax.swing.SwingConstants;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableColumnModel;
 import javax.swing.text.AttributeSet;
 import javax.swing.text.BadLocationException;
@@ -79,8 +80,8 @@ import org.isf.utils.jobjects.GoodDateChooser;
 import org.isf.utils.jobjects.MessageDialog;
 import org.isf.utils.jobjects.ModalJFrame;
 import org.isf.utils.jobjects.VoLimitedTextField;
+import org.isf.utils.jobjects.WindowedTableModel;
 import org.isf.utils.layout.SpringUtilities;
-import org.isf.utils.time.TimeTools;
 
 /**
  * ------------------------------------------
@@ -144,7 +145,6 @@ public class OpdBrowser extends ModalJFrame implements OpdEdit.SurgeryListener,
 			MessageBundle.getMessage("angal.opd.diseasetype.col").toUpperCase(),
 			MessageBundle.getMessage("angal.opd.patientstatus.col").toUpperCase()
 	};
-	private List<Opd> pSur;
 	private JTable jTable = null;
 	private OpdBrowsingModel model;
 	private int[] pColumnWidth = {50, 50, 130, 70, 150, 30, 30, 195, 195, 50 };
@@ -171,6 +171,8 @@ public class OpdBrowser extends ModalJFrame implements OpdEdit.SurgeryListener,
 	private JTable getJTable() {
 		if (jTable == null) {
 			model = new OpdBrowsingModel();
+			model.filter(allType.getCode(), MessageBundle.getMessage("angal.opd.alldiseases.txt"),
+					GeneralData.ENHANCEDSEARCH ? LocalDate.now() : LocalDate.now().minusWeeks(1), LocalDate.now(), 0, 0, 'A', 'A');
 			jTable = new JTable(model);
 			jTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
 			TableColumnModel columnModel = jTable.getColumnModel();
@@ -266,7 +268,7 @@ public class OpdBrowser extends ModalJFrame implements OpdEdit.SurgeryListener,
 				screensize.height * pfrmHeight / pfrmBase + 20);
 		this.setTitle(MessageBundle.getMessage("angal.opd.opdoutpatientdepartment.title"));
 		this.setContentPane(getJContainPanel());
-		rowCounter.setText(rowCounterText + pSur.size());
+		updateRowCounter();
 		validate();
 		this.setLocationRelativeTo(null);
 	}
@@ -282,7 +284,9 @@ public class OpdBrowser extends ModalJFrame implements OpdEdit.SurgeryListener,
 			jContainPanel.setLayout(new BorderLayout());
 			jContainPanel.add(getJButtonPanel(), java.awt.BorderLayout.SOUTH);
 			jContainPanel.add(getJSelectionPanel(), java.awt.BorderLayout.WEST);
-			jContainPanel.add(new JScrollPane(getJTable()),	java.awt.BorderLayout.CENTER);
+			JScrollPane scrollPane = new JScrollPane(getJTable());
+			model.follow(jTable, scrollPane.getViewport());
+			jContainPanel.add(scrollPane, java.awt.BorderLayout.CENTER);
 			validate();
 		}
 		return jContainPanel;
@@ -330,6 +334,10 @@ public class OpdBrowser extends ModalJFrame implements OpdEdit.SurgeryListener,
 				}
 				selectedrow = jTable.getSelectedRow();
 				Opd opd = (Opd) (model.getValueAt(selectedrow, -1));
+				if (opd == null) {
+					// row still loading
+					return;
+				}
 				if (GeneralData.OPDEXTENDED) {
 					OpdEditExtended editrecord = new OpdEditExtended(myFrame, opd, false);
 					editrecord.addSurgeryListener(OpdBrowser.this);
@@ -374,6 +382,10 @@ public class OpdBrowser extends ModalJFrame implements OpdEdit.SurgeryListener,
 					return;
 				}
 				Opd opd = (Opd) (model.getValueAt(jTable.getSelectedRow(), -1));
+				if (opd == null) {
+					// row still loading
+					return;
+				}
 
 				String message;
 				if (GeneralData.OPDEXTENDED) {
@@ -405,9 +417,8 @@ public class OpdBrowser extends ModalJFrame implements OpdEdit.SurgeryListener,
 						MessageBundle.getMessage("angal.messagedialog.question.title"), JOptionPane.YES_NO_OPTION);
 				try {
 					if ((n == JOptionPane.YES_OPTION) && (manager.deleteOpd(opd))) {
-						pSur.remove(pSur.size() - jTable.getSelectedRow() - 1);
-						model.fireTableDataChanged();
-						jTable.updateUI();
+						model.removeRow(jTable.getSelectedRow());
+						updateRowCounter();
 					}
 				} catch (OHServiceException ohServiceException) {
 					MessageDialog.showExceptions(ohServiceException);
@@ -812,33 +823,84 @@ public class OpdBrowser extends ModalJFrame implements OpdEdit.SurgeryListener,
 		return jAgePanel;
 	}
 
-	class OpdBrowsingModel extends DefaultTableModel {
+	/*
+	 * The OPDs are loaded one window of WINDOW_DAYS days at a time, the most recent first, when their rows
+	 * are painted: see WindowedTableModel.
+	 */
+	class OpdBrowsingModel extends WindowedTableModel<Opd> {
 
 		private static final long serialVersionUID = -9129145534999353730L;
 
-		public OpdBrowsingModel(String diseaseTypeCode, String diseaseCode, LocalDate dateFrom, LocalDate dateTo, int ageFrom, int ageTo,
+		private static final int WINDOW_DAYS = 7;
+
+		private String diseaseTypeCode;
+		private String diseaseCode;
+		private LocalDate dateFrom;
+		private LocalDate dateTo;
+		private int ageFrom;
+		private int ageTo;
+		private char sex;
+		private char newPatient;
+
+		/**
+		 * Shows the OPDs matching the filter, loading the most recent window first.
+		 */
+		public void filter(String diseaseTypeCode, String diseaseCode, LocalDate dateFrom, LocalDate dateTo, int ageFrom, int ageTo,
 				char sex, char newPatient) {
-			try {
-				pSur = manager.getOpd(diseaseTypeCode, diseaseCode, dateFrom, dateTo, ageFrom, ageTo, sex, newPatient);
-			} catch (OHServiceException ohServiceException) {
-				MessageDialog.showExceptions(ohServiceException);
-			}
+			this.diseaseTypeCode = diseaseTypeCode;
+			this.diseaseCode = diseaseCode;
+			this.dateFrom = dateFrom;
+			this.dateTo = dateTo;
+			this.ageFrom = ageFrom;
+			this.ageTo = ageTo;
+			this.sex = sex;
+			this.newPatient = newPatient;
+			int days = (int) ChronoUnit.DAYS.between(dateFrom, dateTo) + 1;
+			reset(Math.max(1, (days + WINDOW_DAYS - 1) / WINDOW_DAYS));
 		}
 
-		public OpdBrowsingModel() {
-			try {
-				pSur = manager.getOpd(!GeneralData.ENHANCEDSEARCH);
-			} catch (OHServiceException ohServiceException) {
-				MessageDialog.showExceptions(ohServiceException);
+		@Override
+		protected List<Opd> query(int window) throws OHServiceException {
+			LocalDate to = dateTo.minusDays((long) window * WINDOW_DAYS);
+			LocalDate from = to.minusDays(WINDOW_DAYS - 1L);
+			if (from.isBefore(dateFrom)) {
+				from = dateFrom;
 			}
+			List<Opd> opds = manager.getOpd(diseaseTypeCode, diseaseCode, from, to, ageFrom, ageTo, sex, newPatient);
+			if (opds == null) {
+				return new ArrayList<>();
+			}
+			List<Opd> mostRecentFirst = new ArrayList<>(opds);
+			Collections.reverse(mostRecentFirst);
+			return mostRecentFirst;
 		}
 
 		@Override
-		public int getRowCount() {
-			if (pSur == null) {
-				return 0;
+		protected Object[] getCells(Opd opd) {
+			Patient pat = opd.getPatient();
+			String patientStatus;
+			if (opd.getNewPatient() == 'N') {
+				patientStatus = MessageBundle.getMessage("angal.opd.new.btn");
+			} else {
+				patientStatus = MessageBundle.getMessage("angal.opd.reattendance.btn");
 			}
-			return pSur.size();
+			return new Object[] {
+					opd.getCode(),
+					opd.getProgYear(),
+					GeneralData.OPDEXTENDED ? opd.getDate().format(DATE_TIME_FORMATTER) : opd.getDate().format(DATE_FORMATTER),
+					pat != null ? pat.getCode() : null,
+					pat != null ? opd.getFullName() : null,
+					opd.getSex(),
+					opd.getAge(),
+					opd.getDisease().getDescription(),
+					opd.getDisease().getType().getDescription(),
+					patientStatus
+			};
+		}
+
+		@Override
+		protected void windowLoaded(int window) {
+			updateRowCounter();
 		}
 
 		@Override
@@ -851,70 +913,32 @@ public class OpdBrowser extends ModalJFrame implements OpdEdit.SurgeryListener,
 			return pColumns.length;
 		}
 
-		@Override
-		public Object getValueAt(int r, int c) {
-			Opd opd = pSur.get(pSur.size() - r - 1);
-			Patient pat = opd.getPatient();
-			if (c == -1) {
-				return opd;
-			} else if (c == 0) {
-				return opd.getCode();
-			} else if (c == 1) {
-				return opd.getProgYear();
-			} else if (c == 2) {
-				if (GeneralData.OPDEXTENDED) {
-					return opd.getDate().format(DATE_TIME_FORMATTER);
-				}
-				return opd.getDate().format(DATE_FORMATTER);
-			} else if (c == 3) {
-				return pat != null ? opd.getPatient().getCode() : null;
-			} else if (c == 4) {
-				return pat != null ? opd.getFullName() : null;
-			} else if (c == 5) {
-				return opd.getSex();
-			} else if (c == 6) {
-				return opd.getAge();
-			} else if (c == 7) {
-				return opd.getDisease().getDescription();
-			} else if (c == 8) {
-				return opd.getDisease().getType().getDescription();
-			} else if (c == 9) {
-				String patientStatus;
-				if (opd.getNewPatient() == 'N') {
-					patientStatus = MessageBundle.getMessage("angal.opd.new.btn");
-				} else {
-					patientStatus = MessageBundle.getMessage("angal.opd.reattendance.btn");
-				}
-				return patientStatus;
-			}
-			return null;
-		}
-
 		@Override
 		public boolean isCellEditable(int arg0, int arg1) {
 			return false;
 		}
 	}
 
+	private void updateRowCounter() {
+		rowCounter.setText(rowCounterText + (model.isCountExact() ? "" : "~") + model.getRowCount());
+	}
+
 	@Override
 	public void surgeryUpdated(AWTEvent e, Opd opd) {
-		pSur.set(pSur.size() - selectedrow - 1, opd);
-		((OpdBrowsingModel) jTable.getModel()).fireTableDataChanged();
-		jTable.updateUI();
+		model.setRow(selectedrow, opd);
 		if ((jTable.getRowCount() > 0) && selectedrow > -1) {
 			jTable.setRowSelectionInterval(selectedrow, selectedrow);
 		}
-		rowCounter.setText(rowCounterText + pSur.size());
+		updateRowCounter();
 	}
 
 	@Override
 	public void surgeryInserted(AWTEvent e, Opd opd) {
-		pSur.add(pSur.size(), opd);
-		((OpdBrowsingModel) jTable.getModel()).fireTableDataChanged();
+		model.insertFirst(opd);
 		if (jTable.getRowCount() > 0) {
 			jTable.setRowSelectionInterval(0, 0);
 		}
-		rowCounter.setText(rowCounterText + pSur.size());
+		updateRowCounter();
 	}
 
 	private JButton getFilterButton() {
@@ -967,21 +991,9 @@ public class OpdBrowser extends ModalJFrame implements OpdEdit.SurgeryListener,
 					return;
 				}
 
-				//TODO: to retrieve resultset size instead of assuming 1 year as limit for the warning
-				if (TimeTools.getDaysBetweenDates(dateFromDate, dateToDate, true) >= 360) {
-					int ok = JOptionPane.showConfirmDialog(OpdBrowser.this,
-							MessageBundle.getMessage("angal.common.thiscouldretrievealargeamountofdataproceed.msg"),
-							MessageBundle.getMessage("angal.messagedialog.question.title"),
-							JOptionPane.OK_CANCEL_OPTION);
-					if (ok != JOptionPane.OK_OPTION) {
-						return;
-					}
-				}
-
-				model = new OpdBrowsingModel(diseasetype, disease, dateFrom.getDate(), dateTo.getDate(), ageFrom, ageTo, sex, newPatient);
-				model.fireTableDataChanged();
-				jTable.updateUI();
-				rowCounter.setText(rowCounterText + pSur.size());
+				// no warning for long periods: the rows are loaded one window at a time while scrolling
+				model.filter(diseasetype, disease, dateFromDate, dateToDate, ageFrom, ageTo, sex, newPatient);
+				updateRowCounter();
 			});
 		}
 		return filterButton;
@@ -216,6 +216,7 @@ public class PatientBrowser extends ModalJFrame implements PatientListener {
 					int answer = MessageDialog.yesNo(null, "angal.patient.deletepatient.fmt.msg", pat.getName());
 					try {
 						if ((answer == JOptionPane.YES_OPTION) && (manager.deletePatient(pat))) {
+							PatientLookupCache.getInstance().patientDeleted(pat);
 							pPat.remove(pPat.size() - jTable.getSelectedRow() - 1);
 							model.fireTableDataChanged();
 							jTable.updateUI();
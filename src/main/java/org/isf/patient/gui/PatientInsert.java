@@ -312,6 +312,7 @@ public class PatientInsert extends JDialog implements ActionListener {
 
 									try {
 										patient = manager.savePatient(patient);
+										PatientLookupCache.getInstance().patientSaved(patient);
 										firePatientInserted(patient);
 										dispose();
 									} catch (OHServiceException ex) {
@@ -363,6 +364,7 @@ public class PatientInsert extends JDialog implements ActionListener {
 
 						try {
 							patient = manager.savePatient(patient);
+							PatientLookupCache.getInstance().patientSaved(patient);
 							firePatientUpdated(patient);
 							dispose();
 						} catch (OHServiceException ex) {
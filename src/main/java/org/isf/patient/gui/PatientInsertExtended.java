@@ -499,6 +499,7 @@ public class PatientInsertExtended extends JDialog {
 
 						try {
 							patient = patientManager.savePatient(patient);
+							PatientLookupCache.getInstance().patientSaved(patient);
 							firePatientInserted(patient);
 							if (justSave) {
 								insert = false;
@@ -578,6 +579,7 @@ public class PatientInsertExtended extends JDialog {
 
 					try {
 						patient = patientManager.savePatient(patient);
+						PatientLookupCache.getInstance().patientSaved(patient);
 						firePatientUpdated(patient);
 						dispose();
 					} catch (final OHServiceException ex) {
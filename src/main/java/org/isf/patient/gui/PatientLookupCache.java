@@ -0,0 +1,173 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.patient.gui;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.Timer;
+
+import org.isf.menu.manager.Context;
+import org.isf.patient.manager.PatientBrowserManager;
+import org.isf.patient.model.Patient;
+import org.isf.utils.exception.OHServiceException;
+import org.isf.utils.jobjects.SearchIndex;
+
+/**
+ * Application-wide index of the patients shown by {@link SelectPatient}.
+ * <p>
+ * The patients are loaded from the database the first time they are needed and then kept up to date
+ * by the GUI forms that save, delete or merge a patient, so that opening a selection dialog does not
+ * reload the whole table each time.
+ * <p>
+ * Other workstations do not notify this one: a selection dialog calls {@link #checkFreshness()} when it opens,
+ * which reloads the patients if the next patient code moved (a patient was registered elsewhere) or if they
+ * are older than {@code MAX_AGE_MINUTES} (updates and deletions elsewhere cannot be detected as cheaply).
+ * The patients are dropped after {@code IDLE_MINUTES} without searches.
+ */
+public final class PatientLookupCache {
+
+	private static final PatientLookupCache INSTANCE = new PatientLookupCache();
+
+	private static final long MAX_AGE_MINUTES = 10;
+	private static final long IDLE_MINUTES = 5;
+
+	private final SearchIndex<Integer, Patient> index = new SearchIndex<>(Patient::getCode, Patient::getSearchString);
+	private final Timer idleTimer = new Timer((int) TimeUnit.MINUTES.toMillis(IDLE_MINUTES), actionEvent -> invalidate());
+	private final Object loadLock = new Object();
+	private volatile boolean loaded;
+	private long loadedAt;
+	private int nextCode;
+	private long generation;
+
+	private PatientLookupCache() {
+		idleTimer.setRepeats(false);
+	}
+
+	public static PatientLookupCache getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Searches the patients whose search string contains every token of the query, loading them if needed.
+	 *
+	 * @param query - the text typed by the user, {@code null} or blank returns all the patients
+	 * @param previous - the result of the previous search of the same dialog, may be {@code null}
+	 * @return the matching patients, in the order given by the database (newly inserted first)
+	 * @throws OHServiceException
+	 */
+	public SearchIndex.Result<Patient> search(String query, SearchIndex.Result<Patient> previous) throws OHServiceException {
+		load();
+		idleTimer.restart();
+		return index.search(query, previous);
+	}
+
+	/**
+	 * Drops the cached patients if they may differ from the database, with one cheap query.
+	 *
+	 * @throws OHServiceException
+	 */
+	public void checkFreshness() throws OHServiceException {
+		if (!loaded) {
+			return;
+		}
+		boolean expired;
+		synchronized (this) {
+			expired = System.currentTimeMillis() - loadedAt > TimeUnit.MINUTES.toMillis(MAX_AGE_MINUTES);
+		}
+		if (expired || getPatientManager().getNextPatientCode() != getNextCode()) {
+			invalidate();
+		}
+	}
+
+	/**
+	 * To be called after a patient has been inserted or updated.
+	 */
+	public void patientSaved(Patient patient) {
+		if (loaded && patient != null && patient.getCode() != null) {
+			index.addFirst(patient);
+			synchronized (this) {
+				// a higher code means that other workstations registered patients meanwhile: checkFreshness() reloads
+				if (patient.getCode() == nextCode) {
+					nextCode++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * To be called after a patient has been deleted or merged into another one.
+	 */
+	public void patientDeleted(Patient patient) {
+		if (loaded && patient != null) {
+			index.remove(patient.getCode());
+		}
+	}
+
+	/**
+	 * Drops the cached patients; they will be reloaded by the next search.
+	 * Does not wait for a load in progress (i.e. when called by the idle timer on the EDT): its result is discarded.
+	 */
+	public void invalidate() {
+		synchronized (this) {
+			generation++;
+			loaded = false;
+		}
+		index.reset(null);
+		idleTimer.stop();
+	}
+
+	private synchronized int getNextCode() {
+		return nextCode;
+	}
+
+	/*
+	 * The next code is read first: a patient registered during the load only causes one more reload.
+	 * The queries run holding loadLock only, so invalidate() and the other methods never wait for them.
+	 */
+	private void load() throws OHServiceException {
+		if (loaded) {
+			return;
+		}
+		synchronized (loadLock) {
+			if (loaded) {
+				return;
+			}
+			long requested;
+			synchronized (this) {
+				requested = generation;
+			}
+			PatientBrowserManager patientManager = getPatientManager();
+			int code = patientManager.getNextPatientCode();
+			index.reset(patientManager.getPatientsByOneOfFieldsLike(null));
+			synchronized (this) {
+				nextCode = code;
+				loadedAt = System.currentTimeMillis();
+				// invalidated while loading: the next search loads again
+				loaded = requested == generation;
+			}
+		}
+	}
+
+	private static PatientBrowserManager getPatientManager() {
+		return Context.getApplicationContext().getBean(PatientBrowserManager.class);
+	}
+}
@@ -36,6 +36,7 @@ import java.awt.event.WindowEvent;
 import java.util.ArrayList;
 import java.util.EventListener;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import javax.swing.BoxLayout;
 import javax.swing.ImageIcon;
@@ -61,8 +62,9 @@ import org.isf.patient.gui.PatientInsertExtended.PatientListener;
 import org.isf.patient.manager.PatientBrowserManager;
 import org.isf.patient.model.Patient;
 import org.isf.utils.exception.OHServiceException;
-import org.isf.utils.exception.gui.OHServiceExceptionUtil;
+import org.isf.utils.jobjects.DebouncedFilter;
 import org.isf.utils.jobjects.MessageDialog;
+import org.isf.utils.jobjects.SearchIndex;
 import org.isf.utils.jobjects.VoLimitedTextField;
 
 public class SelectPatient extends JDialog implements PatientListener {
@@ -118,19 +120,13 @@ public class SelectPatient extends JDialog implements PatientListener {
 	PatientBrowserManager patManager = Context.getApplicationContext().getBean(PatientBrowserManager.class);
 	List<Patient> patArray = new ArrayList<>();
 	List<Patient> patSearch = new ArrayList<>();
-	private String lastKey = "";
+	private boolean cachedSearch;
+	private volatile SearchIndex.Result<Patient> lastResult;
+	private final DebouncedFilter<List<Patient>> searchFilter = new DebouncedFilter<>(this::prepareFilter, this::showPatients);
 		
 	public SelectPatient(JFrame owner, Patient pat) {
 		super(owner, true);
-		if (!GeneralData.ENHANCEDSEARCH) {
-			try {
-				patArray = patManager.getPatientsByOneOfFieldsLike(null);
-			} catch(OHServiceException ohServiceException) {
-				MessageDialog.showExceptions(ohServiceException);
-				patArray = new ArrayList<>();
-			}
-			patSearch = patArray;
-		}
+		loadPatients(false);
 		if (pat == null) {
 			patient = null;
 		} else {
@@ -153,15 +149,7 @@ public class SelectPatient extends JDialog implements PatientListener {
 	
 	public SelectPatient(JDialog owner, Patient pat) {
 		super(owner, true);
-		if (!GeneralData.ENHANCEDSEARCH) {
-			try {
-				patArray = patManager.getPatientsByOneOfFieldsLike(null);
-			} catch(OHServiceException ohServiceException) {
-				MessageDialog.showExceptions(ohServiceException);
-				patArray = new ArrayList<>();
-			}
-			patSearch = patArray;
-		}
+		loadPatients(false);
 		if (pat == null) {
 			patient = null;
 		} else {
@@ -184,15 +172,7 @@ public class SelectPatient extends JDialog implements PatientListener {
 	
 	public SelectPatient(JDialog owner, String search) {
 		super(owner, true);
-		if (!GeneralData.ENHANCEDSEARCH) {
-			try {
-				patArray = patManager.getPatientsByOneOfFieldsLike(null);
-			} catch(OHServiceException ohServiceException) {
-				MessageDialog.showExceptions(ohServiceException);
-				patArray = new ArrayList<>();
-			}
-			patSearch = patArray;
-		}
+		loadPatients(false);
 		ps = new PatientSummary(patient);
 		initComponents();
 		addWindowListener(new WindowAdapter() {
@@ -214,22 +194,7 @@ public class SelectPatient extends JDialog implements PatientListener {
 
 	public SelectPatient(JFrame owner, boolean abbleAddPatient, boolean full) {
 		super(owner, true);
-		if (!GeneralData.ENHANCEDSEARCH) {
-			if (!full) {
-				try {
-					patArray = patManager.getPatientsByOneOfFieldsLike(null);
-				} catch (OHServiceException ohServiceException) {
-					MessageDialog.showExceptions(ohServiceException);
-				}
-			} else {
-				try {
-					patArray = patManager.getPatient();
-				} catch (OHServiceException ohServiceException) {
-					MessageDialog.showExceptions(ohServiceException);
-				}
-			}
-			patSearch = patArray;
-		}
+		loadPatients(full);
 		ps = new PatientSummary(patient);
 		initComponents();
 		addWindowListener(new WindowAdapter() {
@@ -248,22 +213,7 @@ public class SelectPatient extends JDialog implements PatientListener {
 
 	public SelectPatient(JDialog owner, boolean abbleAddPatient, boolean full) {
 		super(owner, true);
-		if (!GeneralData.ENHANCEDSEARCH) {
-			if (!full) {
-				try {
-					patArray = patManager.getPatientsByOneOfFieldsLike(null);
-				} catch (OHServiceException e2) {
-					OHServiceExceptionUtil.showMessages(e2);
-				}
-			} else {
-				try {
-					patArray = patManager.getPatient();
-				} catch (OHServiceException e1) {
-					OHServiceExceptionUtil.showMessages(e1);
-				}
-			}
-			patSearch = patArray;
-		}
+		loadPatients(full);
 		ps = new PatientSummary(patient);
 		initComponents();
 		addWindowListener(new WindowAdapter() {
@@ -280,6 +230,39 @@ public class SelectPatient extends JDialog implements PatientListener {
 		buttonNew.setVisible(abbleAddPatient);
 	}
 
+	/*
+	 * Without the enhanced search the patients come from the shared lookup cache, checked against the
+	 * database when the dialog opens; the selected patient is still loaded again on demand.
+	 */
+	private void loadPatients(boolean full) {
+		if (GeneralData.ENHANCEDSEARCH) {
+			return;
+		}
+		if (full) {
+			try {
+				patArray = patManager.getPatient();
+			} catch (OHServiceException ohServiceException) {
+				MessageDialog.showExceptions(ohServiceException);
+			}
+			patSearch = patArray;
+		} else {
+			cachedSearch = true;
+			try {
+				PatientLookupCache.getInstance().checkFreshness();
+				patSearch = searchCache("");
+			} catch (OHServiceException ohServiceException) {
+				MessageDialog.showExceptions(ohServiceException);
+				patSearch = new ArrayList<>();
+			}
+		}
+	}
+
+	private List<Patient> searchCache(String key) throws OHServiceException {
+		SearchIndex.Result<Patient> result = PatientLookupCache.getInstance().search(key, lastResult);
+		lastResult = result;
+		return result.getValues();
+	}
+
 	private void initComponents() {
 		add(getJPanelTop(), BorderLayout.NORTH);
 		add(getJPanelCenter(), BorderLayout.CENTER);
@@ -321,57 +304,57 @@ public class SelectPatient extends JDialog implements PatientListener {
 					}
 				});
 			} else {
-				jTextFieldSearchPatient.addKeyListener(new KeyListener() {
-
-					@Override
-					public void keyTyped(KeyEvent e) {
-						lastKey = "";
-						String s = "" + e.getKeyChar();
-						if (Character.isLetterOrDigit(e.getKeyChar())) {
-							lastKey = s;
-						}
-						filterPatient();
-					}
-
-					@Override
-					public void keyPressed(KeyEvent e) {
-					}
-
-					@Override
-					public void keyReleased(KeyEvent e) {
-					}
-				});
+				searchFilter.install(jTextFieldSearchPatient);
 			}
 		}
 		return jTextFieldSearchPatient;
 	}
 
-	private void filterPatient() {
-		
-		String s = jTextFieldSearchPatient.getText() + lastKey;
-		s = s.trim();
-		String[] s1 = s.split(" ");
+	/*
+	 * Runs on the EDT: without the cache the loaded patients are copied, so that the filtering
+	 * in background does not see the patients inserted in the meantime
+	 */
+	private Callable<List<Patient>> prepareFilter(String key) {
+		String s = key.trim();
+		if (cachedSearch) {
+			return () -> searchCache(s);
+		}
+		List<Patient> patients = new ArrayList<>(patArray);
+		return () -> filterPatients(patients, s);
+	}
 
-		patSearch = new ArrayList<>();
-		
-		for (Patient pat : patArray) {
-		
-			if (!s.equals("")) {
-				String name = pat.getSearchString();
-				int a = 0;
-				for (String value : s1) {
-					if (name.contains(value.toLowerCase())) {
-						a++;
-					}
-				}
-				if (a == s1.length) {
-					patSearch.add(pat);
+	private static List<Patient> filterPatients(List<Patient> patients, String s) {
+		if (s.equals("")) {
+			return new ArrayList<>(patients);
+		}
+		String[] s1 = s.split(" ");
+		List<Patient> matches = new ArrayList<>();
+		for (Patient pat : patients) {
+			String name = pat.getSearchString();
+			int a = 0;
+			for (String value : s1) {
+				if (name.contains(value.toLowerCase())) {
+					a++;
 				}
-			} else {
-				patSearch.add(pat);
+			}
+			if (a == s1.length) {
+				matches.add(pat);
 			}
 		}
-		
+		return matches;
+	}
+
+	/*
+	 * Filters synchronously the patients just loaded by the enhanced search
+	 */
+	private void filterPatient() {
+		searchFilter.cancel();
+		showPatients(filterPatients(patArray, jTextFieldSearchPatient.getText().trim()));
+	}
+
+	private void showPatients(List<Patient> patients) {
+		patSearch = patients;
+
 		if (jTablePatient.getRowCount() == 0) {
 			
 			patient = null;
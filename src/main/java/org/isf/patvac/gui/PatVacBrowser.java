@@ -32,7 +32,14 @@ import java.awt.event.FocusEvent;
 import java.awt.event.FocusListener;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.BoxLayout;
 import javax.swing.ButtonGroup;
@@ -46,6 +53,7 @@ import javax.swing.JRadioButton;
 import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.SpringLayout;
+import javax.swing.SwingWorker;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableColumnModel;
 
@@ -67,6 +75,8 @@ import org.isf.vaccine.manager.VaccineBrowserManager;
 import org.isf.vaccine.model.Vaccine;
 import org.isf.vactype.manager.VaccineTypeBrowserManager;
 import org.isf.vactype.model.VaccineType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * ------------------------------------------
@@ -83,6 +93,8 @@ public class PatVacBrowser extends ModalJFrame {
 
 	private static final long serialVersionUID = 1L;
 
+	private static final Logger LOGGER = LoggerFactory.getLogger(PatVacBrowser.class);
+
 	private JPanel jContentPane = null;
 	private JPanel jButtonPanel = null;
 	private JButton buttonEdit = null;
@@ -106,7 +118,6 @@ public class PatVacBrowser extends ModalJFrame {
 	private JComboBox vaccineComboBox = null;
 	private JComboBox vaccineTypeComboBox = null;
 	private int pfrmHeight;
-	private List<PatientVaccine> lPatVac;
 
 	private String[] pColumns = {
 			MessageBundle.getMessage("angal.common.date.txt").toUpperCase(),
@@ -150,7 +161,7 @@ public class PatVacBrowser extends ModalJFrame {
 				screensize.height * pfrmHeight / pfrmBase + 20);
 		setTitle(MessageBundle.getMessage("angal.patvac.patientvaccinebrowser.title"));
 		this.setContentPane(getJContentPane());
-		updateRowCounter();
+		search();
 		this.setLocationRelativeTo(null);
 	}
 	
@@ -214,12 +225,9 @@ public class PatVacBrowser extends ModalJFrame {
 				new PatVacEdit(myFrame, patientVaccine, true);
 
 				if (!last.equals(patientVaccine)) {
-					lPatVac.add(0, patientVaccine);
-					((PatVacBrowsingModel) jTable.getModel()).fireTableDataChanged();
+					model.vaccinationInserted(patientVaccine);
 					updateRowCounter();
-					if (jTable.getRowCount() > 0) {
-						jTable.setRowSelectionInterval(0, 0);
-					}
+					selectRow(model.getRow(patientVaccine));
 				}
 			});
 		}
@@ -254,11 +262,9 @@ public class PatVacBrowser extends ModalJFrame {
 				new PatVacEdit(myFrame, patientVaccine, false);
 
 				if (!last.equals(patientVaccine)) {
-					((PatVacBrowsingModel) jTable.getModel()).fireTableDataChanged();
+					model.vaccinationUpdated(patientVaccine);
 					updateRowCounter();
-					if ((jTable.getRowCount() > 0) && selectedrow > -1) {
-						jTable.setRowSelectionInterval(selectedrow, selectedrow);
-					}
+					selectRow(model.getRow(patientVaccine));
 				}
 			});
 		}
@@ -297,9 +303,8 @@ public class PatVacBrowser extends ModalJFrame {
 					}
 
 					if (deleted) {
-						lPatVac.remove(jTable.getSelectedRow());
-						model.fireTableDataChanged();
-						jTable.updateUI();
+						model.vaccinationDeleted(patientVaccine);
+						updateRowCounter();
 					}
 				}
 			});
@@ -431,6 +436,9 @@ public class PatVacBrowser extends ModalJFrame {
 			group.add(radiom);
 			group.add(radiof);
 			group.add(radioa);
+			radiom.addActionListener(actionEvent -> applyFilter());
+			radiof.addActionListener(actionEvent -> applyFilter());
+			radioa.addActionListener(actionEvent -> applyFilter());
 			
 			label1Panel.add(radioa);
 			sexPanel.add(label1Panel);
@@ -501,6 +509,7 @@ public class PatVacBrowser extends ModalJFrame {
 						jAgeFromTextField.setText("0");
 						ageFrom = Integer.parseInt(jAgeFromTextField.getText());
 					}
+					applyFilter();
 				}
 
 				@Override
@@ -542,6 +551,7 @@ public class PatVacBrowser extends ModalJFrame {
 						jAgeToTextField.setText("0");
 						ageTo = Integer.parseInt(jAgeToTextField.getText());
 					}
+					applyFilter();
 				}
 
 				@Override
@@ -595,6 +605,12 @@ public class PatVacBrowser extends ModalJFrame {
 		if (vaccineComboBox == null) {
 			vaccineComboBox = new JComboBox();
 			vaccineComboBox.setPreferredSize(new Dimension(200, 30));
+			// also when the vaccines of a new type are loaded and the first one is selected
+			vaccineComboBox.addActionListener(actionEvent -> {
+				if (vaccineComboBox.getSelectedItem() != null) {
+					applyFilter();
+				}
+			});
 		}
 		VaccineBrowserManager vaccineBrowserManager = Context.getApplicationContext().getBean(VaccineBrowserManager.class);
 
@@ -647,27 +663,6 @@ public class PatVacBrowser extends ModalJFrame {
 			filterButton = new JButton(MessageBundle.getMessage("angal.common.search.btn"));
 			filterButton.setMnemonic(MessageBundle.getMnemonic("angal.common.search.btn.key"));
 			filterButton.addActionListener(actionEvent -> {
-
-				String vaccineTypeCode = ((VaccineType) vaccineTypeComboBox.getSelectedItem()).getCode();
-				String vaccineCode = ((Vaccine) vaccineComboBox.getSelectedItem()).getCode();
-
-				if (vaccineTypeComboBox.getSelectedItem().toString().equalsIgnoreCase(MessageBundle.getMessage("angal.patvac.allvaccinetype"))) {
-					vaccineTypeCode = null;
-				}
-				if (vaccineComboBox.getSelectedItem().toString().equalsIgnoreCase(MessageBundle.getMessage("angal.patvac.allvaccine"))) {
-					vaccineCode = null;
-				}
-				char sex;
-				if (radiof.isSelected()) {
-					sex = 'F';
-				} else {
-					if (radiom.isSelected()) {
-						sex = 'M';
-					} else {
-						sex = 'A';
-					}
-				}
-
 				if (dateFrom.getDate() == null) {
 					MessageDialog.error(null, "angal.patvac.pleaseinsertvaliddatefrom");
 					return;
@@ -678,15 +673,57 @@ public class PatVacBrowser extends ModalJFrame {
 					return;
 				}
 
-				model = new PatVacBrowsingModel(vaccineTypeCode, vaccineCode, dateFrom.getDateStartOfDay(), dateTo.getDateEndOfDay(), sex, ageFrom, ageTo);
-				model.fireTableDataChanged();
-				jTable.updateUI();
-				updateRowCounter();
+				search();
 			});
 		}
 		return filterButton;
 	}
 
+	/**
+	 * Loads the vaccinations between the two dates (in background) and filters them.
+	 */
+	private void search() {
+		model.load(dateFrom.getDate(), dateTo.getDate());
+		applyFilter();
+	}
+
+	/**
+	 * Filters the loaded vaccinations by vaccine type, vaccine, sex and age, without querying them again.
+	 */
+	private void applyFilter() {
+		if (model == null || vaccineTypeComboBox.getSelectedItem() == null || vaccineComboBox.getSelectedItem() == null) {
+			// the filter panel is being built
+			return;
+		}
+		String vaccineTypeCode = ((VaccineType) vaccineTypeComboBox.getSelectedItem()).getCode();
+		String vaccineCode = ((Vaccine) vaccineComboBox.getSelectedItem()).getCode();
+
+		if (vaccineTypeComboBox.getSelectedItem().toString().equalsIgnoreCase(MessageBundle.getMessage("angal.patvac.allvaccinetype"))) {
+			vaccineTypeCode = null;
+		}
+		if (vaccineComboBox.getSelectedItem().toString().equalsIgnoreCase(MessageBundle.getMessage("angal.patvac.allvaccine"))) {
+			vaccineCode = null;
+		}
+		char sex;
+		if (radiof.isSelected()) {
+			sex = 'F';
+		} else {
+			if (radiom.isSelected()) {
+				sex = 'M';
+			} else {
+				sex = 'A';
+			}
+		}
+		model.filter(vaccineTypeCode, vaccineCode, sex, ageFrom, ageTo);
+		updateRowCounter();
+	}
+
+	private void selectRow(int row) {
+		if (row > -1) {
+			jTable.setRowSelectionInterval(row, row);
+		}
+	}
+
 	/**
 	 * This method initializes jTable, that contains the information about the
 	 * patient's vaccines
@@ -717,38 +754,145 @@ public class PatVacBrowser extends ModalJFrame {
 	}
 	
 	/**
-	 * This class defines the model for the Table
+	 * This class defines the model for the Table: the vaccinations are loaded in background by windows of
+	 * WINDOW_DAYS days, aligned on the calendar so that the windows already loaded are reused when the dates change.
+	 * Only the windows of the current dates are kept, by columns, and the other filters are applied to them in memory.
 	 */
 	class PatVacBrowsingModel extends DefaultTableModel {
 
 		private static final long serialVersionUID = 1L;
+
+		private static final int WINDOW_DAYS = 30;
+
 		private PatVacManager manager = Context.getApplicationContext().getBean(PatVacManager.class);
 
-		public PatVacBrowsingModel() {
-			PatVacManager patVacManager = Context.getApplicationContext().getBean(PatVacManager.class);
-			try {
-				lPatVac = patVacManager.getPatientVaccine(!GeneralData.ENHANCEDSEARCH);
-			} catch (OHServiceException e) {
-				lPatVac = null;
-				OHServiceExceptionUtil.showMessages(e);
+		/* by first day of the window, most recent first */
+		private final NavigableMap<Long, VaccinationColumns> windows = new TreeMap<>(Comparator.reverseOrder());
+		private LocalDate dateFrom = LocalDate.now();
+		private LocalDate dateTo = LocalDate.now();
+		private VaccinationColumns.Filter filter;
+		private VaccinationColumns[] rowWindows = new VaccinationColumns[0];
+		private int[] rowIndexes = new int[0];
+		private int rowCount;
+		private int generation;
+		private SwingWorker<Void, Window> loader;
+
+		/**
+		 * Loads in background the windows between the two dates not loaded yet, and forgets the others.
+		 */
+		public void load(LocalDate dateFrom, LocalDate dateTo) {
+			this.dateFrom = dateFrom;
+			this.dateTo = dateTo;
+			if (loader != null) {
+				// not interrupted inside a query: it stops before the next window and its results are discarded
+				loader.cancel(false);
+			}
+			generation++;
+			long first = getWindow(dateFrom);
+			long last = getWindow(dateTo);
+			windows.keySet().removeIf(window -> window < first || window > last);
+			List<Long> missing = new ArrayList<>();
+			for (long window = last; window >= first; window -= WINDOW_DAYS) {
+				if (!windows.containsKey(window)) {
+					missing.add(window);
+				}
+			}
+			loader = null;
+			if (!missing.isEmpty()) {
+				loader = new Loader(generation, missing);
+				loader.execute();
 			}
 		}
 
-		public PatVacBrowsingModel(String vaccineTypeCode, String vaccineCode, LocalDateTime dateFrom, LocalDateTime dateTo, char sex, int ageFrom, int ageTo) {
-			try {
-				lPatVac = manager.getPatientVaccine(vaccineTypeCode, vaccineCode, dateFrom, dateTo, sex, ageFrom, ageTo);
-			} catch (OHServiceException e) {
-				lPatVac = null;
-				OHServiceExceptionUtil.showMessages(e);
+		/**
+		 * Shows the loaded vaccinations matching the filter ({@code null} codes, sex 'A' and both ages 0 select all).
+		 */
+		public void filter(String vaccineTypeCode, String vaccineCode, char sex, int ageFrom, int ageTo) {
+			filter = new VaccinationColumns.Filter(vaccineTypeCode, vaccineCode, sex, ageFrom, ageTo, dateFrom, dateTo);
+			refresh();
+		}
+
+		public void vaccinationInserted(PatientVaccine vaccination) {
+			// a window not loaded yet will read it from the database
+			VaccinationColumns window = windows.get(getWindow(vaccination.getVaccineDate().toLocalDate()));
+			if (window != null) {
+				window.add(vaccination);
+			}
+			refresh();
+		}
+
+		/*
+		 * The vaccinations are looked up by identity: the rows may have been rebuilt while the dialog was open
+		 */
+		public void vaccinationUpdated(PatientVaccine vaccination) {
+			// the date, thus the window, may have changed
+			remove(vaccination);
+			vaccinationInserted(vaccination);
+		}
+
+		public void vaccinationDeleted(PatientVaccine vaccination) {
+			remove(vaccination);
+			refresh();
+		}
+
+		private void remove(PatientVaccine vaccination) {
+			for (VaccinationColumns window : windows.values()) {
+				int index = window.indexOf(vaccination);
+				if (index != -1) {
+					window.remove(index);
+					return;
+				}
+			}
+		}
+
+		/**
+		 * @return the row showing the vaccination (the same object), -1 if not shown
+		 */
+		public int getRow(PatientVaccine vaccination) {
+			for (int row = 0; row < rowCount; row++) {
+				if (rowWindows[row].get(rowIndexes[row]) == vaccination) {
+					return row;
+				}
+			}
+			return -1;
+		}
+
+		private void refresh() {
+			int size = 0;
+			for (VaccinationColumns window : windows.values()) {
+				size += window.size();
 			}
+			if (rowIndexes.length < size) {
+				rowIndexes = new int[size];
+				rowWindows = new VaccinationColumns[size];
+			}
+			int row = 0;
+			if (filter != null) {
+				for (VaccinationColumns window : windows.values()) {
+					int count = window.filter(filter, rowIndexes, row);
+					Arrays.fill(rowWindows, row, row + count, window);
+					row += count;
+				}
+			}
+			Arrays.fill(rowWindows, row, rowWindows.length, null);
+			rowCount = row;
+			fireTableDataChanged();
+		}
+
+		private long getWindow(LocalDate date) {
+			return Math.floorDiv(date.toEpochDay(), WINDOW_DAYS) * WINDOW_DAYS;
+		}
+
+		private Window query(long window) throws OHServiceException {
+			LocalDate from = LocalDate.ofEpochDay(window);
+			LocalDate to = from.plusDays(WINDOW_DAYS - 1L);
+			List<PatientVaccine> vaccinations = manager.getPatientVaccine(null, null, from.atStartOfDay(), to.atTime(LocalTime.MAX), 'A', 0, 0);
+			return new Window(window, new VaccinationColumns(vaccinations != null ? vaccinations : new ArrayList<>()));
 		}
 
 		@Override
 		public int getRowCount() {
-			if (lPatVac == null) {
-				return 0;
-			}
-			return lPatVac.size();
+			return rowCount;
 		}
 		
 		@Override
@@ -791,7 +935,7 @@ public class PatVacBrowser extends ModalJFrame {
 	    
 		@Override
 		public Object getValueAt(int r, int c) {
-			PatientVaccine patVac = lPatVac.get(r);
+			PatientVaccine patVac = rowWindows[r].get(rowIndexes[r]);
 			if (c == -1) {
 				return patVac;
 			} else if (getNumber(c) == 0) {
@@ -814,11 +958,77 @@ public class PatVacBrowser extends ModalJFrame {
 		public boolean isCellEditable(int arg0, int arg1) {
 			return false;
 		}
-	
+
+		private final class Loader extends SwingWorker<Void, Window> {
+
+			private final int loadGeneration;
+			private final List<Long> missing;
+
+			Loader(int loadGeneration, List<Long> missing) {
+				this.loadGeneration = loadGeneration;
+				this.missing = missing;
+			}
+
+			@Override
+			protected Void doInBackground() throws Exception {
+				for (Long window : missing) {
+					if (isCancelled()) {
+						break;
+					}
+					publish(query(window));
+				}
+				return null;
+			}
+
+			@Override
+			protected void process(List<Window> loaded) {
+				if (loadGeneration != generation) {
+					return;
+				}
+				for (Window window : loaded) {
+					windows.put(window.start, window.columns);
+				}
+				refresh();
+				updateRowCounter();
+			}
+
+			@Override
+			protected void done() {
+				if (isCancelled()) {
+					return;
+				}
+				try {
+					get();
+				} catch (InterruptedException interruptedException) {
+					Thread.currentThread().interrupt();
+				} catch (ExecutionException executionException) {
+					Throwable cause = executionException.getCause();
+					if (cause instanceof OHServiceException) {
+						OHServiceExceptionUtil.showMessages((OHServiceException) cause);
+					} else {
+						LOGGER.error("Error loading patient vaccinations: ", cause);
+					}
+				}
+			}
+		}
+	}
+
+	/*
+	 * A window loaded in background, by columns
+	 */
+	private static final class Window {
+
+		private final long start;
+		private final VaccinationColumns columns;
+
+		Window(long start, VaccinationColumns columns) {
+			this.start = start;
+			this.columns = columns;
+		}
 	}
 
 	private void updateRowCounter() {
-		rowCounter.setText(rowCounterText + lPatVac.size());
+		rowCounter.setText(rowCounterText + model.getRowCount());
 	}
 
 }
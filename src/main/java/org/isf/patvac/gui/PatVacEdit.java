@@ -55,6 +55,7 @@ import org.isf.patvac.manager.PatVacManager;
 import org.isf.patvac.model.PatientVaccine;
 import org.isf.utils.exception.OHServiceException;
 import org.isf.utils.exception.gui.OHServiceExceptionUtil;
+import org.isf.utils.jobjects.DebouncedFilter;
 import org.isf.utils.jobjects.GoodDateChooser;
 import org.isf.utils.jobjects.MessageDialog;
 import org.isf.utils.jobjects.VoLimitedTextField;
@@ -100,7 +101,7 @@ public class PatVacEdit extends JDialog {
 
 	private JTextField jTextPatientSrc;
 	private Patient selectedPatient;
-	private String lastKey;
+	private DebouncedFilter<List<Patient>> patientFilter;
 	private String s;
 	private List<Patient> patientList = null;
 	private GoodDateChooser vaccineDateFieldCal = null;
@@ -309,27 +310,12 @@ public class PatVacEdit extends JDialog {
 				}
 			});
 		} else {
-			jTextPatientSrc.addKeyListener(new KeyListener() {
-				@Override
-				public void keyTyped(KeyEvent e) {
-					lastKey = "";
-					String s = "" + e.getKeyChar();
-					if (Character.isLetterOrDigit(e.getKeyChar())) {
-						lastKey = s;
-					}
-					s = jTextPatientSrc.getText() + lastKey;
-					s = s.trim();
-					filterPatient(s);
-				}
-
-				@Override
-				public void keyPressed(KeyEvent e) {
-				}
-
-				@Override
-				public void keyReleased(KeyEvent e) {
-				}
-			});
+			patientFilter = new DebouncedFilter<>(key -> {
+				List<Patient> patients = patientList == null ? new ArrayList<>() : new ArrayList<>(patientList);
+				String search = key.trim();
+				return () -> filterPatients(patients, search);
+			}, patients -> filterPatient(jTextPatientSrc.getText().trim(), patients));
+			patientFilter.install(jTextPatientSrc);
 		} // search condition field
 		return jTextPatientSrc;
 	}
@@ -473,7 +459,27 @@ public class PatVacEdit extends JDialog {
 	/**
 	 * This method filter patient based on search string
 	 */
-	private void filterPatient(String key) {
+	private static List<Patient> filterPatients(List<Patient> patients, String key) {
+		List<Patient> filtered = new ArrayList<>();
+		for (Patient elem : patients) {
+			// Search key extended to name and code
+			StringBuilder sbName = new StringBuilder();
+			sbName.append(elem.getSecondName().toUpperCase());
+			sbName.append(elem.getFirstName().toUpperCase());
+			sbName.append(elem.getCode());
+			String name = sbName.toString();
+
+			if (name.toLowerCase().contains(key.toLowerCase())) {
+				filtered.add(elem);
+			}
+		}
+		return filtered;
+	}
+
+	/**
+	 * This method shows the patients matching the search string
+	 */
+	private void filterPatient(String key, List<Patient> patients) {
 		patientComboBox.removeAllItems();
 
 		if (key == null || key.compareTo("") == 0) {
@@ -481,21 +487,8 @@ public class PatVacEdit extends JDialog {
 			resetPatVacPat();
 		}
 
-		for (Patient elem : patientList) {
-			if (key != null) {
-				// Search key extended to name and code
-				StringBuilder sbName = new StringBuilder();
-				sbName.append(elem.getSecondName().toUpperCase());
-				sbName.append(elem.getFirstName().toUpperCase());
-				sbName.append(elem.getCode());
-				String name = sbName.toString();
-
-				if (name.toLowerCase().contains(key.toLowerCase())) {
-					patientComboBox.addItem(elem);
-				}
-			} else {
-				patientComboBox.addItem(elem);
-			}
+		for (Patient elem : patients) {
+			patientComboBox.addItem(elem);
 		}
 
 		if (patientComboBox.getItemCount() == 1) {
@@ -0,0 +1,201 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.patvac.gui;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.isf.patvac.model.PatientVaccine;
+
+/**
+ * The patient vaccinations of a date window kept by columns, most recent first: the filters by date,
+ * vaccine type, vaccine, sex and age compare the values of these arrays, read once from the vaccinations.
+ */
+final class VaccinationColumns {
+
+	private PatientVaccine[] rows;
+	private long[] times;
+	private String[] vaccineTypeCodes;
+	private String[] vaccineCodes;
+	private char[] sexes;
+	private int[] ages;
+	private int size;
+
+	/*
+	 * Sorted once: reversed first, the stable sort puts the last of the vaccinations of the same time first, as add() does
+	 */
+	VaccinationColumns(List<PatientVaccine> vaccinations) {
+		List<PatientVaccine> sorted = new ArrayList<>(vaccinations);
+		Collections.reverse(sorted);
+		sorted.sort(Comparator.comparingLong((PatientVaccine vaccination) -> toTime(vaccination.getVaccineDate())).reversed());
+		int count = sorted.size();
+		allocate(Math.max(count, 8));
+		for (int i = 0; i < count; i++) {
+			PatientVaccine vaccination = sorted.get(i);
+			set(i, vaccination, toTime(vaccination.getVaccineDate()), vaccination.getVaccine().getVaccineType().getCode(),
+					vaccination.getVaccine().getCode(), vaccination.getPatSex(), vaccination.getPatAge());
+		}
+		size = count;
+	}
+
+	int size() {
+		return size;
+	}
+
+	PatientVaccine get(int index) {
+		return rows[index];
+	}
+
+	/**
+	 * Adds a vaccination before the ones with a date not after its own.
+	 */
+	void add(PatientVaccine vaccination) {
+		add(vaccination, vaccination.getVaccineDate(), vaccination.getVaccine().getVaccineType().getCode(),
+				vaccination.getVaccine().getCode(), vaccination.getPatSex(), vaccination.getPatAge());
+	}
+
+	void add(PatientVaccine vaccination, LocalDateTime date, String vaccineTypeCode, String vaccineCode, char sex, int age) {
+		long time = toTime(date);
+		int index = 0;
+		while (index < size && times[index] > time) {
+			index++;
+		}
+		if (size == rows.length) {
+			grow();
+		}
+		shift(index, index + 1, size - index);
+		set(index, vaccination, time, vaccineTypeCode, vaccineCode, sex, age);
+		size++;
+	}
+
+	/**
+	 * @return the index of the vaccination (the same object), -1 if not found
+	 */
+	int indexOf(PatientVaccine vaccination) {
+		for (int i = 0; i < size; i++) {
+			if (rows[i] == vaccination) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	void remove(int index) {
+		shift(index + 1, index, size - index - 1);
+		size--;
+		rows[size] = null;
+	}
+
+	/**
+	 * Writes the indexes of the vaccinations matching the filter.
+	 *
+	 * @param indexes - with room for {@link #size()} indexes from the offset
+	 * @param offset - the position of the first index written
+	 * @return the number of matching vaccinations
+	 */
+	int filter(Filter filter, int[] indexes, int offset) {
+		int count = 0;
+		for (int i = 0; i < size; i++) {
+			if (times[i] >= filter.timeFrom && times[i] < filter.timeTo
+					&& (filter.vaccineTypeCode == null || filter.vaccineTypeCode.equals(vaccineTypeCodes[i]))
+					&& (filter.vaccineCode == null || filter.vaccineCode.equals(vaccineCodes[i]))
+					&& (filter.sex == 'A' || filter.sex == sexes[i])
+					&& (filter.anyAge || (ages[i] >= filter.ageFrom && ages[i] <= filter.ageTo))) {
+				indexes[offset + count++] = i;
+			}
+		}
+		return count;
+	}
+
+	private void set(int index, PatientVaccine vaccination, long time, String vaccineTypeCode, String vaccineCode, char sex, int age) {
+		rows[index] = vaccination;
+		times[index] = time;
+		vaccineTypeCodes[index] = vaccineTypeCode;
+		vaccineCodes[index] = vaccineCode;
+		sexes[index] = sex;
+		ages[index] = age;
+	}
+
+	private void shift(int from, int to, int length) {
+		System.arraycopy(rows, from, rows, to, length);
+		System.arraycopy(times, from, times, to, length);
+		System.arraycopy(vaccineTypeCodes, from, vaccineTypeCodes, to, length);
+		System.arraycopy(vaccineCodes, from, vaccineCodes, to, length);
+		System.arraycopy(sexes, from, sexes, to, length);
+		System.arraycopy(ages, from, ages, to, length);
+	}
+
+	private void allocate(int capacity) {
+		rows = new PatientVaccine[capacity];
+		times = new long[capacity];
+		vaccineTypeCodes = new String[capacity];
+		vaccineCodes = new String[capacity];
+		sexes = new char[capacity];
+		ages = new int[capacity];
+	}
+
+	private void grow() {
+		int capacity = rows.length * 2;
+		rows = Arrays.copyOf(rows, capacity);
+		times = Arrays.copyOf(times, capacity);
+		vaccineTypeCodes = Arrays.copyOf(vaccineTypeCodes, capacity);
+		vaccineCodes = Arrays.copyOf(vaccineCodes, capacity);
+		sexes = Arrays.copyOf(sexes, capacity);
+		ages = Arrays.copyOf(ages, capacity);
+	}
+
+	private static long toTime(LocalDateTime date) {
+		return date.toEpochSecond(ZoneOffset.UTC);
+	}
+
+	/**
+	 * The values of the filter panel: {@code null} codes, sex 'A' and both ages 0 select all, like in the query.
+	 */
+	static final class Filter {
+
+		private final String vaccineTypeCode;
+		private final String vaccineCode;
+		private final char sex;
+		private final boolean anyAge;
+		private final int ageFrom;
+		private final int ageTo;
+		private final long timeFrom;
+		private final long timeTo;
+
+		Filter(String vaccineTypeCode, String vaccineCode, char sex, int ageFrom, int ageTo, LocalDate dateFrom, LocalDate dateTo) {
+			this.vaccineTypeCode = vaccineTypeCode;
+			this.vaccineCode = vaccineCode;
+			this.sex = sex;
+			this.anyAge = ageFrom == 0 && ageTo == 0;
+			this.ageFrom = ageFrom;
+			this.ageTo = ageTo;
+			this.timeFrom = toTime(dateFrom.atStartOfDay());
+			this.timeTo = toTime(dateTo.plusDays(1).atStartOfDay());
+		}
+	}
+}
@@ -131,6 +131,7 @@ public class ListBrowser extends ModalJFrame implements ListListener {
 							result = listManager.deleteList(list);
 
 							if (result) {
+								PriceCatalogue.getInstance().pricesChanged();
 								listArray = listManager.getLists();
 								jTablePriceLists.setModel(new ListBrowserModel());
 							} else {
@@ -229,6 +230,7 @@ public class ListBrowser extends ModalJFrame implements ListListener {
 							result = listManager.copyList(copiedList, qty, step);
 
 							if (result) {
+								PriceCatalogue.getInstance().pricesChanged();
 								MessageDialog.info(null, "angal.priceslist.listcopiedremembertoeditinformations");
 
 								listArray = listManager.getLists();
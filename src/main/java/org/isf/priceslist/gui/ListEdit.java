@@ -138,12 +138,14 @@ public class ListEdit extends JDialog {
 					if (insert) {      // inserting
 						result = listManager.newList(list);
 						if (result) {
+							PriceCatalogue.getInstance().pricesChanged();
 							fireListInserted();
 						}
 					}
 					else {             // updating
 						result = listManager.updateList(list);
 						if (result) {
+							PriceCatalogue.getInstance().pricesChanged();
 							fireListUpdated();
 						}
 					}
@@ -0,0 +1,227 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.priceslist.gui;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.isf.menu.manager.Context;
+import org.isf.priceslist.manager.PriceListManager;
+import org.isf.priceslist.model.Price;
+import org.isf.priceslist.model.PriceList;
+import org.isf.pricesothers.manager.PricesOthersManager;
+import org.isf.pricesothers.model.PricesOthers;
+import org.isf.utils.exception.OHServiceException;
+
+/**
+ * Application-wide catalogue of the price lists, their prices and the other prices, shared by the bill
+ * editor and the prices browser.
+ * <p>
+ * The catalogue is loaded the first time it is needed and indexed by (list, group, item). The forms that
+ * change lists, prices or other prices call {@link #pricesChanged()}, which bumps the version: the next
+ * {@link #getSnapshot()} reloads it. The changes made by other workstations are seen from the modification
+ * times of the lists and of the other prices, both small tables read at most every {@code STAMP_CHECK_SECONDS}:
+ * saving the prices of a list also touches the list for this reason. Otherwise opening a bill runs no query.
+ */
+public final class PriceCatalogue {
+
+	/*
+	 * The price groups are three letter codes (EXA, OPE, MED, OTH), followed by the item in a bill item price ID
+	 */
+	private static final int GROUP_LENGTH = 3;
+
+	private static final long STAMP_CHECK_SECONDS = 60;
+
+	private static final PriceCatalogue INSTANCE = new PriceCatalogue();
+
+	private final AtomicLong version = new AtomicLong();
+	private Snapshot snapshot;
+	private long checkedAt;
+
+	private PriceCatalogue() {
+	}
+
+	public static PriceCatalogue getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * @return the current catalogue, loaded again only if it changed since the last call (the changes made by
+	 * other workstations are checked at most every {@code STAMP_CHECK_SECONDS})
+	 * @throws OHServiceException
+	 */
+	public synchronized Snapshot getSnapshot() throws OHServiceException {
+		long current = version.get();
+		long now = System.currentTimeMillis();
+		if (snapshot != null && snapshot.version == current && now - checkedAt < TimeUnit.SECONDS.toMillis(STAMP_CHECK_SECONDS)) {
+			return snapshot;
+		}
+		PriceListManager priceListManager = Context.getApplicationContext().getBean(PriceListManager.class);
+		PricesOthersManager pricesOthersManager = Context.getApplicationContext().getBean(PricesOthersManager.class);
+		List<PriceList> lists = priceListManager.getLists();
+		List<PricesOthers> others = pricesOthersManager.getOthers();
+		String stamp = getStamp(lists, others);
+		if (snapshot == null || snapshot.version != current || !snapshot.stamp.equals(stamp)) {
+			snapshot = new Snapshot(current, stamp, lists, priceListManager.getPrices(), others);
+		}
+		checkedAt = now;
+		return snapshot;
+	}
+
+	/*
+	 * The IDs and the modification times of the lists and of the other prices
+	 */
+	private static String getStamp(List<PriceList> lists, List<PricesOthers> others) {
+		StringBuilder stamp = new StringBuilder();
+		if (lists != null) {
+			for (PriceList list : lists) {
+				stamp.append(list.getId()).append('@').append(list.getLastModifiedDate()).append(';');
+			}
+		}
+		stamp.append('|');
+		if (others != null) {
+			for (PricesOthers other : others) {
+				stamp.append(other.getId()).append('@').append(other.getLastModifiedDate()).append(';');
+			}
+		}
+		return stamp.toString();
+	}
+
+	/**
+	 * To be called after lists, prices or other prices have been saved or deleted.
+	 */
+	public void pricesChanged() {
+		version.incrementAndGet();
+	}
+
+	/**
+	 * An immutable view of the catalogue: the objects must not be changed by the callers.
+	 */
+	public static final class Snapshot {
+
+		private final long version;
+		private final String stamp;
+		private final List<PriceList> lists;
+		private final List<Price> prices;
+		private final List<PricesOthers> others;
+		private final Map<Integer, List<Price>> pricesByList = new HashMap<>();
+		private final Map<PriceKey, Price> pricesByKey = new HashMap<>();
+		private final Map<Integer, PricesOthers> othersById = new HashMap<>();
+
+		private Snapshot(long version, String stamp, List<PriceList> lists, List<Price> prices, List<PricesOthers> others) {
+			this.version = version;
+			this.stamp = stamp;
+			this.lists = lists == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(lists));
+			this.prices = prices == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(prices));
+			this.others = others == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(others));
+			for (Price price : this.prices) {
+				int listId = price.getList().getId();
+				pricesByList.computeIfAbsent(listId, id -> new ArrayList<>()).add(price);
+				pricesByKey.put(new PriceKey(listId, price.getGroup(), price.getItem()), price);
+			}
+			for (PricesOthers other : this.others) {
+				othersById.put(other.getId(), other);
+			}
+		}
+
+		public List<PriceList> getLists() {
+			return lists;
+		}
+
+		public List<Price> getPrices() {
+			return prices;
+		}
+
+		/**
+		 * @return the prices of the list, in the order given by the database
+		 */
+		public List<Price> getPrices(PriceList list) {
+			List<Price> listPrices = pricesByList.get(list.getId());
+			return listPrices == null ? Collections.emptyList() : Collections.unmodifiableList(listPrices);
+		}
+
+		/**
+		 * @return the price of the item of the group in the list, or {@code null}
+		 */
+		public Price getPrice(int listId, String group, String item) {
+			return pricesByKey.get(new PriceKey(listId, group, item));
+		}
+
+		/**
+		 * @param priceId - the group followed by the item, as stored in the bill items
+		 * @return the price of the item in the list, or {@code null}
+		 */
+		public Price getPrice(int listId, String priceId) {
+			if (priceId == null || priceId.length() < GROUP_LENGTH) {
+				return null;
+			}
+			return getPrice(listId, priceId.substring(0, GROUP_LENGTH), priceId.substring(GROUP_LENGTH));
+		}
+
+		public List<PricesOthers> getOthers() {
+			return others;
+		}
+
+		/**
+		 * @return the other price with the ID, or {@code null}
+		 */
+		public PricesOthers getOther(int id) {
+			return othersById.get(id);
+		}
+	}
+
+	private static final class PriceKey {
+
+		private final int listId;
+		private final String group;
+		private final String item;
+
+		PriceKey(int listId, String group, String item) {
+			this.listId = listId;
+			this.group = group;
+			this.item = item;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof PriceKey)) {
+				return false;
+			}
+			PriceKey other = (PriceKey) obj;
+			return listId == other.listId && Objects.equals(group, other.group) && Objects.equals(item, other.item);
+		}
+
+		@Override
+		public int hashCode() {
+			return (31 * listId + Objects.hashCode(group)) * 31 + Objects.hashCode(item);
+		}
+	}
+}
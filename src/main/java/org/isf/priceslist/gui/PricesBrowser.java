@@ -25,10 +25,9 @@ import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.FlowLayout;
 import java.awt.Font;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import javax.swing.BoxLayout;
 import javax.swing.JButton;
@@ -42,7 +41,7 @@ import javax.swing.WindowConstants;
 import org.isf.exa.manager.ExamBrowsingManager;
 import org.isf.exa.model.Exam;
 import org.isf.generaldata.MessageBundle;
-import org.isf.medicals.manager.MedicalBrowsingManager;
+import org.isf.medicals.gui.MedicalCatalogue;
 import org.isf.medicals.model.Medical;
 import org.isf.menu.manager.Context;
 import org.isf.operation.manager.OperationBrowserManager;
@@ -50,7 +49,6 @@ import org.isf.operation.model.Operation;
 import org.isf.priceslist.manager.PriceListManager;
 import org.isf.priceslist.model.Price;
 import org.isf.priceslist.model.PriceList;
-import org.isf.pricesothers.manager.PricesOthersManager;
 import org.isf.pricesothers.model.PricesOthers;
 import org.isf.serviceprinting.manager.PrintManager;
 import org.isf.utils.exception.OHServiceException;
@@ -90,6 +88,7 @@ public class PricesBrowser extends ModalJFrame {
 	private PriceListManager listManager = Context.getApplicationContext().getBean(PriceListManager.class);
 	private List<PriceList> listArray;
 	private List<Price> priceArray;
+	private PriceCatalogue.Snapshot priceCatalogue;
 	private PriceList listSelected;
 
 	private PriceNode examNodes;
@@ -101,26 +100,15 @@ public class PricesBrowser extends ModalJFrame {
 	private List<Operation> operArray;
 
 	private PriceNode medNodes;
-	private MedicalBrowsingManager mediManager = Context.getApplicationContext().getBean(MedicalBrowsingManager.class);
 	private List<Medical> mediArray;
 
 	private PriceNode othNodes;
-	private PricesOthersManager othManager = Context.getApplicationContext().getBean(PricesOthersManager.class);
 	private List<PricesOthers> othArray;
 
 	private PrintManager printManager = Context.getApplicationContext().getBean(PrintManager.class);
 
 	public PricesBrowser() {
-		try {
-			mediArray = mediManager.getMedicals();
-			examArray = examManager.getExams();
-			operArray = operManager.getOperation();
-			listArray = listManager.getLists();
-			priceArray = listManager.getPrices();
-			othArray = othManager.getOthers();
-		} catch (OHServiceException e) {
-			OHServiceExceptionUtil.showMessages(e);
-		}
+		updateFromDB();
 		initComponents();
 		setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
 		setLocationRelativeTo(null);
@@ -242,6 +230,13 @@ public class PricesBrowser extends ModalJFrame {
 					boolean updated = false;
 					try {
 						updated = listManager.updatePrices(listSelected, updateList);
+						if (updated) {
+							PriceCatalogue.getInstance().pricesChanged();
+							// the list modification time tells the other workstations that the prices changed:
+							// the list itself is unchanged, so it is made dirty or no UPDATE would be issued
+							listSelected.setLastModifiedDate(LocalDateTime.now());
+							listManager.updateList(listSelected);
+						}
 					} catch (OHServiceException e) {
 						OHServiceExceptionUtil.showMessages(e);
 					}
@@ -324,12 +319,14 @@ public class PricesBrowser extends ModalJFrame {
 	private void updateFromDB() {
 
 		try {
-			listArray = listManager.getLists();
-			priceArray = listManager.getPrices();
+			// lists and prices are reloaded only if they changed, the medicals are shared
+			priceCatalogue = PriceCatalogue.getInstance().getSnapshot();
+			listArray = priceCatalogue.getLists();
+			priceArray = priceCatalogue.getPrices();
+			othArray = priceCatalogue.getOthers();
+			mediArray = MedicalCatalogue.getInstance().getMedicals();
 			examArray = examManager.getExams();
 			operArray = operManager.getOperation();
-			mediArray = mediManager.getMedicals();
-			othArray = othManager.getOthers();
 		} catch (OHServiceException e) {
 			OHServiceExceptionUtil.showMessages(e);
 		}
@@ -337,37 +334,31 @@ public class PricesBrowser extends ModalJFrame {
 
 	private PriceNode getTreeContent() {
 
-		Map<String, Price> priceHashTable = new HashMap<>();
-		for (Price price : priceArray) {
-			priceHashTable.put(price.getList().getId() +
-					price.getGroup() +
-					price.getItem(), price);
-		}
-
+		int listId = listSelected.getId();
 		examNodes = new PriceNode(new Price(null, "", "", cCategoriesNames[0], null)); //$NON-NLS-1$ //$NON-NLS-2$
 		for (Exam exa : examArray) {
-			Price p = priceHashTable.get(listSelected.getId() + cCategories[0] + exa.getCode());
+			Price p = priceCatalogue.getPrice(listId, cCategories[0], exa.getCode());
 			double priceValue = p != null ? p.getPrice() : 0.;
 			examNodes.addItem(new PriceNode(new Price(null, cCategories[0], exa.getCode(), exa.getDescription(), priceValue)));
 		}
 
 		opeNodes = new PriceNode(new Price(null, "", "", cCategoriesNames[1], null)); //$NON-NLS-1$ //$NON-NLS-2$
 		for (Operation ope : operArray) {
-			Price p = priceHashTable.get(listSelected.getId() + cCategories[1] + ope.getCode());
+			Price p = priceCatalogue.getPrice(listId, cCategories[1], ope.getCode());
 			double priceValue = p != null ? p.getPrice() : 0.;
 			opeNodes.addItem(new PriceNode(new Price(null, cCategories[1], ope.getCode(), ope.getDescription(), priceValue)));
 		}
 
 		medNodes = new PriceNode(new Price(null, "", "", cCategoriesNames[2], null)); //$NON-NLS-1$ //$NON-NLS-2$
 		for (Medical med : mediArray) {
-			Price p = priceHashTable.get(listSelected.getId() + cCategories[2] + med.getCode().toString());
+			Price p = priceCatalogue.getPrice(listId, cCategories[2], med.getCode().toString());
 			double priceValue = p != null ? p.getPrice() : 0.;
 			medNodes.addItem(new PriceNode(new Price(null, cCategories[2], med.getCode().toString(), med.getDescription(), priceValue)));
 		}
 
 		othNodes = new PriceNode(new Price(null, "", "", cCategoriesNames[3], null)); //$NON-NLS-1$ //$NON-NLS-2$
 		for (PricesOthers oth : othArray) {
-			Price p = priceHashTable.get(listSelected.getId() + cCategories[3] + oth.getId());
+			Price p = priceCatalogue.getPrice(listId, cCategories[3], Integer.toString(oth.getId()));
 			double priceValue = p != null ? p.getPrice() : 0.;
 			othNodes.addItem(
 					new PriceNode(new Price(null, cCategories[3], Integer.toString(oth.getId()), oth.getDescription(), priceValue, !oth.isUndefined())));
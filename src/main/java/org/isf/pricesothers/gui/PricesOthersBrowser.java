@@ -37,6 +37,7 @@ import javax.swing.table.DefaultTableModel;
 
 import org.isf.generaldata.MessageBundle;
 import org.isf.menu.manager.Context;
+import org.isf.priceslist.gui.PriceCatalogue;
 import org.isf.pricesothers.gui.PricesOthersEdit.PricesOthersListener;
 import org.isf.pricesothers.manager.PricesOthersManager;
 import org.isf.pricesothers.model.PricesOthers;
@@ -133,6 +134,7 @@ public class PricesOthersBrowser extends ModalJFrame implements PricesOthersList
 						}
 
 						if (result) {
+							PriceCatalogue.getInstance().pricesChanged();
 							jTablePricesOthers.setModel(new PricesOthersBrowserModel());
 						} else {
 							MessageDialog.error(null, "angal.pricesothers.thedatacouldnotbedeleted");
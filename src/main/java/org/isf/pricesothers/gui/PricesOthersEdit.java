@@ -38,6 +38,7 @@ import javax.swing.event.EventListenerList;
 
 import org.isf.generaldata.MessageBundle;
 import org.isf.menu.manager.Context;
+import org.isf.priceslist.gui.PriceCatalogue;
 import org.isf.pricesothers.manager.PricesOthersManager;
 import org.isf.pricesothers.model.PricesOthers;
 import org.isf.utils.exception.OHServiceException;
@@ -153,11 +154,13 @@ public class PricesOthersEdit extends JDialog {
 					if (insert) {      // inserting
 						result = pOtherManager.newOther(pOther);
 						if (result) {
+							PriceCatalogue.getInstance().pricesChanged();
 							fireOtherInserted();
 						}
 					} else {             // updating
 						result = pOtherManager.updateOther(pOther);
 						if (result) {
+							PriceCatalogue.getInstance().pricesChanged();
 							fireOtherUpdated();
 						}
 					}
@@ -39,10 +39,12 @@ import java.awt.event.MouseListener;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Hashtable;
 import java.util.List;
+import java.util.Map;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
@@ -66,9 +68,10 @@ import javax.swing.table.DefaultTableCellRenderer;
 import org.isf.admission.manager.AdmissionBrowserManager;
 import org.isf.generaldata.GeneralData;
 import org.isf.generaldata.MessageBundle;
-import org.isf.medicals.manager.MedicalBrowsingManager;
+import org.isf.medicals.gui.MedicalCatalogue;
 import org.isf.medicals.model.Medical;
 import org.isf.menu.manager.Context;
+import org.isf.patient.gui.PatientLookupCache;
 import org.isf.patient.manager.PatientBrowserManager;
 import org.isf.patient.model.Patient;
 import org.isf.therapy.manager.TherapyManager;
@@ -76,6 +79,7 @@ import org.isf.therapy.model.Therapy;
 import org.isf.therapy.model.TherapyRow;
 import org.isf.utils.exception.OHServiceException;
 import org.isf.utils.exception.gui.OHServiceExceptionUtil;
+import org.isf.utils.jobjects.AgendaIndex;
 import org.isf.utils.jobjects.JAgenda;
 import org.isf.utils.jobjects.JAgenda.AgendaDayObject;
 import org.isf.utils.jobjects.MessageDialog;
@@ -100,6 +104,7 @@ public class TherapyEdit extends ModalJFrame implements VisitListener {
 	private static final int ALL_BUTTON_HEIGHT = 30;
 
 	private JAgenda jAgenda;
+	private final AgendaIndex agendaIndex = new AgendaIndex();
 	
 	private JPanel northPanel;
 	private JPanel monthYearPanel;
@@ -144,7 +149,6 @@ public class TherapyEdit extends ModalJFrame implements VisitListener {
 	private Hashtable<Integer, Visit> hashTableVisits;
 
 	private AdmissionBrowserManager admMan = Context.getApplicationContext().getBean(AdmissionBrowserManager.class);
-	private MedicalBrowsingManager medBrowser = Context.getApplicationContext().getBean(MedicalBrowsingManager.class);
 	private TherapyManager thManager = Context.getApplicationContext().getBean(TherapyManager.class);
 	private VisitManager vstManager = Context.getApplicationContext().getBean(VisitManager.class);
 	private PatientBrowserManager patientBrowserManager = Context.getApplicationContext().getBean(PatientBrowserManager.class);
@@ -158,7 +162,7 @@ public class TherapyEdit extends ModalJFrame implements VisitListener {
 	public TherapyEdit(JFrame owner, Patient patient, boolean admitted) {
 		super();
 		try {
-			this.medArray = medBrowser.getMedicals();
+			this.medArray = MedicalCatalogue.getInstance().getMedicals();
 		} catch (OHServiceException e1) {
 			this.medArray = null;
 			OHServiceExceptionUtil.showMessages(e1);
@@ -286,53 +290,48 @@ public class TherapyEdit extends ModalJFrame implements VisitListener {
 	}
 	
 	private void showAll() {
-		jAgenda.removeAll();
+		indexAll();
+		showMonth();
+	}
+
+	/*
+	 * Indexes the dates of the therapies and the visits once, not at every month shown
+	 */
+	private void indexAll() {
+		agendaIndex.clear();
 		if (therapies != null) {
-			showTherapies();
+			for (Therapy th : therapies) {
+				for (LocalDateTime localDateTime : th.getDates()) {
+					agendaIndex.add(localDateTime.toLocalDate(), th);
+				}
+			}
 		}
 		if (visits != null) {
-			showVisits();
-		}
-		noteTextArea.setText("");
-		smsCheckBox.setEnabled(false);
-		notifyCheckBox.setEnabled(false);
-	}
-
-	private String getDate() {
-		return DateTimeFormatter.ofPattern(DATE_FORMAT_YYYY_MM_DD).format(LocalDateTime.now());
-	}
-
-	private void showTherapies() {
-		for (Therapy th : therapies) {
-			showTherapy(th);
+			hashTableVisits = new Hashtable<>();
+			for (Visit vs : visits) {
+				hashTableVisits.put(vs.getVisitID(), vs);
+				agendaIndex.add(vs.getDate().toLocalDate(), vs);
+			}
 		}
 	}
 
-	private void showTherapy(Therapy th) {
-		for (LocalDateTime localDateTime : th.getDates()) {
-			if (localDateTime.getYear() == yearChooser.getYear()) {
-				if (localDateTime.getMonthValue() == monthChooser.getMonth() + 1) {
-					jAgenda.addElement(th, localDateTime.getDayOfMonth());
-					notifyCheckBox.setSelected(th.isNotify());
+	private void showMonth() {
+		Map<Integer, List<Object>> month = agendaIndex.getMonth(YearMonth.of(yearChooser.getYear(), monthChooser.getMonth() + 1));
+		jAgenda.showMonth(month);
+		for (List<Object> elements : month.values()) {
+			for (Object element : elements) {
+				if (element instanceof Therapy) {
+					notifyCheckBox.setSelected(((Therapy) element).isNotify());
 				}
 			}
 		}
+		noteTextArea.setText("");
+		smsCheckBox.setEnabled(false);
+		notifyCheckBox.setEnabled(false);
 	}
 
-	private void showVisits() {
-		hashTableVisits = new Hashtable<>();
-		for (Visit vs : visits) {
-			hashTableVisits.put(vs.getVisitID(), vs);
-			showVisit(vs);
-		}
-	}
-
-	private void showVisit(Visit vs) {
-		if (vs.getDate().getYear() == yearChooser.getYear()) {
-			if (vs.getDate().getMonthValue() == monthChooser.getMonth() + 1) {
-				jAgenda.addElement(vs, vs.getDate().getDayOfMonth());
-			}
-		}
+	private String getDate() {
+		return DateTimeFormatter.ofPattern(DATE_FORMAT_YYYY_MM_DD).format(LocalDateTime.now());
 	}
 
 	private JPanel getSouthPanel() {
@@ -604,7 +603,7 @@ public class TherapyEdit extends ModalJFrame implements VisitListener {
 						if (number != null) {
 							patient.setTelephone(number);
 							try {
-								patientBrowserManager.savePatient(patient);
+								PatientLookupCache.getInstance().patientSaved(patientBrowserManager.savePatient(patient));
 							} catch (OHServiceException ex) {
 								OHServiceExceptionUtil.showMessages(ex);
 							}
@@ -1064,13 +1063,13 @@ public class TherapyEdit extends ModalJFrame implements VisitListener {
 			monthChooser.addPropertyChangeListener("month", propertyChangeEvent -> {
 				JMonthChooser thisChooser = (JMonthChooser) propertyChangeEvent.getSource();
 				jAgenda.setMonth(thisChooser.getMonth() + 1);
-				showAll();
+				showMonth();
 			});
 			yearChooser = new JYearChooser();
 			yearChooser.addPropertyChangeListener("year", propertyChangeEvent -> {
 				JYearChooser thisChooser = (JYearChooser) propertyChangeEvent.getSource();
 				jAgenda.setYear(thisChooser.getYear());
-				showAll();
+				showMonth();
 			});
 			monthYearPanel.add(monthChooser);
 			monthYearPanel.add(yearChooser);
@@ -1095,13 +1094,7 @@ public class TherapyEdit extends ModalJFrame implements VisitListener {
 
 			int index = thisList.getSelectedIndex();
 			if (index == -1) {
-				for (Component comp : jAgenda.getDayPanel().getComponents()) {
-					AgendaDayObject day = (AgendaDayObject) comp;
-					JList list = day.getList();
-					if (list != null) {
-						list.clearSelection();
-					}
-				}
+				jAgenda.clearSelection();
 				selectedTherapy = null;
 				selectedVisit = null;
 				noteTextArea.setEnabled(false);
@@ -1145,31 +1138,11 @@ public class TherapyEdit extends ModalJFrame implements VisitListener {
 			 * - better arrays management (to highlight also unsaved)
 			 * - improve events handling (to avoid selection flickering) 
 			 */
-			for (Component comp : jAgenda.getDayPanel().getComponents()) {
-				AgendaDayObject day = (AgendaDayObject) comp;
-				JList list = day.getList();
-				if (list != null) {
-					if (list != thisList) {
-						list.clearSelection();
-					}
-					model = list.getModel();
-					for (int i = 0; i < model.getSize(); i++) {
-						Object iteratedItem = model.getElementAt(i);
-						if (iteratedItem instanceof Therapy) {
-							Therapy aTherapy = (Therapy) iteratedItem;
-							if (therapyID != 0 && aTherapy.getTherapyID() == therapyID) {
-								list.setSelectedIndex(i);
-							}
-						}
-						if (iteratedItem instanceof Visit) {
-							Visit aVisit = (Visit) iteratedItem;
-							if (visitID != 0 && aVisit.getVisitID() == visitID) {
-								list.setSelectedIndex(i);
-							}
-						}
-					}
-				}
-			}
+			int selectedTherapyID = therapyID;
+			int selectedVisitID = visitID;
+			jAgenda.selectElements(thisList, element ->
+					(selectedTherapyID != 0 && element instanceof Therapy && ((Therapy) element).getTherapyID() == selectedTherapyID)
+							|| (selectedVisitID != 0 && element instanceof Visit && ((Visit) element).getVisitID() == selectedVisitID));
 		}
 
 		@Override
@@ -60,7 +60,7 @@ import javax.swing.border.TitledBorder;
 
 import org.isf.generaldata.GeneralData;
 import org.isf.generaldata.MessageBundle;
-import org.isf.medicals.manager.MedicalBrowsingManager;
+import org.isf.medicals.gui.MedicalCatalogue;
 import org.isf.medicals.model.Medical;
 import org.isf.menu.manager.Context;
 import org.isf.therapy.manager.TherapyManager;
@@ -83,7 +83,6 @@ public class TherapyEntryForm extends JDialog {
 	/*
 	 * Managers
 	 */
-	private MedicalBrowsingManager medBrowser = Context.getApplicationContext().getBean(MedicalBrowsingManager.class);
 	private TherapyManager therapyManager = Context.getApplicationContext().getBean(TherapyManager.class);
 	private List<Medical> medArray;
 
@@ -152,7 +151,7 @@ public class TherapyEntryForm extends JDialog {
 		super(owner, true);
 		inserting = th == null;
 		try {
-			this.medArray = medBrowser.getMedicals();
+			this.medArray = MedicalCatalogue.getInstance().getMedicals();
 		} catch (OHServiceException e) {
 			this.medArray = new ArrayList<>();
 			OHServiceExceptionUtil.showMessages(e, TherapyEntryForm.this);
@@ -24,6 +24,7 @@ package org.isf.utils.image;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
@@ -65,6 +66,17 @@ public final class ImageUtil {
 		return resizedImg;
 	}
 
+	/**
+	 * @return the memory used by the pixels of the image, in bytes
+	 */
+	public static long sizeInBytes(final BufferedImage image) {
+		if (image == null) {
+			return 0;
+		}
+		final DataBuffer buffer = image.getRaster().getDataBuffer();
+		return (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+	}
+
 	public static byte[] imageToByte(final BufferedImage bufferedImage) {
 		try {
 			final ByteArrayOutputStream outStream = new ByteArrayOutputStream();
@@ -0,0 +1,111 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.utils.image;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Least recently used cache bounded by the total weight of its values (i.e. the bytes of decoded images)
+ * rather than by the number of entries. The most recent entry is always kept, even if heavier than the bound
+ * (see {@link #put(Object, Object)}).
+ * <p>
+ * Thread safe, so it can be filled by a background loader while the GUI reads it.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the cached values
+ */
+public class WeightedLruCache<K, V> {
+
+	private final Map<K, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private final ToLongFunction<V> weigher;
+	private final long maxWeight;
+	private long weight;
+
+	/**
+	 * @param maxWeight - the bound for the sum of the weights
+	 * @param weigher - computes the weight of a value (must not change while cached)
+	 */
+	public WeightedLruCache(long maxWeight, ToLongFunction<V> weigher) {
+		this.maxWeight = maxWeight;
+		this.weigher = weigher;
+	}
+
+	public synchronized V get(K key) {
+		return entries.get(key);
+	}
+
+	public synchronized boolean containsKey(K key) {
+		return entries.containsKey(key);
+	}
+
+	/**
+	 * Caches the value, evicting the least recently used entries until the total weight is within the bound.
+	 * <p>
+	 * A value heavier than the bound is still cached, alone: all the other entries are evicted, and the total weight
+	 * exceeds the bound until a later put evicts it. This is on purpose, so the frame (or the zoomed image) shown
+	 * is not decoded again at each paint; the memory used is at most the bound or the heaviest single value.
+	 *
+	 * @param key
+	 * @param value
+	 */
+	public synchronized void put(K key, V value) {
+		V old = entries.put(key, value);
+		if (old != null) {
+			weight -= weigher.applyAsLong(old);
+		}
+		weight += weigher.applyAsLong(value);
+		evict();
+	}
+
+	public synchronized V remove(K key) {
+		V old = entries.remove(key);
+		if (old != null) {
+			weight -= weigher.applyAsLong(old);
+		}
+		return old;
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+		weight = 0;
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	public synchronized long getWeight() {
+		return weight;
+	}
+
+	private void evict() {
+		Iterator<V> eldest = entries.values().iterator();
+		while (weight > maxWeight && entries.size() > 1) {
+			weight -= weigher.applyAsLong(eldest.next());
+			eldest.remove();
+		}
+	}
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.utils.jobjects;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Index of the elements shown in a {@link JAgenda}, by month and day of the month.
+ * <p>
+ * It is built once when the elements are loaded, so showing a month only touches the elements of that
+ * month instead of scanning all the dates of all the elements.
+ */
+public class AgendaIndex {
+
+	private final Map<YearMonth, Map<Integer, List<Object>>> months = new HashMap<>();
+
+	/**
+	 * Adds the element on the date, after the elements already added on the same day.
+	 */
+	public void add(LocalDate date, Object element) {
+		months.computeIfAbsent(YearMonth.from(date), yearMonth -> new TreeMap<>())
+				.computeIfAbsent(date.getDayOfMonth(), day -> new ArrayList<>())
+				.add(element);
+	}
+
+	/**
+	 * @return the elements of the month by day of the month, in ascending day order (empty if none)
+	 */
+	public Map<Integer, List<Object>> getMonth(YearMonth yearMonth) {
+		Map<Integer, List<Object>> days = months.get(yearMonth);
+		return days != null ? Collections.unmodifiableMap(days) : Collections.emptyMap();
+	}
+
+	public void clear() {
+		months.clear();
+	}
+}
@@ -0,0 +1,201 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.utils.jobjects;
+
+import java.awt.Component;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.InputEvent;
+import java.awt.event.MouseEvent;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.EventObject;
+
+import javax.swing.AbstractAction;
+import javax.swing.AbstractCellEditor;
+import javax.swing.Icon;
+import javax.swing.JButton;
+import javax.swing.JComponent;
+import javax.swing.JTable;
+import javax.swing.KeyStroke;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.TableCellEditor;
+import javax.swing.table.TableCellRenderer;
+import javax.swing.table.TableColumn;
+
+/**
+ * Renders a column of a {@link JTable} as buttons and runs an action for the row of the button pressed.
+ * <p>
+ * The same two buttons, one to paint and one to press, serve all the rows, so the table model returns
+ * plain values for the column: a cell whose value is {@code null} shows no button. The model must report
+ * the column as editable, the editor never changes its value.
+ * <p>
+ * The column is installed again when the table gets a new model (i.e. {@code setModel} after a reload).
+ */
+public class ButtonColumn extends AbstractCellEditor implements TableCellRenderer, TableCellEditor, ActionListener, PropertyChangeListener {
+
+	private static final long serialVersionUID = 1L;
+
+	@FunctionalInterface
+	public interface RowAction {
+
+		/**
+		 * @param modelRow the row of the button pressed, in the table model
+		 */
+		void actionPerformed(int modelRow);
+	}
+
+	private final JTable table;
+	private final int modelColumn;
+	private final RowAction action;
+	private final JButton renderButton;
+	private final JButton editButton;
+	private final DefaultTableCellRenderer emptyCell = new DefaultTableCellRenderer();
+	private int editingRow = -1;
+
+	/**
+	 * @param table the table
+	 * @param modelColumn the column of the buttons, in the table model
+	 * @param text the text of the buttons
+	 * @param action the action for the row of the button pressed
+	 */
+	public ButtonColumn(JTable table, int modelColumn, String text, RowAction action) {
+		this(table, modelColumn, new JButton(text), new JButton(text), action);
+	}
+
+	/**
+	 * Transparent buttons showing only the icon, as {@link IconButton}.
+	 */
+	public ButtonColumn(JTable table, int modelColumn, Icon icon, RowAction action) {
+		this(table, modelColumn, new IconButton(icon), new IconButton(icon), action);
+	}
+
+	private ButtonColumn(JTable table, int modelColumn, JButton renderButton, JButton editButton, RowAction action) {
+		this.table = table;
+		this.modelColumn = modelColumn;
+		this.action = action;
+		this.renderButton = renderButton;
+		this.editButton = editButton;
+		editButton.setFocusable(false);
+		editButton.addActionListener(this);
+		table.addPropertyChangeListener(this);
+		install();
+	}
+
+	/**
+	 * Underlines the mnemonic in the buttons; Alt + the mnemonic presses the button of the selected row
+	 * while the focus is in the table.
+	 *
+	 * @param mnemonic the key code of the mnemonic
+	 */
+	public void setMnemonic(int mnemonic) {
+		renderButton.setMnemonic(mnemonic);
+		editButton.setMnemonic(mnemonic);
+		String actionKey = "buttonColumn" + modelColumn;
+		table.getInputMap(JComponent.WHEN_ANCESTOR_OF_FOCUSED_COMPONENT).put(KeyStroke.getKeyStroke(mnemonic, InputEvent.ALT_DOWN_MASK), actionKey);
+		table.getActionMap().put(actionKey, new AbstractAction() {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public void actionPerformed(ActionEvent actionEvent) {
+				int row = table.getSelectedRow();
+				if (row < 0) {
+					return;
+				}
+				int modelRow = table.convertRowIndexToModel(row);
+				if (table.getModel().getValueAt(modelRow, modelColumn) != null) {
+					action.actionPerformed(modelRow);
+				}
+			}
+		});
+	}
+
+	private void install() {
+		for (int i = 0; i < table.getColumnCount(); i++) {
+			TableColumn column = table.getColumnModel().getColumn(i);
+			if (column.getModelIndex() == modelColumn) {
+				column.setCellRenderer(this);
+				column.setCellEditor(this);
+			}
+		}
+	}
+
+	@Override
+	public void propertyChange(PropertyChangeEvent event) {
+		if ("model".equals(event.getPropertyName()) || "columnModel".equals(event.getPropertyName())) {
+			install();
+		}
+	}
+
+	@Override
+	public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
+		if (value == null) {
+			return emptyCell.getTableCellRendererComponent(table, null, isSelected, false, row, column);
+		}
+		return renderButton;
+	}
+
+	@Override
+	public boolean isCellEditable(EventObject event) {
+		if (event instanceof MouseEvent) {
+			MouseEvent mouseEvent = (MouseEvent) event;
+			int row = table.rowAtPoint(mouseEvent.getPoint());
+			int column = table.columnAtPoint(mouseEvent.getPoint());
+			return row >= 0 && column >= 0 && table.getValueAt(row, column) != null;
+		}
+		return true;
+	}
+
+	@Override
+	public Component getTableCellEditorComponent(JTable table, Object value, boolean isSelected, int row, int column) {
+		if (value == null) {
+			editingRow = -1;
+			return emptyCell.getTableCellRendererComponent(table, null, true, false, row, column);
+		}
+		editingRow = table.convertRowIndexToModel(row);
+		return editButton;
+	}
+
+	@Override
+	public Object getCellEditorValue() {
+		return null;
+	}
+
+	@Override
+	public boolean stopCellEditing() {
+		// the value of the cell must not be written back to the model
+		fireEditingCanceled();
+		return true;
+	}
+
+	@Override
+	public void actionPerformed(ActionEvent actionEvent) {
+		int row = editingRow;
+		editingRow = -1;
+		fireEditingCanceled();
+		if (row >= 0) {
+			action.actionPerformed(row);
+		}
+	}
+
+}
@@ -85,7 +85,10 @@ class CursorManager {
 	}
 
 	public void pop() {
-		cleanUp();
+		// the timer no longer waits for the dispatch to end: a closed event ignores a late trigger
+		if (dispatchedEvents.peek().close()) {
+			clearQueueOfInputEvents();
+		}
 		dispatchedEvents.pop();
 		if (!dispatchedEvents.isEmpty()) {
 			//this will be stopped if getNextEvent() is called -
@@ -97,7 +100,14 @@ class CursorManager {
 	}
 
 	public void setCursor() {
-		dispatchedEvents.peek().setCursor();
+		DispatchedEvent dispatchedEvent;
+		synchronized (dispatchedEvents) {
+			if (dispatchedEvents.isEmpty()) {
+				return;
+			}
+			dispatchedEvent = dispatchedEvents.peek();
+		}
+		dispatchedEvent.setCursor();
 	}
 
 }
@@ -0,0 +1,173 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.utils.jobjects;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.JTextComponent;
+
+import org.isf.utils.exception.OHServiceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Filters a browser while the user types in a search field without blocking the Event Dispatch Thread.
+ * <p>
+ * Each change of the key restarts a short delay; when it expires the {@link Filter} is asked, on the EDT,
+ * to read the filter controls and to return the work to run in background. Only the result of the latest
+ * request is handed back, on the EDT, to the consumer that replaces the rows of the table model;
+ * results of older requests are discarded.
+ *
+ * @param <R> the type of the filter result (i.e. the list of the rows to show)
+ */
+public class DebouncedFilter<R> {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DebouncedFilter.class);
+
+	public static final int DEFAULT_DELAY = 200;
+
+	@FunctionalInterface
+	public interface Filter<R> {
+
+		/**
+		 * Called on the EDT: reads the state of the filter controls and returns the filtering to run in background,
+		 * which must not touch Swing components.
+		 *
+		 * @param key - the search key
+		 */
+		Callable<R> prepare(String key);
+	}
+
+	private final Filter<R> filter;
+	private final Consumer<R> onResult;
+	private final Timer timer;
+	private final Executor background;
+	private String pendingKey;
+	private SwingWorker<R, Void> worker;
+	private long generation;
+
+	public DebouncedFilter(Filter<R> filter, Consumer<R> onResult) {
+		this(DEFAULT_DELAY, filter, onResult);
+	}
+
+	/**
+	 * @param delay - milliseconds to wait after the last change before filtering
+	 * @param filter - prepares the filtering of a key
+	 * @param onResult - receives on the EDT the result of the latest filtering
+	 */
+	public DebouncedFilter(int delay, Filter<R> filter, Consumer<R> onResult) {
+		this(delay, filter, onResult, BackgroundTasks.getExecutor());
+	}
+
+	DebouncedFilter(int delay, Filter<R> filter, Consumer<R> onResult, Executor background) {
+		this.filter = filter;
+		this.background = background;
+		this.onResult = onResult;
+		this.timer = new Timer(delay, actionEvent -> filterNow(pendingKey));
+		this.timer.setRepeats(false);
+	}
+
+	/**
+	 * Filters whenever the text of the field changes.
+	 */
+	public void install(JTextComponent field) {
+		field.getDocument().addDocumentListener(new DocumentListener() {
+
+			@Override
+			public void insertUpdate(DocumentEvent e) {
+				schedule(field.getText());
+			}
+
+			@Override
+			public void removeUpdate(DocumentEvent e) {
+				schedule(field.getText());
+			}
+
+			@Override
+			public void changedUpdate(DocumentEvent e) {
+				schedule(field.getText());
+			}
+		});
+	}
+
+	/**
+	 * Filters after the delay, unless another key arrives in the meantime.
+	 */
+	public void schedule(String key) {
+		pendingKey = key;
+		timer.restart();
+	}
+
+	/**
+	 * Filters at once (in background), superseding any scheduled or running filtering.
+	 */
+	public void filterNow(String key) {
+		cancel();
+		long requested = generation;
+		Callable<R> task = filter.prepare(key);
+		worker = new SwingWorker<R, Void>() {
+
+			@Override
+			protected R doInBackground() throws Exception {
+				return task.call();
+			}
+
+			@Override
+			protected void done() {
+				if (isCancelled() || requested != generation) {
+					return;
+				}
+				try {
+					onResult.accept(get());
+				} catch (InterruptedException interruptedException) {
+					Thread.currentThread().interrupt();
+				} catch (ExecutionException executionException) {
+					if (executionException.getCause() instanceof OHServiceException) {
+						MessageDialog.showExceptions((OHServiceException) executionException.getCause());
+					} else {
+						LOGGER.error("Error filtering: ", executionException.getCause());
+					}
+				}
+			}
+		};
+		background.execute(worker);
+	}
+
+	/**
+	 * Discards the scheduled and running filtering, i.e. before the rows are replaced synchronously.
+	 */
+	public void cancel() {
+		timer.stop();
+		generation++;
+		if (worker != null) {
+			worker.cancel(false);
+			worker = null;
+		}
+	}
+}
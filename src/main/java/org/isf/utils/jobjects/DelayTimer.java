@@ -21,91 +21,121 @@
  */
 package org.isf.utils.jobjects;
 
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class DelayTimer extends Thread {
+/**
+ * Calls back {@link DelayTimerCallback#trigger()} once when the timer has been running for the delay.
+ * <p>
+ * Starting and stopping only write the deadline, so they never block the caller (i.e. the EDT dispatching an event).
+ * The timers share one daemon scheduler; a timer is armed with at most one scheduled check at a time, which
+ * follows the deadline when the timer is restarted and goes idle when the timer is stopped.
+ */
+public class DelayTimer {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(DelayTimer.class);
 
+	private static final ScheduledExecutorService SCHEDULER =
+			Executors.newSingleThreadScheduledExecutor(new BackgroundTasks.DaemonThreadFactory("oh-delay-timer-"));
+
+	private static final long STOPPED = Long.MIN_VALUE;
+
+	/**
+	 * Runs a task after a wait in nanoseconds.
+	 */
+	@FunctionalInterface
+	interface Scheduler {
+
+		void schedule(Runnable task, long wait);
+	}
+
 	private final DelayTimerCallback callback;
-	private final Object mutex = new Object();
-	private final Object triggeredMutex = new Object();
 	private final long delay;
-	private boolean quit;
-	private boolean triggered;
-	private long waitTime;
+	private final LongSupplier clock;
+	private final Scheduler scheduler;
+	private final AtomicLong deadline = new AtomicLong(STOPPED);
+	private final AtomicBoolean armed = new AtomicBoolean();
+	private volatile boolean quit;
 
 	public DelayTimer(DelayTimerCallback callback, long delay) {
+		this(callback, delay, System::nanoTime, (task, wait) -> SCHEDULER.schedule(task, wait, TimeUnit.NANOSECONDS));
+	}
+
+	/**
+	 * @param clock - the current time in nanoseconds
+	 * @param scheduler - runs the checks of the deadline
+	 */
+	DelayTimer(DelayTimerCallback callback, long delay, LongSupplier clock, Scheduler scheduler) {
 		this.callback = callback;
-		this.delay = delay;
-		setDaemon(true);
-		start();
+		this.delay = TimeUnit.MILLISECONDS.toNanos(delay);
+		this.clock = clock;
+		this.scheduler = scheduler;
 	}
 
 	/**
 	 * Calling this method twice will reset the timer.
 	 */
 	public void startTimer() {
-		synchronized (mutex) {
-			waitTime = delay;
-			mutex.notify();
-		}
+		deadline.set(clock.getAsLong() + delay);
+		arm(delay);
 	}
 
 	public void stopTimer() {
-		try {
-			synchronized (mutex) {
-				synchronized (triggeredMutex) {
-					if (triggered) {
-						triggeredMutex.wait();
-					}
-				}
-				waitTime = 0;
-				mutex.notify();
-			}
-		} catch (InterruptedException interruptedException) {
-			LOGGER.error("trigger failure", interruptedException);
+		deadline.set(STOPPED);
+	}
+
+	public void quit() {
+		quit = true;
+		deadline.set(STOPPED);
+	}
+
+	private void arm(long wait) {
+		if (!quit && !armed.get() && armed.compareAndSet(false, true)) {
+			schedule(wait);
 		}
 	}
 
-	@Override
-	public void run() {
+	private void schedule(long wait) {
 		try {
-			while (!quit) {
-				synchronized (mutex) {
-
-					if (waitTime < 0) {
-						triggered = true;
-						waitTime = 0;
-					} else {
-						long saveWaitTime = waitTime;
-						waitTime = -1;
-						mutex.wait(saveWaitTime);
-					}
-				}
+			scheduler.schedule(this::expire, wait);
+		} catch (RejectedExecutionException rejectedExecutionException) {
+			armed.set(false);
+			LOGGER.error("timer not scheduled", rejectedExecutionException);
+		}
+	}
+
+	/*
+	 * Runs on the scheduler: triggers if the deadline has passed, follows it if the timer has been restarted
+	 */
+	private void expire() {
+		long due = deadline.get();
+		if (due != STOPPED && !quit) {
+			long remaining = due - clock.getAsLong();
+			if (remaining > 0) {
+				schedule(remaining);
+				return;
+			}
+			if (deadline.compareAndSet(due, STOPPED)) {
 				try {
-					if (triggered) {
-						callback.trigger();
-					}
+					callback.trigger();
 				} catch (Exception exception) {
 					LOGGER.error("trigger() threw exception, continuing", exception);
-				} finally {
-					synchronized (triggeredMutex) {
-						triggered = false;
-						triggeredMutex.notify();
-					}
 				}
 			}
-		} catch (InterruptedException interruptedException) {
-			LOGGER.error("interrupted in run", interruptedException);
 		}
-	}
-
-	public void quit() {
-		synchronized (mutex) {
-			this.quit = true;
-			mutex.notify();
+		armed.set(false);
+		// the timer may have been started again after the deadline was read
+		due = deadline.get();
+		if (due != STOPPED) {
+			arm(Math.max(0L, due - clock.getAsLong()));
 		}
 	}
 
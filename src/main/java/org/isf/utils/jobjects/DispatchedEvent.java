@@ -34,6 +34,7 @@ class DispatchedEvent {
 	private final Object source;
 	private Component parent;
 	private Cursor lastCursor;
+	private boolean closed;
 
 	public DispatchedEvent(Object source) {
 		this.source = source;
@@ -41,6 +42,9 @@ class DispatchedEvent {
 
 	public void setCursor() {
 		synchronized (mutex) {
+			if (closed) {
+				return;
+			}
 			parent = findVisibleParent();
 			if (parent != null) {
 				lastCursor = (parent.isCursorSet() ? parent.getCursor() : null);
@@ -60,6 +64,18 @@ class DispatchedEvent {
 		}
 	}
 
+	/**
+	 * Resets the cursor for the last time, once the event has been dispatched.
+	 *
+	 * @return true if the wait cursor was shown
+	 */
+	public boolean close() {
+		synchronized (mutex) {
+			closed = true;
+			return resetCursor();
+		}
+	}
+
 	private Component findVisibleParent() {
 		Component result = null;
 		if (source instanceof Component) {
@@ -0,0 +1,180 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.utils.jobjects;
+
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.JButton;
+import javax.swing.JFrame;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.Timer;
+import javax.swing.WindowConstants;
+import javax.swing.table.AbstractTableModel;
+
+import org.isf.generaldata.MessageBundle;
+
+/**
+ * Hidden diagnostics window showing the dispatch times collected by {@link EdtLatencyMonitor},
+ * refreshed every two seconds while it is open.
+ */
+public class EdtLatencyDialog extends JFrame {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final int REFRESH_DELAY = 2000;
+
+	private static EdtLatencyDialog dialog;
+
+	private final EdtLatencyMonitor monitor;
+	private final StatsTableModel model = new StatsTableModel();
+	private final Timer refreshTimer;
+
+	public static void showDialog(EdtLatencyMonitor monitor) {
+		if (dialog == null) {
+			dialog = new EdtLatencyDialog(monitor);
+		}
+		dialog.refresh();
+		dialog.refreshTimer.start();
+		dialog.setVisible(true);
+		dialog.toFront();
+	}
+
+	private EdtLatencyDialog(EdtLatencyMonitor monitor) {
+		super(MessageBundle.formatMessage("angal.edtmonitor.latency.fmt.title", monitor.getThresholdMillis()));
+		this.monitor = monitor;
+		this.refreshTimer = new Timer(REFRESH_DELAY, actionEvent -> refresh());
+		setDefaultCloseOperation(WindowConstants.HIDE_ON_CLOSE);
+
+		JTable table = new JTable(model);
+		table.setAutoCreateRowSorter(true);
+		table.getColumnModel().getColumn(0).setPreferredWidth(200);
+		add(new JScrollPane(table), BorderLayout.CENTER);
+
+		JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 5, 5));
+		JButton resetButton = new JButton(MessageBundle.getMessage("angal.edtmonitor.reset.btn"));
+		resetButton.setMnemonic(MessageBundle.getMnemonic("angal.edtmonitor.reset.btn.key"));
+		resetButton.addActionListener(actionEvent -> {
+			monitor.reset();
+			refresh();
+		});
+		buttonPanel.add(resetButton);
+		JButton closeButton = new JButton(MessageBundle.getMessage("angal.common.close.btn"));
+		closeButton.setMnemonic(MessageBundle.getMnemonic("angal.common.close.btn.key"));
+		closeButton.addActionListener(actionEvent -> setVisible(false));
+		buttonPanel.add(closeButton);
+		add(buttonPanel, BorderLayout.SOUTH);
+
+		setSize(900, 400);
+		setLocationRelativeTo(null);
+	}
+
+	@Override
+	public void setVisible(boolean visible) {
+		if (!visible) {
+			refreshTimer.stop();
+		}
+		super.setVisible(visible);
+	}
+
+	private void refresh() {
+		model.setStats(monitor.getStats());
+	}
+
+	private static class StatsTableModel extends AbstractTableModel {
+
+		private static final long serialVersionUID = 1L;
+
+		private final String[] columns = {
+				MessageBundle.getMessage("angal.edtmonitor.source.col"),
+				MessageBundle.getMessage("angal.edtmonitor.events.col"),
+				MessageBundle.getMessage("angal.edtmonitor.totalms.col"),
+				MessageBundle.getMessage("angal.edtmonitor.meanms.col"),
+				MessageBundle.getMessage("angal.edtmonitor.p95ms.col"),
+				MessageBundle.getMessage("angal.edtmonitor.maxms.col"),
+				MessageBundle.getMessage("angal.edtmonitor.buckets.col")
+		};
+		private final Class<?>[] columnClasses = {String.class, Long.class, Long.class, Double.class, Long.class, Long.class, String.class};
+
+		private List<EdtLatencyMonitor.Stats> stats = new ArrayList<>();
+
+		void setStats(List<EdtLatencyMonitor.Stats> stats) {
+			this.stats = stats;
+			fireTableDataChanged();
+		}
+
+		@Override
+		public int getRowCount() {
+			return stats.size();
+		}
+
+		@Override
+		public int getColumnCount() {
+			return columns.length;
+		}
+
+		@Override
+		public String getColumnName(int column) {
+			return columns[column];
+		}
+
+		@Override
+		public Class<?> getColumnClass(int column) {
+			return columnClasses[column];
+		}
+
+		@Override
+		public Object getValueAt(int row, int column) {
+			EdtLatencyMonitor.Stats stat = stats.get(row);
+			switch (column) {
+				case 0:
+					return stat.getKey();
+				case 1:
+					return stat.getCount();
+				case 2:
+					return stat.getTotalMillis();
+				case 3:
+					return Math.round(stat.getMeanMillis() * 10) / 10.0;
+				case 4:
+					return stat.getPercentileMillis(0.95);
+				case 5:
+					return stat.getMaxMillis();
+				case 6:
+					StringBuilder buckets = new StringBuilder();
+					for (long bucket : stat.getBuckets()) {
+						if (buckets.length() > 0) {
+							buckets.append(' ');
+						}
+						buckets.append(bucket);
+					}
+					return buckets.toString();
+				default:
+					return null;
+			}
+		}
+	}
+
+}
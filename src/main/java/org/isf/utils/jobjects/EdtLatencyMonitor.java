@@ -0,0 +1,363 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.utils.jobjects;
+
+import java.awt.AWTEvent;
+import java.awt.Component;
+import java.awt.KeyboardFocusManager;
+import java.awt.Window;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.swing.SwingUtilities;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures how long the Event Dispatch Thread spends on each event dispatched by {@link WaitCursorEventQueue},
+ * grouped by the window the event comes from (i.e. {@code BillBrowser}).
+ * <p>
+ * Dispatch times go into a histogram with power of two millisecond buckets. When an event takes longer than the
+ * threshold the stack of the EDT is logged while it is still busy, so the log shows where the time goes.
+ * The statistics are logged periodically and shown by {@link EdtLatencyDialog} (<i>Ctrl+Shift+F12</i>).
+ * <p>
+ * System properties: {@code oh.edt.monitor} (default true), {@code oh.edt.threshold} in milliseconds (default 500)
+ * and {@code oh.edt.dumpInterval} in minutes (default 15, 0 disables the dump).
+ */
+public final class EdtLatencyMonitor {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(EdtLatencyMonitor.class);
+
+	/** Buckets: under 1 ms, under 2 ms, under 4 ms, ... under 1024 ms, 1024 ms or more. */
+	public static final int BUCKETS = 12;
+
+	private static final int MAX_DEPTH = 32;
+
+	private static final EdtLatencyMonitor INSTANCE = new EdtLatencyMonitor(
+			Boolean.parseBoolean(System.getProperty("oh.edt.monitor", "true")),
+			Long.getLong("oh.edt.threshold", 500L),
+			Long.getLong("oh.edt.dumpInterval", 15L));
+
+	private static final ClassValue<String> SIMPLE_NAMES = new ClassValue<String>() {
+
+		@Override
+		protected String computeValue(Class<?> type) {
+			String name = type.getName();
+			return name.substring(name.lastIndexOf('.') + 1);
+		}
+	};
+
+	private final boolean enabled;
+	private final long thresholdMillis;
+	private final long dumpIntervalMinutes;
+	private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+	/*
+	 * Dispatches in progress, touched only by the EDT: a dispatch that runs a secondary loop
+	 * (i.e. a modal dialog) is not recorded, the events of the loop are.
+	 */
+	private int depth;
+	private final long[] startTimes = new long[MAX_DEPTH];
+	private final boolean[] nested = new boolean[MAX_DEPTH];
+
+	/*
+	 * Innermost dispatch watched by the sampler, 0 when the EDT is idle
+	 */
+	private volatile long watchedStart;
+	private volatile Thread dispatchThread;
+	private long sampledStart;
+
+	private ScheduledExecutorService scheduler;
+
+	EdtLatencyMonitor(boolean enabled, long thresholdMillis, long dumpIntervalMinutes) {
+		this.enabled = enabled;
+		this.thresholdMillis = Math.max(1L, thresholdMillis);
+		this.dumpIntervalMinutes = dumpIntervalMinutes;
+	}
+
+	public static EdtLatencyMonitor getInstance() {
+		return INSTANCE;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public long getThresholdMillis() {
+		return thresholdMillis;
+	}
+
+	/**
+	 * Starts the stack sampler and the periodic dump and binds <i>Ctrl+Shift+F12</i> to the diagnostics window.
+	 */
+	public synchronized void install() {
+		if (!enabled || scheduler != null) {
+			return;
+		}
+		scheduler = Executors.newSingleThreadScheduledExecutor(new BackgroundTasks.DaemonThreadFactory("oh-edt-monitor-"));
+		long samplePeriod = Math.max(10L, thresholdMillis / 4);
+		scheduler.scheduleWithFixedDelay(this::sample, samplePeriod, samplePeriod, TimeUnit.MILLISECONDS);
+		if (dumpIntervalMinutes > 0) {
+			scheduler.scheduleWithFixedDelay(this::dump, dumpIntervalMinutes, dumpIntervalMinutes, TimeUnit.MINUTES);
+		}
+		KeyboardFocusManager.getCurrentKeyboardFocusManager().addKeyEventDispatcher(event -> {
+			if (event.getID() == KeyEvent.KEY_PRESSED && event.getKeyCode() == KeyEvent.VK_F12
+					&& (event.getModifiersEx() & (InputEvent.CTRL_DOWN_MASK | InputEvent.SHIFT_DOWN_MASK))
+					== (InputEvent.CTRL_DOWN_MASK | InputEvent.SHIFT_DOWN_MASK)) {
+				EdtLatencyDialog.showDialog(this);
+				return true;
+			}
+			return false;
+		});
+		LOGGER.info("EDT latency monitor installed, threshold {} ms", thresholdMillis);
+	}
+
+	public synchronized void uninstall() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+			scheduler = null;
+		}
+	}
+
+	/**
+	 * Called by the EDT before dispatching an event.
+	 */
+	void dispatchStarted() {
+		if (!enabled) {
+			return;
+		}
+		if (depth > 0 && depth <= MAX_DEPTH) {
+			nested[depth - 1] = true;
+		}
+		long now = System.nanoTime();
+		if (depth < MAX_DEPTH) {
+			startTimes[depth] = now;
+			nested[depth] = false;
+		}
+		depth++;
+		dispatchThread = Thread.currentThread();
+		watchedStart = now;
+	}
+
+	/**
+	 * Called by the EDT after dispatching an event, even when the dispatch failed.
+	 */
+	void dispatchEnded(AWTEvent event) {
+		if (!enabled || depth == 0) {
+			return;
+		}
+		depth--;
+		watchedStart = 0;
+		if (depth >= MAX_DEPTH || nested[depth]) {
+			return;
+		}
+		long elapsed = System.nanoTime() - startTimes[depth];
+		String key = getKey(event.getSource());
+		record(key, elapsed);
+		if (elapsed >= TimeUnit.MILLISECONDS.toNanos(thresholdMillis)) {
+			LOGGER.warn("Slow event on the EDT: {} from {} took {} ms", SIMPLE_NAMES.get(event.getClass()), key,
+					TimeUnit.NANOSECONDS.toMillis(elapsed));
+		}
+	}
+
+	void record(String key, long nanos) {
+		histograms.computeIfAbsent(key, k -> new Histogram()).record(nanos);
+	}
+
+	/**
+	 * @return the statistics of each event source, the most time consuming first
+	 */
+	public List<Stats> getStats() {
+		List<Stats> stats = new ArrayList<>(histograms.size());
+		histograms.forEach((key, histogram) -> stats.add(histogram.snapshot(key)));
+		stats.sort(Comparator.comparingLong(Stats::getTotalNanos).reversed());
+		return stats;
+	}
+
+	public void reset() {
+		histograms.clear();
+	}
+
+	/*
+	 * Runs on the sampler thread: logs the stack of the EDT once per dispatch longer than the threshold
+	 */
+	private void sample() {
+		long start = watchedStart;
+		Thread thread = dispatchThread;
+		if (start == 0 || start == sampledStart || thread == null
+				|| System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(thresholdMillis)) {
+			return;
+		}
+		sampledStart = start;
+		StackTraceElement[] stack = thread.getStackTrace();
+		if (watchedStart != start) {
+			return;
+		}
+		StringBuilder trace = new StringBuilder();
+		for (StackTraceElement element : stack) {
+			trace.append(System.lineSeparator()).append("\tat ").append(element);
+		}
+		LOGGER.warn("EDT busy for more than {} ms:{}", thresholdMillis, trace);
+	}
+
+	private void dump() {
+		List<Stats> stats = getStats();
+		if (stats.isEmpty()) {
+			return;
+		}
+		StringBuilder table = new StringBuilder("EDT dispatch times (events, total ms, mean ms, p95 ms, max ms):");
+		for (Stats stat : stats) {
+			table.append(System.lineSeparator())
+					.append(String.format("\t%-40s %8d %10d %8.1f %8d %8d", stat.getKey(), stat.getCount(),
+							stat.getTotalMillis(), stat.getMeanMillis(), stat.getPercentileMillis(0.95), stat.getMaxMillis()));
+		}
+		LOGGER.info("{}", table);
+	}
+
+	/**
+	 * Groups the events by the class of their window, or of their source when it is not in a window.
+	 */
+	static String getKey(Object source) {
+		Object owner = source;
+		if (source instanceof Component && !(source instanceof Window)) {
+			Window window = SwingUtilities.getWindowAncestor((Component) source);
+			if (window != null) {
+				owner = window;
+			}
+		}
+		return owner == null ? "null" : SIMPLE_NAMES.get(owner.getClass());
+	}
+
+	static int getBucket(long nanos) {
+		long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+		if (millis <= 0) {
+			return 0;
+		}
+		return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(millis));
+	}
+
+	/*
+	 * Written only by the EDT, read by the dump and the diagnostics window
+	 */
+	static final class Histogram {
+
+		private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+		private final AtomicLong count = new AtomicLong();
+		private final AtomicLong totalNanos = new AtomicLong();
+		private final AtomicLong maxNanos = new AtomicLong();
+
+		void record(long nanos) {
+			buckets.incrementAndGet(getBucket(nanos));
+			count.incrementAndGet();
+			totalNanos.addAndGet(nanos);
+			maxNanos.accumulateAndGet(nanos, Math::max);
+		}
+
+		Stats snapshot(String key) {
+			long[] counts = new long[BUCKETS];
+			for (int i = 0; i < BUCKETS; i++) {
+				counts[i] = buckets.get(i);
+			}
+			return new Stats(key, count.get(), totalNanos.get(), maxNanos.get(), counts);
+		}
+	}
+
+	/**
+	 * Dispatch times of the events of one source.
+	 */
+	public static final class Stats {
+
+		private final String key;
+		private final long count;
+		private final long totalNanos;
+		private final long maxNanos;
+		private final long[] buckets;
+
+		Stats(String key, long count, long totalNanos, long maxNanos, long[] buckets) {
+			this.key = key;
+			this.count = count;
+			this.totalNanos = totalNanos;
+			this.maxNanos = maxNanos;
+			this.buckets = buckets;
+		}
+
+		public String getKey() {
+			return key;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		public long getTotalNanos() {
+			return totalNanos;
+		}
+
+		public long getTotalMillis() {
+			return TimeUnit.NANOSECONDS.toMillis(totalNanos);
+		}
+
+		public double getMeanMillis() {
+			return count == 0 ? 0 : totalNanos / (count * 1_000_000.0);
+		}
+
+		public long getMaxMillis() {
+			return TimeUnit.NANOSECONDS.toMillis(maxNanos);
+		}
+
+		public long[] getBuckets() {
+			return buckets.clone();
+		}
+
+		/**
+		 * @param fraction i.e. 0.95 for the 95th percentile
+		 * @return the upper bound, in milliseconds, of the bucket holding the percentile
+		 */
+		public long getPercentileMillis(double fraction) {
+			long total = 0;
+			for (long bucket : buckets) {
+				total += bucket;
+			}
+			long rank = (long) Math.ceil(fraction * total);
+			long seen = 0;
+			for (int i = 0; i < BUCKETS - 1; i++) {
+				seen += buckets[i];
+				if (seen >= rank && seen > 0) {
+					return Math.min(1L << i, getMaxMillis());
+				}
+			}
+			return getMaxMillis();
+		}
+	}
+
+}
@@ -61,7 +61,12 @@ import java.awt.event.MouseListener;
 import java.text.DateFormatSymbols;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
 
 import javax.swing.BorderFactory;
 import javax.swing.DefaultListCellRenderer;
@@ -153,6 +158,8 @@ public class JAgenda extends JPanel implements ActionListener, KeyListener, Focu
 
 	protected Dimension initCellSize = new Dimension(50, 50);
 
+	private final Set<AgendaDayObject> filledDays = new LinkedHashSet<>();
+
 	/**
 	 * Default JDayChooser constructor.
 	 */
@@ -1248,25 +1255,69 @@ public class JAgenda extends JPanel implements ActionListener, KeyListener, Focu
 	}
 
 	public void addElement(Object obj, int day) {
+		AgendaDayObject dayObject = days[getFirstDayIndex() + day];
+		DefaultListModel model = (DefaultListModel) dayObject.getList().getModel();
+		model.addElement(obj);
+		filledDays.add(dayObject);
+	}
 
-		Calendar tmpCalendar = (Calendar) calendar.clone();
-		tmpCalendar.set(Calendar.HOUR_OF_DAY, 0);
-		tmpCalendar.set(Calendar.MINUTE, 0);
-		tmpCalendar.set(Calendar.SECOND, 0);
-		tmpCalendar.set(Calendar.MILLISECOND, 0);
+	/**
+	 * Shows the elements of the current month in place of the ones shown.
+	 *
+	 * @param elements - the elements by day of the month, see {@link AgendaIndex#getMonth}
+	 */
+	public void showMonth(Map<Integer, List<Object>> elements) {
+		removeAll();
+		int firstDayIndex = getFirstDayIndex();
+		for (Map.Entry<Integer, List<Object>> entry : elements.entrySet()) {
+			AgendaDayObject dayObject = days[firstDayIndex + entry.getKey()];
+			DefaultListModel model = new DefaultListModel();
+			for (Object element : entry.getValue()) {
+				model.addElement(element);
+			}
+			// one event for the whole day
+			dayObject.getList().setModel(model);
+			filledDays.add(dayObject);
+		}
+	}
 
-		int firstDayOfWeek = tmpCalendar.getFirstDayOfWeek();
+	/**
+	 * Selects the elements shown that match, and clears the selection of the other days but the one of
+	 * the list given (i.e. the list clicked).
+	 */
+	public void selectElements(JList keep, Predicate<Object> matches) {
+		for (AgendaDayObject dayObject : filledDays) {
+			JList list = dayObject.getList();
+			if (list != keep) {
+				list.clearSelection();
+			}
+			ListModel model = list.getModel();
+			for (int i = 0; i < model.getSize(); i++) {
+				if (matches.test(model.getElementAt(i))) {
+					list.setSelectedIndex(i);
+				}
+			}
+		}
+	}
 
+	public void clearSelection() {
+		for (AgendaDayObject dayObject : filledDays) {
+			dayObject.getList().clearSelection();
+		}
+	}
+
+	/*
+	 * The index in days of the day before the first of the month
+	 */
+	private int getFirstDayIndex() {
+		Calendar tmpCalendar = (Calendar) calendar.clone();
+		int firstDayOfWeek = tmpCalendar.getFirstDayOfWeek();
 		tmpCalendar.set(Calendar.DAY_OF_MONTH, 1);
 		int firstDay = tmpCalendar.get(Calendar.DAY_OF_WEEK) - firstDayOfWeek;
 		if (firstDay < 0) {
 			firstDay += 7;
 		}
-
-		int realIndex = 6 + firstDay + day;
-
-		DefaultListModel model = (DefaultListModel) days[realIndex].getList().getModel();
-		model.addElement(obj);
+		return 6 + firstDay;
 	}
 
 	public void removeElement(int index, int day) {
@@ -1289,14 +1340,12 @@ public class JAgenda extends JPanel implements ActionListener, KeyListener, Focu
 
 	@Override
 	public void removeAll() {
-
-		DefaultListModel model = new DefaultListModel();
-		for (AgendaDayObject day : days) {
-			if (day.getList() != null) {
-				model = (DefaultListModel) day.getList().getModel();
-				model.removeAllElements();
-			}
+		// only the days with elements need to be emptied
+		for (AgendaDayObject day : filledDays) {
+			DefaultListModel model = (DefaultListModel) day.getList().getModel();
+			model.removeAllElements();
 		}
+		filledDays.clear();
 	}
 
 }
@@ -0,0 +1,123 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.utils.jobjects;
+
+import java.util.Arrays;
+
+import javax.swing.RowFilter;
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+import javax.swing.table.TableModel;
+
+/**
+ * Row filter for the {@link javax.swing.table.TableRowSorter} of a browser: a row is shown when it contains,
+ * in any column, every word of the search text.
+ * <p>
+ * Words are matched literally (no regular expression syntax), ignoring case and accents. The text of each row
+ * is normalized once and cached; the cache is dropped only when the table model notifies a change.
+ *
+ * @param <M> the type of the table model
+ */
+public class LiteralRowFilter<M extends TableModel> extends RowFilter<M, Integer> implements TableModelListener {
+
+	/* separates the columns of a cached row, never part of a normalized word */
+	private static final char SEPARATOR = '\0';
+	private static final String[] NO_WORDS = new String[0];
+	private static final String[] NO_ROWS = new String[0];
+
+	private String[] words = NO_WORDS;
+	private TableModel model;
+	private String[] rows = NO_ROWS;
+
+	/**
+	 * Sets the search text.
+	 *
+	 * @param text - the words to look for, separated by spaces
+	 * @return {@code true} if the filter changed and the sorter must be sorted again
+	 */
+	public boolean setText(String text) {
+		String normalized = SearchIndex.normalize(text).trim();
+		String[] newWords = normalized.isEmpty() ? NO_WORDS : normalized.split(" +");
+		if (Arrays.equals(words, newWords)) {
+			return false;
+		}
+		words = newWords;
+		return true;
+	}
+
+	public boolean isEmpty() {
+		return words.length == 0;
+	}
+
+	@Override
+	public boolean include(Entry<? extends M, ? extends Integer> entry) {
+		if (words.length == 0) {
+			return true;
+		}
+		String row = getRow(entry);
+		for (String word : words) {
+			if (row.indexOf(word) < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public void tableChanged(TableModelEvent e) {
+		int first = e.getFirstRow();
+		int last = e.getLastRow();
+		if (e.getType() == TableModelEvent.UPDATE && first >= 0 && last < rows.length) {
+			Arrays.fill(rows, first, last + 1, null);
+		} else {
+			rows = NO_ROWS;
+		}
+	}
+
+	private String getRow(Entry<? extends M, ? extends Integer> entry) {
+		M entryModel = entry.getModel();
+		if (entryModel != model) {
+			if (model != null) {
+				model.removeTableModelListener(this);
+			}
+			model = entryModel;
+			model.addTableModelListener(this);
+			rows = NO_ROWS;
+		}
+		int rowCount = entryModel.getRowCount();
+		if (rows.length != rowCount) {
+			// rows inserted or deleted without a notification reaching this filter yet
+			rows = new String[rowCount];
+		}
+		int index = entry.getIdentifier();
+		String row = rows[index];
+		if (row == null) {
+			StringBuilder text = new StringBuilder();
+			for (int column = 0; column < entry.getValueCount(); column++) {
+				text.append(SearchIndex.normalize(entry.getStringValue(column))).append(SEPARATOR);
+			}
+			row = text.toString();
+			rows[index] = row;
+		}
+		return row;
+	}
+}
@@ -0,0 +1,378 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.utils.jobjects;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory trigram index over the search text of a collection of objects.
+ * <p>
+ * The text of each object is normalized once (accents removed, lower case) and split into trigrams,
+ * so a query only has to verify the objects found in the shortest posting list of its tokens instead
+ * of scanning the whole collection. A query that extends the previous one (the user is typing) is
+ * answered by narrowing the previous {@link Result}.
+ * <p>
+ * The insertion order of the objects is preserved in the results.
+ *
+ * @param <K> the type of the unique key of the indexed objects
+ * @param <V> the type of the indexed objects
+ */
+public class SearchIndex<K, V> {
+
+	private static final Pattern DIACRITICS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+	private static final int GRAM = 3;
+
+	private final Function<V, K> keyFunction;
+	private final Function<V, String> textFunction;
+	private final Map<K, Entry<V>> entries = new HashMap<>();
+	private final Map<String, List<Entry<V>>> postings = new HashMap<>();
+	private List<Entry<V>> ordered;
+	private long firstOrder;
+	private long lastOrder;
+	private long version;
+
+	/**
+	 * @param keyFunction - extracts the unique key of an object (i.e. the patient code)
+	 * @param textFunction - extracts the searchable text of an object (i.e. the patient search string)
+	 */
+	public SearchIndex(Function<V, K> keyFunction, Function<V, String> textFunction) {
+		this.keyFunction = keyFunction;
+		this.textFunction = textFunction;
+	}
+
+	/**
+	 * Replaces the whole content of the index.
+	 *
+	 * @param values - the objects to index, in display order
+	 */
+	public synchronized void reset(Collection<? extends V> values) {
+		entries.clear();
+		postings.clear();
+		firstOrder = 0;
+		lastOrder = 0;
+		if (values != null) {
+			for (V value : values) {
+				put(value, ++lastOrder);
+			}
+		}
+		changed();
+	}
+
+	/**
+	 * Adds an object after all the others, or replaces it in place if already indexed.
+	 */
+	public synchronized void add(V value) {
+		Entry<V> old = entries.get(keyFunction.apply(value));
+		put(value, old != null ? old.order : ++lastOrder);
+		changed();
+	}
+
+	/**
+	 * Adds an object before all the others, or replaces it in place if already indexed.
+	 */
+	public synchronized void addFirst(V value) {
+		Entry<V> old = entries.get(keyFunction.apply(value));
+		put(value, old != null ? old.order : --firstOrder);
+		changed();
+	}
+
+	/**
+	 * Replaces an indexed object keeping its position; same as {@link #add(Object)} if not indexed yet.
+	 */
+	public void update(V value) {
+		add(value);
+	}
+
+	/**
+	 * Removes the object with the given key, if indexed.
+	 *
+	 * @return the removed object or {@code null}
+	 */
+	public synchronized V remove(K key) {
+		Entry<V> entry = entries.remove(key);
+		if (entry == null) {
+			return null;
+		}
+		unlink(entry);
+		changed();
+		return entry.value;
+	}
+
+	public synchronized V get(K key) {
+		Entry<V> entry = entries.get(key);
+		return entry == null ? null : entry.value;
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return all the indexed objects, in order
+	 */
+	public synchronized List<V> getAll() {
+		return values(getOrdered());
+	}
+
+	public List<V> search(String query) {
+		return search(query, null).getValues();
+	}
+
+	/**
+	 * Searches the objects whose text contains every (space separated) token of the query.
+	 *
+	 * @param query - the text typed by the user, {@code null} or blank returns everything
+	 * @param previous - the result of the last search by the same caller, may be {@code null}; if the index did
+	 * not change since and the new query extends the previous one, only the previous matches are verified
+	 * @return the matching objects in order
+	 */
+	public synchronized Result<V> search(String query, Result<V> previous) {
+		String normalized = query == null ? "" : normalize(query).trim();
+		String[] tokens = normalized.isEmpty() ? new String[0] : normalized.split(" +");
+
+		if (tokens.length == 0) {
+			return new Result<>(normalized, version, getOrdered());
+		}
+		List<Entry<V>> candidates = getCandidates(tokens);
+		boolean narrowing = previous != null && previous.version == version && !previous.query.isEmpty()
+				&& normalized.startsWith(previous.query);
+		List<Entry<V>> matches;
+		if (narrowing && (candidates == null || previous.entries.size() <= candidates.size())) {
+			matches = filter(previous.entries, tokens);
+		} else if (candidates == null) {
+			matches = filter(getOrdered(), tokens);
+		} else {
+			matches = filter(candidates, tokens);
+			matches.sort(Entry.ORDER);
+		}
+		return new Result<>(normalized, version, matches);
+	}
+
+	/**
+	 * Searches the objects whose text contains at least one (space separated) token of the query.
+	 *
+	 * @param query - the text typed by the user, {@code null} or blank returns everything
+	 * @return the matching objects in order
+	 */
+	public synchronized List<V> searchAny(String query) {
+		String normalized = query == null ? "" : normalize(query).trim();
+		String[] tokens = normalized.isEmpty() ? new String[0] : normalized.split(" +");
+
+		if (tokens.length == 0) {
+			return values(getOrdered());
+		}
+		Set<Entry<V>> candidates = new HashSet<>();
+		for (String token : tokens) {
+			List<Entry<V>> posting = getCandidates(new String[] { token });
+			if (posting == null) {
+				// a short token can match anything
+				return values(filterAny(getOrdered(), tokens));
+			}
+			candidates.addAll(posting);
+		}
+		List<Entry<V>> matches = filterAny(candidates, tokens);
+		matches.sort(Entry.ORDER);
+		return values(matches);
+	}
+
+	/**
+	 * Same normalization applied to indexed texts and queries: accents are removed and text is lower cased.
+	 */
+	public static String normalize(String text) {
+		if (text == null) {
+			return "";
+		}
+		return DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase();
+	}
+
+	/*
+	 * the shortest posting list among all the trigrams of the tokens,
+	 * null if no token is long enough to be looked up
+	 */
+	private List<Entry<V>> getCandidates(String[] tokens) {
+		List<Entry<V>> shortest = null;
+		for (String token : tokens) {
+			for (int i = 0; i + GRAM <= token.length(); i++) {
+				List<Entry<V>> posting = postings.get(token.substring(i, i + GRAM));
+				if (posting == null) {
+					return Collections.emptyList();
+				}
+				if (shortest == null || posting.size() < shortest.size()) {
+					shortest = posting;
+				}
+			}
+		}
+		return shortest;
+	}
+
+	private static <V> List<Entry<V>> filter(List<Entry<V>> source, String[] tokens) {
+		List<Entry<V>> matches = new ArrayList<>();
+		for (Entry<V> entry : source) {
+			if (entry.matches(tokens)) {
+				matches.add(entry);
+			}
+		}
+		return matches;
+	}
+
+	private static <V> List<Entry<V>> filterAny(Collection<Entry<V>> source, String[] tokens) {
+		List<Entry<V>> matches = new ArrayList<>();
+		for (Entry<V> entry : source) {
+			if (entry.matchesAny(tokens)) {
+				matches.add(entry);
+			}
+		}
+		return matches;
+	}
+
+	private void put(V value, long order) {
+		Entry<V> entry = new Entry<>(value, normalize(textFunction.apply(value)), order);
+		Entry<V> old = entries.put(keyFunction.apply(value), entry);
+		if (old != null) {
+			unlink(old);
+		}
+		for (String gram : grams(entry.text)) {
+			postings.computeIfAbsent(gram, g -> new ArrayList<>()).add(entry);
+		}
+	}
+
+	private void unlink(Entry<V> entry) {
+		for (String gram : grams(entry.text)) {
+			List<Entry<V>> posting = postings.get(gram);
+			if (posting == null) {
+				continue;
+			}
+			int index = posting.indexOf(entry);
+			if (index >= 0) {
+				// order inside a posting list does not matter
+				int last = posting.size() - 1;
+				posting.set(index, posting.get(last));
+				posting.remove(last);
+			}
+			if (posting.isEmpty()) {
+				postings.remove(gram);
+			}
+		}
+	}
+
+	private static Set<String> grams(String text) {
+		Set<String> grams = new HashSet<>();
+		for (int i = 0; i + GRAM <= text.length(); i++) {
+			grams.add(text.substring(i, i + GRAM));
+		}
+		return grams;
+	}
+
+	private List<Entry<V>> getOrdered() {
+		if (ordered == null) {
+			List<Entry<V>> list = new ArrayList<>(entries.values());
+			list.sort(Entry.ORDER);
+			ordered = Collections.unmodifiableList(list);
+		}
+		return ordered;
+	}
+
+	private void changed() {
+		ordered = null;
+		version++;
+	}
+
+	private static <V> List<V> values(List<Entry<V>> entries) {
+		List<V> values = new ArrayList<>(entries.size());
+		for (Entry<V> entry : entries) {
+			values.add(entry.value);
+		}
+		return values;
+	}
+
+	private static final class Entry<V> {
+
+		static final Comparator<Entry<?>> ORDER = Comparator.comparingLong(entry -> entry.order);
+
+		final V value;
+		final String text;
+		final long order;
+
+		Entry(V value, String text, long order) {
+			this.value = value;
+			this.text = text;
+			this.order = order;
+		}
+
+		boolean matches(String[] tokens) {
+			for (String token : tokens) {
+				if (!text.contains(token)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		boolean matchesAny(String[] tokens) {
+			for (String token : tokens) {
+				if (text.contains(token)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * The outcome of a search, to be passed back to {@link SearchIndex#search(String, Result)} on the next keystroke.
+	 */
+	public static final class Result<V> {
+
+		private final String query;
+		private final long version;
+		private final List<Entry<V>> entries;
+		private List<V> values;
+
+		private Result(String query, long version, List<Entry<V>> entries) {
+			this.query = query;
+			this.version = version;
+			this.entries = entries;
+		}
+
+		public int size() {
+			return entries.size();
+		}
+
+		public List<V> getValues() {
+			if (values == null) {
+				values = SearchIndex.values(entries);
+			}
+			return values;
+		}
+	}
+}
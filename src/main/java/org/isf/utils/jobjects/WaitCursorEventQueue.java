@@ -29,6 +29,7 @@ public class WaitCursorEventQueue extends EventQueue implements DelayTimerCallba
 	private final CursorManager cursorManager;
 	private final DelayTimer waitTimer;
 	private final EventQueue parentQueue;
+	private final EdtLatencyMonitor latencyMonitor = EdtLatencyMonitor.getInstance();
 
 	public WaitCursorEventQueue(int delay, EventQueue systemQueue) {
 		this.waitTimer = new DelayTimer(this, delay);
@@ -47,6 +48,7 @@ public class WaitCursorEventQueue extends EventQueue implements DelayTimerCallba
 
 	@Override
 	protected void dispatchEvent(AWTEvent event) {
+		latencyMonitor.dispatchStarted();
 		cursorManager.push(event.getSource());
 		waitTimer.startTimer();
 		try {
@@ -54,6 +56,7 @@ public class WaitCursorEventQueue extends EventQueue implements DelayTimerCallba
 		} finally {
 			waitTimer.stopTimer();
 			cursorManager.pop();
+			latencyMonitor.dispatchEnded(event);
 		}
 	}
 
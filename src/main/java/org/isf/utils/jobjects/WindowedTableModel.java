@@ -0,0 +1,379 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.utils.jobjects;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import javax.swing.JTable;
+import javax.swing.JViewport;
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+
+import org.isf.utils.exception.OHServiceException;
+
+/**
+ * Table model for the browsers whose rows are queried by windows (i.e. some days each), the first window on top.
+ * <p>
+ * Each window is loaded in background when its rows are painted; until then it counts as many rows as the first
+ * window. The windows loaded are kept up to {@code maxRows} rows, the least recently used evicted first, but a window
+ * overlapping the visible rows (see {@link #follow(JTable, JViewport)}) is never evicted: so the rows on screen are
+ * loaded once, however sparse they are. The windows missing in a paint are requested once, after the paint.
+ *
+ * @param <T> the type of the rows
+ */
+public abstract class WindowedTableModel<T> extends AbstractTableModel {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final int DEFAULT_MAX_ROWS = 2000;
+
+	private final int maxRows;
+	private final transient Executor background;
+	private final transient Executor eventQueue;
+
+	private int[] sizes = new int[0];
+	private int[] firstRows = new int[0];
+	private boolean[] counted = new boolean[0];
+	private int rowCount;
+	private int cachedRows;
+	private int generation;
+	private int firstVisibleRow = -1;
+	private int lastVisibleRow = -1;
+	private final Set<Integer> loading = new HashSet<>();
+	private final Set<Integer> requested = new HashSet<>();
+	private final Map<Integer, Page<T>> pages = new LinkedHashMap<>(16, 0.75f, true);
+
+	protected WindowedTableModel() {
+		this(DEFAULT_MAX_ROWS, BackgroundTasks.getExecutor(), SwingUtilities::invokeLater);
+	}
+
+	/**
+	 * @param maxRows - the rows kept in memory, besides the visible ones
+	 * @param background - runs the queries
+	 * @param eventQueue - runs on the Event Dispatch Thread
+	 */
+	WindowedTableModel(int maxRows, Executor background, Executor eventQueue) {
+		this.maxRows = maxRows;
+		this.background = background;
+		this.eventQueue = eventQueue;
+	}
+
+	/**
+	 * Queries the rows of a window, in the order they are shown. Runs in background.
+	 */
+	protected abstract List<T> query(int window) throws OHServiceException;
+
+	/**
+	 * Renders the cells of a row, once when its window is loaded. Runs in background.
+	 */
+	protected abstract Object[] getCells(T row);
+
+	/**
+	 * Called on the Event Dispatch Thread after a window is loaded and the row count is updated.
+	 */
+	protected void windowLoaded(int window) {
+	}
+
+	/**
+	 * Drops all the rows and starts loading the first of the new windows.
+	 */
+	public void reset(int windows) {
+		generation++;
+		pages.clear();
+		loading.clear();
+		requested.clear();
+		cachedRows = 0;
+		sizes = new int[windows];
+		firstRows = new int[windows];
+		counted = new boolean[windows];
+		rowCount = 0;
+		fireTableDataChanged();
+		if (windows > 0) {
+			load(0);
+		}
+	}
+
+	/**
+	 * @return {@code false} while some windows are counted with the estimated number of rows
+	 */
+	public boolean isCountExact() {
+		for (boolean windowCounted : counted) {
+			if (!windowCounted) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public void removeRow(int row) {
+		int window = getWindow(row);
+		Page<T> page = pages.get(window);
+		if (page != null) {
+			page.remove(row - firstRows[window]);
+			cachedRows--;
+		}
+		sizes[window]--;
+		updateFirstRows();
+		fireTableRowsDeleted(row, row);
+	}
+
+	public void setRow(int row, T value) {
+		int window = getWindow(row);
+		Page<T> page = pages.get(window);
+		if (page != null) {
+			page.set(row - firstRows[window], value, getCells(value));
+		}
+		fireTableRowsUpdated(row, row);
+	}
+
+	/**
+	 * Adds a row on top of the first window.
+	 */
+	public void insertFirst(T value) {
+		if (sizes.length == 0) {
+			return;
+		}
+		Page<T> page = pages.get(0);
+		if (page != null) {
+			page.add(0, value, getCells(value));
+			cachedRows++;
+		}
+		sizes[0]++;
+		updateFirstRows();
+		fireTableRowsInserted(0, 0);
+	}
+
+	/**
+	 * Keeps the visible rows up to date with the viewport showing the table, which must not be sorted.
+	 */
+	public void follow(JTable table, JViewport viewport) {
+		viewport.addChangeListener(changeEvent -> {
+			Rectangle view = viewport.getViewRect();
+			int first = table.rowAtPoint(view.getLocation());
+			int last = table.rowAtPoint(new Point(view.x, view.y + view.height - 1));
+			setVisibleRows(first, first == -1 || last != -1 ? last : getRowCount() - 1);
+		});
+	}
+
+	/**
+	 * @param first - the first visible row, -1 if none
+	 * @param last - the last visible row
+	 */
+	public void setVisibleRows(int first, int last) {
+		firstVisibleRow = first;
+		lastVisibleRow = last;
+	}
+
+	private void load(int window) {
+		if (!loading.add(window)) {
+			return;
+		}
+		int loadGeneration = generation;
+		background.execute(() -> {
+			Page<T> page = new Page<>();
+			OHServiceException error = null;
+			try {
+				for (T value : query(window)) {
+					page.add(page.size(), value, getCells(value));
+				}
+			} catch (OHServiceException ohServiceException) {
+				error = ohServiceException;
+			}
+			OHServiceException failure = error;
+			eventQueue.execute(() -> {
+				if (loadGeneration == generation) {
+					pageLoaded(window, page, failure);
+				}
+			});
+		});
+	}
+
+	/*
+	 * The windows missing in a paint are loaded once the paint is over
+	 */
+	private void request(int window) {
+		if (requested.isEmpty()) {
+			int requestGeneration = generation;
+			eventQueue.execute(() -> {
+				if (requestGeneration == generation) {
+					for (int missing : requested) {
+						load(missing);
+					}
+					requested.clear();
+				}
+			});
+		}
+		requested.add(window);
+	}
+
+	/*
+	 * A failed window counts as empty, so it is not requested again at each paint
+	 */
+	private void pageLoaded(int window, Page<T> page, OHServiceException failure) {
+		loading.remove(window);
+		if (failure != null) {
+			MessageDialog.showExceptions(failure);
+		}
+		int first = firstRows[window];
+		int before = sizes[window];
+		int after = page.size();
+		boolean estimating = window == 0 && !counted[0];
+		if (after > 0) {
+			pages.put(window, page);
+			cachedRows += after;
+		}
+		if (estimating) {
+			for (int i = 1; i < sizes.length; i++) {
+				if (!counted[i]) {
+					sizes[i] = Math.max(1, after);
+				}
+			}
+		}
+		sizes[window] = after;
+		counted[window] = true;
+		updateFirstRows();
+		if (estimating) {
+			fireTableDataChanged();
+		} else {
+			if (after > before) {
+				fireTableRowsInserted(first + before, first + after - 1);
+			} else if (after < before) {
+				fireTableRowsDeleted(first + after, first + before - 1);
+			}
+			if (Math.min(before, after) > 0) {
+				fireTableRowsUpdated(first, first + Math.min(before, after) - 1);
+			}
+		}
+		evict();
+		windowLoaded(window);
+	}
+
+	private void evict() {
+		Iterator<Map.Entry<Integer, Page<T>>> eldest = pages.entrySet().iterator();
+		while (cachedRows > maxRows && eldest.hasNext()) {
+			Map.Entry<Integer, Page<T>> entry = eldest.next();
+			if (!isVisible(entry.getKey())) {
+				cachedRows -= entry.getValue().size();
+				eldest.remove();
+			}
+		}
+	}
+
+	private boolean isVisible(int window) {
+		return firstVisibleRow != -1 && firstRows[window] <= lastVisibleRow && firstRows[window] + sizes[window] > firstVisibleRow;
+	}
+
+	private void updateFirstRows() {
+		int row = 0;
+		for (int i = 0; i < sizes.length; i++) {
+			firstRows[i] = row;
+			row += sizes[i];
+		}
+		rowCount = row;
+	}
+
+	/*
+	 * The last window starting at or before the row: empty windows start where the next one does
+	 */
+	private int getWindow(int row) {
+		int low = 0;
+		int high = firstRows.length - 1;
+		while (low < high) {
+			int middle = (low + high + 1) >>> 1;
+			if (firstRows[middle] <= row) {
+				low = middle;
+			} else {
+				high = middle - 1;
+			}
+		}
+		return low;
+	}
+
+	@Override
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * @return the cell, or the row itself for column -1; {@code null} while the window is loading
+	 */
+	@Override
+	public Object getValueAt(int r, int c) {
+		if (r < 0 || r >= rowCount) {
+			return null;
+		}
+		int window = getWindow(r);
+		Page<T> page = pages.get(window);
+		if (page == null) {
+			if (!loading.contains(window)) {
+				request(window);
+			}
+			return null;
+		}
+		int offset = r - firstRows[window];
+		if (offset >= page.size()) {
+			return null;
+		}
+		if (c == -1) {
+			return page.values.get(offset);
+		}
+		return page.cells.get(offset)[c];
+	}
+
+	/*
+	 * The rows of a window with their cells
+	 */
+	private static final class Page<T> {
+
+		private final List<T> values = new ArrayList<>();
+		private final List<Object[]> cells = new ArrayList<>();
+
+		int size() {
+			return values.size();
+		}
+
+		void add(int index, T value, Object[] valueCells) {
+			values.add(index, value);
+			cells.add(index, valueCells);
+		}
+
+		void set(int index, T value, Object[] valueCells) {
+			values.set(index, value);
+			cells.set(index, valueCells);
+		}
+
+		void remove(int index) {
+			values.remove(index);
+			cells.remove(index);
+		}
+	}
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.accounting.gui;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.isf.accounting.TestBill;
+import org.isf.accounting.model.Bill;
+import org.isf.patient.model.Patient;
+import org.junit.jupiter.api.Test;
+
+public class BillDataSetTest {
+
+	@Test
+	public void shouldBuildRowsInTheOrderOfTheBills() {
+		// given:
+		Bill pending = TestBill.notDeletedBillWithStatus(1, "O");
+		Bill closed = TestBill.notDeletedBillWithStatus(2, "C");
+		Bill deleted = TestBill.deletedBillWithBalance(3, 10);
+		List<Bill> bills = Arrays.asList(pending, closed, deleted);
+
+		// when:
+		BillDataSet dataSet = new BillDataSet(bills, Collections.emptyList(), Collections.emptyList(), null);
+
+		// then:
+		for (String status : Arrays.asList("ALL", "O", "C")) {
+			List<Bill> viewBills = dataSet.getBills(status);
+			List<BillRow> viewRows = dataSet.getRows(status);
+			assertThat(viewRows).hasSameSizeAs(viewBills);
+			for (int i = 0; i < viewBills.size(); i++) {
+				assertThat(viewRows.get(i).getBill()).isSameAs(viewBills.get(i));
+			}
+		}
+		assertThat(dataSet.getRows("O").get(0).isClosed()).isFalse();
+		assertThat(dataSet.getRows("C").get(0).isClosed()).isTrue();
+	}
+
+	@Test
+	public void shouldShareTheRowOfABillInMoreViews() {
+		// given:
+		Bill closed = TestBill.notDeletedBillWithStatus(2, "C");
+
+		// when:
+		BillDataSet dataSet = new BillDataSet(Collections.singletonList(closed), Collections.emptyList(), Collections.emptyList(), null);
+
+		// then:
+		assertThat(dataSet.getRows("C").get(0)).isSameAs(dataSet.getRows("ALL").get(0));
+	}
+
+	@Test
+	public void shouldTakeThePendingBillsOfTheSelectedPatient() {
+		// given:
+		List<Bill> pendingAffiliate = Arrays.asList(
+				TestBill.notDeletedBillWithStatus(1, "O"),
+				TestBill.notDeletedBillWithStatus(2, "O"),
+				TestBill.notDeletedBillWithStatus(3, "O"));
+
+		// when:
+		BillDataSet dataSet = new BillDataSet(Collections.emptyList(), Collections.emptyList(), Collections.emptyList(), pendingAffiliate);
+
+		// then:
+		assertThat(dataSet.getBills("O")).hasSize(3);
+	}
+
+	@Test
+	public void shouldTakeThePendingBillsOfThePeriodOnly() {
+		// given:
+		List<Bill> billPeriod = Arrays.asList(
+				TestBill.notDeletedBillWithStatus(1, "C"),
+				TestBill.notDeletedBillWithStatus(2, "O"));
+		List<Bill> billFromPayments = Arrays.asList(
+				TestBill.notDeletedBillWithStatus(1, "C"),
+				TestBill.notDeletedBillWithStatus(3, "O"));
+
+		// when:
+		BillDataSet dataSet = new BillDataSet(billPeriod, Collections.emptyList(), billFromPayments, null);
+
+		// then:
+		assertThat(dataSet.getBills("O")).hasSize(1);
+	}
+
+	@Test
+	public void shouldMergeTheBillsFromPaymentsWithoutDuplicates() {
+		// given:
+		List<Bill> billPeriod = Arrays.asList(
+				TestBill.notDeletedBillWithStatus(1, "O"),
+				TestBill.notDeletedBillWithStatus(2, "C"));
+		List<Bill> billFromPayments = Arrays.asList(
+				TestBill.notDeletedBillWithStatus(1, "0"),
+				TestBill.notDeletedBillWithStatus(3, "C"));
+
+		// when:
+		BillDataSet dataSet = new BillDataSet(billPeriod, Collections.emptyList(), billFromPayments, null);
+
+		// then:
+		assertThat(dataSet.getBills("ALL")).hasSize(3);
+		assertThat(dataSet.getBills("C")).hasSize(1);
+	}
+
+	@Test
+	public void shouldFormatMissingValuesAsEmpty() {
+		// given:
+		Bill bill = TestBill.deletedBillWithBalance(3, 10);
+		Patient patient = new Patient();
+		patient.setCode(0);
+		bill.setBillPatient(patient);
+
+		// when:
+		BillRow row = new BillRow(bill);
+
+		// then:
+		assertThat(row.getDate()).isEmpty();
+		assertThat(row.getLastPayment()).isEmpty();
+		assertThat(row.getPatientId()).isEmpty();
+		assertThat(row.isDeleted()).isTrue();
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.accounting.gui.totals;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.isf.accounting.TestBill;
+import org.isf.accounting.TestPayment;
+import org.isf.accounting.model.Bill;
+import org.isf.accounting.model.BillPayments;
+import org.junit.jupiter.api.Test;
+
+public class BillTotalsTest {
+
+	private static final String TEST_USER = "testUser";
+	private static final String OTHER_USER = "otherUser";
+
+	@Test
+	public void shouldCalculatePeriodTotals() {
+		// given:
+		Bill bill1 = TestBill.notDeletedBillWithBalance(1, 100);
+		Bill bill2 = TestBill.notDeletedBillWithBalance(2, 50);
+		Bill deleted = TestBill.deletedBillWithBalance(3, 70);
+		List<Bill> bills = Arrays.asList(bill1, bill2, deleted);
+		List<BillPayments> payments = Arrays.asList(
+				TestPayment.withAmountBillAndUser(10, bill1, TEST_USER),
+				TestPayment.withAmountBillAndUser(15, bill2, OTHER_USER),
+				TestPayment.withAmountBillAndUser(20, deleted, TEST_USER)
+		);
+
+		// when:
+		BillTotals totals = BillTotals.calculate(bills, payments, bills, payments);
+
+		// then:
+		assertThat(totals.getBalancePeriod().longValue()).isEqualTo(150);
+		assertThat(totals.getTotalPeriod().longValue()).isEqualTo(25);
+		assertThat(totals.getUserPeriod(TEST_USER).longValue()).isEqualTo(10);
+		assertThat(totals.getUserPeriod(OTHER_USER).longValue()).isEqualTo(15);
+		assertThat(totals.getUserPeriod("nobody").longValue()).isZero();
+		assertThat(totals.getBalanceToday()).isEqualTo(totals.getBalancePeriod());
+		assertThat(totals.getTotalToday()).isEqualTo(totals.getTotalPeriod());
+	}
+
+	@Test
+	public void shouldCalculateTodayTotalsSeparately() {
+		// given:
+		Bill bill1 = TestBill.notDeletedBillWithBalance(1, 100);
+		Bill bill2 = TestBill.notDeletedBillWithBalance(2, 50);
+		List<Bill> bills = Arrays.asList(bill1, bill2);
+		List<BillPayments> payments = Arrays.asList(
+				TestPayment.withAmountBillAndUser(10, bill1, TEST_USER),
+				TestPayment.withAmountBillAndUser(15, bill2, TEST_USER)
+		);
+		Bill notInPeriod = TestBill.notDeletedBillWithBalance(4, 30);
+		List<BillPayments> paymentsToday = Arrays.asList(
+				TestPayment.withAmountBillAndUser(5, bill2, TEST_USER),
+				TestPayment.withAmountBillAndUser(7, notInPeriod, TEST_USER)
+		);
+
+		// when:
+		BillTotals totals = BillTotals.calculate(bills, payments, Collections.singletonList(notInPeriod), paymentsToday);
+
+		// then:
+		assertThat(totals.getBalanceToday().longValue()).isEqualTo(30);
+		assertThat(totals.getTotalToday().longValue()).isEqualTo(5);
+		assertThat(totals.getUserToday(TEST_USER).longValue()).isEqualTo(5);
+		assertThat(totals.getUserTotalsToday()).containsOnlyKeys(TEST_USER);
+		assertThat(totals.getTotalPeriod().longValue()).isEqualTo(25);
+	}
+
+	@Test
+	public void shouldMatchSingleTotals() {
+		// given:
+		Bill bill1 = TestBill.notDeletedBillWithBalance(1, 12.3);
+		Bill bill2 = TestBill.deletedBillWithBalance(2, 4.5);
+		List<Bill> bills = Arrays.asList(bill1, bill2);
+		List<BillPayments> payments = Arrays.asList(
+				TestPayment.withAmountBillAndUser(0.1, bill1, TEST_USER),
+				TestPayment.withAmountBillAndUser(0.2, bill1, TEST_USER),
+				TestPayment.withAmountBillAndUser(4.5, bill2, OTHER_USER)
+		);
+		List<Integer> notDeletedBills = Collections.singletonList(1);
+
+		// when:
+		BillTotals totals = BillTotals.calculate(bills, payments, bills, payments);
+
+		// then:
+		assertThat(totals.getBalancePeriod()).isEqualByComparingTo(new BalanceTotal(bills).getValue());
+		assertThat(totals.getTotalPeriod()).isEqualByComparingTo(new PaymentsTotal(notDeletedBills, payments).getValue());
+		assertThat(totals.getUserPeriod(TEST_USER)).isEqualByComparingTo(new UserTotal(notDeletedBills, payments, TEST_USER).getValue());
+	}
+}
@@ -0,0 +1,174 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.dicom.gui;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.isf.dicom.gui.DicomFrameCache.DicomFrame;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class DicomFrameCacheTest {
+
+	/*
+	 * room for two frames of 10x10 gray pixels
+	 */
+	private static final long MAX_BYTES = 250;
+
+	private static final Long[] IDS = { 0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L };
+
+	private final Queue<Runnable> tasks = new ArrayDeque<>();
+	private final List<Long> loads = new ArrayList<>();
+	private final Set<Long> withoutImage = new HashSet<>();
+	private DicomFrameCache cache;
+
+	@BeforeEach
+	public void setUp() {
+		cache = new DicomFrameCache(MAX_BYTES, (id, patID, serieNumber) -> {
+			loads.add(id);
+			BufferedImage image = withoutImage.contains(id) ? null : new BufferedImage(10, 10, BufferedImage.TYPE_BYTE_GRAY);
+			return new DicomFrame(null, image, null);
+		}, tasks::add);
+		cache.reset(1, "1");
+	}
+
+	@Test
+	public void shouldEvictTheLeastRecentlyUsedFramesBeyondTheBudget() {
+		// given:
+		cache.get(1L);
+		cache.get(2L);
+		runTasks();
+		cache.getIfCached(1L);
+
+		// when:
+		cache.get(3L);
+		runTasks();
+
+		// then:
+		assertThat(cache.getIfCached(1L)).isNotNull();
+		assertThat(cache.getIfCached(2L)).isNull();
+		assertThat(cache.getIfCached(3L)).isNotNull();
+	}
+
+	@Test
+	public void shouldNotLoadInTheCallerThread() {
+		// when:
+		CompletableFuture<DicomFrame> frame = cache.get(1L);
+
+		// then:
+		assertThat(frame).isNotDone();
+		assertThat(loads).isEmpty();
+		runTasks();
+		assertThat(frame).isDone();
+		assertThat(loads).containsExactly(1L);
+	}
+
+	@Test
+	public void shouldJoinTheRunningPrefetchOfAFrame() {
+		// given:
+		cache.prefetch(IDS, 0, 1);
+
+		// when:
+		CompletableFuture<DicomFrame> frame = cache.get(2L);
+		runTasks();
+
+		// then:
+		assertThat(frame.join().getImage()).isNotNull();
+		assertThat(loads).containsExactly(1L, 2L, 3L, 4L);
+	}
+
+	@Test
+	public void shouldNotPrefetchTheFramesAlreadyLoading() {
+		// given:
+		cache.prefetch(IDS, 0, 1);
+
+		// when:
+		cache.get(1L);
+		cache.prefetch(IDS, 1, 1);
+		runTasks();
+
+		// then:
+		assertThat(loads).containsExactly(1L, 2L, 3L, 4L, 5L);
+	}
+
+	@Test
+	public void shouldCancelThePrefetchesOutOfTheWindow() {
+		// given:
+		cache.prefetch(IDS, 0, 1);
+		cache.get(2L);
+
+		// when:
+		cache.prefetch(IDS, 5, 1);
+		runTasks();
+
+		// then:
+		assertThat(loads).containsExactly(2L, 6L, 7L, 8L, 9L);
+	}
+
+	@Test
+	public void shouldDropTheFramesOfThePreviousSeries() {
+		// given:
+		cache.get(1L);
+		runTasks();
+		CompletableFuture<DicomFrame> loading = cache.get(2L);
+
+		// when:
+		cache.reset(1, "2");
+		runTasks();
+
+		// then:
+		assertThat(loading.join()).isNotNull();
+		assertThat(cache.getIfCached(1L)).isNull();
+		assertThat(cache.getIfCached(2L)).isNull();
+	}
+
+	@Test
+	public void shouldNotCacheTheFramesWithoutImage() {
+		// given:
+		withoutImage.add(1L);
+		cache.get(1L);
+		runTasks();
+
+		// when:
+		cache.get(1L);
+		runTasks();
+
+		// then:
+		assertThat(cache.getIfCached(1L)).isNull();
+		assertThat(loads).containsExactly(1L, 1L);
+	}
+
+	private void runTasks() {
+		while (!tasks.isEmpty()) {
+			tasks.poll().run();
+		}
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.medicalstock.gui.totals;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import org.isf.medicals.model.Medical;
+import org.isf.medicalstock.model.Lot;
+import org.isf.medicalstock.model.Movement;
+import org.isf.medstockmovtype.model.MovementType;
+import org.isf.medtype.model.MedicalType;
+import org.isf.ward.model.Ward;
+import org.junit.jupiter.api.Test;
+
+public class MovementTotalsTest {
+
+	private static final MovementType CHARGE = new MovementType("charge", "charge", "+");
+	private static final MovementType DISCHARGE = new MovementType("discharge", "discharge", "-");
+
+	@Test
+	public void shouldComputeTotalsAndSubtotalsInOnePass() {
+		// given:
+		Medical aspirin = medical(1);
+		Medical quinine = medical(2);
+		Lot lot1 = lot("L1", "2.50");
+		Lot lot2 = lot("L2", "1.00");
+		Ward ward = new Ward();
+		ward.setCode("W");
+		List<Movement> movements = Arrays.asList(
+				movement(aspirin, CHARGE, null, lot1, 10),
+				movement(aspirin, DISCHARGE, ward, lot1, 4),
+				movement(quinine, CHARGE, null, lot2, 5));
+		MovementTotals totals = new MovementTotals(true);
+
+		// when:
+		totals.reset(movements);
+
+		// then:
+		assertThat(totals.getTotal().getQuantity()).isEqualTo(11);
+		assertThat(totals.getTotal().getAmount()).isEqualByComparingTo("20.00");
+		assertThat(totals.getTotal().getMovements()).isEqualTo(3);
+		assertThat(totals.getMedicalSubtotals().get(1).getQuantity()).isEqualTo(6);
+		assertThat(totals.getLotSubtotals().get("L1").getAmount()).isEqualByComparingTo("15.00");
+		assertThat(totals.getWardSubtotals().get("W").getQuantity()).isEqualTo(-4);
+		assertThat(totals.getWardSubtotals()).hasSize(1);
+	}
+
+	@Test
+	public void shouldUpdateIncrementally() {
+		// given:
+		Movement charge = movement(medical(1), CHARGE, null, lot("L1", "2.00"), 10);
+		Movement discharge = movement(medical(1), DISCHARGE, null, lot("L1", "2.00"), 3);
+		MovementTotals totals = new MovementTotals(true);
+		totals.reset(Arrays.asList(charge));
+
+		// when:
+		totals.add(discharge);
+		totals.remove(charge);
+
+		// then:
+		assertThat(totals.getTotal().getQuantity()).isEqualTo(-3);
+		assertThat(totals.getTotal().getAmount()).isEqualByComparingTo("-6.00");
+		assertThat(totals.getTotal().getMovements()).isEqualTo(1);
+	}
+
+	@Test
+	public void shouldIgnoreCostsWhenLotsHaveNoCost() {
+		// given:
+		MovementTotals totals = new MovementTotals(false);
+
+		// when:
+		totals.reset(Arrays.asList(movement(medical(1), CHARGE, null, lot("L1", "2.00"), 10)));
+
+		// then:
+		assertThat(totals.getTotal().getQuantity()).isEqualTo(10);
+		assertThat(totals.getTotal().getAmount()).isZero();
+	}
+
+	private static Medical medical(int code) {
+		return new Medical(code, new MedicalType("", ""), "", "", 0, 0, 0, 0, 0);
+	}
+
+	private static Lot lot(String code, String cost) {
+		Lot lot = new Lot(code, null, null);
+		lot.setCost(new BigDecimal(cost));
+		return lot;
+	}
+
+	private static Movement movement(Medical medical, MovementType type, Ward ward, Lot lot, int quantity) {
+		return new Movement(medical, type, ward, lot, LocalDateTime.now(), quantity, null, "");
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.medicalstock.gui.totals;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.isf.medicals.model.Medical;
+import org.isf.medicalstock.model.Lot;
+import org.isf.medtype.model.MedicalType;
+import org.junit.jupiter.api.Test;
+
+public class StockReservationsTest {
+
+	@Test
+	public void shouldReserveByMedicalAndByLot() {
+		// given:
+		Medical aspirin = medical(1, 100);
+		Lot lot1 = lot("L1", 60);
+		Lot lot2 = lot("L2", 40);
+		StockReservations reservations = new StockReservations(medical -> Arrays.asList(lot1, lot2));
+
+		// when:
+		reservations.reserve(aspirin, lot1, 20);
+		reservations.reserve(aspirin, lot2, 15);
+
+		// then:
+		assertThat(reservations.isReserved(aspirin)).isTrue();
+		assertThat(reservations.isReserved(medical(2, 10))).isFalse();
+		assertThat(reservations.getAvailable(aspirin)).isEqualTo(65);
+		assertThat(reservations.getAvailable(lot1)).isEqualTo(40);
+		assertThat(reservations.getAvailable(lot2)).isEqualTo(25);
+	}
+
+	@Test
+	public void shouldIgnoreAutomaticLots() {
+		// given:
+		Medical aspirin = medical(1, 100);
+		StockReservations reservations = new StockReservations(medical -> Arrays.asList());
+
+		// when:
+		reservations.reserve(aspirin, new Lot("", null, null), 30);
+
+		// then:
+		assertThat(reservations.getAvailable(aspirin)).isEqualTo(70);
+		assertThat(reservations.getReserved(new Lot("", null, null))).isZero();
+	}
+
+	@Test
+	public void shouldChangeAndReleaseLines() {
+		// given:
+		Medical aspirin = medical(1, 100);
+		Lot lot1 = lot("L1", 60);
+		StockReservations reservations = new StockReservations(medical -> Arrays.asList(lot1));
+		reservations.reserve(aspirin, lot1, 5);
+
+		// when:
+		reservations.change(aspirin, lot1, 5, 50);
+
+		// then:
+		assertThat(reservations.getAvailable(aspirin)).isEqualTo(50);
+		assertThat(reservations.getAvailable(lot1)).isEqualTo(10);
+
+		// when:
+		reservations.release(aspirin, lot1, 50);
+
+		// then:
+		assertThat(reservations.isReserved(aspirin)).isFalse();
+		assertThat(reservations.getAvailable(aspirin)).isEqualTo(100);
+		assertThat(reservations.getAvailable(lot1)).isEqualTo(60);
+	}
+
+	@Test
+	public void shouldLoadLotsOncePerMedicalAndHideReservedOnes() throws Exception {
+		// given:
+		Medical aspirin = medical(1, 100);
+		Lot lot1 = lot("L1", 60);
+		Lot lot2 = lot("L2", 40);
+		AtomicInteger loads = new AtomicInteger();
+		StockReservations reservations = new StockReservations(medical -> {
+			loads.incrementAndGet();
+			return Arrays.asList(lot1, lot2);
+		});
+
+		// when:
+		List<Lot> before = reservations.getAvailableLots(aspirin);
+		reservations.reserve(aspirin, lot2, 40);
+		List<Lot> after = reservations.getAvailableLots(aspirin);
+
+		// then:
+		assertThat(before).containsExactly(lot1, lot2);
+		assertThat(after).containsExactly(lot1);
+		assertThat(lot2.getMainStoreQuantity()).isEqualTo(40);
+		assertThat(loads.get()).isEqualTo(1);
+	}
+
+	private static Medical medical(int code, double quantity) {
+		return new Medical(code, new MedicalType("", ""), "", "", quantity, 0, 0, 0, 0);
+	}
+
+	private static Lot lot(String code, int quantity) {
+		Lot lot = new Lot(code, null, null);
+		lot.setMainStoreQuantity(quantity);
+		return lot;
+	}
+}
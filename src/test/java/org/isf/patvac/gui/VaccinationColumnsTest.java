@@ -0,0 +1,146 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.patvac.gui;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.isf.patient.model.Patient;
+import org.isf.patvac.model.PatientVaccine;
+import org.isf.vaccine.model.Vaccine;
+import org.isf.vactype.model.VaccineType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class VaccinationColumnsTest {
+
+	private static final LocalDate FROM = LocalDate.of(2023, 1, 1);
+	private static final LocalDate TO = LocalDate.of(2023, 1, 31);
+
+	private VaccinationColumns columns;
+
+	@BeforeEach
+	public void setUp() {
+		columns = new VaccinationColumns(Collections.emptyList());
+		// added out of order: kept most recent first
+		columns.add(null, LocalDateTime.of(2023, 1, 10, 9, 0), "C", "BCG", 'M', 0);
+		columns.add(null, LocalDateTime.of(2023, 1, 20, 9, 0), "C", "POLIO", 'F', 1);
+		columns.add(null, LocalDateTime.of(2023, 1, 5, 9, 0), "P", "TT", 'F', 25);
+		columns.add(null, LocalDateTime.of(2023, 1, 20, 8, 0), "C", "BCG", 'F', 0);
+	}
+
+	@Test
+	public void shouldMatchAllWithEmptyFilter() {
+		// when:
+		int[] indexes = filter(new VaccinationColumns.Filter(null, null, 'A', 0, 0, FROM, TO));
+
+		// then:
+		assertThat(indexes).containsExactly(0, 1, 2, 3);
+	}
+
+	@Test
+	public void shouldFilterByEveryColumn() {
+		// when:
+		int[] byType = filter(new VaccinationColumns.Filter("C", null, 'A', 0, 0, FROM, TO));
+		int[] byVaccine = filter(new VaccinationColumns.Filter("C", "BCG", 'A', 0, 0, FROM, TO));
+		int[] bySex = filter(new VaccinationColumns.Filter(null, null, 'F', 0, 0, FROM, TO));
+		int[] byAge = filter(new VaccinationColumns.Filter(null, null, 'A', 1, 30, FROM, TO));
+		int[] byDate = filter(new VaccinationColumns.Filter(null, null, 'A', 0, 0, LocalDate.of(2023, 1, 10), LocalDate.of(2023, 1, 10)));
+
+		// then: rows are 20/01 9:00 POLIO, 20/01 8:00 BCG, 10/01 BCG, 05/01 TT
+		assertThat(byType).containsExactly(0, 1, 2);
+		assertThat(byVaccine).containsExactly(1, 2);
+		assertThat(bySex).containsExactly(0, 1, 3);
+		assertThat(byAge).containsExactly(0, 3);
+		assertThat(byDate).containsExactly(2);
+	}
+
+	@Test
+	public void shouldSortTheLoadedVaccinationsAsIfAddedOneByOne() {
+		// given:
+		List<PatientVaccine> vaccinations = Arrays.asList(
+				vaccination(LocalDateTime.of(2023, 1, 10, 9, 0)),
+				vaccination(LocalDateTime.of(2023, 1, 20, 9, 0)),
+				vaccination(LocalDateTime.of(2023, 1, 10, 9, 0)),
+				vaccination(LocalDateTime.of(2023, 1, 5, 9, 0)),
+				vaccination(LocalDateTime.of(2023, 1, 10, 9, 0)));
+		VaccinationColumns added = new VaccinationColumns(Collections.emptyList());
+		for (PatientVaccine vaccination : vaccinations) {
+			added.add(vaccination);
+		}
+
+		// when:
+		VaccinationColumns loaded = new VaccinationColumns(vaccinations);
+
+		// then: most recent first, the last of the same time first
+		assertThat(loaded.size()).isEqualTo(5);
+		for (int i = 0; i < loaded.size(); i++) {
+			assertThat(loaded.get(i)).isSameAs(added.get(i));
+		}
+		assertThat(loaded.get(0)).isSameAs(vaccinations.get(1));
+		assertThat(loaded.get(1)).isSameAs(vaccinations.get(4));
+		assertThat(loaded.get(4)).isSameAs(vaccinations.get(3));
+		assertThat(loaded.indexOf(vaccinations.get(2))).isEqualTo(2);
+	}
+
+	@Test
+	public void shouldRemoveRows() {
+		// when:
+		columns.remove(0);
+
+		// then:
+		assertThat(columns.size()).isEqualTo(3);
+		assertThat(filter(new VaccinationColumns.Filter(null, "POLIO", 'A', 0, 0, FROM, TO))).isEmpty();
+		assertThat(filter(new VaccinationColumns.Filter(null, "BCG", 'A', 0, 0, FROM, TO))).containsExactly(0, 1);
+	}
+
+	@Test
+	public void shouldGrowAndWriteFromOffset() {
+		// given:
+		for (int day = 1; day <= 20; day++) {
+			columns.add(null, LocalDateTime.of(2023, 1, day, 12, 0), "X", "X", 'M', 0);
+		}
+		int[] indexes = new int[columns.size() + 2];
+
+		// when:
+		int count = columns.filter(new VaccinationColumns.Filter("P", null, 'A', 0, 0, FROM, TO), indexes, 2);
+
+		// then:
+		assertThat(columns.size()).isEqualTo(24);
+		assertThat(count).isEqualTo(1);
+		assertThat(indexes[2]).isEqualTo(19);
+	}
+
+	private static PatientVaccine vaccination(LocalDateTime date) {
+		return new PatientVaccine(0, 0, date, new Patient(), new Vaccine("BCG", "BCG", new VaccineType("C", "Children")), 0);
+	}
+
+	private int[] filter(VaccinationColumns.Filter filter) {
+		int[] indexes = new int[columns.size()];
+		return Arrays.copyOf(indexes, columns.filter(filter, indexes, 0));
+	}
+}
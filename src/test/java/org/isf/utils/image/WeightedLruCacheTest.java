@@ -0,0 +1,110 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.utils.image;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+public class WeightedLruCacheTest {
+
+	private final WeightedLruCache<String, String> cache = new WeightedLruCache<>(10, String::length);
+
+	@Test
+	public void shouldEvictTheLeastRecentlyUsedEntries() {
+		// given:
+		cache.put("a", "aaaa");
+		cache.put("b", "bbbb");
+		cache.get("a");
+
+		// when:
+		cache.put("c", "cccc");
+
+		// then:
+		assertThat(cache.containsKey("a")).isTrue();
+		assertThat(cache.containsKey("b")).isFalse();
+		assertThat(cache.containsKey("c")).isTrue();
+	}
+
+	@Test
+	public void shouldKeepTheWeightWithinTheBound() {
+		// given:
+		cache.put("a", "aaa");
+		cache.put("b", "bbb");
+		cache.put("c", "ccc");
+
+		// when:
+		cache.put("a", "aaaaaa");
+
+		// then:
+		assertThat(cache.getWeight()).isEqualTo(9);
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.get("a")).isEqualTo("aaaaaa");
+		assertThat(cache.get("c")).isEqualTo("ccc");
+	}
+
+	@Test
+	public void shouldKeepAnOversizedEntryAlone() {
+		// given:
+		cache.put("a", "aaa");
+		cache.put("b", "bbb");
+
+		// when:
+		cache.put("big", "bigbigbigbig");
+
+		// then:
+		assertThat(cache.size()).isEqualTo(1);
+		assertThat(cache.get("big")).isEqualTo("bigbigbigbig");
+		assertThat(cache.getWeight()).isEqualTo(12);
+	}
+
+	@Test
+	public void shouldEvictAnOversizedEntryOnTheNextPut() {
+		// given:
+		cache.put("big", "bigbigbigbig");
+
+		// when:
+		cache.put("a", "aaa");
+
+		// then:
+		assertThat(cache.containsKey("big")).isFalse();
+		assertThat(cache.get("a")).isEqualTo("aaa");
+		assertThat(cache.getWeight()).isEqualTo(3);
+	}
+
+	@Test
+	public void shouldReleaseTheWeightOfRemovedEntries() {
+		// given:
+		cache.put("a", "aaa");
+		cache.put("b", "bbbb");
+
+		// when:
+		String removed = cache.remove("a");
+
+		// then:
+		assertThat(removed).isEqualTo("aaa");
+		assertThat(cache.getWeight()).isEqualTo(4);
+		cache.clear();
+		assertThat(cache.size()).isZero();
+		assertThat(cache.getWeight()).isZero();
+	}
+}
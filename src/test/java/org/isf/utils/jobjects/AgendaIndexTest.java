@@ -0,0 +1,66 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.utils.jobjects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class AgendaIndexTest {
+
+	@Test
+	public void shouldGroupElementsByMonthAndDay() {
+		// given:
+		AgendaIndex index = new AgendaIndex();
+
+		// when:
+		index.add(LocalDate.of(2021, 3, 14), "therapy");
+		index.add(LocalDate.of(2021, 3, 2), "visit");
+		index.add(LocalDate.of(2021, 3, 14), "other therapy");
+		index.add(LocalDate.of(2021, 4, 14), "next month");
+
+		// then:
+		Map<Integer, List<Object>> march = index.getMonth(YearMonth.of(2021, 3));
+		assertThat(march.keySet()).containsExactly(2, 14);
+		assertThat(march.get(14)).containsExactly("therapy", "other therapy");
+		assertThat(index.getMonth(YearMonth.of(2021, 4)).get(14)).containsExactly("next month");
+	}
+
+	@Test
+	public void shouldReturnAnEmptyMonthWhenNothingIsScheduled() {
+		// given:
+		AgendaIndex index = new AgendaIndex();
+		index.add(LocalDate.of(2021, 3, 14), "therapy");
+
+		// when:
+		index.clear();
+
+		// then:
+		assertThat(index.getMonth(YearMonth.of(2021, 3))).isEmpty();
+		assertThat(index.getMonth(YearMonth.of(2022, 3))).isEmpty();
+	}
+}
@@ -0,0 +1,129 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.utils.jobjects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.JButton;
+import javax.swing.JComponent;
+import javax.swing.JTable;
+import javax.swing.KeyStroke;
+import javax.swing.SwingUtilities;
+import javax.swing.table.DefaultTableModel;
+
+import org.junit.jupiter.api.Test;
+
+public class ButtonColumnTest {
+
+	private final List<Integer> pressed = new ArrayList<>();
+
+	@Test
+	public void shouldRunTheActionForTheModelRow() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {
+			// given:
+			JTable table = new JTable(new ReadOnlyModel());
+			new ButtonColumn(table, 1, "Go", pressed::add);
+
+			// when:
+			table.editCellAt(1, 1);
+			((JButton) table.getEditorComponent()).doClick();
+
+			// then:
+			assertThat(pressed).containsExactly(1);
+			assertThat(table.isEditing()).isFalse();
+		});
+	}
+
+	@Test
+	public void shouldSurviveANewModel() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {
+			// given:
+			JTable table = new JTable(new ReadOnlyModel());
+			ButtonColumn buttonColumn = new ButtonColumn(table, 1, "Go", pressed::add);
+
+			// when:
+			table.setModel(new ReadOnlyModel());
+
+			// then:
+			assertThat(table.getColumnModel().getColumn(1).getCellRenderer()).isSameAs(buttonColumn);
+			assertThat(table.getColumnModel().getColumn(1).getCellEditor()).isSameAs(buttonColumn);
+		});
+	}
+
+	@Test
+	public void shouldNotWriteToTheModelWhenEditingStops() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {
+			// given:
+			JTable table = new JTable(new ReadOnlyModel());
+			new ButtonColumn(table, 1, "Go", pressed::add);
+			table.editCellAt(0, 1);
+
+			// when:
+			table.getCellEditor().stopCellEditing();
+
+			// then:
+			assertThat(table.isEditing()).isFalse();
+			assertThat(pressed).isEmpty();
+		});
+	}
+
+	@Test
+	public void shouldPressTheButtonOfTheSelectedRowWithTheMnemonic() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {
+			// given:
+			JTable table = new JTable(new ReadOnlyModel());
+			ButtonColumn buttonColumn = new ButtonColumn(table, 1, "Go", pressed::add);
+			buttonColumn.setMnemonic(KeyEvent.VK_G);
+			table.setRowSelectionInterval(1, 1);
+			KeyStroke mnemonic = KeyStroke.getKeyStroke(KeyEvent.VK_G, InputEvent.ALT_DOWN_MASK);
+
+			// when:
+			Object actionKey = table.getInputMap(JComponent.WHEN_ANCESTOR_OF_FOCUSED_COMPONENT).get(mnemonic);
+			table.getActionMap().get(actionKey).actionPerformed(new ActionEvent(table, ActionEvent.ACTION_PERFORMED, null));
+
+			// then:
+			assertThat(pressed).containsExactly(1);
+			assertThat(((JButton) buttonColumn.getTableCellRendererComponent(table, "go", false, false, 0, 1)).getMnemonic()).isEqualTo(KeyEvent.VK_G);
+		});
+	}
+
+	private static class ReadOnlyModel extends DefaultTableModel {
+
+		private static final long serialVersionUID = 1L;
+
+		ReadOnlyModel() {
+			super(new Object[][] { { "a", "go" }, { "b", "go" } }, new Object[] { "name", "" });
+		}
+
+		@Override
+		public void setValueAt(Object aValue, int row, int column) {
+			throw new IllegalStateException("the button column must not write to the model");
+		}
+	}
+
+}
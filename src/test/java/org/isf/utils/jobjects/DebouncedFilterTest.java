@@ -0,0 +1,109 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.utils.jobjects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.jupiter.api.Test;
+
+public class DebouncedFilterTest {
+
+	private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+	private final List<String> prepared = new CopyOnWriteArrayList<>();
+	private final List<String> results = new CopyOnWriteArrayList<>();
+
+	@Test
+	public void shouldFilterOnlyTheLastKeyTyped() throws Exception {
+		// given:
+		CountDownLatch preparing = new CountDownLatch(1);
+		DebouncedFilter<String> filter = new DebouncedFilter<>(50, key -> {
+			prepared.add(key);
+			preparing.countDown();
+			return key::toUpperCase;
+		}, results::add, tasks::add);
+
+		// when:
+		SwingUtilities.invokeAndWait(() -> {
+			filter.schedule("m");
+			filter.schedule("ma");
+			filter.schedule("mar");
+		});
+		assertThat(preparing.await(5, TimeUnit.SECONDS)).isTrue();
+		runTasks();
+
+		// then:
+		assertThat(prepared).containsExactly("mar");
+		assertThat(results).containsExactly("MAR");
+	}
+
+	@Test
+	public void shouldDiscardStaleResults() throws Exception {
+		// given:
+		DebouncedFilter<String> filter = new DebouncedFilter<>(50, key -> () -> key, results::add, tasks::add);
+
+		// when:
+		SwingUtilities.invokeAndWait(() -> {
+			filter.filterNow("ma");
+			filter.filterNow("mar");
+		});
+		runTasks();
+
+		// then:
+		assertThat(results).containsExactly("mar");
+	}
+
+	@Test
+	public void shouldDiscardCancelledFiltering() throws Exception {
+		// given:
+		DebouncedFilter<String> filter = new DebouncedFilter<>(50, key -> () -> key, results::add, tasks::add);
+
+		// when:
+		SwingUtilities.invokeAndWait(() -> {
+			filter.filterNow("mario");
+			filter.cancel();
+		});
+		runTasks();
+
+		// then:
+		assertThat(results).isEmpty();
+	}
+
+	/**
+	 * Runs the background work on the EDT, so that each result is handed over before this method returns.
+	 */
+	private void runTasks() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {
+			while (!tasks.isEmpty()) {
+				tasks.poll().run();
+			}
+		});
+	}
+}
@@ -0,0 +1,159 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.utils.jobjects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs the timers on a manual clock: the scheduled checks run when the clock is advanced past their time.
+ */
+public class DelayTimerTest {
+
+	private final AtomicInteger triggers = new AtomicInteger();
+	private final List<Check> checks = new ArrayList<>();
+	private long now;
+
+	@Test
+	public void shouldTriggerOnceAfterTheDelay() {
+		// given:
+		DelayTimer timer = newTimer(20);
+
+		// when:
+		timer.startTimer();
+		advance(19);
+
+		// then:
+		assertThat(triggers.get()).isZero();
+		advance(1);
+		assertThat(triggers.get()).isEqualTo(1);
+		advance(100);
+		assertThat(triggers.get()).isEqualTo(1);
+		assertThat(checks).isEmpty();
+	}
+
+	@Test
+	public void shouldNotTriggerWhenStoppedInTime() {
+		// given:
+		DelayTimer timer = newTimer(200);
+
+		// when:
+		for (int i = 0; i < 1000; i++) {
+			timer.startTimer();
+			timer.stopTimer();
+		}
+
+		// then:
+		assertThat(checks).hasSize(1);
+		advance(400);
+		assertThat(triggers.get()).isZero();
+		assertThat(checks).isEmpty();
+	}
+
+	@Test
+	public void shouldPostponeTheTriggerWhenRestarted() {
+		// given:
+		DelayTimer timer = newTimer(100);
+
+		// when:
+		timer.startTimer();
+		advance(60);
+		timer.startTimer();
+		advance(99);
+
+		// then:
+		assertThat(triggers.get()).isZero();
+		advance(1);
+		assertThat(triggers.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void shouldTriggerAgainWhenRestartedAfterTheTrigger() {
+		// given:
+		DelayTimer timer = newTimer(20);
+		timer.startTimer();
+		advance(20);
+
+		// when:
+		timer.startTimer();
+		advance(20);
+
+		// then:
+		assertThat(triggers.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void shouldNotTriggerAfterQuit() {
+		// given:
+		DelayTimer timer = newTimer(20);
+
+		// when:
+		timer.startTimer();
+		timer.quit();
+		advance(100);
+		timer.startTimer();
+		advance(100);
+
+		// then:
+		assertThat(triggers.get()).isZero();
+	}
+
+	private DelayTimer newTimer(long delay) {
+		return new DelayTimer(triggers::incrementAndGet, delay, () -> now, (task, wait) -> checks.add(new Check(now + wait, task)));
+	}
+
+	/*
+	 * Moves the clock forward, running the checks due in order of time
+	 */
+	private void advance(long millis) {
+		long until = now + TimeUnit.MILLISECONDS.toNanos(millis);
+		while (true) {
+			Check next = checks.stream().min(Comparator.comparingLong(check -> check.due)).orElse(null);
+			if (next == null || next.due > until) {
+				break;
+			}
+			checks.remove(next);
+			now = Math.max(now, next.due);
+			next.task.run();
+		}
+		now = until;
+	}
+
+	private static final class Check {
+
+		private final long due;
+		private final Runnable task;
+
+		Check(long due, Runnable task) {
+			this.due = due;
+			this.task = task;
+		}
+	}
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.utils.jobjects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.event.ActionEvent;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class EdtLatencyMonitorTest {
+
+	@Test
+	public void shouldPutDispatchTimesInPowerOfTwoBuckets() {
+		assertThat(EdtLatencyMonitor.getBucket(TimeUnit.MICROSECONDS.toNanos(300))).isZero();
+		assertThat(EdtLatencyMonitor.getBucket(TimeUnit.MILLISECONDS.toNanos(1))).isEqualTo(1);
+		assertThat(EdtLatencyMonitor.getBucket(TimeUnit.MILLISECONDS.toNanos(3))).isEqualTo(2);
+		assertThat(EdtLatencyMonitor.getBucket(TimeUnit.MILLISECONDS.toNanos(1023))).isEqualTo(10);
+		assertThat(EdtLatencyMonitor.getBucket(TimeUnit.SECONDS.toNanos(30))).isEqualTo(EdtLatencyMonitor.BUCKETS - 1);
+	}
+
+	@Test
+	public void shouldSummarizeEachSource() {
+		// given:
+		EdtLatencyMonitor monitor = new EdtLatencyMonitor(true, 500, 0);
+
+		// when:
+		for (int i = 0; i < 19; i++) {
+			monitor.record("BillBrowser", TimeUnit.MILLISECONDS.toNanos(2));
+		}
+		monitor.record("BillBrowser", TimeUnit.MILLISECONDS.toNanos(700));
+		monitor.record("MovStockBrowser", TimeUnit.MILLISECONDS.toNanos(1));
+
+		// then:
+		List<EdtLatencyMonitor.Stats> stats = monitor.getStats();
+		assertThat(stats).extracting(EdtLatencyMonitor.Stats::getKey).containsExactly("BillBrowser", "MovStockBrowser");
+		EdtLatencyMonitor.Stats billBrowser = stats.get(0);
+		assertThat(billBrowser.getCount()).isEqualTo(20);
+		assertThat(billBrowser.getTotalMillis()).isEqualTo(738);
+		assertThat(billBrowser.getMaxMillis()).isEqualTo(700);
+		assertThat(billBrowser.getPercentileMillis(0.95)).isEqualTo(4);
+		assertThat(billBrowser.getPercentileMillis(1)).isEqualTo(700);
+	}
+
+	@Test
+	public void shouldNotRecordDispatchRunningASecondaryLoop() {
+		// given:
+		EdtLatencyMonitor monitor = new EdtLatencyMonitor(true, 500, 0);
+		ActionEvent outer = new ActionEvent(new Object(), ActionEvent.ACTION_PERFORMED, "outer");
+		ActionEvent inner = new ActionEvent("modal", ActionEvent.ACTION_PERFORMED, "inner");
+
+		// when:
+		monitor.dispatchStarted();
+		monitor.dispatchStarted();
+		monitor.dispatchEnded(inner);
+		monitor.dispatchEnded(outer);
+
+		// then:
+		assertThat(monitor.getStats()).extracting(EdtLatencyMonitor.Stats::getKey).containsExactly("String");
+	}
+
+	@Test
+	public void shouldRecordNothingWhenDisabled() {
+		// given:
+		EdtLatencyMonitor monitor = new EdtLatencyMonitor(false, 500, 0);
+
+		// when:
+		monitor.dispatchStarted();
+		monitor.dispatchEnded(new ActionEvent(new Object(), ActionEvent.ACTION_PERFORMED, "event"));
+
+		// then:
+		assertThat(monitor.getStats()).isEmpty();
+	}
+
+}
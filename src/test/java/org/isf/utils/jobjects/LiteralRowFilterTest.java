@@ -0,0 +1,177 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.utils.jobjects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableRowSorter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class LiteralRowFilterTest {
+
+	private DefaultTableModel model;
+	private TableRowSorter<DefaultTableModel> sorter;
+	private LiteralRowFilter<DefaultTableModel> filter;
+
+	@BeforeEach
+	public void setUp() {
+		model = new DefaultTableModel(new Object[][] {
+				{ "01.01", "HAEMATOLOGY", "Haemoglobin" },
+				{ "02.01", "BIOCHEMISTRY", "Glucose (blood)" },
+				{ "03.05", "MICROBIOLOGY", "Malaria *thick* film" },
+				{ "04.01", "URINE", "Protéine" }
+		}, new Object[] { "Code", "Type", "Description" });
+		sorter = new TableRowSorter<>(model);
+		filter = new LiteralRowFilter<>();
+		sorter.setRowFilter(filter);
+	}
+
+	@Test
+	public void shouldShowAllRowsForEmptyText() {
+		// when:
+		boolean changed = filter.setText("  ");
+
+		// then:
+		assertThat(changed).isFalse();
+		assertThat(filter.isEmpty()).isTrue();
+		assertThat(visibleCodes()).containsExactly("01.01", "02.01", "03.05", "04.01");
+	}
+
+	@Test
+	public void shouldMatchEveryWordInAnyColumn() {
+		// when:
+		filter("bio gluc");
+
+		// then:
+		assertThat(visibleCodes()).containsExactly("02.01");
+
+		// when:
+		filter("bio haem");
+
+		// then:
+		assertThat(visibleCodes()).isEmpty();
+	}
+
+	@Test
+	public void shouldMatchRegexMetacharactersLiterally() {
+		// when:
+		filter("*thick* (");
+
+		// then:
+		assertThat(visibleCodes()).isEmpty();
+
+		// when:
+		filter("*thick*");
+
+		// then:
+		assertThat(visibleCodes()).containsExactly("03.05");
+
+		// when:
+		filter("01.");
+
+		// then:
+		assertThat(visibleCodes()).containsExactly("01.01");
+	}
+
+	@Test
+	public void shouldIgnoreCaseAndAccents() {
+		// when:
+		filter("PROTEINE");
+
+		// then:
+		assertThat(visibleCodes()).containsExactly("04.01");
+
+		// when:
+		filter("Glucose (BLOOD)");
+
+		// then:
+		assertThat(visibleCodes()).containsExactly("02.01");
+	}
+
+	@Test
+	public void shouldNotChangeForSameWords() {
+		// given:
+		filter("malaria  film");
+
+		// when:
+		boolean changed = filter.setText(" MALARIA film ");
+
+		// then:
+		assertThat(changed).isFalse();
+	}
+
+	@Test
+	public void shouldFollowModelChanges() {
+		// given:
+		filter("glucose");
+
+		// when:
+		model.setValueAt("Glycaemia", 1, 2);
+		model.addRow(new Object[] { "02.02", "BIOCHEMISTRY", "Glucose (urine)" });
+		sorter.sort();
+
+		// then:
+		assertThat(visibleCodes()).containsExactly("02.02");
+
+		// when:
+		model.removeRow(0);
+		sorter.sort();
+
+		// then:
+		assertThat(visibleCodes()).containsExactly("02.02");
+	}
+
+	@Test
+	public void shouldFollowNewModel() {
+		// given:
+		filter("urine");
+		DefaultTableModel other = new DefaultTableModel(new Object[][] {
+				{ "05.01", "URINE", "Sediment" }
+		}, new Object[] { "Code", "Type", "Description" });
+
+		// when:
+		sorter.setModel(other);
+
+		// then:
+		assertThat(visibleCodes()).containsExactly("05.01");
+	}
+
+	private void filter(String text) {
+		if (filter.setText(text)) {
+			sorter.sort();
+		}
+	}
+
+	private List<String> visibleCodes() {
+		List<String> codes = new ArrayList<>();
+		for (int row = 0; row < sorter.getViewRowCount(); row++) {
+			codes.add((String) sorter.getModel().getValueAt(sorter.convertRowIndexToModel(row), 0));
+		}
+		return codes;
+	}
+}
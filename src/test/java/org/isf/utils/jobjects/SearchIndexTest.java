@@ -0,0 +1,118 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.utils.jobjects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SearchIndexTest {
+
+	private SearchIndex<String, String> index;
+
+	@BeforeEach
+	public void setUp() {
+		index = new SearchIndex<>(Function.identity(), Function.identity());
+		index.reset(Arrays.asList("Mario Rossi", "Maria Bianchi", "José Núñez", "Anna Verdi"));
+	}
+
+	@Test
+	public void shouldFindAllByEmptyQuery() {
+		assertThat(index.search("")).containsExactly("Mario Rossi", "Maria Bianchi", "José Núñez", "Anna Verdi");
+		assertThat(index.search(null)).hasSize(4);
+	}
+
+	@Test
+	public void shouldMatchEveryToken() {
+		assertThat(index.search("mari")).containsExactly("Mario Rossi", "Maria Bianchi");
+		assertThat(index.search("mari ross")).containsExactly("Mario Rossi");
+		assertThat(index.search("ross mari")).containsExactly("Mario Rossi");
+		assertThat(index.search("mari verdi")).isEmpty();
+	}
+
+	@Test
+	public void shouldMatchShortTokens() {
+		assertThat(index.search("an")).containsExactly("Maria Bianchi", "Anna Verdi");
+		assertThat(index.search("z")).containsExactly("José Núñez");
+	}
+
+	@Test
+	public void shouldMatchAnyToken() {
+		assertThat(index.searchAny("rossi verdi")).containsExactly("Mario Rossi", "Anna Verdi");
+		assertThat(index.searchAny("xyz bianchi")).containsExactly("Maria Bianchi");
+		assertThat(index.searchAny("z verdi")).containsExactly("José Núñez", "Anna Verdi");
+		assertThat(index.searchAny(" ")).hasSize(4);
+	}
+
+	@Test
+	public void shouldIgnoreAccentsAndCase() {
+		assertThat(index.search("JOSE nunez")).containsExactly("José Núñez");
+		assertThat(index.search("núñ")).containsExactly("José Núñez");
+	}
+
+	@Test
+	public void shouldNarrowPreviousResult() {
+		SearchIndex.Result<String> result = index.search("m", null);
+		assertThat(result.size()).isEqualTo(2);
+		result = index.search("mar", result);
+		assertThat(result.getValues()).containsExactly("Mario Rossi", "Maria Bianchi");
+		result = index.search("maria", result);
+		assertThat(result.getValues()).containsExactly("Maria Bianchi");
+		result = index.search("m", result);
+		assertThat(result.getValues()).containsExactly("Mario Rossi", "Maria Bianchi");
+	}
+
+	@Test
+	public void shouldNotNarrowStaleResult() {
+		SearchIndex.Result<String> result = index.search("mari", null);
+		index.add("Marianna Neri");
+		result = index.search("marian", result);
+		assertThat(result.getValues()).containsExactly("Marianna Neri");
+	}
+
+	@Test
+	public void shouldKeepInsertionOrder() {
+		index.addFirst("Anna Mari");
+		index.add("Marco Mari");
+		assertThat(index.search("mari")).containsExactly("Anna Mari", "Mario Rossi", "Maria Bianchi", "Marco Mari");
+	}
+
+	@Test
+	public void shouldUpdateAndRemove() {
+		SearchIndex<Integer, String[]> patients = new SearchIndex<>(patient -> Integer.valueOf(patient[0]), patient -> patient[1]);
+		patients.reset(Arrays.asList(new String[] { "1", "Mario Rossi" }, new String[] { "2", "Anna Verdi" }));
+
+		patients.update(new String[] { "1", "Mario Neri" });
+		assertThat(patients.search("rossi")).isEmpty();
+		assertThat(patients.search("neri")).extracting(patient -> patient[0]).containsExactly("1");
+		assertThat(patients.search("")).extracting(patient -> patient[0]).containsExactly("1", "2");
+
+		assertThat(patients.remove(1)[1]).isEqualTo("Mario Neri");
+		assertThat(patients.search("neri")).isEmpty();
+		assertThat(patients.remove(1)).isNull();
+		assertThat(patients.size()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,202 @@
+/*
+ * Open Hospital (www.open-hospital.org)
+ * Copyright © 2006-2022 Informatici Senza Frontiere (info@informaticisenzafrontiere.org)
+ *
+ * Open Hospital is a free and open source software for healthcare data management.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * https://www.gnu.org/licenses/gpl-3.0-standalone.html
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.isf.utils.jobjects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class WindowedTableModelTest {
+
+	private static final int MAX_ROWS = 8;
+
+	private final Queue<Runnable> tasks = new ArrayDeque<>();
+	private final List<Integer> queries = new ArrayList<>();
+	private int[] windowSizes;
+	private WindowedTableModel<String> model;
+
+	@BeforeEach
+	public void setUp() {
+		model = new WindowedTableModel<String>(MAX_ROWS, tasks::add, tasks::add) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected List<String> query(int window) {
+				queries.add(window);
+				List<String> rows = new ArrayList<>();
+				for (int i = 0; i < windowSizes[window]; i++) {
+					rows.add(window + "." + i);
+				}
+				return rows;
+			}
+
+			@Override
+			protected Object[] getCells(String row) {
+				return new Object[] { row };
+			}
+
+			@Override
+			public int getColumnCount() {
+				return 1;
+			}
+		};
+	}
+
+	@Test
+	public void shouldEstimateTheWindowsFromTheFirstOne() {
+		// given:
+		windowSizes = new int[] { 3, 1, 5 };
+
+		// when:
+		model.reset(3);
+		runTasks();
+
+		// then:
+		assertThat(queries).containsExactly(0);
+		assertThat(model.getRowCount()).isEqualTo(9);
+		assertThat(model.isCountExact()).isFalse();
+		assertThat(model.getValueAt(2, 0)).isEqualTo("0.2");
+
+		// when:
+		paint(3, 8);
+
+		// then:
+		assertThat(queries).containsExactly(0, 1, 2);
+		assertThat(model.getRowCount()).isEqualTo(9);
+		assertThat(model.isCountExact()).isTrue();
+		assertThat(model.getValueAt(3, -1)).isEqualTo("1.0");
+		assertThat(model.getValueAt(8, 0)).isEqualTo("2.4");
+	}
+
+	@Test
+	public void shouldRequestTheMissingWindowsOncePerPaint() {
+		// given:
+		windowSizes = new int[] { 2, 2, 2 };
+		model.reset(3);
+		runTasks();
+
+		// when:
+		for (int i = 0; i < 3; i++) {
+			for (int row = 0; row < model.getRowCount(); row++) {
+				model.getValueAt(row, 0);
+			}
+		}
+		runTasks();
+
+		// then:
+		assertThat(queries).containsExactly(0, 1, 2);
+	}
+
+	@Test
+	public void shouldKeepTheVisibleWindowsOfASparseResult() {
+		// given: more visible windows than rows kept in memory, one row each
+		windowSizes = new int[60];
+		Arrays.fill(windowSizes, 1);
+		model.reset(60);
+		runTasks();
+
+		// when:
+		paint(0, 19);
+		paint(0, 19);
+		paint(0, 19);
+
+		// then: each visible window queried once
+		assertThat(queries).hasSize(20).doesNotHaveDuplicates();
+		for (int row = 0; row < 20; row++) {
+			assertThat(model.getValueAt(row, 0)).isEqualTo(row + ".0");
+		}
+
+		// when:
+		paint(20, 39);
+		paint(20, 39);
+
+		// then: the windows scrolled away are evicted down to the limit, the visible ones are kept
+		assertThat(queries).hasSize(40).doesNotHaveDuplicates();
+		for (int row = 20; row < 40; row++) {
+			assertThat(model.getValueAt(row, 0)).isEqualTo(row + ".0");
+		}
+		assertThat(model.getValueAt(0, 0)).isNull();
+	}
+
+	@Test
+	public void shouldEvictTheLeastRecentlyUsedWindowsBeyondTheLimit() {
+		// given:
+		windowSizes = new int[] { 4, 4, 4, 4 };
+		model.reset(4);
+		runTasks();
+
+		// when:
+		paint(4, 7);
+		paint(8, 11);
+		paint(12, 15);
+
+		// then: only the last two windows fit
+		assertThat(model.getValueAt(0, 0)).isNull();
+		assertThat(model.getValueAt(4, 0)).isNull();
+		assertThat(model.getValueAt(8, 0)).isEqualTo("2.0");
+		assertThat(model.getValueAt(12, 0)).isEqualTo("3.0");
+	}
+
+	@Test
+	public void shouldUpdateTheRowsOfTheLoadedWindows() {
+		// given:
+		windowSizes = new int[] { 2, 2 };
+		model.reset(2);
+		runTasks();
+		paint(0, 3);
+
+		// when:
+		model.insertFirst("new");
+		model.setRow(3, "changed");
+		model.removeRow(1);
+
+		// then:
+		assertThat(model.getRowCount()).isEqualTo(4);
+		assertThat(model.getValueAt(0, 0)).isEqualTo("new");
+		assertThat(model.getValueAt(1, 0)).isEqualTo("0.1");
+		assertThat(model.getValueAt(2, -1)).isEqualTo("changed");
+		assertThat(model.getValueAt(3, 0)).isEqualTo("1.1");
+	}
+
+	private void paint(int first, int last) {
+		model.setVisibleRows(first, last);
+		for (int row = first; row <= last; row++) {
+			model.getValueAt(row, 0);
+		}
+		runTasks();
+	}
+
+	private void runTasks() {
+		while (!tasks.isEmpty()) {
+			tasks.poll().run();
+		}
+	}
+
+}